@@ -14,6 +14,8 @@
  */
 package org.pcre4j.api;
 
+import java.nio.ByteBuffer;
+
 /**
  * Interface for native memory access operations.
  * <p>
@@ -31,4 +33,30 @@ public interface INativeMemoryAccess {
      * @return the bytes read from the pointer
      */
     byte[] readBytes(long pointer, int length);
+
+    /**
+     * Get a view of native memory as a direct byte buffer, without copying it.
+     * <p>
+     * The buffer reads and writes the native memory in place, so it must not be used once that memory is freed.
+     *
+     * @param pointer the native memory pointer
+     * @param length  the number of bytes to view
+     * @return the byte buffer viewing the memory, in big-endian byte order as for any new byte buffer
+     */
+    ByteBuffer byteBufferView(long pointer, int length);
+
+    /**
+     * Allocate native memory with the system {@code malloc}.
+     *
+     * @param size the number of bytes to allocate
+     * @return the address of the memory, or {@code 0} if the memory cannot be allocated
+     */
+    long allocate(long size);
+
+    /**
+     * Free native memory previously allocated with {@link #allocate(long)}.
+     *
+     * @param pointer the address of the memory, or {@code 0} to do nothing
+     */
+    void free(long pointer);
 }
@@ -364,6 +364,20 @@ public interface IPcre2 {
      */
     static final int DISABLE_RECURSELOOP_CHECK = 0x00040000;
 
+    // Flag bits for matchAll()
+
+    /**
+     * After an empty match, retry at the same offset with {@link #NOTEMPTY_ATSTART} and {@link #ANCHORED} before
+     * advancing, as Perl's {@code /g} does, instead of just advancing by one character as
+     * {@link java.util.regex.Matcher#find()} does
+     */
+    static final int MATCH_ALL_RETRY_EMPTY = 0x00000001;
+
+    /**
+     * The start offset is the end of an empty match, so the search resumes the way it would after that match
+     */
+    static final int MATCH_ALL_AFTER_EMPTY = 0x00000002;
+
     // Option bits for pcre2_pattern_convert()
 
     /**
@@ -1574,7 +1588,8 @@ public interface IPcre2 {
      * {@link #CONFIG_VERSION} PCRE2 version
      *
      * @param what  the information to query
-     * @param where a buffer to store the information
+     * @param where a buffer to store the information, as a zero-terminated string of code units of the width of
+     *              this API; {@link #config(int)} gives the number of code units it takes
      * @return Non-negative value on success, otherwise a negative error code.
      */
     int config(int what, ByteBuffer where);
@@ -1589,6 +1604,18 @@ public interface IPcre2 {
      */
     long generalContextCreate(long privateMalloc, long privateFree, long memoryData);
 
+    /**
+     * Create a new general context whose memory management functions call a Java allocator.
+     * <p>
+     * The allocator serves the general context itself and everything created from it or from contexts and patterns
+     * derived from it. It is kept reachable until the last of that memory is freed.
+     *
+     * @param allocator the allocator
+     * @return the general context handle, or {@code 0} if the allocator fails to allocate the context
+     * @throws IllegalArgumentException if allocator is null
+     */
+    long generalContextCreate(Pcre2MemoryAllocator allocator);
+
     /**
      * Create a copy of a general context.
      *
@@ -1732,9 +1759,10 @@ public interface IPcre2 {
      * Get the error message for the given error code.
      *
      * @param errorcode the error code
-     * @param buffer    the buffer to store the error message
-     * @return the length of the error message or {@link #ERROR_NOMEMORY} if the buffer is too small and if
-     * {@code errorcode} is not a valid error code, {@link #ERROR_BADDATA} is returned
+     * @param buffer    the buffer to store the error message, as a zero-terminated string of code units of the width
+     *                  of this API; its capacity in bytes is divided by {@link #codeUnitSize()} to get its length
+     * @return the length of the error message in code units or {@link #ERROR_NOMEMORY} if the buffer is too small and
+     * if {@code errorcode} is not a valid error code, {@link #ERROR_BADDATA} is returned
      * @see <a href="https://www.pcre.org/current/doc/html/pcre2_get_error_message.html">pcre2_get_error_message</a>
      */
     int getErrorMessage(int errorcode, ByteBuffer buffer);
@@ -1837,6 +1865,68 @@ public interface IPcre2 {
      */
     int jitMatch(long code, String subject, int startoffset, int options, long matchData, long mcontext);
 
+    /**
+     * Match a JIT-compiled pattern against a pre-encoded native subject.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the native subject handle, see {@link #subjectCreate(String, long[])}
+     * @param length      the length of the subject in code units
+     * @param startoffset the starting offset in the subject in code units
+     * @param options     option bits
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle
+     * @return the number of captures plus one, zero if the {@code matchData} is too small, or a negative value if there
+     * was no match or an actual error occurred
+     */
+    int jitMatch(long code, long subject, long length, long startoffset, int options, long matchData, long mcontext);
+
+    /**
+     * Match a JIT-compiled pattern against an encoded subject held in a buffer.
+     * <p>
+     * The subject is the content of the buffer between its position and its limit, encoded in the code units of this
+     * API, and offsets are relative to its position. A direct buffer is passed to PCRE2 in place, without being
+     * decoded or copied; the content of a heap buffer is copied to native memory for the duration of the call.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the buffer holding the encoded subject
+     * @param startoffset the starting offset in the subject in code units
+     * @param options     option bits
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle
+     * @return the number of captures plus one, zero if the {@code matchData} is too small, or a negative value if there
+     * was no match or an actual error occurred
+     */
+    int jitMatchEncoded(long code, ByteBuffer subject, long startoffset, int options, long matchData, long mcontext);
+
+    /**
+     * Match a JIT-compiled pattern against an encoded subject held in a slice of a byte array.
+     * <p>
+     * The subject is the given slice of the array, encoded in the code units of this API, and offsets are relative to
+     * the start of the slice. The slice is copied to native memory for the duration of the call, without being
+     * decoded.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the array holding the encoded subject
+     * @param offset      the index of the first byte of the subject in the array
+     * @param length      the length of the subject in bytes
+     * @param startoffset the starting offset in the subject in code units
+     * @param options     option bits
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle
+     * @return the number of captures plus one, zero if the {@code matchData} is too small, or a negative value if there
+     * was no match or an actual error occurred
+     */
+    int jitMatchEncoded(
+            long code,
+            byte[] subject,
+            int offset,
+            int length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    );
+
     /**
      * Create a JIT stack.
      *
@@ -2080,6 +2170,141 @@ public interface IPcre2 {
      */
     int match(long code, String subject, int startoffset, int options, long matchData, long mcontext);
 
+    /**
+     * Match a compiled pattern against a pre-encoded native subject.
+     * <p>
+     * Unlike {@link #match(long, String, int, int, long, long)}, the subject is not encoded nor copied on each call.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the native subject handle, see {@link #subjectCreate(String, long[])}
+     * @param length      the length of the subject in code units
+     * @param startoffset the starting offset in the subject in code units
+     * @param options     option bits
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle
+     * @return the number of captures plus one, zero if the {@code matchData} is too small, or a negative value if there
+     * was no match or an actual error occurred
+     */
+    int match(long code, long subject, long length, long startoffset, int options, long matchData, long mcontext);
+
+    /**
+     * Match a compiled pattern against an encoded subject held in a buffer.
+     * <p>
+     * The subject is the content of the buffer between its position and its limit, encoded in the code units of this
+     * API, and offsets are relative to its position. A direct buffer is passed to PCRE2 in place, without being
+     * decoded or copied; the content of a heap buffer is copied to native memory for the duration of the call.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the buffer holding the encoded subject
+     * @param startoffset the starting offset in the subject in code units
+     * @param options     option bits
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle
+     * @return the number of captures plus one, zero if the {@code matchData} is too small, or a negative value if there
+     * was no match or an actual error occurred
+     */
+    int matchEncoded(long code, ByteBuffer subject, long startoffset, int options, long matchData, long mcontext);
+
+    /**
+     * Match a compiled pattern against an encoded subject held in a slice of a byte array.
+     * <p>
+     * The subject is the given slice of the array, encoded in the code units of this API, and offsets are relative to
+     * the start of the slice. The slice is copied to native memory for the duration of the call, without being
+     * decoded.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the array holding the encoded subject
+     * @param offset      the index of the first byte of the subject in the array
+     * @param length      the length of the subject in bytes
+     * @param startoffset the starting offset in the subject in code units
+     * @param options     option bits
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle
+     * @return the number of captures plus one, zero if the {@code matchData} is too small, or a negative value if there
+     * was no match or an actual error occurred
+     */
+    int matchEncoded(
+            long code,
+            byte[] subject,
+            int offset,
+            int length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    );
+
+    /**
+     * Find all successive matches of a compiled pattern in a pre-encoded native subject, storing the output vector of
+     * each match into the given array in turn.
+     * <p>
+     * Each match takes {@link #getOvectorCount(long)} offset pairs of the array, so the array holds as many matches as
+     * fit into it. A search that stops because the array is full can be resumed at the end offset of the last match
+     * stored, passing {@link #MATCH_ALL_AFTER_EMPTY} if that match is empty. A match that {@code \K} in a lookaround
+     * makes start after its end, or end at or before the offset its attempt started at without being empty there, is
+     * stored as is, and the search goes on one character after both its end and that offset.
+     * <p>
+     * A match attempt that fails with an error, such as {@link #ERROR_MATCHLIMIT}, ends the search with that error
+     * even if matches were stored before it, so that the search is never cut short silently.
+     * <p>
+     * If the native helper library is available (see {@link Pcre2NativeLoader#loadHelper()}), the whole search runs in
+     * a single native call; otherwise it is carried out by repeated calls to
+     * {@link #match(long, long, long, long, int, long, long)}.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the native subject handle, see {@link #subjectCreate(String, long[])}
+     * @param length      the length of the subject in code units
+     * @param startoffset the starting offset in the subject in code units
+     * @param options     option bits passed to every match attempt
+     * @param flags       flag bits, see {@link #MATCH_ALL_RETRY_EMPTY} and {@link #MATCH_ALL_AFTER_EMPTY}
+     * @param matchData   the match data handle, which holds the output vector of the last match afterwards
+     * @param mcontext    the match context handle
+     * @param ovectors    the array to store the output vectors of the matches in
+     * @return the number of matches stored, or a negative error code if a match attempt failed; the search ran to the
+     * end of the subject if the number is less than the number of matches the array holds
+     */
+    int matchAll(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            int flags,
+            long matchData,
+            long mcontext,
+            long[] ovectors
+    );
+
+    /**
+     * Encode a subject string into a newly allocated native buffer using the code unit width of this API.
+     * <p>
+     * The buffer is zero-terminated and stays valid until released via {@link #subjectFree(long)}, so it can be
+     * passed to the subject-handle overloads of {@link #match}, {@link #jitMatch}, {@link #dfaMatch} and
+     * {@link #substitute} any number of times.
+     *
+     * @param subject the subject string
+     * @param length  an array of length 1 to receive the length of the encoded subject in code units
+     * @return the native subject handle
+     */
+    long subjectCreate(String subject, long[] length);
+
+    /**
+     * Free a native subject buffer created by {@link #subjectCreate(String, long[])}.
+     *
+     * @param subject the native subject handle
+     */
+    void subjectFree(long subject);
+
+    /**
+     * Get the size of a code unit of this API in bytes, i.e. 1 for UTF-8, 2 for UTF-16 and 4 for UTF-32.
+     * <p>
+     * A native subject handle is the address of its first code unit, so advancing it by a multiple of the code unit
+     * size addresses a suffix of the subject that can be passed to the subject-handle overloads as is.
+     *
+     * @return the code unit size in bytes
+     */
+    int codeUnitSize();
+
     /**
      * Match a compiled pattern against a subject string using the alternative DFA matching algorithm.
      * <p>
@@ -2129,6 +2354,103 @@ public interface IPcre2 {
             int wscount
     );
 
+    /**
+     * Match a compiled pattern against a pre-encoded native subject using the alternative DFA matching algorithm.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the native subject handle, see {@link #subjectCreate(String, long[])}
+     * @param length      the length of the subject in code units
+     * @param startoffset the starting offset in the subject in code units
+     * @param options     option bits (may include {@link #DFA_RESTART}, {@link #DFA_SHORTEST},
+     *                    {@link #PARTIAL_SOFT}, {@link #PARTIAL_HARD})
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle (may be 0)
+     * @param workspace   an array of integers used as working space by the matching algorithm
+     * @param wscount     the number of elements in the workspace array
+     * @return the number of matched substrings, zero if the output vector is too small, or a negative error code
+     * @see #dfaMatch(long, String, int, int, long, long, int[], int)
+     * @see <a href="https://www.pcre.org/current/doc/html/pcre2_dfa_match.html">pcre2_dfa_match</a>
+     */
+    int dfaMatch(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            int[] workspace,
+            int wscount
+    );
+
+    /**
+     * Match a compiled pattern against an encoded subject held in a buffer using the alternative DFA matching
+     * algorithm.
+     * <p>
+     * The subject is the content of the buffer between its position and its limit, encoded in the code units of this
+     * API, and offsets are relative to its position. A direct buffer is passed to PCRE2 in place, without being
+     * decoded or copied; the content of a heap buffer is copied to native memory for the duration of the call.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the buffer holding the encoded subject
+     * @param startoffset the starting offset in the subject in code units
+     * @param options     option bits (may include {@link #DFA_RESTART}, {@link #DFA_SHORTEST},
+     *                    {@link #PARTIAL_SOFT}, {@link #PARTIAL_HARD})
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle (may be 0)
+     * @param workspace   an array of integers used as working space by the matching algorithm
+     * @param wscount     the number of elements in the workspace array
+     * @return the number of matched substrings, zero if the output vector is too small, or a negative error code
+     * @see #dfaMatch(long, String, int, int, long, long, int[], int)
+     * @see <a href="https://www.pcre.org/current/doc/html/pcre2_dfa_match.html">pcre2_dfa_match</a>
+     */
+    int dfaMatchEncoded(
+            long code,
+            ByteBuffer subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            int[] workspace,
+            int wscount
+    );
+
+    /**
+     * Match a compiled pattern against an encoded subject held in a slice of a byte array using the alternative DFA
+     * matching algorithm.
+     * <p>
+     * The subject is the given slice of the array, encoded in the code units of this API, and offsets are relative to
+     * the start of the slice. The slice is copied to native memory for the duration of the call, without being
+     * decoded.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the array holding the encoded subject
+     * @param offset      the index of the first byte of the subject in the array
+     * @param length      the length of the subject in bytes
+     * @param startoffset the starting offset in the subject in code units
+     * @param options     option bits (may include {@link #DFA_RESTART}, {@link #DFA_SHORTEST},
+     *                    {@link #PARTIAL_SOFT}, {@link #PARTIAL_HARD})
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle (may be 0)
+     * @param workspace   an array of integers used as working space by the matching algorithm
+     * @param wscount     the number of elements in the workspace array
+     * @return the number of matched substrings, zero if the output vector is too small, or a negative error code
+     * @see #dfaMatch(long, String, int, int, long, long, int[], int)
+     * @see <a href="https://www.pcre.org/current/doc/html/pcre2_dfa_match.html">pcre2_dfa_match</a>
+     */
+    int dfaMatchEncoded(
+            long code,
+            byte[] subject,
+            int offset,
+            int length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            int[] workspace,
+            int wscount
+    );
+
     /**
      * Get number of the offset pairs in the output vector of the match data
      *
@@ -2158,6 +2480,19 @@ public interface IPcre2 {
      */
     void getOvector(long matchData, long[] ovector);
 
+    /**
+     * Get a pointer to the output vector of the match data.
+     * <p>
+     * The output vector holds {@link #getOvectorCount(long)} pairs of {@code PCRE2_SIZE} offsets. It stays at the same
+     * address for as long as the match data exists, and each match overwrites it in place, so that the pointer can be
+     * obtained once and read after every match.
+     *
+     * @param matchData the match data handle
+     * @return the pointer to the output vector
+     * @see <a href="https://www.pcre.org/current/doc/html/pcre2_get_ovector_pointer.html">pcre2_get_ovector_pointer</a>
+     */
+    long getOvectorPointer(long matchData);
+
     /**
      * Get the starting character offset from a match.
      * <p>
@@ -2419,6 +2754,104 @@ public interface IPcre2 {
             long[] outputlength
     );
 
+    /**
+     * Match a compiled pattern against a pre-encoded native subject and perform substitution.
+     *
+     * @param code          the compiled pattern handle
+     * @param subject       the native subject handle, see {@link #subjectCreate(String, long[])}
+     * @param length        the length of the subject in code units
+     * @param startoffset   the starting offset in the subject in code units
+     * @param options       option bits
+     * @param matchData     the match data handle or 0
+     * @param mcontext      the match context handle or 0
+     * @param replacement   the replacement string
+     * @param outputbuffer  the buffer to store the result
+     * @param outputlength  an array of length 1 to receive the output length (in bytes); on input, should contain
+     *                      the buffer size
+     * @return the number of substitutions made, or a negative error code
+     * @see <a href="https://www.pcre.org/current/doc/html/pcre2_substitute.html">pcre2_substitute</a>
+     */
+    int substitute(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            String replacement,
+            ByteBuffer outputbuffer,
+            long[] outputlength
+    );
+
+    /**
+     * Match a compiled pattern against an encoded subject held in a buffer and perform substitution.
+     * <p>
+     * The subject is the content of the buffer between its position and its limit, encoded in the code units of this
+     * API, and offsets are relative to its position. A direct buffer is passed to PCRE2 in place, without being
+     * decoded or copied; the content of a heap buffer is copied to native memory for the duration of the call.
+     *
+     * @param code          the compiled pattern handle
+     * @param subject       the buffer holding the encoded subject
+     * @param startoffset   the starting offset in the subject in code units
+     * @param options       option bits
+     * @param matchData     the match data handle or 0
+     * @param mcontext      the match context handle or 0
+     * @param replacement   the replacement string
+     * @param outputbuffer  the buffer to store the result
+     * @param outputlength  an array of length 1 to receive the output length (in code units); on input, should
+     *                      contain the buffer size
+     * @return the number of substitutions made, or a negative error code
+     * @see <a href="https://www.pcre.org/current/doc/html/pcre2_substitute.html">pcre2_substitute</a>
+     */
+    int substituteEncoded(
+            long code,
+            ByteBuffer subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            String replacement,
+            ByteBuffer outputbuffer,
+            long[] outputlength
+    );
+
+    /**
+     * Match a compiled pattern against an encoded subject held in a slice of a byte array and perform substitution.
+     * <p>
+     * The subject is the given slice of the array, encoded in the code units of this API, and offsets are relative to
+     * the start of the slice. The slice is copied to native memory for the duration of the call, without being
+     * decoded.
+     *
+     * @param code          the compiled pattern handle
+     * @param subject       the array holding the encoded subject
+     * @param offset        the index of the first byte of the subject in the array
+     * @param length        the length of the subject in bytes
+     * @param startoffset   the starting offset in the subject in code units
+     * @param options       option bits
+     * @param matchData     the match data handle or 0
+     * @param mcontext      the match context handle or 0
+     * @param replacement   the replacement string
+     * @param outputbuffer  the buffer to store the result
+     * @param outputlength  an array of length 1 to receive the output length (in code units); on input, should
+     *                      contain the buffer size
+     * @return the number of substitutions made, or a negative error code
+     * @see <a href="https://www.pcre.org/current/doc/html/pcre2_substitute.html">pcre2_substitute</a>
+     */
+    int substituteEncoded(
+            long code,
+            byte[] subject,
+            int offset,
+            int length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            String replacement,
+            ByteBuffer outputbuffer,
+            long[] outputlength
+    );
+
     /**
      * Extract a captured substring by its number into newly allocated memory.
      *
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2024-2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.api;
+
+import java.util.function.LongUnaryOperator;
+
+/**
+ * The global-match loop behind {@link IPcre2#matchAll}, shared by the backends.
+ * <p>
+ * The loop is the one of the {@code pcre4j_match_all} function of the native helper library (see
+ * {@link Pcre2NativeLoader#loadHelper()}); backends run it in Java via {@link #matchAll} if the helper library is not
+ * available, and pass the flags computed by {@link #helperFlags} to the native function otherwise.
+ */
+public final class Pcre2GlobalMatch {
+
+    /**
+     * The name of the global-match function of the helper library
+     */
+    public static final String HELPER_FUNCTION_NAME = "pcre4j_match_all";
+
+    /**
+     * Helper flag: the pattern is in UTF mode, so advancing by one character skips a whole character
+     */
+    public static final int HELPER_UTF = 0x00000100;
+
+    /**
+     * Helper flag: CRLF is a valid newline, so advancing past a CR followed by LF skips both
+     */
+    public static final int HELPER_CRLF = 0x00000200;
+
+    private Pcre2GlobalMatch() {
+        // Utility class
+    }
+
+    /**
+     * Compute the flags for the helper library's global-match function.
+     *
+     * @param api   the API to query the pattern with
+     * @param code  the compiled pattern handle
+     * @param flags the {@link IPcre2#matchAll} flags
+     * @return the given flags combined with {@link #HELPER_UTF} and {@link #HELPER_CRLF} as they apply to the pattern
+     */
+    public static int helperFlags(IPcre2 api, long code, int flags) {
+        final var where = new int[1];
+
+        var result = flags;
+        if (api.patternInfo(code, IPcre2.INFO_ALLOPTIONS, where) == 0 && (where[0] & IPcre2.UTF) != 0) {
+            result |= HELPER_UTF;
+        }
+        if (api.patternInfo(code, IPcre2.INFO_NEWLINE, where) == 0) {
+            final var newline = where[0];
+            if (newline == IPcre2.NEWLINE_CRLF || newline == IPcre2.NEWLINE_ANY
+                    || newline == IPcre2.NEWLINE_ANYCRLF) {
+                result |= HELPER_CRLF;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Run the global-match loop in Java, calling {@link IPcre2#match(long, long, long, long, int, long, long)} once
+     * per match attempt.
+     *
+     * @param api         the API
+     * @param code        the compiled pattern handle
+     * @param subject     the native subject handle
+     * @param length      the length of the subject in code units
+     * @param startoffset the starting offset in the subject in code units
+     * @param options     option bits passed to every match attempt
+     * @param flags       the {@link IPcre2#matchAll} flags
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle
+     * @param ovectors    the array to store the output vectors of the matches in
+     * @param codeUnitAt  reads the code unit of the subject at the given offset
+     * @return the number of matches stored, or a negative error code if a match attempt failed
+     * @see IPcre2#matchAll
+     */
+    public static int matchAll(
+            IPcre2 api,
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            int flags,
+            long matchData,
+            long mcontext,
+            long[] ovectors,
+            LongUnaryOperator codeUnitAt
+    ) {
+        if (ovectors == null) {
+            throw new IllegalArgumentException("ovectors must not be null");
+        }
+
+        final var helperFlags = helperFlags(api, code, flags);
+        final var codeUnitSize = api.codeUnitSize();
+        final var ovector = new long[api.getOvectorCount(matchData) * 2];
+        final var capacity = ovectors.length / ovector.length;
+        final var retryEmpty = (flags & IPcre2.MATCH_ALL_RETRY_EMPTY) != 0;
+
+        var count = 0;
+        var offset = startoffset;
+        var afterEmpty = (flags & IPcre2.MATCH_ALL_AFTER_EMPTY) != 0;
+        var utfChecked = 0;
+        while (count < capacity) {
+            var attemptOptions = options | utfChecked;
+            if (afterEmpty) {
+                if (offset >= length) {
+                    break;
+                }
+                if (retryEmpty) {
+                    attemptOptions |= IPcre2.NOTEMPTY_ATSTART | IPcre2.ANCHORED;
+                } else {
+                    offset = advance(offset, length, helperFlags & ~HELPER_CRLF, codeUnitSize, codeUnitAt);
+                }
+            }
+
+            final var result = api.match(code, subject, length, offset, attemptOptions, matchData, mcontext);
+            if (result == IPcre2.ERROR_NOMATCH) {
+                if (afterEmpty && retryEmpty) {
+                    offset = advance(offset, length, helperFlags, codeUnitSize, codeUnitAt);
+                    afterEmpty = false;
+                    utfChecked = IPcre2.NO_UTF_CHECK;
+                    continue;
+                }
+                break;
+            }
+            if (result < 0) {
+                return result;
+            }
+
+            api.getOvector(matchData, ovector);
+            System.arraycopy(ovector, 0, ovectors, count * ovector.length, ovector.length);
+            count++;
+
+            utfChecked = IPcre2.NO_UTF_CHECK;
+            final var start = ovector[0];
+            final var end = ovector[1];
+            if (start <= end && (end > offset || (end == start && end == offset))) {
+                offset = end;
+                afterEmpty = start == end;
+                continue;
+            }
+
+            // \K in a lookaround set the start of the match after its end, or ended a non-empty match at or before the
+            // offset the attempt started at; the search resumes one character after both, so that it makes progress
+            final var resumeAfter = Math.max(end, offset);
+            if (resumeAfter >= length) {
+                break;
+            }
+            offset = advance(resumeAfter, length, helperFlags, codeUnitSize, codeUnitAt);
+            afterEmpty = false;
+        }
+        return count;
+    }
+
+    /**
+     * Advance the given offset by one character.
+     *
+     * @param offset       the offset, less than the length of the subject
+     * @param length       the length of the subject in code units
+     * @param flags        the helper flags, of which {@link #HELPER_UTF} and {@link #HELPER_CRLF} apply
+     * @param codeUnitSize the code unit size in bytes
+     * @param codeUnitAt   reads the code unit of the subject at the given offset
+     * @return the offset of the next character
+     */
+    private static long advance(
+            long offset,
+            long length,
+            int flags,
+            int codeUnitSize,
+            LongUnaryOperator codeUnitAt
+    ) {
+        if ((flags & HELPER_CRLF) != 0 && offset + 1 < length
+                && codeUnitAt.applyAsLong(offset) == '\r' && codeUnitAt.applyAsLong(offset + 1) == '\n') {
+            return offset + 2;
+        }
+
+        var next = offset + 1;
+        if ((flags & HELPER_UTF) != 0) {
+            while (next < length && isContinuation(codeUnitAt.applyAsLong(next), codeUnitSize)) {
+                next++;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Check whether the given code unit continues a character rather than starting one, i.e. whether it is a UTF-8
+     * continuation byte or a UTF-16 low surrogate.
+     *
+     * @param codeUnit     the code unit, read as an unsigned value
+     * @param codeUnitSize the code unit size in bytes
+     * @return {@code true} if the code unit continues a character, otherwise {@code false}
+     */
+    private static boolean isContinuation(long codeUnit, int codeUnitSize) {
+        return switch (codeUnitSize) {
+            case 1 -> (codeUnit & 0xC0) == 0x80;
+            case 2 -> (codeUnit & 0xFC00) == 0xDC00;
+            default -> false;
+        };
+    }
+}
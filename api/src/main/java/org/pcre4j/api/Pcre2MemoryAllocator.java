@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.api;
+
+/**
+ * A memory allocator that PCRE2 calls instead of the system {@code malloc} and {@code free} for a general context and
+ * for everything created from it: the contexts, compiled patterns, match data and JIT stacks that use it, and the
+ * memory those allocate while in use, such as the heap frames of backtracking matches.
+ * <p>
+ * Both methods are called from native code, possibly from several threads at once, and may be called while a match
+ * is running on the calling thread. They must not throw: an exception thrown by {@link #malloc(long)} is reported to
+ * PCRE2 as a failed allocation, and one thrown by {@link #free(long)} is ignored.
+ *
+ * @see IPcre2#generalContextCreate(Pcre2MemoryAllocator)
+ * @see <a href="https://www.pcre.org/current/doc/html/pcre2_general_context_create.html">pcre2_general_context_create</a>
+ */
+public interface Pcre2MemoryAllocator {
+
+    /**
+     * Allocate native memory.
+     *
+     * @param size the number of bytes to allocate
+     * @return the address of the memory, aligned as the system {@code malloc} aligns it, or {@code 0} if the memory
+     *         cannot be allocated
+     */
+    long malloc(long size);
+
+    /**
+     * Free native memory previously returned by {@link #malloc(long)}.
+     *
+     * @param pointer the address of the memory, never {@code 0}
+     */
+    void free(long pointer);
+}
@@ -41,6 +41,10 @@ import java.util.logging.Logger;
  * <p>
  * The bundled native can be skipped by setting the system property {@code pcre2.native.ignore} to {@code "true"}.
  * The temporary directory for extraction can be overridden via the {@code pcre2.native.tmpdir} system property.
+ * <p>
+ * A native bundle may also carry the optional PCRE4J helper library ({@code pcre4j-helper}), which runs loops over
+ * PCRE2 calls, such as {@link IPcre2#matchAll}, in native code. It is found by {@link #loadHelper()} and extracted
+ * next to the PCRE2 library.
  */
 public final class Pcre2NativeLoader {
 
@@ -56,6 +60,17 @@ public final class Pcre2NativeLoader {
      */
     public static final String TMPDIR_PROPERTY = "pcre2.native.tmpdir";
 
+    /**
+     * System property to use the helper library at the given path instead of the bundled one, or to disable the
+     * helper library if set to {@code "false"}.
+     */
+    public static final String HELPER_PATH_PROPERTY = "pcre2.native.helper.path";
+
+    /**
+     * The name of the optional helper library.
+     */
+    public static final String HELPER_LIBRARY_NAME = "pcre4j-helper";
+
     /**
      * The resource path prefix for bundled native libraries.
      */
@@ -141,7 +156,51 @@ public final class Pcre2NativeLoader {
         var mappedName = System.mapLibraryName(libraryName);
         var resourcePath = RESOURCE_PREFIX + platform + "/" + mappedName;
 
-        return extractResource(platform, resourcePath, mappedName);
+        return extractResource(platform, resourcePath, mappedName, false);
+    }
+
+    /**
+     * Load the optional PCRE4J helper library.
+     * <p>
+     * If the system property {@code pcre2.native.helper.path} is set, the helper library at that path is used, or
+     * none at all if the property is {@code "false"}. Otherwise, the helper library bundled for the current platform
+     * is extracted next to the bundled PCRE2 library, unless bundled native loading is disabled via the
+     * {@code pcre2.native.ignore} system property.
+     * <p>
+     * The helper library does not link against PCRE2, so it can be used with any PCRE2 library a backend loads.
+     *
+     * @return the path to the helper library file, or empty if not available
+     */
+    public static Optional<Path> loadHelper() {
+        var helperPath = System.getProperty(HELPER_PATH_PROPERTY);
+        if (helperPath != null && !helperPath.isBlank()) {
+            if ("false".equalsIgnoreCase(helperPath)) {
+                LOG.log(Level.FINE, "Helper library disabled via {0} system property", HELPER_PATH_PROPERTY);
+                return Optional.empty();
+            }
+            var helperFile = Path.of(helperPath);
+            if (!Files.isRegularFile(helperFile)) {
+                LOG.log(Level.WARNING, "Helper library set via {0} not found: {1}",
+                        new Object[]{HELPER_PATH_PROPERTY, helperFile});
+                return Optional.empty();
+            }
+            return Optional.of(helperFile);
+        }
+
+        if ("true".equalsIgnoreCase(System.getProperty(IGNORE_PROPERTY))) {
+            return Optional.empty();
+        }
+
+        var platform = detectPlatform();
+        if (platform == null) {
+            return Optional.empty();
+        }
+
+        var mappedName = System.mapLibraryName(HELPER_LIBRARY_NAME);
+        var resourcePath = RESOURCE_PREFIX + platform + "/" + mappedName;
+
+        return extractResource(platform, resourcePath, mappedName, true)
+                .map(dir -> dir.resolve(mappedName));
     }
 
     /**
@@ -200,9 +259,15 @@ public final class Pcre2NativeLoader {
      * @param platform     the current platform identifier, used to locate a sibling placeholder
      * @param resourcePath the classpath resource path
      * @param fileName     the file name for the extracted library
+     * @param optional     whether the library is optional, so that its absence from a bundle is not a problem
      * @return the directory containing the extracted library, or empty
      */
-    private static Optional<Path> extractResource(String platform, String resourcePath, String fileName) {
+    private static Optional<Path> extractResource(
+            String platform,
+            String resourcePath,
+            String fileName,
+            boolean optional
+    ) {
         synchronized (LOCK) {
             // Double-check after acquiring lock
             var cached = extractedDir;
@@ -218,7 +283,7 @@ public final class Pcre2NativeLoader {
                 // A .gitkeep without a sibling library means the native bundle JAR was published empty
                 // (regression scenario from issue #556). Escalate visibility from FINE to WARNING so it
                 // would be caught at runtime on end-user machines instead of only at release inspection.
-                if (isPlaceholderPresent(platform)) {
+                if (!optional && isPlaceholderPresent(platform)) {
                     LOG.log(Level.WARNING,
                             "Native bundle placeholder found at {0}{1}/.gitkeep but no library file "
                                     + "({2}) is present - the pcre4j-native-{1} JAR appears to be empty "
@@ -232,16 +297,21 @@ public final class Pcre2NativeLoader {
             }
 
             try {
-                var tmpDir = createTempDirectory();
+                // Libraries of the same bundle are extracted next to each other
+                var tmpDir = cached;
+                if (tmpDir == null) {
+                    tmpDir = createTempDirectory();
+                    // Files are deleted on exit in reverse order of registration, so the directory goes before them
+                    tmpDir.toFile().deleteOnExit();
+                }
                 var libFile = tmpDir.resolve(fileName);
                 Files.copy(in, libFile, StandardCopyOption.REPLACE_EXISTING);
                 in.close();
 
                 // Register cleanup
                 libFile.toFile().deleteOnExit();
-                tmpDir.toFile().deleteOnExit();
 
-                LOG.log(Level.INFO, "Extracted bundled PCRE2 native library to: {0}", libFile);
+                LOG.log(Level.INFO, "Extracted bundled native library to: {0}", libFile);
 
                 extractedDir = tmpDir;
                 return Optional.of(tmpDir);
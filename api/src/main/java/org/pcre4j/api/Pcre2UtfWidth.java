@@ -123,6 +123,18 @@ public enum Pcre2UtfWidth {
                 .findFirst();
     }
 
+    /**
+     * Get the enum entry by its code unit size.
+     *
+     * @param codeUnitSize the code unit size in bytes
+     * @return the enum entry
+     */
+    public static Optional<Pcre2UtfWidth> fromCodeUnitSize(int codeUnitSize) {
+        return Arrays.stream(values())
+                .filter(entry -> entry.codeUnitSize == codeUnitSize)
+                .findFirst();
+    }
+
     /**
      * Get the PCRE2 config bit value.
      *
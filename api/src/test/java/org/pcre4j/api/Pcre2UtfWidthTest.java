@@ -103,6 +103,21 @@ class Pcre2UtfWidthTest {
         }
     }
 
+    // --- fromCodeUnitSize() ---
+
+    @Test
+    void fromCodeUnitSize_roundtripAllConstants() {
+        for (var width : Pcre2UtfWidth.values()) {
+            assertEquals(width, Pcre2UtfWidth.fromCodeUnitSize(width.codeUnitSize()).orElseThrow());
+        }
+    }
+
+    @Test
+    void fromCodeUnitSize_invalid() {
+        assertFalse(Pcre2UtfWidth.fromCodeUnitSize(0).isPresent());
+        assertFalse(Pcre2UtfWidth.fromCodeUnitSize(3).isPresent());
+    }
+
     // --- libraryName() ---
 
     @Test
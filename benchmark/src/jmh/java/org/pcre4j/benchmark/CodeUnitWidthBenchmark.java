@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2024-2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.api.Pcre2UtfWidth;
+import org.pcre4j.regex.Pattern;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the 8-bit against the 16-bit PCRE2 library behind the same {@code regex} operations.
+ *
+ * <p>With the 16-bit library, the characters of a subject are passed to PCRE2 as they are and match offsets are
+ * character indices, whereas with the 8-bit library the subject is encoded to UTF-8 and offsets are translated back.
+ * The {@code mixed} text is mostly non-ASCII, where that translation costs the most.</p>
+ *
+ * <p>The {@code UTF16} width needs the {@code pcre2-16} library to be installed.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+public class CodeUnitWidthBenchmark {
+
+    private static final String WORD_REGEX = "\\w+";
+
+    @Param({"jna", "ffm"})
+    private String backend;
+
+    @Param({"UTF8", "UTF16"})
+    private Pcre2UtfWidth width;
+
+    @Param({"ascii", "mixed"})
+    private String text;
+
+    @Param({"65536"})
+    private int inputSize;
+
+    private Pattern pattern;
+    private String input;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final IPcre2 api = switch (backend) {
+            case "jna" -> new org.pcre4j.jna.Pcre2(width);
+            case "ffm" -> new org.pcre4j.ffm.Pcre2(width);
+            default -> throw new IllegalArgumentException("Unknown backend: " + backend);
+        };
+
+        final var line = switch (text) {
+            case "ascii" -> "The quick brown fox jumps over the lazy dog and runs around the park\n";
+            case "mixed" -> "Быстрая коричневая лиса прыгает через ленивую собаку 🦊 素早い茶色の狐 🐕\n";
+            default -> throw new IllegalArgumentException("Unknown text: " + text);
+        };
+        final var sb = new StringBuilder(inputSize + line.length());
+        while (sb.length() < inputSize) {
+            sb.append(line);
+        }
+        input = sb.toString();
+
+        pattern = Pattern.compile(api, WORD_REGEX, Pattern.UNICODE_CHARACTER_CLASS);
+    }
+
+    @Benchmark
+    public void find(Blackhole bh) {
+        final var matcher = pattern.matcher(input);
+        while (matcher.find()) {
+            bh.consume(matcher.start());
+            bh.consume(matcher.end());
+        }
+    }
+
+    @Benchmark
+    public long results() {
+        return pattern.matcher(input).results().count();
+    }
+
+    @Benchmark
+    public String replaceAll() {
+        return pattern.matcher(input).replaceAll("<$0>");
+    }
+}
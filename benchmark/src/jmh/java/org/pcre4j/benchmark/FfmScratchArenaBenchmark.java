@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.pcre4j.api.IPcre2;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks single FFM backend calls that need per-call native scratch memory, with the memory reused across calls
+ * (the default) against a confined arena opened for every call ({@code pcre2.ffm.scratch.retained.bytes=0}, the
+ * previous behavior).
+ *
+ * <p>Running this class as a program runs the benchmark with the GC profiler and prints the normalized allocation
+ * rate of each call in both modes side by side.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FfmScratchArenaBenchmark {
+
+    private static final String CONFINED = "-Dpcre2.ffm.scratch.retained.bytes=0";
+
+    private static final String ALLOCATION_RATE_NORM = "gc.alloc.rate.norm";
+
+    @Param({"16", "4096"})
+    private int subjectLength;
+
+    private IPcre2 api;
+    private long code;
+    private long matchData;
+    private String subject;
+    private final int[] info = new int[1];
+    private final long[] bufferptr = new long[1];
+    private final long[] bufflen = new long[1];
+
+    @Setup(Level.Trial)
+    public void setup() {
+        api = new org.pcre4j.ffm.Pcre2();
+        code = api.compile("(\\d+)$", 0, new int[1], new long[1], 0);
+        matchData = api.matchDataCreateFromPattern(code, 0);
+        subject = "x".repeat(subjectLength - 4) + "1234";
+        api.match(code, subject, 0, 0, matchData, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        api.matchDataFree(matchData);
+        api.codeFree(code);
+    }
+
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = "--enable-preview")
+    public int match() {
+        return api.match(code, subject, 0, 0, matchData, 0);
+    }
+
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = {"--enable-preview", CONFINED})
+    public int matchConfined() {
+        return api.match(code, subject, 0, 0, matchData, 0);
+    }
+
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = "--enable-preview")
+    public int patternInfo() {
+        return api.patternInfo(code, IPcre2.INFO_CAPTURECOUNT, info);
+    }
+
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = {"--enable-preview", CONFINED})
+    public int patternInfoConfined() {
+        return api.patternInfo(code, IPcre2.INFO_CAPTURECOUNT, info);
+    }
+
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = "--enable-preview")
+    public long substringGet() {
+        return getSubstring();
+    }
+
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = {"--enable-preview", CONFINED})
+    public long substringGetConfined() {
+        return getSubstring();
+    }
+
+    private long getSubstring() {
+        api.substringGetByNumber(matchData, 1, bufferptr, bufflen);
+        api.substringFree(bufferptr[0]);
+        return bufflen[0];
+    }
+
+    /**
+     * Run the benchmark with the GC profiler and print the allocation per call in both modes.
+     *
+     * @param args unused
+     * @throws RunnerException if the benchmark fails to run
+     */
+    public static void main(String[] args) throws RunnerException {
+        final var options = new OptionsBuilder()
+                .include(FfmScratchArenaBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        for (RunResult result : new Runner(options).run()) {
+            for (var entry : result.getSecondaryResults().entrySet()) {
+                if (entry.getKey().endsWith(ALLOCATION_RATE_NORM)) {
+                    System.out.printf(
+                            "%s %s: %.1f bytes/op%n",
+                            result.getParams().getBenchmark(),
+                            result.getParams().getParam("subjectLength"),
+                            entry.getValue().getScore()
+                    );
+                }
+            }
+        }
+    }
+}
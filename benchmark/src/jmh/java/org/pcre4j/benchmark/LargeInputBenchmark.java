@@ -25,7 +25,15 @@ import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
+import org.pcre4j.Pcre2Code;
+import org.pcre4j.Pcre2JitCode;
+import org.pcre4j.Pcre2MatchData;
+import org.pcre4j.Pcre2Subject;
+import org.pcre4j.option.Pcre2CompileOption;
+import org.pcre4j.option.Pcre2JitOption;
+import org.pcre4j.option.Pcre2MatchOption;
 
+import java.util.EnumSet;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -36,6 +44,9 @@ import java.util.regex.Pattern;
  * <p>Measures how matching performance scales with input size, simulating log parsing
  * and text processing workloads. This highlights the throughput advantage of PCRE2 JIT
  * compilation on large volumes of text.</p>
+ *
+ * <p>The {@code scanWords*} benchmarks find every word of the input, a many-match scan where re-checking the whole
+ * subject for UTF validity on every match dominates unless the check is skipped once the subject is validated.</p>
  */
 @BenchmarkMode(Mode.Throughput)
 @OutputTimeUnit(TimeUnit.SECONDS)
@@ -47,8 +58,16 @@ public class LargeInputBenchmark extends BenchmarkBase {
     @Param({"1024", "65536", "1048576"})
     private int inputSize;
 
+    private static final String WORD_REGEX = "\\w+";
+
+    private static final EnumSet<Pcre2MatchOption> NO_MATCH_OPTIONS = EnumSet.noneOf(Pcre2MatchOption.class);
+
     private Pattern javaPattern;
     private org.pcre4j.regex.Pattern pcre4jPattern;
+    private Pattern javaWordPattern;
+    private org.pcre4j.regex.Pattern pcre4jWordPattern;
+    private Pcre2Code wordCode;
+    private Pcre2MatchData wordMatchData;
     private String input;
 
     @Setup(Level.Trial)
@@ -71,13 +90,25 @@ public class LargeInputBenchmark extends BenchmarkBase {
         if (isPcre4j()) {
             if (jit) {
                 pcre4jPattern = org.pcre4j.regex.Pattern.compile(api, regex);
+                pcre4jWordPattern = org.pcre4j.regex.Pattern.compile(api, WORD_REGEX);
+                wordCode = new Pcre2JitCode(
+                        api,
+                        WORD_REGEX,
+                        EnumSet.of(Pcre2CompileOption.UTF),
+                        EnumSet.of(Pcre2JitOption.COMPLETE),
+                        null
+                );
             } else {
                 System.setProperty("pcre2.regex.jit", "false");
                 pcre4jPattern = org.pcre4j.regex.Pattern.compile(api, regex);
+                pcre4jWordPattern = org.pcre4j.regex.Pattern.compile(api, WORD_REGEX);
                 System.clearProperty("pcre2.regex.jit");
+                wordCode = new Pcre2Code(api, WORD_REGEX, EnumSet.of(Pcre2CompileOption.UTF), null);
             }
+            wordMatchData = new Pcre2MatchData(wordCode);
         } else {
             javaPattern = Pattern.compile(regex);
+            javaWordPattern = Pattern.compile(WORD_REGEX);
         }
     }
 
@@ -95,4 +126,53 @@ public class LargeInputBenchmark extends BenchmarkBase {
             }
         }
     }
+
+    @Benchmark
+    public void scanWords(Blackhole bh) {
+        if (isPcre4j()) {
+            var matcher = pcre4jWordPattern.matcher(input);
+            while (matcher.find()) {
+                bh.consume(matcher.end());
+            }
+        } else {
+            scanWordsJava(bh);
+        }
+    }
+
+    @Benchmark
+    public void scanWordsCheckedPerMatch(Blackhole bh) {
+        if (isPcre4j()) {
+            // Every call encodes the subject anew, so PCRE2 has to check all of it for UTF validity every time.
+            // The input is ASCII, so the byte offsets of the ovector are character indices as well.
+            var start = 0;
+            while (wordCode.match(input, start, NO_MATCH_OPTIONS, wordMatchData, null) > 0) {
+                start = (int) wordMatchData.ovector()[1];
+                bh.consume(start);
+            }
+        } else {
+            scanWordsJava(bh);
+        }
+    }
+
+    @Benchmark
+    public void scanWordsValidatedOnce(Blackhole bh) {
+        if (isPcre4j()) {
+            // The subject is checked by the first match only, the later ones pass NO_UTF_CHECK
+            var subject = new Pcre2Subject(api, input);
+            var start = 0;
+            while (wordCode.matchSubject(subject, start, NO_MATCH_OPTIONS, wordMatchData, null) > 0) {
+                start = (int) wordMatchData.ovector()[1];
+                bh.consume(start);
+            }
+        } else {
+            scanWordsJava(bh);
+        }
+    }
+
+    private void scanWordsJava(Blackhole bh) {
+        Matcher matcher = javaWordPattern.matcher(input);
+        while (matcher.find()) {
+            bh.consume(matcher.end());
+        }
+    }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks the steady-state {@code find()} loop of a single, reused matcher.
+ *
+ * <p>Once a matcher has performed its first match, {@code find()}, {@code start()} and {@code end()} are expected not
+ * to allocate: the input is encoded into native memory once, and the match data, the ovector and the index buffers
+ * are reused. Running this class as a program runs the benchmark with the GC profiler and fails if the normalized
+ * allocation rate of any PCRE4J engine exceeds {@value #ALLOCATION_BUDGET_PROPERTY} (default
+ * {@value #DEFAULT_ALLOCATION_BUDGET} bytes per operation).</p>
+ *
+ * <p>Only the FFM engines are budgeted by default: the JNA backend allocates argument wrappers for every native call,
+ * which is outside the control of the matcher.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+public class MatcherAllocationBenchmark extends BenchmarkBase {
+
+    /**
+     * System property name for the allocation budget in bytes per operation enforced by {@link #main(String[])}
+     */
+    public static final String ALLOCATION_BUDGET_PROPERTY = "pcre4j.benchmark.allocation.budget";
+
+    /**
+     * The default allocation budget in bytes per operation
+     */
+    public static final double DEFAULT_ALLOCATION_BUDGET = 16.0;
+
+    private static final String ALLOCATION_RATE_NORM = "gc.alloc.rate.norm";
+
+    @Param({"ascii", "unicode"})
+    private String inputType;
+
+    private Matcher javaMatcher;
+    private org.pcre4j.regex.Matcher pcre4jMatcher;
+
+    @Setup(Level.Trial)
+    public void setupMatcher() {
+        final var word = "ascii".equals(inputType) ? "word" : "wörd";
+        final var sb = new StringBuilder();
+        for (int i = 0; i < 256; i++) {
+            sb.append(word).append(i).append(' ');
+        }
+        final var input = sb.toString();
+
+        if (isPcre4j()) {
+            if (jit) {
+                pcre4jMatcher = org.pcre4j.regex.Pattern.compile(api, "\\w+").matcher(input);
+            } else {
+                System.setProperty("pcre2.regex.jit", "false");
+                pcre4jMatcher = org.pcre4j.regex.Pattern.compile(api, "\\w+").matcher(input);
+                System.clearProperty("pcre2.regex.jit");
+            }
+        } else {
+            javaMatcher = Pattern.compile("\\w+").matcher(input);
+        }
+    }
+
+    @Benchmark
+    public void find(Blackhole bh) {
+        if (isPcre4j()) {
+            if (!pcre4jMatcher.find()) {
+                pcre4jMatcher.reset();
+                return;
+            }
+            bh.consume(pcre4jMatcher.start());
+            bh.consume(pcre4jMatcher.end());
+        } else {
+            if (!javaMatcher.find()) {
+                javaMatcher.reset();
+                return;
+            }
+            bh.consume(javaMatcher.start());
+            bh.consume(javaMatcher.end());
+        }
+    }
+
+    /**
+     * Run the benchmark with the GC profiler and enforce the allocation budget.
+     *
+     * @param args unused
+     * @throws RunnerException if the benchmark fails to run
+     */
+    public static void main(String[] args) throws RunnerException {
+        final var budget = Double.parseDouble(
+                System.getProperty(ALLOCATION_BUDGET_PROPERTY, String.valueOf(DEFAULT_ALLOCATION_BUDGET))
+        );
+        final var options = new OptionsBuilder()
+                .include(MatcherAllocationBenchmark.class.getSimpleName())
+                .param("engine", "pcre4j-ffm", "pcre4j-ffm-jit")
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        var overBudget = false;
+        for (RunResult result : new Runner(options).run()) {
+            for (var entry : result.getSecondaryResults().entrySet()) {
+                if (!entry.getKey().endsWith(ALLOCATION_RATE_NORM)) {
+                    continue;
+                }
+                final var allocated = entry.getValue().getScore();
+                if (allocated > budget) {
+                    System.err.printf(
+                            "%s allocates %.1f bytes/op, over the budget of %.1f bytes/op%n",
+                            result.getParams(), allocated, budget
+                    );
+                    overBudget = true;
+                }
+            }
+        }
+        if (overBudget) {
+            System.exit(1);
+        }
+    }
+}
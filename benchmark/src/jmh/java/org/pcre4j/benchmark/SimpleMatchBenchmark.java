@@ -35,6 +35,10 @@ import java.util.regex.Pattern;
  *
  * <p>Compares {@link java.util.regex} against PCRE4J (JNA/FFM, interpreted/JIT) for basic
  * matching operations that are representative of common use cases.</p>
+ *
+ * <p>The JNA backend calls the functions used for every match through JNA direct mapping; to compare it against calls
+ * through the JNA interface proxy, run the {@code pcre4j-jna} engines again with
+ * {@code -jvmArgsAppend -Dpcre2.jna.direct=false}.</p>
  */
 @BenchmarkMode(Mode.Throughput)
 @OutputTimeUnit(TimeUnit.MICROSECONDS)
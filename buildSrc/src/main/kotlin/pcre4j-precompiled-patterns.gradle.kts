@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+
+/*
+ * Convention plugin for modules that precompile their constant PCRE2 patterns at build time.
+ *
+ * Compiles every pattern listed in src/main/pcre4j/ *.patterns registry files with org.pcre4j.Pcre2PatternPrecompiler,
+ * failing the build on the first invalid pattern, and packages the serialized patterns as the
+ * META-INF/pcre4j/precompiled-patterns.bin resource read by Pcre2PatternStore.openPrecompiled(api).
+ *
+ * Passes through the same PCRE2-related system properties as pcre4j-native-test, so the patterns are serialized by
+ * the PCRE2 library the module is tested with.
+ *
+ * Requires: java plugin, and org.pcre4j:lib plus a backend on the runtime classpath
+ */
+
+plugins {
+    java
+}
+
+val precompiledPatternsDir = layout.buildDirectory.dir("generated/pcre4j/resources")
+
+val precompilePatterns by tasks.registering(JavaExec::class) {
+    group = "build"
+    description = "Validates and serializes the PCRE2 patterns of src/main/pcre4j/*.patterns."
+
+    val registries = fileTree("src/main/pcre4j") { include("**/*.patterns") }
+    val output = precompiledPatternsDir.map { it.file("META-INF/pcre4j/precompiled-patterns.bin") }
+    inputs.files(registries).withPropertyName("registries")
+    outputs.file(output).withPropertyName("output")
+    onlyIf { !registries.isEmpty }
+
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("org.pcre4j.Pcre2PatternPrecompiler")
+    jvmArgs("--enable-preview")
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(output.get().asFile.absolutePath) + registries.files.sorted().map { it.absolutePath }
+    })
+
+    val pcre2LibraryPath = providers.systemProperty("pcre2.library.path").orNull
+    systemProperty(
+        "jna.library.path", listOf(
+            pcre2LibraryPath,
+            providers.systemProperty("jna.library.path").orNull
+        ).joinToString(File.pathSeparator)
+    )
+    systemProperty(
+        "java.library.path", listOf(
+            pcre2LibraryPath,
+            providers.systemProperty("java.library.path").orNull
+        ).joinToString(File.pathSeparator)
+    )
+
+    val pcre2LibraryName = providers.systemProperty("pcre2.library.name").orNull
+    if (pcre2LibraryName != null) {
+        systemProperty("pcre2.library.name", pcre2LibraryName)
+    }
+
+    val pcre2FunctionSuffix = providers.systemProperty("pcre2.function.suffix").orNull
+    if (pcre2FunctionSuffix != null) {
+        systemProperty("pcre2.function.suffix", pcre2FunctionSuffix)
+    }
+}
+
+sourceSets.main {
+    resources.srcDir(files(precompiledPatternsDir).builtBy(precompilePatterns))
+}
@@ -28,7 +28,7 @@ dependencies {
 // ============================================================
 val java22: SourceSet by sourceSets.creating {
     java {
-        // Java 22-specific ArenaHelper.java only
+        // Java 22-specific ArenaHelper.java and LinkerHelper.java only
         srcDir("src/main/java22")
     }
 }
@@ -38,7 +38,7 @@ configurations["java22Implementation"].extendsFrom(configurations.implementation
 configurations["java22CompileOnly"].extendsFrom(configurations.compileOnly.get())
 
 dependencies {
-    // Java 22 source set only has ArenaHelper.java; Pcre2.java is shared from main
+    // Java 22 source set only has the helpers; the rest of the sources are shared from main
     "java22Implementation"(project(":api"))
 }
 
@@ -69,10 +69,10 @@ tasks.named<JavaCompile>("compileJava22Java") {
     javaCompiler.set(javaToolchains.compilerFor {
         languageVersion.set(JavaLanguageVersion.of(22))
     })
-    // Include Pcre2.java from main source (avoids duplication)
-    // ArenaHelper.java comes from src/main/java22 with Java 22-specific implementation
+    // Include the shared sources from main (avoids duplication)
+    // ArenaHelper.java and LinkerHelper.java come from src/main/java22 with Java 22-specific implementations
     source(fileTree("src/main/java") {
-        include("**/Pcre2.java")
+        exclude("**/ArenaHelper.java", "**/LinkerHelper.java")
     })
 }
 
@@ -14,8 +14,8 @@
  */
 package org.pcre4j.ffm;
 
-import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.lang.foreign.ValueLayout;
 
 /**
@@ -40,11 +40,11 @@ final class ArenaHelper {
      * Java 21: {@code arena.allocateArray(layout, 1)}<br>
      * Java 22+: {@code arena.allocate(layout)}
      *
-     * @param arena  the arena to allocate from
+     * @param arena  the arena or allocator to allocate from
      * @param layout the value layout for the element
      * @return a memory segment sized for one element
      */
-    static MemorySegment allocate(Arena arena, ValueLayout layout) {
+    static MemorySegment allocate(SegmentAllocator arena, ValueLayout layout) {
         return arena.allocateArray(layout, 1);
     }
 
@@ -54,12 +54,12 @@ final class ArenaHelper {
      * Java 21: {@code arena.allocateArray(layout, count)}<br>
      * Java 22+: {@code arena.allocate(layout, count)}
      *
-     * @param arena  the arena to allocate from
+     * @param arena  the arena or allocator to allocate from
      * @param layout the value layout for elements
      * @param count  the number of elements
      * @return a memory segment sized for count elements
      */
-    static MemorySegment allocate(Arena arena, ValueLayout layout, long count) {
+    static MemorySegment allocate(SegmentAllocator arena, ValueLayout layout, long count) {
         return arena.allocateArray(layout, count);
     }
 
@@ -69,11 +69,11 @@ final class ArenaHelper {
      * Java 21: {@code arena.allocateArray(ValueLayout.JAVA_INT, values)}<br>
      * Java 22+: {@code arena.allocateFrom(ValueLayout.JAVA_INT, values)}
      *
-     * @param arena  the arena to allocate from
+     * @param arena  the arena or allocator to allocate from
      * @param values the int array to copy into the segment
      * @return a memory segment containing the array values
      */
-    static MemorySegment allocateFrom(Arena arena, int[] values) {
+    static MemorySegment allocateFrom(SegmentAllocator arena, int[] values) {
         return arena.allocateArray(ValueLayout.JAVA_INT, values);
     }
 
@@ -83,11 +83,11 @@ final class ArenaHelper {
      * Java 21: {@code arena.allocateUtf8String(str)}<br>
      * Java 22+: {@code arena.allocateFrom(str)}
      *
-     * @param arena the arena to allocate from
+     * @param arena the arena or allocator to allocate from
      * @param str   the string to encode as UTF-8
      * @return a memory segment containing the null-terminated UTF-8 string
      */
-    static MemorySegment allocateFrom(Arena arena, String str) {
+    static MemorySegment allocateFrom(SegmentAllocator arena, String str) {
         return arena.allocateUtf8String(str);
     }
 
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.ffm;
+
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Helper class for downcall handle options that differ between Java versions.
+ * <p>
+ * This is the Java 21 implementation, where critical downcalls are not available: short calls use regular downcall
+ * handles and heap segments cannot be passed to native code. A Java 22+ version exists in META-INF/versions/22/ using
+ * {@code Linker.Option.critical}.
+ *
+ * @see <a href="https://openjdk.org/jeps/238">JEP 238: Multi-Release JAR Files</a>
+ * @see <a href="https://openjdk.org/jeps/442">JEP 442: Foreign Function &amp; Memory API (Third Preview)</a>
+ */
+final class LinkerHelper {
+
+    private LinkerHelper() {
+        // Utility class
+    }
+
+    /**
+     * Creates a downcall handle for a short function that neither blocks nor calls back into Java.
+     * <p>
+     * Java 21: {@code linker.downcallHandle(symbol, function)}<br>
+     * Java 22+: {@code linker.downcallHandle(symbol, function, Linker.Option.critical(false))}
+     *
+     * @param linker   the linker
+     * @param symbol   the address of the function
+     * @param function the descriptor of the function
+     * @return the downcall handle
+     */
+    static MethodHandle criticalDowncallHandle(Linker linker, MemorySegment symbol, FunctionDescriptor function) {
+        return linker.downcallHandle(symbol, function);
+    }
+
+    /**
+     * Creates a downcall handle for a function that neither blocks nor calls back into Java, to which heap segments
+     * can be passed without copying them to native memory.
+     * <p>
+     * Java 21: not supported, {@code null}<br>
+     * Java 22+: {@code linker.downcallHandle(symbol, function, Linker.Option.critical(true))}
+     *
+     * @param linker   the linker
+     * @param symbol   the address of the function
+     * @param function the descriptor of the function
+     * @return the downcall handle, or {@code null} if heap access is not supported
+     */
+    static MethodHandle heapAccessDowncallHandle(Linker linker, MemorySegment symbol, FunctionDescriptor function) {
+        return null;
+    }
+}
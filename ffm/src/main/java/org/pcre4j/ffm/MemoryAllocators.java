@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.ffm;
+
+import org.pcre4j.api.Pcre2MemoryAllocator;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Java allocators that general contexts call instead of the system memory management functions.
+ * <p>
+ * All such general contexts share one pair of {@code private_malloc} and {@code private_free} upcall stubs, which are
+ * never freed, and tell their allocators apart by the {@code memory_data} PCRE2 passes along: the identifier the
+ * allocator is registered under. A registration counts the blocks the allocator has handed out and lives until the
+ * last of them, which includes the general context itself, is freed, so that the allocator stays reachable for as
+ * long as any context, pattern or match data may call it.
+ */
+final class MemoryAllocators {
+
+    private static final Linker LINKER = Linker.nativeLinker();
+
+    private static final Map<Long, Registration> REGISTRATIONS = new ConcurrentHashMap<>();
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    private static final MethodHandle SYSTEM_MALLOC = LINKER.downcallHandle(
+            LINKER.defaultLookup().find("malloc").orElseThrow(),
+            FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.JAVA_LONG)
+    );
+
+    private static final MethodHandle SYSTEM_FREE = LINKER.downcallHandle(
+            LINKER.defaultLookup().find("free").orElseThrow(),
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS)
+    );
+
+    /**
+     * The {@code void *(*)(PCRE2_SIZE, void *)} upcall stub
+     */
+    static final MemorySegment MALLOC;
+
+    /**
+     * The {@code void (*)(void *, void *)} upcall stub
+     */
+    static final MemorySegment FREE;
+
+    static {
+        try {
+            final var lookup = MethodHandles.lookup();
+            MALLOC = LINKER.upcallStub(
+                    lookup.findStatic(
+                            MemoryAllocators.class,
+                            "malloc",
+                            MethodType.methodType(MemorySegment.class, long.class, MemorySegment.class)
+                    ),
+                    FunctionDescriptor.of(ValueLayout.ADDRESS, ValueLayout.JAVA_LONG, ValueLayout.ADDRESS),
+                    Arena.global()
+            );
+            FREE = LINKER.upcallStub(
+                    lookup.findStatic(
+                            MemoryAllocators.class,
+                            "free",
+                            MethodType.methodType(void.class, MemorySegment.class, MemorySegment.class)
+                    ),
+                    FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.ADDRESS),
+                    Arena.global()
+            );
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private MemoryAllocators() {
+    }
+
+    /**
+     * Register an allocator for a general context about to be created.
+     *
+     * @param allocator the allocator
+     * @return the identifier to pass to PCRE2 as the memory data
+     */
+    static long register(Pcre2MemoryAllocator allocator) {
+        final var id = NEXT_ID.getAndIncrement();
+        REGISTRATIONS.put(id, new Registration(allocator, new AtomicLong()));
+        return id;
+    }
+
+    /**
+     * Drop a registration that no block was allocated for, such as that of a general context that failed to be
+     * created.
+     *
+     * @param id the identifier of the registration
+     */
+    static void unregisterIfUnused(long id) {
+        REGISTRATIONS.computeIfPresent(id, (key, registration) -> registration.blocks.get() == 0 ? null : registration);
+    }
+
+    /**
+     * Check whether any allocator is registered, in which case PCRE2 may call back into Java from any function that
+     * allocates or frees memory.
+     *
+     * @return {@code true} if any allocator is registered
+     */
+    static boolean inUse() {
+        return !REGISTRATIONS.isEmpty();
+    }
+
+    /**
+     * Allocate memory with the system {@code malloc}.
+     *
+     * @param size the number of bytes
+     * @return the address of the memory, or {@code 0} if it cannot be allocated
+     */
+    static long systemMalloc(long size) {
+        try {
+            return ((MemorySegment) SYSTEM_MALLOC.invokeExact(size)).address();
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Free memory with the system {@code free}.
+     *
+     * @param pointer the address of the memory
+     */
+    static void systemFree(long pointer) {
+        try {
+            SYSTEM_FREE.invokeExact(MemorySegment.ofAddress(pointer));
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static MemorySegment malloc(long size, MemorySegment memoryData) {
+        final var registration = REGISTRATIONS.get(memoryData.address());
+        if (registration == null) {
+            return MemorySegment.NULL;
+        }
+
+        final long pointer;
+        try {
+            pointer = registration.allocator.malloc(size);
+        } catch (Exception e) {
+            return MemorySegment.NULL;
+        }
+        if (pointer != 0) {
+            registration.blocks.incrementAndGet();
+        }
+        return MemorySegment.ofAddress(pointer);
+    }
+
+    private static void free(MemorySegment block, MemorySegment memoryData) {
+        if (block.address() == 0) {
+            return;
+        }
+        final var id = memoryData.address();
+        final var registration = REGISTRATIONS.get(id);
+        if (registration == null) {
+            return;
+        }
+
+        try {
+            registration.allocator.free(block.address());
+        } catch (Exception e) {
+            // Nothing can be reported to PCRE2
+        }
+        if (registration.blocks.decrementAndGet() == 0) {
+            REGISTRATIONS.remove(id);
+        }
+    }
+
+    private record Registration(Pcre2MemoryAllocator allocator, AtomicLong blocks) {
+    }
+}
@@ -20,7 +20,9 @@ import org.pcre4j.api.Pcre2CalloutBlock;
 import org.pcre4j.api.Pcre2CalloutEnumerateBlock;
 import org.pcre4j.api.Pcre2CalloutEnumerateHandler;
 import org.pcre4j.api.Pcre2CalloutHandler;
+import org.pcre4j.api.Pcre2GlobalMatch;
 import org.pcre4j.api.Pcre2LibraryFinder;
+import org.pcre4j.api.Pcre2MemoryAllocator;
 import org.pcre4j.api.Pcre2NativeLoader;
 import org.pcre4j.api.Pcre2UtfWidth;
 
@@ -31,12 +33,17 @@ import java.lang.foreign.Arena;
 import java.lang.foreign.FunctionDescriptor;
 import java.lang.foreign.Linker;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.lang.foreign.SymbolLookup;
 import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.lang.ref.Reference;
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -47,6 +54,21 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
     private static final Linker LINKER = Linker.nativeLinker();
     private static final SymbolLookup SYMBOL_LOOKUP = SymbolLookup.loaderLookup();
 
+    /**
+     * System property name for configuring the largest subject, in bytes, that is matched straight from the Java heap
+     * through a critical downcall on Java 22+, rather than copied to native memory first.
+     * <p>
+     * A value of {@code 0} disables matching from the Java heap.
+     */
+    static final String CRITICAL_MAX_BYTES_PROPERTY = "pcre2.ffm.critical.max.bytes";
+
+    /**
+     * The default largest subject matched straight from the Java heap, in bytes
+     */
+    static final long DEFAULT_CRITICAL_MAX_BYTES = 64 * 1024;
+
+    private static final long CRITICAL_MAX_BYTES = criticalMaxBytes();
+
     private final MethodHandle pcre2_config;
 
     private final MethodHandle pcre2_general_context_create;
@@ -72,6 +94,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
 
     private final MethodHandle pcre2_jit_compile;
     private final MethodHandle pcre2_jit_match;
+    private final MethodHandle pcre2_jit_match_heap;
     private final MethodHandle pcre2_jit_stack_create;
     private final MethodHandle pcre2_jit_stack_free;
     private final MethodHandle pcre2_jit_stack_assign;
@@ -96,6 +119,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
     private final MethodHandle pcre2_converted_pattern_free;
 
     private final MethodHandle pcre2_match;
+    private final MethodHandle pcre2_match_heap;
     private final MethodHandle pcre2_dfa_match;
 
     private final MethodHandle pcre2_get_ovector_count;
@@ -136,11 +160,26 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
     private final MethodHandle pcre2_serialize_free;
     private final MethodHandle pcre2_serialize_get_number_of_codes;
 
+    private final MemorySegment pcre2_match_symbol;
+    private final MethodHandle pcre4j_match_all;
+
     private final Charset charset;
     private final int codeUnitSize;
 
+    /**
+     * Whether strings are encoded in native-order UTF-16, so that their characters can be copied as they are
+     */
+    private final boolean copyChars;
+
     private final ConcurrentHashMap<Long, CallbackEntry> callbackEntries = new ConcurrentHashMap<>();
 
+    /**
+     * The match contexts with a callout function set: matches using them may call back into Java, which a critical
+     * downcall does not allow, so their subjects are always copied to native memory
+     */
+    private final Set<Long> calloutContexts = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Long, Arena> subjectArenas = new ConcurrentHashMap<>();
+
     /**
      * Constructs a new PCRE2 API using the common library name "pcre2-8" with UTF-8 encoding.
      */
@@ -197,6 +236,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
 
         this.charset = charset;
         this.codeUnitSize = codeUnitSize;
+        this.copyChars = codeUnitSize == 2 && charset.equals(Pcre2UtfWidth.UTF16.charset());
         if (suffix == null) {
             throw new IllegalArgumentException("suffix must not be null");
         }
@@ -221,7 +261,8 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             }
         }
 
-        pcre2_config = LINKER.downcallHandle(
+        pcre2_config = LinkerHelper.criticalDowncallHandle(
+                LINKER,
                 SYMBOL_LOOKUP.find("pcre2_config" + suffix).orElseThrow(),
                 FunctionDescriptor.of(ValueLayout.JAVA_INT, // int
                         ValueLayout.JAVA_INT, // int
@@ -339,7 +380,8 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
                 )
         );
 
-        pcre2_pattern_info = LINKER.downcallHandle(
+        pcre2_pattern_info = LinkerHelper.criticalDowncallHandle(
+                LINKER,
                 SYMBOL_LOOKUP.find("pcre2_pattern_info" + suffix).orElseThrow(),
                 FunctionDescriptor.of(ValueLayout.JAVA_INT, // int
                         ValueLayout.ADDRESS, // pcre2_code*
@@ -356,19 +398,20 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
                 )
         );
 
-        pcre2_jit_match = LINKER.downcallHandle(
-                SYMBOL_LOOKUP.find("pcre2_jit_match" + suffix).orElseThrow(),
-                FunctionDescriptor.of(ValueLayout.JAVA_INT, // int
-                        ValueLayout.ADDRESS, // pcre2_code*
-                        ValueLayout.ADDRESS, // PCRE2_SPTR
-                        ValueLayout.ADDRESS, // PCRE2_SIZE
-                        ValueLayout.ADDRESS, // PCRE2_SIZE
-                        ValueLayout.JAVA_INT, // int
-                        ValueLayout.ADDRESS, // pcre2_match_data*
-                        ValueLayout.ADDRESS // pcre2_match_context*
-                )
+        final var matchFunction = FunctionDescriptor.of(ValueLayout.JAVA_INT, // int
+                ValueLayout.ADDRESS, // pcre2_code*
+                ValueLayout.ADDRESS, // PCRE2_SPTR
+                ValueLayout.ADDRESS, // PCRE2_SIZE
+                ValueLayout.ADDRESS, // PCRE2_SIZE
+                ValueLayout.JAVA_INT, // int
+                ValueLayout.ADDRESS, // pcre2_match_data*
+                ValueLayout.ADDRESS // pcre2_match_context*
         );
 
+        final var jitMatchSymbol = SYMBOL_LOOKUP.find("pcre2_jit_match" + suffix).orElseThrow();
+        pcre2_jit_match = LINKER.downcallHandle(jitMatchSymbol, matchFunction);
+        pcre2_jit_match_heap = LinkerHelper.heapAccessDowncallHandle(LINKER, jitMatchSymbol, matchFunction);
+
         pcre2_jit_stack_create = LINKER.downcallHandle(
                 SYMBOL_LOOKUP.find("pcre2_jit_stack_create" + suffix).orElseThrow(),
                 FunctionDescriptor.of(ValueLayout.ADDRESS, // pcre2_jit_stack*
@@ -501,18 +544,9 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
                 )
         );
 
-        pcre2_match = LINKER.downcallHandle(
-                SYMBOL_LOOKUP.find("pcre2_match" + suffix).orElseThrow(),
-                FunctionDescriptor.of(ValueLayout.JAVA_INT, // int
-                        ValueLayout.ADDRESS, // pcre2_code*
-                        ValueLayout.ADDRESS, // PCRE2_SPTR
-                        ValueLayout.ADDRESS, // PCRE2_SIZE
-                        ValueLayout.ADDRESS, // PCRE2_SIZE
-                        ValueLayout.JAVA_INT, // int
-                        ValueLayout.ADDRESS, // pcre2_match_data*
-                        ValueLayout.ADDRESS // pcre2_match_context*
-                )
-        );
+        pcre2_match_symbol = SYMBOL_LOOKUP.find("pcre2_match" + suffix).orElseThrow();
+        pcre2_match = LINKER.downcallHandle(pcre2_match_symbol, matchFunction);
+        pcre2_match_heap = LinkerHelper.heapAccessDowncallHandle(LINKER, pcre2_match_symbol, matchFunction);
 
         pcre2_dfa_match = LINKER.downcallHandle(
                 SYMBOL_LOOKUP.find("pcre2_dfa_match" + suffix).orElseThrow(),
@@ -529,35 +563,40 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
                 )
         );
 
-        pcre2_get_ovector_count = LINKER.downcallHandle(
+        pcre2_get_ovector_count = LinkerHelper.criticalDowncallHandle(
+                LINKER,
                 SYMBOL_LOOKUP.find("pcre2_get_ovector_count" + suffix).orElseThrow(),
                 FunctionDescriptor.of(ValueLayout.JAVA_INT, // int
                         ValueLayout.ADDRESS // pcre2_match_data*
                 )
         );
 
-        pcre2_get_match_data_size = LINKER.downcallHandle(
+        pcre2_get_match_data_size = LinkerHelper.criticalDowncallHandle(
+                LINKER,
                 SYMBOL_LOOKUP.find("pcre2_get_match_data_size" + suffix).orElseThrow(),
                 FunctionDescriptor.of(ValueLayout.ADDRESS, // PCRE2_SIZE
                         ValueLayout.ADDRESS // pcre2_match_data*
                 )
         );
 
-        pcre2_get_ovector_pointer = LINKER.downcallHandle(
+        pcre2_get_ovector_pointer = LinkerHelper.criticalDowncallHandle(
+                LINKER,
                 SYMBOL_LOOKUP.find("pcre2_get_ovector_pointer" + suffix).orElseThrow(),
                 FunctionDescriptor.of(ValueLayout.ADDRESS, // PCRE2_SIZE*
                         ValueLayout.ADDRESS // pcre2_match_data*
                 )
         );
 
-        pcre2_get_startchar = LINKER.downcallHandle(
+        pcre2_get_startchar = LinkerHelper.criticalDowncallHandle(
+                LINKER,
                 SYMBOL_LOOKUP.find("pcre2_get_startchar" + suffix).orElseThrow(),
                 FunctionDescriptor.of(ValueLayout.ADDRESS, // PCRE2_SIZE
                         ValueLayout.ADDRESS // pcre2_match_data*
                 )
         );
 
-        pcre2_get_mark = LINKER.downcallHandle(
+        pcre2_get_mark = LinkerHelper.criticalDowncallHandle(
+                LINKER,
                 SYMBOL_LOOKUP.find("pcre2_get_mark" + suffix).orElseThrow(),
                 FunctionDescriptor.of(ValueLayout.ADDRESS, // PCRE2_SPTR
                         ValueLayout.ADDRESS // pcre2_match_data*
@@ -719,7 +758,8 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
                 )
         );
 
-        pcre2_substring_length_byname = LINKER.downcallHandle(
+        pcre2_substring_length_byname = LinkerHelper.criticalDowncallHandle(
+                LINKER,
                 SYMBOL_LOOKUP.find("pcre2_substring_length_byname" + suffix).orElseThrow(),
                 FunctionDescriptor.of(ValueLayout.JAVA_INT, // int
                         ValueLayout.ADDRESS, // pcre2_match_data*
@@ -728,7 +768,8 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
                 )
         );
 
-        pcre2_substring_length_bynumber = LINKER.downcallHandle(
+        pcre2_substring_length_bynumber = LinkerHelper.criticalDowncallHandle(
+                LINKER,
                 SYMBOL_LOOKUP.find("pcre2_substring_length_bynumber" + suffix).orElseThrow(),
                 FunctionDescriptor.of(ValueLayout.JAVA_INT, // int
                         ValueLayout.ADDRESS, // pcre2_match_data*
@@ -760,7 +801,8 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
                 )
         );
 
-        pcre2_substring_number_from_name = LINKER.downcallHandle(
+        pcre2_substring_number_from_name = LinkerHelper.criticalDowncallHandle(
+                LINKER,
                 SYMBOL_LOOKUP.find("pcre2_substring_number_from_name" + suffix).orElseThrow(),
                 FunctionDescriptor.of(ValueLayout.JAVA_INT, // int
                         ValueLayout.ADDRESS, // pcre2_code*
@@ -812,6 +854,44 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
                         ValueLayout.ADDRESS // const uint8_t *bytes
                 )
         );
+
+        // The helper library is optional, matchAll() falls back to a loop in Java without it
+        pcre4j_match_all = Pcre2NativeLoader.loadHelper()
+                .flatMap(Pcre2::findHelperFunction)
+                .map(symbol -> LINKER.downcallHandle(
+                        symbol,
+                        FunctionDescriptor.of(ValueLayout.JAVA_INT, // int
+                                ValueLayout.ADDRESS, // pcre2_match
+                                ValueLayout.ADDRESS, // const pcre2_code*
+                                ValueLayout.ADDRESS, // PCRE2_SPTR
+                                ValueLayout.ADDRESS, // PCRE2_SIZE
+                                ValueLayout.ADDRESS, // PCRE2_SIZE
+                                ValueLayout.JAVA_INT, // uint32_t
+                                ValueLayout.JAVA_INT, // uint32_t
+                                ValueLayout.JAVA_INT, // uint32_t
+                                ValueLayout.ADDRESS, // pcre2_match_data*
+                                ValueLayout.ADDRESS, // pcre2_match_context*
+                                ValueLayout.ADDRESS, // const PCRE2_SIZE*
+                                ValueLayout.JAVA_INT, // uint32_t
+                                ValueLayout.ADDRESS, // PCRE2_SIZE*
+                                ValueLayout.ADDRESS // size_t
+                        )
+                ))
+                .orElse(null);
+    }
+
+    /**
+     * Find the global-match function of the helper library at the given path.
+     *
+     * @param helperPath the path to the helper library
+     * @return the function, or empty if the library cannot be loaded or does not export it
+     */
+    private static Optional<MemorySegment> findHelperFunction(Path helperPath) {
+        try {
+            return SymbolLookup.libraryLookup(helperPath, Arena.global()).find(Pcre2GlobalMatch.HELPER_FUNCTION_NAME);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
     @Override
@@ -838,7 +918,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("where must be an array of length 1");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pWhere = ArenaHelper.allocate(arena, ValueLayout.JAVA_INT);
 
             final var result = (int) pcre2_config.invokeExact(
@@ -897,6 +977,29 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         }
     }
 
+    @Override
+    public long generalContextCreate(Pcre2MemoryAllocator allocator) {
+        if (allocator == null) {
+            throw new IllegalArgumentException("allocator must not be null");
+        }
+
+        final var id = MemoryAllocators.register(allocator);
+        try {
+            final var pGContext = (MemorySegment) pcre2_general_context_create.invokeExact(
+                    MemoryAllocators.MALLOC,
+                    MemoryAllocators.FREE,
+                    MemorySegment.ofAddress(id)
+            );
+
+            return pGContext.address();
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        } finally {
+            MemoryAllocators.unregisterIfUnused(id);
+        }
+    }
+
     @Override
     public long generalContextCopy(long gcontext) {
         try {
@@ -1018,7 +1121,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("erroroffset must be an array of length 1");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pszPattern = allocateString(arena, pattern);
             final var patternSize = MemorySegment.ofAddress(getStringLength(pszPattern));
             final var pErrorCode = ArenaHelper.allocate(arena, ValueLayout.JAVA_INT);
@@ -1119,7 +1222,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
 
         try {
             final var pszBuffer = MemorySegment.ofBuffer(buffer);
-            final var bufferSize = MemorySegment.ofAddress(buffer.capacity());
+            final var bufferSize = MemorySegment.ofAddress(buffer.capacity() / codeUnitSize);
 
             return (int) pcre2_get_error_message.invokeExact(
                     errorcode,
@@ -1158,7 +1261,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("where must be an array of length 1");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pCode = MemorySegment.ofAddress(code);
             final var pWhere = ArenaHelper.allocate(arena, ValueLayout.JAVA_INT);
 
@@ -1186,7 +1289,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("where must be an array of length 1");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pCode = MemorySegment.ofAddress(code);
             final var pWhere = ArenaHelper.allocate(arena, ValueLayout.JAVA_LONG);
 
@@ -1211,7 +1314,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("where must not be null");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pCode = MemorySegment.ofAddress(code);
             final var pWhere = ArenaHelper.allocate(arena, ValueLayout.ADDRESS);
 
@@ -1251,8 +1354,11 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         if (subject == null) {
             throw new IllegalArgumentException("subject must not be null");
         }
+        if (isHeapString(pcre2_jit_match_heap, subject, mcontext)) {
+            return jitMatchEncoded(code, heapString(subject), startoffset, options, matchData, mcontext);
+        }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pCode = MemorySegment.ofAddress(code);
             final var pszSubject = allocateString(arena, subject);
             final var subjectLength = MemorySegment.ofAddress(getStringLength(pszSubject));
@@ -1275,6 +1381,112 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         }
     }
 
+    @Override
+    public int jitMatch(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        if (subject == 0) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+
+        try {
+            final var pCode = MemorySegment.ofAddress(code);
+            final var pSubject = MemorySegment.ofAddress(subject);
+            final var subjectLength = MemorySegment.ofAddress(length);
+            final var startOffset = MemorySegment.ofAddress(startoffset);
+            final var pMatchData = MemorySegment.ofAddress(matchData);
+            final var pMatchContext = MemorySegment.ofAddress(mcontext);
+
+            return (int) pcre2_jit_match.invokeExact(
+                    pCode,
+                    pSubject,
+                    subjectLength,
+                    startOffset,
+                    options,
+                    pMatchData,
+                    pMatchContext
+            );
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public int jitMatchEncoded(
+            long code,
+            ByteBuffer subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        return jitMatchEncoded(code, MemorySegment.ofBuffer(subject), startoffset, options, matchData, mcontext);
+    }
+
+    @Override
+    public int jitMatchEncoded(
+            long code,
+            byte[] subject,
+            int offset,
+            int length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        return jitMatchEncoded(
+                code, subjectSlice(subject, offset, length), startoffset, options, matchData, mcontext
+        );
+    }
+
+    /**
+     * Match a compiled pattern against a subject held in a memory segment using the JIT compiler.
+     * <p>
+     * A native segment is passed to PCRE2 in place. On Java 22+, so is a heap segment of up to
+     * {@value #DEFAULT_CRITICAL_MAX_BYTES} bytes (see {@link #CRITICAL_MAX_BYTES_PROPERTY}) through a critical
+     * downcall, unless the match context has a callout set. Otherwise, the content of a heap segment is copied to
+     * native memory for the duration of the call.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the segment holding the subject in code units of this API
+     * @param startoffset the offset in code units to start at
+     * @param options     the options
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle
+     * @return the result of the call, as for the address-based overload
+     */
+    public int jitMatchEncoded(
+            long code,
+            MemorySegment subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        if (isHeapSubject(pcre2_jit_match_heap, subject, mcontext)) {
+            return matchHeap(pcre2_jit_match_heap, code, subject, startoffset, options, matchData, mcontext);
+        }
+        return withSubject(subject, (address, length) -> jitMatch(
+                code,
+                address,
+                length,
+                startoffset,
+                options,
+                matchData,
+                mcontext
+        ));
+    }
+
     @Override
     public long jitStackCreate(long startsize, long maxsize, long gcontext) {
         try {
@@ -1415,6 +1627,9 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
                     pMatchContext
             );
 
+            if (pNewMatchContext.address() != 0 && calloutContexts.contains(mcontext)) {
+                calloutContexts.add(pNewMatchContext.address());
+            }
             return pNewMatchContext.address();
         } catch (Throwable e) {
             if (e instanceof Error) throw (Error) e;
@@ -1430,6 +1645,8 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             pcre2_match_context_free.invokeExact(
                     pMatchContext
             );
+
+            calloutContexts.remove(mcontext);
         } catch (Throwable e) {
             if (e instanceof Error) throw (Error) e;
             throw new RuntimeException(e);
@@ -1524,7 +1741,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("blength must be an array of length 1");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pszPattern = allocateString(arena, pattern);
             final var patternLength = MemorySegment.ofAddress(getStringLength(pszPattern));
             final var pBuffer = ArenaHelper.allocate(arena, ValueLayout.ADDRESS);
@@ -1586,8 +1803,11 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         if (subject == null) {
             throw new IllegalArgumentException("subject must not be null");
         }
+        if (isHeapString(pcre2_match_heap, subject, mcontext)) {
+            return matchEncoded(code, heapString(subject), startoffset, options, matchData, mcontext);
+        }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pCode = MemorySegment.ofAddress(code);
             final var pszSubject = allocateString(arena, subject);
             final var subjectLength = MemorySegment.ofAddress(getStringLength(pszSubject));
@@ -1611,49 +1831,35 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
     }
 
     @Override
-    public int dfaMatch(
+    public int match(
             long code,
-            String subject,
-            int startoffset,
+            long subject,
+            long length,
+            long startoffset,
             int options,
             long matchData,
-            long mcontext,
-            int[] workspace,
-            int wscount
+            long mcontext
     ) {
-        if (subject == null) {
+        if (subject == 0) {
             throw new IllegalArgumentException("subject must not be null");
         }
-        if (workspace == null) {
-            throw new IllegalArgumentException("workspace must not be null");
-        }
-        if (wscount < 0) {
-            throw new IllegalArgumentException("wscount must not be negative");
-        }
-        if (wscount > workspace.length) {
-            throw new IllegalArgumentException("wscount must not be greater than workspace.length");
-        }
 
-        try (var arena = Arena.ofConfined()) {
+        try {
             final var pCode = MemorySegment.ofAddress(code);
-            final var pszSubject = allocateString(arena, subject);
-            final var subjectLength = MemorySegment.ofAddress(getStringLength(pszSubject));
+            final var pSubject = MemorySegment.ofAddress(subject);
+            final var subjectLength = MemorySegment.ofAddress(length);
             final var startOffset = MemorySegment.ofAddress(startoffset);
             final var pMatchData = MemorySegment.ofAddress(matchData);
             final var pMatchContext = MemorySegment.ofAddress(mcontext);
-            final var pWorkspace = ArenaHelper.allocateFrom(arena, workspace);
-            final var wsCount = MemorySegment.ofAddress(wscount);
 
-            return (int) pcre2_dfa_match.invokeExact(
+            return (int) pcre2_match.invokeExact(
                     pCode,
-                    pszSubject,
+                    pSubject,
                     subjectLength,
                     startOffset,
                     options,
                     pMatchData,
-                    pMatchContext,
-                    pWorkspace,
-                    wsCount
+                    pMatchContext
             );
         } catch (Throwable e) {
             if (e instanceof Error) throw (Error) e;
@@ -1662,49 +1868,142 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
     }
 
     @Override
-    public int getOvectorCount(long matchData) {
-        try {
-            final var pMatchData = MemorySegment.ofAddress(matchData);
-
-            return (int) pcre2_get_ovector_count.invokeExact(
-                    pMatchData
-            );
-        } catch (Throwable e) {
-            if (e instanceof Error) throw (Error) e;
-            throw new RuntimeException(e);
+    public int matchEncoded(
+            long code,
+            ByteBuffer subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
         }
+        return matchEncoded(code, MemorySegment.ofBuffer(subject), startoffset, options, matchData, mcontext);
     }
 
     @Override
-    public long getMatchDataSize(long matchData) {
-        try {
-            final var pMatchData = MemorySegment.ofAddress(matchData);
-
-            final var result = (MemorySegment) pcre2_get_match_data_size.invokeExact(
-                    pMatchData
-            );
+    public int matchEncoded(
+            long code,
+            byte[] subject,
+            int offset,
+            int length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        return matchEncoded(
+                code, subjectSlice(subject, offset, length), startoffset, options, matchData, mcontext
+        );
+    }
 
-            return result.address();
-        } catch (Throwable e) {
-            if (e instanceof Error) throw (Error) e;
-            throw new RuntimeException(e);
+    /**
+     * Match a compiled pattern against a subject held in a memory segment.
+     * <p>
+     * A native segment is passed to PCRE2 in place. On Java 22+, so is a heap segment of up to
+     * {@value #DEFAULT_CRITICAL_MAX_BYTES} bytes (see {@link #CRITICAL_MAX_BYTES_PROPERTY}) through a critical
+     * downcall, unless the match context has a callout set. Otherwise, the content of a heap segment is copied to
+     * native memory for the duration of the call.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the segment holding the subject in code units of this API
+     * @param startoffset the offset in code units to start at
+     * @param options     the options
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle
+     * @return the result of the call, as for the address-based overload
+     */
+    public int matchEncoded(
+            long code,
+            MemorySegment subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        if (isHeapSubject(pcre2_match_heap, subject, mcontext)) {
+            return matchHeap(pcre2_match_heap, code, subject, startoffset, options, matchData, mcontext);
         }
+        return withSubject(subject, (address, length) -> match(
+                code,
+                address,
+                length,
+                startoffset,
+                options,
+                matchData,
+                mcontext
+        ));
     }
 
     @Override
-    public void getOvector(long matchData, long[] ovector) {
-        if (ovector == null) {
-            throw new IllegalArgumentException("ovector must not be null");
+    public int matchAll(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            int flags,
+            long matchData,
+            long mcontext,
+            long[] ovectors
+    ) {
+        if (subject == 0) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (ovectors == null) {
+            throw new IllegalArgumentException("ovectors must not be null");
         }
 
-        try {
+        if (pcre4j_match_all == null) {
+            final var pSubject = MemorySegment.ofAddress(subject).reinterpret(length * codeUnitSize);
+            return Pcre2GlobalMatch.matchAll(
+                    this,
+                    code,
+                    subject,
+                    length,
+                    startoffset,
+                    options,
+                    flags,
+                    matchData,
+                    mcontext,
+                    ovectors,
+                    offset -> switch (codeUnitSize) {
+                        case 1 -> Byte.toUnsignedLong(pSubject.get(ValueLayout.JAVA_BYTE, offset));
+                        case 2 -> Short.toUnsignedLong(pSubject.getAtIndex(ValueLayout.JAVA_SHORT_UNALIGNED, offset));
+                        default -> Integer.toUnsignedLong(pSubject.getAtIndex(ValueLayout.JAVA_INT_UNALIGNED, offset));
+                    }
+            );
+        }
+
+        final var helperFlags = Pcre2GlobalMatch.helperFlags(this, code, flags);
+        final var pairs = getOvectorCount(matchData);
+        final var capacity = ovectors.length / (pairs * 2);
+        try (var arena = ScratchArena.open()) {
             final var pMatchData = MemorySegment.ofAddress(matchData);
-
-            final var pOvector = (MemorySegment) pcre2_get_ovector_pointer.invokeExact(
-                    pMatchData
+            final var pOvector = (MemorySegment) pcre2_get_ovector_pointer.invokeExact(pMatchData);
+            final var pOvectors = ArenaHelper.allocate(arena, ValueLayout.JAVA_LONG, Math.max(capacity * pairs * 2, 1));
+
+            final var result = (int) pcre4j_match_all.invokeExact(
+                    pcre2_match_symbol,
+                    MemorySegment.ofAddress(code),
+                    MemorySegment.ofAddress(subject),
+                    MemorySegment.ofAddress(length),
+                    MemorySegment.ofAddress(startoffset),
+                    options,
+                    helperFlags,
+                    codeUnitSize,
+                    pMatchData,
+                    MemorySegment.ofAddress(mcontext),
+                    pOvector,
+                    pairs,
+                    pOvectors,
+                    MemorySegment.ofAddress(capacity)
             );
-
-            MemorySegment.ofArray(ovector).copyFrom(pOvector.reinterpret(ovector.length * 8));
+            if (result > 0) {
+                MemorySegment.copy(pOvectors, ValueLayout.JAVA_LONG, 0, ovectors, 0, result * pairs * 2);
+            }
+            return result;
         } catch (Throwable e) {
             if (e instanceof Error) throw (Error) e;
             throw new RuntimeException(e);
@@ -1712,60 +2011,369 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
     }
 
     @Override
-    public long getStartchar(long matchData) {
-        try {
-            final var pMatchData = MemorySegment.ofAddress(matchData);
-
-            final var result = (MemorySegment) pcre2_get_startchar.invokeExact(
-                    pMatchData
-            );
-
-            return result.address();
-        } catch (Throwable e) {
-            if (e instanceof Error) throw (Error) e;
-            throw new RuntimeException(e);
+    public long subjectCreate(String subject, long[] length) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (length == null || length.length < 1) {
+            throw new IllegalArgumentException("length must be an array of length 1");
         }
-    }
 
-    @Override
-    public long getMark(long matchData) {
+        final var arena = Arena.ofShared();
         try {
-            final var pMatchData = MemorySegment.ofAddress(matchData);
-
-            final var result = (MemorySegment) pcre2_get_mark.invokeExact(
-                    pMatchData
-            );
-
-            return result.address();
+            final var pszSubject = allocateString(arena, subject);
+            final var address = pszSubject.address();
+            subjectArenas.put(address, arena);
+            length[0] = getStringLength(pszSubject);
+            return address;
         } catch (Throwable e) {
-            if (e instanceof Error) throw (Error) e;
-            throw new RuntimeException(e);
+            arena.close();
+            throw e;
         }
     }
 
     @Override
-    public int setNewline(long ccontext, int newline) {
-        try {
-            final var pCContext = MemorySegment.ofAddress(ccontext);
-
-            return (int) pcre2_set_newline.invokeExact(
-                    pCContext,
-                    newline
-            );
-        } catch (Throwable e) {
-            if (e instanceof Error) throw (Error) e;
-            throw new RuntimeException(e);
+    public void subjectFree(long subject) {
+        final var arena = subjectArenas.remove(subject);
+        if (arena != null) {
+            arena.close();
         }
     }
 
     @Override
-    public int setBsr(long ccontext, int value) {
-        try {
-            final var pCContext = MemorySegment.ofAddress(ccontext);
+    public int codeUnitSize() {
+        return codeUnitSize;
+    }
 
-            return (int) pcre2_set_bsr.invokeExact(
-                    pCContext,
-                    value
+    @Override
+    public int dfaMatch(
+            long code,
+            String subject,
+            int startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            int[] workspace,
+            int wscount
+    ) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (workspace == null) {
+            throw new IllegalArgumentException("workspace must not be null");
+        }
+        if (wscount < 0) {
+            throw new IllegalArgumentException("wscount must not be negative");
+        }
+        if (wscount > workspace.length) {
+            throw new IllegalArgumentException("wscount must not be greater than workspace.length");
+        }
+
+        try (var arena = ScratchArena.open()) {
+            final var pCode = MemorySegment.ofAddress(code);
+            final var pszSubject = allocateString(arena, subject);
+            final var subjectLength = MemorySegment.ofAddress(getStringLength(pszSubject));
+            final var startOffset = MemorySegment.ofAddress(startoffset);
+            final var pMatchData = MemorySegment.ofAddress(matchData);
+            final var pMatchContext = MemorySegment.ofAddress(mcontext);
+            final var pWorkspace = ArenaHelper.allocateFrom(arena, workspace);
+            final var wsCount = MemorySegment.ofAddress(wscount);
+
+            return (int) pcre2_dfa_match.invokeExact(
+                    pCode,
+                    pszSubject,
+                    subjectLength,
+                    startOffset,
+                    options,
+                    pMatchData,
+                    pMatchContext,
+                    pWorkspace,
+                    wsCount
+            );
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public int dfaMatch(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            int[] workspace,
+            int wscount
+    ) {
+        if (subject == 0) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (workspace == null) {
+            throw new IllegalArgumentException("workspace must not be null");
+        }
+        if (wscount < 0) {
+            throw new IllegalArgumentException("wscount must not be negative");
+        }
+        if (wscount > workspace.length) {
+            throw new IllegalArgumentException("wscount must not be greater than workspace.length");
+        }
+
+        try (var arena = ScratchArena.open()) {
+            final var pCode = MemorySegment.ofAddress(code);
+            final var pSubject = MemorySegment.ofAddress(subject);
+            final var subjectLength = MemorySegment.ofAddress(length);
+            final var startOffset = MemorySegment.ofAddress(startoffset);
+            final var pMatchData = MemorySegment.ofAddress(matchData);
+            final var pMatchContext = MemorySegment.ofAddress(mcontext);
+            final var pWorkspace = ArenaHelper.allocateFrom(arena, workspace);
+            final var wsCount = MemorySegment.ofAddress(wscount);
+
+            return (int) pcre2_dfa_match.invokeExact(
+                    pCode,
+                    pSubject,
+                    subjectLength,
+                    startOffset,
+                    options,
+                    pMatchData,
+                    pMatchContext,
+                    pWorkspace,
+                    wsCount
+            );
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public int dfaMatchEncoded(
+            long code,
+            ByteBuffer subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            int[] workspace,
+            int wscount
+    ) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        return dfaMatchEncoded(
+                code,
+                MemorySegment.ofBuffer(subject),
+                startoffset,
+                options,
+                matchData,
+                mcontext,
+                workspace,
+                wscount
+        );
+    }
+
+    @Override
+    public int dfaMatchEncoded(
+            long code,
+            byte[] subject,
+            int offset,
+            int length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            int[] workspace,
+            int wscount
+    ) {
+        return dfaMatchEncoded(
+                code,
+                subjectSlice(subject, offset, length),
+                startoffset,
+                options,
+                matchData,
+                mcontext,
+                workspace,
+                wscount
+        );
+    }
+
+    /**
+     * Match a compiled pattern against a subject held in a memory segment using the DFA algorithm.
+     * <p>
+     * A native segment is passed to PCRE2 in place, whereas the content of a heap segment is copied to native memory
+     * for the duration of the call.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the segment holding the subject in code units of this API
+     * @param startoffset the offset in code units to start at
+     * @param options     the options
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle
+     * @param workspace   the workspace array
+     * @param wscount     the number of elements in the workspace array
+     * @return the result of the call, as for the address-based overload
+     */
+    public int dfaMatchEncoded(
+            long code,
+            MemorySegment subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            int[] workspace,
+            int wscount
+    ) {
+        return withSubject(subject, (address, length) -> dfaMatch(
+                code,
+                address,
+                length,
+                startoffset,
+                options,
+                matchData,
+                mcontext,
+                workspace,
+                wscount
+        ));
+    }
+
+    @Override
+    public int getOvectorCount(long matchData) {
+        try {
+            final var pMatchData = MemorySegment.ofAddress(matchData);
+
+            return (int) pcre2_get_ovector_count.invokeExact(
+                    pMatchData
+            );
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public long getMatchDataSize(long matchData) {
+        try {
+            final var pMatchData = MemorySegment.ofAddress(matchData);
+
+            final var result = (MemorySegment) pcre2_get_match_data_size.invokeExact(
+                    pMatchData
+            );
+
+            return result.address();
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void getOvector(long matchData, long[] ovector) {
+        if (ovector == null) {
+            throw new IllegalArgumentException("ovector must not be null");
+        }
+
+        try {
+            final var pMatchData = MemorySegment.ofAddress(matchData);
+
+            final var pOvector = (MemorySegment) pcre2_get_ovector_pointer.invokeExact(
+                    pMatchData
+            );
+
+            MemorySegment.ofArray(ovector).copyFrom(pOvector.reinterpret(ovector.length * 8));
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public long getOvectorPointer(long matchData) {
+        try {
+            final var pMatchData = MemorySegment.ofAddress(matchData);
+
+            final var pOvector = (MemorySegment) pcre2_get_ovector_pointer.invokeExact(
+                    pMatchData
+            );
+
+            return pOvector.address();
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Get the output vector of the match data as a view of its native memory, sized to hold
+     * {@link #getOvectorCount(long)} pairs of offsets.
+     * <p>
+     * The view is valid for as long as the match data exists, and reflects every match made with it without copying
+     * the offsets: for example, {@code view.getAtIndex(ValueLayout.JAVA_LONG, 1)} is the end of the last match.
+     *
+     * @param matchData the match data handle
+     * @return the memory segment of the output vector
+     */
+    public MemorySegment ovectorView(long matchData) {
+        final var pairs = getOvectorCount(matchData);
+        return MemorySegment.ofAddress(getOvectorPointer(matchData)).reinterpret(pairs * 2L * Long.BYTES);
+    }
+
+    @Override
+    public long getStartchar(long matchData) {
+        try {
+            final var pMatchData = MemorySegment.ofAddress(matchData);
+
+            final var result = (MemorySegment) pcre2_get_startchar.invokeExact(
+                    pMatchData
+            );
+
+            return result.address();
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public long getMark(long matchData) {
+        try {
+            final var pMatchData = MemorySegment.ofAddress(matchData);
+
+            final var result = (MemorySegment) pcre2_get_mark.invokeExact(
+                    pMatchData
+            );
+
+            return result.address();
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public int setNewline(long ccontext, int newline) {
+        try {
+            final var pCContext = MemorySegment.ofAddress(ccontext);
+
+            return (int) pcre2_set_newline.invokeExact(
+                    pCContext,
+                    newline
+            );
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public int setBsr(long ccontext, int value) {
+        try {
+            final var pCContext = MemorySegment.ofAddress(ccontext);
+
+            return (int) pcre2_set_bsr.invokeExact(
+                    pCContext,
+                    value
             );
         } catch (Throwable e) {
             if (e instanceof Error) throw (Error) e;
@@ -1921,11 +2529,18 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             final var pCallback = MemorySegment.ofAddress(callback);
             final var pCalloutData = MemorySegment.ofAddress(calloutData);
 
-            return (int) pcre2_set_callout.invokeExact(
+            final var result = (int) pcre2_set_callout.invokeExact(
                     pMContext,
                     pCallback,
                     pCalloutData
             );
+
+            if (callback != 0) {
+                calloutContexts.add(mcontext);
+            } else {
+                calloutContexts.remove(mcontext);
+            }
+            return result;
         } catch (Throwable e) {
             if (e instanceof Error) throw (Error) e;
             throw new RuntimeException(e);
@@ -1960,7 +2575,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("outputlength must be an array of length 1");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pCode = MemorySegment.ofAddress(code);
             final var pszSubject = allocateString(arena, subject);
             final var subjectLength = MemorySegment.ofAddress(getStringLength(pszSubject));
@@ -1996,6 +2611,169 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         }
     }
 
+    @Override
+    public int substitute(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            String replacement,
+            ByteBuffer outputbuffer,
+            long[] outputlength
+    ) {
+        if (subject == 0) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (replacement == null) {
+            throw new IllegalArgumentException("replacement must not be null");
+        }
+        if (outputbuffer == null) {
+            throw new IllegalArgumentException("outputbuffer must not be null");
+        }
+        if (!outputbuffer.isDirect()) {
+            throw new IllegalArgumentException("outputbuffer must be direct");
+        }
+        if (outputlength == null || outputlength.length < 1) {
+            throw new IllegalArgumentException("outputlength must be an array of length 1");
+        }
+
+        try (var arena = ScratchArena.open()) {
+            final var pCode = MemorySegment.ofAddress(code);
+            final var pSubject = MemorySegment.ofAddress(subject);
+            final var subjectLength = MemorySegment.ofAddress(length);
+            final var startOffset = MemorySegment.ofAddress(startoffset);
+            final var pMatchData = MemorySegment.ofAddress(matchData);
+            final var pMatchContext = MemorySegment.ofAddress(mcontext);
+            final var pszReplacement = allocateString(arena, replacement);
+            final var replacementLength = MemorySegment.ofAddress(getStringLength(pszReplacement));
+            final var pOutputBuffer = MemorySegment.ofBuffer(outputbuffer);
+            final var pOutputLength = ArenaHelper.allocate(arena, ValueLayout.JAVA_LONG);
+            pOutputLength.set(ValueLayout.JAVA_LONG, 0, outputlength[0]);
+
+            final var result = (int) pcre2_substitute.invokeExact(
+                    pCode,
+                    pSubject,
+                    subjectLength,
+                    startOffset,
+                    options,
+                    pMatchData,
+                    pMatchContext,
+                    pszReplacement,
+                    replacementLength,
+                    pOutputBuffer,
+                    pOutputLength
+            );
+
+            outputlength[0] = pOutputLength.get(ValueLayout.JAVA_LONG, 0);
+
+            return result;
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public int substituteEncoded(
+            long code,
+            ByteBuffer subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            String replacement,
+            ByteBuffer outputbuffer,
+            long[] outputlength
+    ) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        return substituteEncoded(
+                code,
+                MemorySegment.ofBuffer(subject),
+                startoffset,
+                options,
+                matchData,
+                mcontext,
+                replacement,
+                outputbuffer,
+                outputlength
+        );
+    }
+
+    @Override
+    public int substituteEncoded(
+            long code,
+            byte[] subject,
+            int offset,
+            int length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            String replacement,
+            ByteBuffer outputbuffer,
+            long[] outputlength
+    ) {
+        return substituteEncoded(
+                code,
+                subjectSlice(subject, offset, length),
+                startoffset,
+                options,
+                matchData,
+                mcontext,
+                replacement,
+                outputbuffer,
+                outputlength
+        );
+    }
+
+    /**
+     * Substitute the matches of a compiled pattern in a subject held in a memory segment.
+     * <p>
+     * A native segment is passed to PCRE2 in place, whereas the content of a heap segment is copied to native memory
+     * for the duration of the call.
+     *
+     * @param code        the compiled pattern handle
+     * @param subject     the segment holding the subject in code units of this API
+     * @param startoffset the offset in code units to start at
+     * @param options     the options
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle
+     * @param replacement the replacement string
+     * @param outputbuffer the direct buffer to write the result to
+     * @param outputlength an array of length 1 with the output buffer size in code units on input and the result
+     *                     length in code units on output
+     * @return the result of the call, as for the address-based overload
+     */
+    public int substituteEncoded(
+            long code,
+            MemorySegment subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            String replacement,
+            ByteBuffer outputbuffer,
+            long[] outputlength
+    ) {
+        return withSubject(subject, (address, length) -> substitute(
+                code,
+                address,
+                length,
+                startoffset,
+                options,
+                matchData,
+                mcontext,
+                replacement,
+                outputbuffer,
+                outputlength
+        ));
+    }
+
     @Override
     public int substringGetByNumber(long matchData, int number, long[] bufferptr, long[] bufflen) {
         if (bufferptr == null || bufferptr.length < 1) {
@@ -2005,7 +2783,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("bufflen must be an array of length 1");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pMatchData = MemorySegment.ofAddress(matchData);
             final var pBufferPtr = ArenaHelper.allocate(arena, ValueLayout.ADDRESS);
             final var pBuffLen = ArenaHelper.allocate(arena, ValueLayout.JAVA_LONG);
@@ -2039,7 +2817,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("bufflen must be an array of length 1");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pMatchData = MemorySegment.ofAddress(matchData);
             final var pBuffer = MemorySegment.ofBuffer(buffer);
             final var pBuffLen = ArenaHelper.allocate(arena, ValueLayout.JAVA_LONG);
@@ -2073,7 +2851,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("bufflen must be an array of length 1");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pMatchData = MemorySegment.ofAddress(matchData);
             final var pszName = allocateString(arena, name);
             final var pBufferPtr = ArenaHelper.allocate(arena, ValueLayout.ADDRESS);
@@ -2111,7 +2889,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("bufflen must be an array of length 1");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pMatchData = MemorySegment.ofAddress(matchData);
             final var pszName = allocateString(arena, name);
             final var pBuffer = MemorySegment.ofBuffer(buffer);
@@ -2140,7 +2918,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("name must not be null");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pMatchData = MemorySegment.ofAddress(matchData);
             final var pszName = allocateString(arena, name);
 
@@ -2193,7 +2971,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("length must be an array of length 1");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pLength = ArenaHelper.allocate(arena, ValueLayout.JAVA_LONG);
 
             final var result = (int) pcre2_substring_length_bynumber.invokeExact(
@@ -2236,7 +3014,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("lengthsptr must be an array of length 1 or null");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pMatchData = MemorySegment.ofAddress(matchData);
             final var pListPtr = ArenaHelper.allocate(arena, ValueLayout.ADDRESS);
             final var pLengthsPtr = lengthsptr != null
@@ -2281,7 +3059,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("name must not be null");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pCode = MemorySegment.ofAddress(code);
             final var pszName = allocateString(arena, name);
 
@@ -2301,7 +3079,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("name must not be null");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pCode = MemorySegment.ofAddress(code);
             final var pszName = allocateString(arena, name);
 
@@ -2348,6 +3126,31 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         return segment.toArray(ValueLayout.JAVA_BYTE);
     }
 
+    @Override
+    public ByteBuffer byteBufferView(long pointer, int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length must not be negative");
+        }
+
+        return MemorySegment.ofAddress(pointer).reinterpret(length).asByteBuffer();
+    }
+
+    @Override
+    public long allocate(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+
+        return MemoryAllocators.systemMalloc(size);
+    }
+
+    @Override
+    public void free(long pointer) {
+        if (pointer != 0) {
+            MemoryAllocators.systemFree(pointer);
+        }
+    }
+
     @Override
     public int serializeEncode(long[] codes, int numberOfCodes, long[] serializedBytes, long[] serializedSize,
             long gcontext) {
@@ -2367,7 +3170,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("serializedSize must be an array of length 1");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             // Create an array of pointers for the codes
             final var pCodes = ArenaHelper.allocate(arena, ValueLayout.ADDRESS, numberOfCodes);
             for (int i = 0; i < numberOfCodes; i++) {
@@ -2413,7 +3216,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("bytes must not be null");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             // Allocate memory for the output array of pointers
             final var pCodes = ArenaHelper.allocate(arena, ValueLayout.ADDRESS, numberOfCodes);
 
@@ -2468,7 +3271,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("bytes must not be null");
         }
 
-        try (var arena = Arena.ofConfined()) {
+        try (var arena = ScratchArena.open()) {
             final var pBytes = ArenaHelper.allocate(arena, ValueLayout.JAVA_BYTE, bytes.length);
             pBytes.copyFrom(MemorySegment.ofArray(bytes));
 
@@ -2693,29 +3496,225 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
     private record CallbackEntry(Arena arena, MemorySegment upcallStub) {
     }
 
+    /**
+     * A call that takes a subject by its native address and its length in code units.
+     */
+    @FunctionalInterface
+    private interface SubjectCall {
+        int apply(long address, long length);
+    }
+
+    /**
+     * Run a call with the subject held in a memory segment, in place if the segment is native, or copied to native
+     * memory for the duration of the call otherwise.
+     *
+     * @param subject the segment holding the subject in code units of this API
+     * @param call    the call to run
+     * @return the result of the call
+     */
+    private int withSubject(MemorySegment subject, SubjectCall call) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        final var byteSize = subject.byteSize();
+        if (byteSize % codeUnitSize != 0) {
+            throw new IllegalArgumentException("subject length must be a multiple of the code unit size");
+        }
+        final var length = byteSize / codeUnitSize;
+
+        if (subject.isNative()) {
+            try {
+                return call.apply(subject.address(), length);
+            } finally {
+                Reference.reachabilityFence(subject);
+            }
+        }
+
+        try (var arena = ScratchArena.open()) {
+            final var copy = arena.allocateUninitialized(Math.max(byteSize, codeUnitSize), codeUnitSize);
+            MemorySegment.copy(subject, 0, copy, 0, byteSize);
+            return call.apply(copy.address(), length);
+        }
+    }
+
+    /**
+     * Check whether a match can read the subject straight from the Java heap through a critical downcall: the handle
+     * is available, the segment is a small enough heap segment of whole, aligned code units, and neither a callout nor
+     * a Java memory allocator can call back into Java during the match.
+     *
+     * @param handle   the heap access handle of the match function, or {@code null}
+     * @param subject  the segment holding the subject
+     * @param mcontext the match context handle
+     * @return {@code true} if the subject can be passed in place
+     */
+    private boolean isHeapSubject(MethodHandle handle, MemorySegment subject, long mcontext) {
+        return handle != null
+                && subject != null
+                && !subject.isNative()
+                && subject.byteSize() <= CRITICAL_MAX_BYTES
+                && subject.byteSize() % codeUnitSize == 0
+                && subject.address() % codeUnitSize == 0
+                && (mcontext == 0 || !calloutContexts.contains(mcontext))
+                && !MemoryAllocators.inUse();
+    }
+
+    /**
+     * Check, before encoding it, whether a string subject may be read straight from the Java heap: the encoded string
+     * has at least one byte per character in the 8-bit library and two bytes per character otherwise, so a string
+     * that exceeds {@link #CRITICAL_MAX_BYTES} even then, or that cannot be matched in place for another reason, is
+     * encoded into native memory right away instead of into a heap array that would then be copied again.
+     *
+     * @param handle   the heap access handle of the match function, or {@code null}
+     * @param subject  the subject string
+     * @param mcontext the match context handle
+     * @return {@code true} if the subject should be encoded into a heap segment
+     */
+    private boolean isHeapString(MethodHandle handle, String subject, long mcontext) {
+        return handle != null
+                && (long) subject.length() * Math.min(codeUnitSize, 2) <= CRITICAL_MAX_BYTES
+                && (mcontext == 0 || !calloutContexts.contains(mcontext))
+                && !MemoryAllocators.inUse();
+    }
+
+    /**
+     * Match a subject held in a heap segment in place, through a critical downcall.
+     *
+     * @param handle      the heap access handle of {@code pcre2_match} or {@code pcre2_jit_match}
+     * @param code        the compiled pattern handle
+     * @param subject     the heap segment holding the subject in code units of this API
+     * @param startoffset the offset in code units to start at
+     * @param options     the options
+     * @param matchData   the match data handle
+     * @param mcontext    the match context handle
+     * @return the result of the call
+     */
+    private int matchHeap(
+            MethodHandle handle,
+            long code,
+            MemorySegment subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        try {
+            final var pCode = MemorySegment.ofAddress(code);
+            final var subjectLength = MemorySegment.ofAddress(subject.byteSize() / codeUnitSize);
+            final var startOffset = MemorySegment.ofAddress(startoffset);
+            final var pMatchData = MemorySegment.ofAddress(matchData);
+            final var pMatchContext = MemorySegment.ofAddress(mcontext);
+
+            return (int) handle.invokeExact(
+                    pCode,
+                    subject,
+                    subjectLength,
+                    startOffset,
+                    options,
+                    pMatchData,
+                    pMatchContext
+            );
+        } catch (Throwable e) {
+            if (e instanceof Error) throw (Error) e;
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Encodes a string in code units of this API into a heap segment, without a terminator.
+     *
+     * @param str the string to encode
+     * @return a heap segment containing the encoded string
+     */
+    private MemorySegment heapString(String str) {
+        if (copyChars) {
+            return MemorySegment.ofArray(str.toCharArray());
+        }
+        return MemorySegment.ofArray(str.getBytes(charset));
+    }
+
+    private static long criticalMaxBytes() {
+        final var maxBytes = System.getProperty(CRITICAL_MAX_BYTES_PROPERTY);
+        if (maxBytes == null) {
+            return DEFAULT_CRITICAL_MAX_BYTES;
+        }
+        try {
+            final var result = Long.parseLong(maxBytes);
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through
+        }
+        throw new IllegalArgumentException(
+                "System property " + CRITICAL_MAX_BYTES_PROPERTY + " must be a non-negative integer, got: " + maxBytes
+        );
+    }
+
+    /**
+     * Get a slice of a byte array as a heap segment.
+     *
+     * @param subject the array
+     * @param offset  the index of the first byte of the slice
+     * @param length  the length of the slice in bytes
+     * @return the heap segment
+     */
+    private static MemorySegment subjectSlice(byte[] subject, int offset, int length) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (offset < 0 || length < 0 || offset > subject.length - length) {
+            throw new IllegalArgumentException("offset and length must be within the bounds of the subject array");
+        }
+
+        return MemorySegment.ofArray(subject).asSlice(offset, length);
+    }
+
     /**
      * Allocates a null-terminated string in native memory using the configured charset.
      * <p>
      * The null terminator size matches the code unit size (1 byte for UTF-8, 2 bytes for UTF-16,
-     * 4 bytes for UTF-32).
+     * 4 bytes for UTF-32), and the segment is sized to the encoded string, so that its length is known without
+     * scanning for the terminator and strings with embedded NUL characters keep them. In native-order UTF-16, the
+     * characters of the string are copied as they are, without transcoding; unpaired surrogates are thus left for the
+     * UTF check of PCRE2 to reject.
      *
-     * @param arena the arena to allocate from
-     * @param str   the string to allocate
+     * @param allocator the arena or scratch arena to allocate from
+     * @param str       the string to allocate
      * @return a memory segment containing the null-terminated encoded string
      */
-    private MemorySegment allocateString(Arena arena, String str) {
-        if (codeUnitSize == 1) {
-            // For UTF-8, use the built-in method which adds null terminator
-            return ArenaHelper.allocateFrom(arena, str);
+    private MemorySegment allocateString(SegmentAllocator allocator, String str) {
+        final MemorySegment segment;
+        final long byteLength;
+        if (copyChars) {
+            final var chars = str.toCharArray();
+            byteLength = (long) chars.length * codeUnitSize;
+            segment = allocateUninitialized(allocator, byteLength + codeUnitSize, codeUnitSize);
+            MemorySegment.copy(chars, 0, segment, ValueLayout.JAVA_CHAR, 0, chars.length);
         } else {
-            // For UTF-16 and UTF-32, encode manually with null terminator
             final var bytes = str.getBytes(charset);
-            // Allocate extra bytes for null terminator (2 bytes for UTF-16, 4 bytes for UTF-32)
-            final var segment = arena.allocate(bytes.length + codeUnitSize);
-            segment.copyFrom(MemorySegment.ofArray(bytes));
-            // Remaining bytes are already 0 (Java initializes to 0)
-            return segment;
+            byteLength = bytes.length;
+            segment = allocateUninitialized(allocator, byteLength + codeUnitSize, codeUnitSize);
+            MemorySegment.copy(bytes, 0, segment, ValueLayout.JAVA_BYTE, 0, bytes.length);
+        }
+        for (int i = 0; i < codeUnitSize; i++) {
+            segment.set(ValueLayout.JAVA_BYTE, byteLength + i, (byte) 0);
+        }
+        return segment;
+    }
+
+    /**
+     * Allocates memory that the caller overwrites entirely, skipping the clearing for a scratch arena.
+     *
+     * @param allocator     the arena or scratch arena to allocate from
+     * @param byteSize      the size in bytes
+     * @param byteAlignment the alignment in bytes
+     * @return the allocated segment
+     */
+    private static MemorySegment allocateUninitialized(SegmentAllocator allocator, long byteSize, long byteAlignment) {
+        if (allocator instanceof ScratchArena scratch) {
+            return scratch.allocateUninitialized(byteSize, byteAlignment);
         }
+        return allocator.allocate(byteSize, byteAlignment);
     }
 
     /**
@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.ffm;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reusable native memory for the out-parameters, strings and subject copies that a single downcall needs.
+ * <p>
+ * Opening a confined arena for every call costs a native allocation and a free per segment. Instead, each call opens
+ * a frame of a scratch arena, allocates from a block that is reused across calls by bumping an offset, and closes the
+ * frame to give the memory back. The block grows geometrically, up to {@link #RETAINED_BYTES_PROPERTY} bytes (default
+ * {@value #DEFAULT_RETAINED_BYTES}); larger allocations come from a confined arena closed along with the frame.
+ * <p>
+ * Platform threads keep their scratch arena for their lifetime. Virtual threads take one from a small lock-free pool
+ * for the outermost call and return it when that call completes, so that scratch memory scales with the number of
+ * carrier threads rather than with the number of virtual threads. Frames nest, so that calls made from a callout
+ * while another call is running on the same thread allocate past the memory that call is still using.
+ * <p>
+ * Segments allocated from a frame must not be used once the frame is closed. Blocks are allocated in automatic arenas,
+ * so that the memory of a scratch arena is freed once it becomes unreachable, for example when its thread ends.
+ */
+final class ScratchArena implements SegmentAllocator, AutoCloseable {
+
+    /**
+     * System property name for configuring the largest block a scratch arena keeps across calls, in bytes.
+     * <p>
+     * A value of {@code 0} disables reuse: every call then allocates from a confined arena of its own.
+     */
+    static final String RETAINED_BYTES_PROPERTY = "pcre2.ffm.scratch.retained.bytes";
+
+    /**
+     * The default largest block a scratch arena keeps across calls, in bytes
+     */
+    static final long DEFAULT_RETAINED_BYTES = 1024 * 1024;
+
+    /**
+     * The size of the first block of a scratch arena, in bytes
+     */
+    private static final long INITIAL_BLOCK_SIZE = 1024;
+
+    /**
+     * The alignment of blocks, which covers all value layouts
+     */
+    private static final long BLOCK_ALIGNMENT = 16;
+
+    private static final long RETAINED_BYTES = retainedBytes();
+
+    private static final int POOL_CAPACITY = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * The scratch arena of the current thread: for a virtual thread, only while it has a frame open
+     */
+    private static final ThreadLocal<ScratchArena> CURRENT = new ThreadLocal<>();
+
+    private static final Queue<ScratchArena> POOL = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicInteger POOL_SIZE = new AtomicInteger();
+
+    /**
+     * The block allocations are bumped from
+     */
+    private MemorySegment block = MemorySegment.NULL;
+
+    /**
+     * The offset of the first free byte of the block
+     */
+    private long offset;
+
+    /**
+     * The number of open frames
+     */
+    private int depth;
+
+    /**
+     * The block offset to restore when each open frame is closed
+     */
+    private long[] marks = new long[4];
+
+    /**
+     * The arena of each open frame for the allocations that do not fit a block, or {@code null}
+     */
+    private Arena[] overflow = new Arena[4];
+
+    /**
+     * Whether this scratch arena goes back to the pool once its outermost frame is closed
+     */
+    private boolean pooled;
+
+    private ScratchArena() {
+    }
+
+    /**
+     * Open a frame of the scratch arena of the current thread. The frame must be closed on the same thread, in the
+     * reverse order of opening, which a try-with-resources statement guarantees.
+     *
+     * @return the scratch arena, to allocate from and close once the call is complete
+     */
+    static ScratchArena open() {
+        var scratch = CURRENT.get();
+        if (scratch == null) {
+            final var virtual = Thread.currentThread().isVirtual();
+            scratch = virtual ? POOL.poll() : null;
+            if (scratch != null) {
+                POOL_SIZE.decrementAndGet();
+            } else {
+                scratch = new ScratchArena();
+            }
+            scratch.pooled = virtual;
+            CURRENT.set(scratch);
+        }
+
+        if (scratch.depth == scratch.marks.length) {
+            scratch.marks = Arrays.copyOf(scratch.marks, scratch.depth * 2);
+            scratch.overflow = Arrays.copyOf(scratch.overflow, scratch.depth * 2);
+        }
+        scratch.marks[scratch.depth++] = scratch.offset;
+        return scratch;
+    }
+
+    /**
+     * Allocate zero-filled memory from the innermost open frame.
+     *
+     * @param byteSize      the size in bytes
+     * @param byteAlignment the alignment in bytes, a power of two
+     * @return the allocated segment
+     */
+    @Override
+    public MemorySegment allocate(long byteSize, long byteAlignment) {
+        return allocateUninitialized(byteSize, byteAlignment).fill((byte) 0);
+    }
+
+    /**
+     * Allocate memory from the innermost open frame without clearing it, for callers that overwrite all of it.
+     *
+     * @param byteSize      the size in bytes
+     * @param byteAlignment the alignment in bytes, a power of two
+     * @return the allocated segment
+     */
+    MemorySegment allocateUninitialized(long byteSize, long byteAlignment) {
+        if (depth == 0) {
+            throw new IllegalStateException("scratch arena has no open frame");
+        }
+        if (byteSize < 0) {
+            throw new IllegalArgumentException("byteSize must not be negative");
+        }
+        if (byteAlignment <= 0 || (byteAlignment & (byteAlignment - 1)) != 0) {
+            throw new IllegalArgumentException("byteAlignment must be a power of two");
+        }
+
+        var start = alignUp(block.address() + offset, byteAlignment) - block.address();
+        if (block.byteSize() == 0 || start + byteSize > block.byteSize()) {
+            if (!grow(byteSize, byteAlignment)) {
+                return overflowArena().allocate(byteSize, byteAlignment);
+            }
+            start = 0;
+        }
+
+        offset = start + byteSize;
+        return block.asSlice(start, byteSize);
+    }
+
+    /**
+     * Close the innermost open frame, giving back the memory allocated from it.
+     */
+    @Override
+    public void close() {
+        if (depth == 0) {
+            throw new IllegalStateException("scratch arena has no open frame");
+        }
+
+        offset = marks[--depth];
+        final var arena = overflow[depth];
+        if (arena != null) {
+            overflow[depth] = null;
+            arena.close();
+        }
+
+        if (depth == 0 && pooled) {
+            CURRENT.remove();
+            if (POOL_SIZE.incrementAndGet() <= POOL_CAPACITY) {
+                POOL.offer(this);
+            } else {
+                POOL_SIZE.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Replace the block with one twice as large, or large enough for the given allocation. The memory of the
+     * previous block stays valid for as long as segments of it are reachable.
+     *
+     * @param byteSize      the size in bytes of the allocation that did not fit
+     * @param byteAlignment the alignment in bytes of the allocation that did not fit
+     * @return {@code true} if the block was replaced, or {@code false} if it would grow past the retained size
+     */
+    private boolean grow(long byteSize, long byteAlignment) {
+        if (byteAlignment > BLOCK_ALIGNMENT) {
+            return false;
+        }
+
+        var size = Math.max(INITIAL_BLOCK_SIZE, block.byteSize() * 2);
+        while (size < byteSize) {
+            size *= 2;
+        }
+        if (size > RETAINED_BYTES) {
+            return false;
+        }
+
+        block = Arena.ofAuto().allocate(size, BLOCK_ALIGNMENT);
+        offset = 0;
+        return true;
+    }
+
+    private Arena overflowArena() {
+        var arena = overflow[depth - 1];
+        if (arena == null) {
+            arena = Arena.ofConfined();
+            overflow[depth - 1] = arena;
+        }
+        return arena;
+    }
+
+    private static long alignUp(long value, long alignment) {
+        return (value + alignment - 1) & -alignment;
+    }
+
+    private static long retainedBytes() {
+        final var retainedBytes = System.getProperty(RETAINED_BYTES_PROPERTY);
+        if (retainedBytes == null) {
+            return DEFAULT_RETAINED_BYTES;
+        }
+        try {
+            final var result = Long.parseLong(retainedBytes);
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through
+        }
+        throw new IllegalArgumentException(
+                "System property " + RETAINED_BYTES_PROPERTY + " must be a non-negative integer, got: " + retainedBytes
+        );
+    }
+}
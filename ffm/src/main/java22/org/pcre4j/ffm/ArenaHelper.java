@@ -14,8 +14,8 @@
  */
 package org.pcre4j.ffm;
 
-import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
 import java.lang.foreign.ValueLayout;
 
 /**
@@ -36,45 +36,45 @@ final class ArenaHelper {
     /**
      * Allocates a memory segment for a single element of the given layout.
      *
-     * @param arena  the arena to allocate from
+     * @param arena  the arena or allocator to allocate from
      * @param layout the value layout for the element
      * @return a memory segment sized for one element
      */
-    static MemorySegment allocate(Arena arena, ValueLayout layout) {
+    static MemorySegment allocate(SegmentAllocator arena, ValueLayout layout) {
         return arena.allocate(layout);
     }
 
     /**
      * Allocates a memory segment for multiple elements of the given layout.
      *
-     * @param arena  the arena to allocate from
+     * @param arena  the arena or allocator to allocate from
      * @param layout the value layout for elements
      * @param count  the number of elements
      * @return a memory segment sized for count elements
      */
-    static MemorySegment allocate(Arena arena, ValueLayout layout, long count) {
+    static MemorySegment allocate(SegmentAllocator arena, ValueLayout layout, long count) {
         return arena.allocate(layout, count);
     }
 
     /**
      * Allocates and initializes a memory segment with int array values.
      *
-     * @param arena  the arena to allocate from
+     * @param arena  the arena or allocator to allocate from
      * @param values the int array to copy into the segment
      * @return a memory segment containing the array values
      */
-    static MemorySegment allocateFrom(Arena arena, int[] values) {
+    static MemorySegment allocateFrom(SegmentAllocator arena, int[] values) {
         return arena.allocateFrom(ValueLayout.JAVA_INT, values);
     }
 
     /**
      * Allocates a UTF-8 encoded string with null terminator.
      *
-     * @param arena the arena to allocate from
+     * @param arena the arena or allocator to allocate from
      * @param str   the string to encode as UTF-8
      * @return a memory segment containing the null-terminated UTF-8 string
      */
-    static MemorySegment allocateFrom(Arena arena, String str) {
+    static MemorySegment allocateFrom(SegmentAllocator arena, String str) {
         return arena.allocateFrom(str);
     }
 
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.ffm;
+
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Helper class for downcall handle options - Java 22+ version using critical downcalls.
+ * <p>
+ * This implementation is automatically selected by the JVM when running on Java 22 or later,
+ * thanks to the Multi-Release JAR structure (META-INF/versions/22/).
+ *
+ * @see <a href="https://openjdk.org/jeps/238">JEP 238: Multi-Release JAR Files</a>
+ * @see <a href="https://openjdk.org/jeps/454">JEP 454: Foreign Function &amp; Memory API</a>
+ */
+final class LinkerHelper {
+
+    private LinkerHelper() {
+        // Utility class
+    }
+
+    /**
+     * Creates a downcall handle for a short function that neither blocks nor calls back into Java.
+     *
+     * @param linker   the linker
+     * @param symbol   the address of the function
+     * @param function the descriptor of the function
+     * @return the downcall handle
+     */
+    static MethodHandle criticalDowncallHandle(Linker linker, MemorySegment symbol, FunctionDescriptor function) {
+        return linker.downcallHandle(symbol, function, Linker.Option.critical(false));
+    }
+
+    /**
+     * Creates a downcall handle for a function that neither blocks nor calls back into Java, to which heap segments
+     * can be passed without copying them to native memory.
+     *
+     * @param linker   the linker
+     * @param symbol   the address of the function
+     * @param function the descriptor of the function
+     * @return the downcall handle
+     */
+    static MethodHandle heapAccessDowncallHandle(Linker linker, MemorySegment symbol, FunctionDescriptor function) {
+        return linker.downcallHandle(symbol, function, Linker.Option.critical(true));
+    }
+}
@@ -15,8 +15,12 @@
 package org.pcre4j.ffm;
 
 import org.junit.jupiter.api.Test;
+import org.pcre4j.Pcre2Code;
+import org.pcre4j.Pcre2JitCode;
+import org.pcre4j.Pcre2MatchData;
 import org.pcre4j.api.IPcre2;
 import org.pcre4j.api.Pcre2UtfWidth;
+import org.pcre4j.option.Pcre2CompileOption;
 
 import java.lang.foreign.Arena;
 import java.lang.foreign.FunctionDescriptor;
@@ -26,8 +30,11 @@ import java.lang.foreign.ValueLayout;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -225,4 +232,97 @@ public class Pcre2Tests extends org.pcre4j.test.Pcre2Tests {
         api.codeFree(code);
         api.convertedPatternFree(buffer[0]);
     }
+
+    @Test
+    public void memorySegmentSubjectMatch() {
+        final var ffm = (Pcre2) api;
+        final var code = new Pcre2Code(ffm, "(🌐)$", EnumSet.of(Pcre2CompileOption.UTF), null);
+        final var matchData = new Pcre2MatchData(code);
+        final var bytes = "a🌐b🌐".getBytes(StandardCharsets.UTF_8);
+
+        try (var arena = Arena.ofConfined()) {
+            final var segment = arena.allocate(bytes.length + 2);
+            MemorySegment.copy(MemorySegment.ofArray(bytes), 0, segment, 1, bytes.length);
+
+            // Native and heap segments alike, with nothing outside the segment being part of the subject
+            for (var subject : new MemorySegment[]{segment.asSlice(1, bytes.length), MemorySegment.ofArray(bytes)}) {
+                assertEquals(2, ffm.matchEncoded(code.handle(), subject, 0, 0, matchData.handle(), 0));
+                assertArrayEquals(new long[]{6, 10, 6, 10}, matchData.ovector());
+                assertEquals(
+                        IPcre2.ERROR_NOMATCH,
+                        ffm.matchEncoded(code.handle(), subject.asSlice(0, 6), 0, 0, matchData.handle(), 0)
+                );
+            }
+        }
+    }
+
+    @Test
+    public void stringSubjectAboveCriticalMaxBytesMatch() {
+        final var ffm = (Pcre2) api;
+        final var code = new Pcre2Code(ffm, "(end)$", EnumSet.of(Pcre2CompileOption.UTF), null);
+        final var jitCode = new Pcre2JitCode(ffm, "(end)$", EnumSet.of(Pcre2CompileOption.UTF), null, null);
+        final var matchData = new Pcre2MatchData(code);
+        final var chars = (int) Pcre2.DEFAULT_CRITICAL_MAX_BYTES;
+
+        // Too long to fit even before encoding, and only too long once encoded, respectively
+        for (var prefix : new String[]{"x".repeat(chars + 1), "é".repeat(chars / 2 + 1)}) {
+            final var subject = prefix + "end";
+            final var end = prefix.getBytes(StandardCharsets.UTF_8).length;
+            assertEquals(2, ffm.match(code.handle(), subject, 0, 0, matchData.handle(), 0));
+            assertArrayEquals(new long[]{end, end + 3, end, end + 3}, matchData.ovector());
+            assertEquals(2, ffm.jitMatch(jitCode.handle(), subject, 0, 0, matchData.handle(), 0));
+            assertArrayEquals(new long[]{end, end + 3, end, end + 3}, matchData.ovector());
+        }
+    }
+
+    @Test
+    public void heapSubjectWithCalloutMatch() {
+        final var ffm = (Pcre2) api;
+        final var code = new Pcre2Code(ffm, "(x+)(?C1)(y+)", EnumSet.noneOf(Pcre2CompileOption.class), null);
+        final var matchData = new Pcre2MatchData(code);
+        final var subject = MemorySegment.ofArray("--xxyyy--".getBytes(StandardCharsets.US_ASCII));
+        final var callouts = new AtomicInteger();
+        final var callback = ffm.createCalloutCallback(block -> {
+            callouts.incrementAndGet();
+            return 0;
+        });
+        final var mcontext = ffm.matchContextCreate(0);
+        try {
+            ffm.setCallout(mcontext, callback, 0);
+            final var copy = ffm.matchContextCopy(mcontext);
+
+            // Matches that may call back into Java cannot read the subject from the heap, in copied contexts too
+            for (var context : new long[]{mcontext, copy}) {
+                callouts.set(0);
+                assertEquals(3, ffm.matchEncoded(code.handle(), subject, 0, 0, matchData.handle(), context));
+                assertArrayEquals(new long[]{2, 7, 2, 4, 4, 7}, matchData.ovector());
+                assertEquals(3, ffm.match(code.handle(), "--xxyyy--", 0, 0, matchData.handle(), context));
+                assertTrue(callouts.get() > 0);
+            }
+            ffm.matchContextFree(copy);
+
+            callouts.set(0);
+            ffm.setCallout(mcontext, 0, 0);
+            assertEquals(3, ffm.matchEncoded(code.handle(), subject, 0, 0, matchData.handle(), mcontext));
+            assertEquals(0, callouts.get());
+        } finally {
+            ffm.matchContextFree(mcontext);
+            ffm.freeCalloutCallback(callback);
+        }
+    }
+
+    @Test
+    public void ovectorViewMatch() {
+        final var ffm = (Pcre2) api;
+        final var code = new Pcre2Code(ffm, "(b)", EnumSet.noneOf(Pcre2CompileOption.class), null);
+        final var matchData = new Pcre2MatchData(code);
+        final var view = ffm.ovectorView(matchData.handle());
+        assertEquals(4 * Long.BYTES, view.byteSize());
+
+        assertEquals(2, ffm.match(code.handle(), "abc", 0, 0, matchData.handle(), 0));
+        assertArrayEquals(new long[]{1, 2, 1, 2}, view.toArray(ValueLayout.JAVA_LONG));
+        assertEquals(2, ffm.match(code.handle(), "--b", 0, 0, matchData.handle(), 0));
+        assertEquals(2, view.getAtIndex(ValueLayout.JAVA_LONG, 0));
+        assertEquals(3, view.getAtIndex(ValueLayout.JAVA_LONG, 1));
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.ffm;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.ValueLayout;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScratchArenaTests {
+
+    @Test
+    public void reusesMemoryAcrossFrames() {
+        final long address;
+        try (var arena = ScratchArena.open()) {
+            address = arena.allocate(ValueLayout.JAVA_LONG).address();
+        }
+        try (var arena = ScratchArena.open()) {
+            assertEquals(address, arena.allocate(ValueLayout.JAVA_LONG).address());
+        }
+    }
+
+    @Test
+    public void clearsAllocatedMemory() {
+        try (var arena = ScratchArena.open()) {
+            arena.allocate(ValueLayout.JAVA_LONG).set(ValueLayout.JAVA_LONG, 0, -1L);
+        }
+        try (var arena = ScratchArena.open()) {
+            assertEquals(0L, arena.allocate(ValueLayout.JAVA_LONG).get(ValueLayout.JAVA_LONG, 0));
+        }
+    }
+
+    @Test
+    public void nestedFramesDoNotOverlap() {
+        try (var outer = ScratchArena.open()) {
+            final var first = outer.allocate(ValueLayout.JAVA_LONG);
+            first.set(ValueLayout.JAVA_LONG, 0, 42L);
+
+            final long nestedAddress;
+            try (var inner = ScratchArena.open()) {
+                assertSame(outer, inner);
+                final var nested = inner.allocate(ValueLayout.JAVA_LONG);
+                nested.set(ValueLayout.JAVA_LONG, 0, -1L);
+                nestedAddress = nested.address();
+                assertNotEquals(first.address(), nestedAddress);
+
+                // Growing past the current block keeps the memory of the outer frame valid
+                inner.allocate(ScratchArena.DEFAULT_RETAINED_BYTES / 2, 1);
+            }
+
+            assertEquals(42L, first.get(ValueLayout.JAVA_LONG, 0));
+            assertTrue(outer.allocate(ValueLayout.JAVA_LONG).address() != first.address());
+        }
+    }
+
+    @Test
+    public void alignsAllocations() {
+        try (var arena = ScratchArena.open()) {
+            arena.allocate(1, 1);
+            assertEquals(0, arena.allocate(ValueLayout.JAVA_LONG).address() % 8);
+            arena.allocate(3, 1);
+            assertEquals(0, arena.allocate(4, 4).address() % 4);
+            assertEquals(0, arena.allocate(8, 64).address() % 64);
+        }
+    }
+
+    @Test
+    public void allocatesBeyondRetainedSize() {
+        try (var arena = ScratchArena.open()) {
+            final var segment = arena.allocate(ScratchArena.DEFAULT_RETAINED_BYTES * 2, 1);
+            assertEquals(ScratchArena.DEFAULT_RETAINED_BYTES * 2, segment.byteSize());
+            segment.set(ValueLayout.JAVA_BYTE, segment.byteSize() - 1, (byte) 1);
+        }
+    }
+
+    @Test
+    public void rejectsUseWithoutOpenFrame() {
+        final ScratchArena arena;
+        try (var open = ScratchArena.open()) {
+            arena = open;
+        }
+        assertThrows(IllegalStateException.class, () -> arena.allocate(ValueLayout.JAVA_LONG));
+        assertThrows(IllegalStateException.class, arena::close);
+    }
+
+    @Test
+    public void virtualThreadsShareScratchArenas() throws InterruptedException {
+        final var api = new Pcre2();
+        final var code = api.compile("(\\d+)", 0, new int[1], new long[1], 0);
+        final var errors = new AtomicInteger();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1000; i++) {
+                final var number = i;
+                executor.submit(() -> {
+                    final var matchData = api.matchDataCreateFromPattern(code, 0);
+                    try {
+                        final var subject = "x".repeat(number) + number;
+                        if (api.match(code, subject, 0, 0, matchData, 0) != 2) {
+                            errors.incrementAndGet();
+                            return;
+                        }
+                        final var ovector = new long[4];
+                        api.getOvector(matchData, ovector);
+                        if (ovector[2] != number || ovector[3] != subject.length()) {
+                            errors.incrementAndGet();
+                        }
+                    } finally {
+                        api.matchDataFree(matchData);
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        } finally {
+            api.codeFree(code);
+        }
+        assertEquals(0, errors.get());
+    }
+}
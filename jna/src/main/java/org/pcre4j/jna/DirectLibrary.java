@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.jna;
+
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+
+/**
+ * The functions called for every match, bound to the PCRE2 library by JNA direct mapping.
+ * <p>
+ * Calls through the {@code Library} interface proxy go through reflective dispatch and box every pointer argument in a
+ * {@code Pointer}, whereas direct-mapped native methods take pointers and sizes as primitive {@code long} values, which
+ * is only valid where pointers are 64-bit wide.
+ * <p>
+ * Native methods are bound once per class, so that only the first PCRE2 library and function suffix that asks for them
+ * is bound; other libraries, such as the 16-bit library alongside the 8-bit one, keep using the interface proxy.
+ */
+final class DirectLibrary {
+
+    /**
+     * System property name for enabling JNA direct mapping, {@code true} by default.
+     * <p>
+     * A value of {@code false} makes every call go through the {@code Library} interface proxy.
+     */
+    static final String DIRECT_PROPERTY = "pcre2.jna.direct";
+
+    /**
+     * The name of the library the native methods are bound to, or {@code null} if they are not bound
+     */
+    private static String boundLibrary;
+
+    /**
+     * The function suffix the native methods are bound with
+     */
+    private static String boundSuffix;
+
+    private DirectLibrary() {
+    }
+
+    /**
+     * Bind the native methods to the given library, unless they are bound already.
+     *
+     * @param library the PCRE2 library, whose function mapper maps the method names to the suffixed function names
+     * @param suffix  the function suffix the function mapper of the library appends
+     * @return {@code true} if the native methods are bound to that library and suffix, {@code false} if calls to the
+     * library must go through the interface proxy
+     */
+    static synchronized boolean bind(NativeLibrary library, String suffix) {
+        if (boundLibrary != null) {
+            return boundLibrary.equals(library.getName()) && boundSuffix.equals(suffix);
+        }
+        if (Native.POINTER_SIZE != Long.BYTES || !Boolean.parseBoolean(System.getProperty(DIRECT_PROPERTY, "true"))) {
+            return false;
+        }
+
+        try {
+            Native.register(DirectLibrary.class, library);
+        } catch (UnsatisfiedLinkError | IllegalArgumentException e) {
+            return false;
+        }
+        boundLibrary = library.getName();
+        boundSuffix = suffix;
+        return true;
+    }
+
+    static native int pcre2_match(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    );
+
+    static native int pcre2_match(
+            long code,
+            byte[] subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    );
+
+    static native int pcre2_jit_match(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    );
+
+    static native int pcre2_jit_match(
+            long code,
+            byte[] subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    );
+
+    static native int pcre2_dfa_match(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            int[] workspace,
+            long wscount
+    );
+
+    static native int pcre2_dfa_match(
+            long code,
+            byte[] subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            int[] workspace,
+            long wscount
+    );
+
+    static native int pcre2_substitute(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            byte[] replacement,
+            long rlength,
+            long outputbuffer,
+            long[] outlengthptr
+    );
+
+    static native int pcre2_substitute(
+            long code,
+            byte[] subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            byte[] replacement,
+            long rlength,
+            long outputbuffer,
+            long[] outlengthptr
+    );
+
+    static native long pcre2_match_data_create(int ovecsize, long gcontext);
+
+    static native long pcre2_match_data_create_from_pattern(long code, long gcontext);
+
+    static native void pcre2_match_data_free(long matchData);
+
+    static native int pcre2_get_ovector_count(long matchData);
+
+    static native long pcre2_get_ovector_pointer(long matchData);
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.jna;
+
+import com.sun.jna.Callback;
+import com.sun.jna.CallbackReference;
+import com.sun.jna.Pointer;
+import org.pcre4j.api.Pcre2MemoryAllocator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Java allocators that general contexts call instead of the system memory management functions.
+ * <p>
+ * All such general contexts share one pair of {@code private_malloc} and {@code private_free} callbacks, which are
+ * never freed, and tell their allocators apart by the {@code memory_data} PCRE2 passes along: the identifier the
+ * allocator is registered under. A registration counts the blocks the allocator has handed out and lives until the
+ * last of them, which includes the general context itself, is freed, so that the allocator stays reachable for as
+ * long as any context, pattern or match data may call it.
+ */
+final class MemoryAllocators {
+
+    private static final Map<Long, Registration> REGISTRATIONS = new ConcurrentHashMap<>();
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    private static final MallocCallback MALLOC_CALLBACK = new MallocCallback();
+
+    private static final FreeCallback FREE_CALLBACK = new FreeCallback();
+
+    /**
+     * The {@code void *(*)(PCRE2_SIZE, void *)} callback
+     */
+    static final Pointer MALLOC = CallbackReference.getFunctionPointer(MALLOC_CALLBACK);
+
+    /**
+     * The {@code void (*)(void *, void *)} callback
+     */
+    static final Pointer FREE = CallbackReference.getFunctionPointer(FREE_CALLBACK);
+
+    private MemoryAllocators() {
+    }
+
+    /**
+     * Register an allocator for a general context about to be created.
+     *
+     * @param allocator the allocator
+     * @return the identifier to pass to PCRE2 as the memory data
+     */
+    static long register(Pcre2MemoryAllocator allocator) {
+        final var id = NEXT_ID.getAndIncrement();
+        REGISTRATIONS.put(id, new Registration(allocator, new AtomicLong()));
+        return id;
+    }
+
+    /**
+     * Drop a registration that no block was allocated for, such as that of a general context that failed to be
+     * created.
+     *
+     * @param id the identifier of the registration
+     */
+    static void unregisterIfUnused(long id) {
+        REGISTRATIONS.computeIfPresent(id, (key, registration) -> registration.blocks.get() == 0 ? null : registration);
+    }
+
+    /**
+     * JNA Callback for private_malloc: void *(*)(PCRE2_SIZE, void *)
+     */
+    private static class MallocCallback implements Callback {
+        @SuppressWarnings("unused")
+        public Pointer invoke(Pointer size, Pointer memoryData) {
+            final var registration = REGISTRATIONS.get(Pointer.nativeValue(memoryData));
+            if (registration == null) {
+                return null;
+            }
+
+            final long pointer;
+            try {
+                pointer = registration.allocator.malloc(Pointer.nativeValue(size));
+            } catch (Exception e) {
+                return null;
+            }
+            if (pointer == 0) {
+                return null;
+            }
+            registration.blocks.incrementAndGet();
+            return new Pointer(pointer);
+        }
+    }
+
+    /**
+     * JNA Callback for private_free: void (*)(void *, void *)
+     */
+    private static class FreeCallback implements Callback {
+        @SuppressWarnings("unused")
+        public void invoke(Pointer block, Pointer memoryData) {
+            final var pointer = Pointer.nativeValue(block);
+            if (pointer == 0) {
+                return;
+            }
+            final var id = Pointer.nativeValue(memoryData);
+            final var registration = REGISTRATIONS.get(id);
+            if (registration == null) {
+                return;
+            }
+
+            try {
+                registration.allocator.free(pointer);
+            } catch (Exception e) {
+                // Nothing can be reported to PCRE2
+            }
+            if (registration.blocks.decrementAndGet() == 0) {
+                REGISTRATIONS.remove(id);
+            }
+        }
+    }
+
+    private record Registration(Pcre2MemoryAllocator allocator, AtomicLong blocks) {
+    }
+}
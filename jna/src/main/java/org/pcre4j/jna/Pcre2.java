@@ -16,6 +16,7 @@ package org.pcre4j.jna;
 
 import com.sun.jna.Callback;
 import com.sun.jna.CallbackReference;
+import com.sun.jna.Function;
 import com.sun.jna.FunctionMapper;
 import com.sun.jna.Memory;
 import com.sun.jna.Native;
@@ -30,14 +31,21 @@ import org.pcre4j.api.Pcre2CalloutBlock;
 import org.pcre4j.api.Pcre2CalloutEnumerateBlock;
 import org.pcre4j.api.Pcre2CalloutEnumerateHandler;
 import org.pcre4j.api.Pcre2CalloutHandler;
+import org.pcre4j.api.Pcre2GlobalMatch;
 import org.pcre4j.api.Pcre2LibraryFinder;
+import org.pcre4j.api.Pcre2MemoryAllocator;
 import org.pcre4j.api.Pcre2NativeLoader;
 import org.pcre4j.api.Pcre2UtfWidth;
 
+import java.lang.ref.Reference;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -51,6 +59,11 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
      */
     private final Library library;
 
+    /**
+     * Whether the functions called for every match are bound by JNA direct mapping, see {@link DirectLibrary}.
+     */
+    private final boolean direct;
+
     /**
      * The charset used for encoding strings to pass to PCRE2.
      */
@@ -61,6 +74,21 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
      */
     private final int codeUnitSize;
 
+    /**
+     * Whether strings are encoded in native-order UTF-16, so that their characters can be copied as they are
+     */
+    private final boolean copyChars;
+
+    /**
+     * The {@code pcre2_match} function of the PCRE2 library, passed to the helper library.
+     */
+    private final Pointer pcre2Match;
+
+    /**
+     * The global-match function of the helper library, or {@code null} if the helper library is not available.
+     */
+    private final Function pcre4jMatchAll;
+
     private final ConcurrentHashMap<Long, Callback> callbackEntries = new ConcurrentHashMap<>();
 
     /**
@@ -122,6 +150,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
 
         this.charset = charset;
         this.codeUnitSize = codeUnitSize;
+        this.copyChars = codeUnitSize == 2 && charset.equals(Pcre2UtfWidth.UTF16.charset());
 
         Library loadedLibrary;
 
@@ -155,6 +184,40 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             }
         }
         this.library = loadedLibrary;
+
+        final var nativeLibrary = ((com.sun.jna.Library.Handler) Proxy.getInvocationHandler(loadedLibrary))
+                .getNativeLibrary();
+        this.pcre2Match = nativeLibrary.getFunction("pcre2_match" + suffix);
+        this.direct = DirectLibrary.bind(nativeLibrary, suffix);
+
+        // The helper library is optional, matchAll() falls back to a loop in Java without it
+        this.pcre4jMatchAll = Pcre2NativeLoader.loadHelper()
+                .map(Pcre2::findHelperFunction)
+                .orElse(null);
+    }
+
+    /**
+     * Check whether the functions called for every match are bound by JNA direct mapping rather than called through
+     * the interface proxy.
+     *
+     * @return {@code true} if the functions are direct-mapped
+     */
+    boolean isDirectMapped() {
+        return direct;
+    }
+
+    /**
+     * Find the global-match function of the helper library at the given path.
+     *
+     * @param helperPath the path to the helper library
+     * @return the function, or {@code null} if the library cannot be loaded or does not export it
+     */
+    private static Function findHelperFunction(Path helperPath) {
+        try {
+            return NativeLibrary.getInstance(helperPath.toString()).getFunction(Pcre2GlobalMatch.HELPER_FUNCTION_NAME);
+        } catch (UnsatisfiedLinkError e) {
+            return null;
+        }
     }
 
     @Override
@@ -203,6 +266,25 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         return Pointer.nativeValue(pGContext);
     }
 
+    @Override
+    public long generalContextCreate(Pcre2MemoryAllocator allocator) {
+        if (allocator == null) {
+            throw new IllegalArgumentException("allocator must not be null");
+        }
+
+        final var id = MemoryAllocators.register(allocator);
+        try {
+            final var pGContext = library.pcre2_general_context_create(
+                    MemoryAllocators.MALLOC,
+                    MemoryAllocators.FREE,
+                    new Pointer(id)
+            );
+            return Pointer.nativeValue(pGContext);
+        } finally {
+            MemoryAllocators.unregisterIfUnused(id);
+        }
+    }
+
     @Override
     public long generalContextCopy(long gcontext) {
         final var pGContext = new Pointer(gcontext);
@@ -262,7 +344,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("erroroffset must be an array of length 1");
         }
 
-        final var pszPattern = pattern.getBytes(charset);
+        final var pszPattern = encode(pattern);
         final var patternSize = new Pointer(pszPattern.length / codeUnitSize);
         final var errorCodeRef = new IntByReference();
         final var errorOffsetRef = new LongByReference();
@@ -321,7 +403,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         }
 
         final var pszBuffer = Native.getDirectBufferPointer(buffer);
-        final var bufferSize = new Pointer(buffer.capacity());
+        final var bufferSize = new Pointer(buffer.capacity() / codeUnitSize);
         return library.pcre2_get_error_message(errorcode, pszBuffer, bufferSize);
     }
 
@@ -388,8 +470,23 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("subject must not be null");
         }
 
+        try (var buffer = SubjectBuffer.open()) {
+            final var pSubject = buffer != null ? buffer.encode(subject, charset, copyChars) : 0;
+            if (pSubject != 0) {
+                return jitMatch(
+                        code, pSubject, buffer.length() / codeUnitSize, startoffset, options, matchData, mcontext
+                );
+            }
+        }
+
+        final var pszSubject = encode(subject);
+        if (direct) {
+            return DirectLibrary.pcre2_jit_match(
+                    code, pszSubject, pszSubject.length / codeUnitSize, startoffset, options, matchData, mcontext
+            );
+        }
+
         final var pCode = new Pointer(code);
-        final var pszSubject = subject.getBytes(charset);
         final var subjectLength = new Pointer(pszSubject.length / codeUnitSize);
         final var startOffset = new Pointer(startoffset);
         final var pMatchData = new Pointer(matchData);
@@ -406,6 +503,110 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         );
     }
 
+    @Override
+    public int jitMatch(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        if (subject == 0) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+
+        if (direct) {
+            return DirectLibrary.pcre2_jit_match(code, subject, length, startoffset, options, matchData, mcontext);
+        }
+
+        final var pCode = new Pointer(code);
+        final var pSubject = new Pointer(subject);
+        final var subjectLength = new Pointer(length);
+        final var startOffset = new Pointer(startoffset);
+        final var pMatchData = new Pointer(matchData);
+        final var pMContext = new Pointer(mcontext);
+
+        return library.pcre2_jit_match(
+                pCode,
+                pSubject,
+                subjectLength,
+                startOffset,
+                options,
+                pMatchData,
+                pMContext
+        );
+    }
+
+    @Override
+    public int jitMatchEncoded(
+            long code,
+            ByteBuffer subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (!subject.isDirect()) {
+            return jitMatchEncoded(
+                    code, heapSubject(subject), 0, subject.remaining(), startoffset, options, matchData, mcontext
+            );
+        }
+
+        try {
+            return jitMatch(
+                    code,
+                    directAddress(subject),
+                    subjectLength(subject.remaining()),
+                    startoffset,
+                    options,
+                    matchData,
+                    mcontext
+            );
+        } finally {
+            Reference.reachabilityFence(subject);
+        }
+    }
+
+    @Override
+    public int jitMatchEncoded(
+            long code,
+            byte[] subject,
+            int offset,
+            int length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        final var pszSubject = subjectSlice(subject, offset, length);
+        if (direct) {
+            return DirectLibrary.pcre2_jit_match(
+                    code, pszSubject, subjectLength(length), startoffset, options, matchData, mcontext
+            );
+        }
+
+        final var pCode = new Pointer(code);
+        final var subjectLength = new Pointer(subjectLength(length));
+        final var startOffset = new Pointer(startoffset);
+        final var pMatchData = new Pointer(matchData);
+        final var pMContext = new Pointer(mcontext);
+
+        return library.pcre2_jit_match(
+                pCode,
+                pszSubject,
+                subjectLength,
+                startOffset,
+                options,
+                pMatchData,
+                pMContext
+        );
+    }
+
     @Override
     public long jitStackCreate(long startsize, long maxsize, long gcontext) {
         final var startSize = new Pointer(startsize);
@@ -437,6 +638,10 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
 
     @Override
     public long matchDataCreate(int ovecsize, long gcontext) {
+        if (direct) {
+            return DirectLibrary.pcre2_match_data_create(ovecsize, gcontext);
+        }
+
         final var pGContext = new Pointer(gcontext);
         final var pMatchData = library.pcre2_match_data_create(ovecsize, pGContext);
         return Pointer.nativeValue(pMatchData);
@@ -444,6 +649,10 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
 
     @Override
     public long matchDataCreateFromPattern(long code, long gcontext) {
+        if (direct) {
+            return DirectLibrary.pcre2_match_data_create_from_pattern(code, gcontext);
+        }
+
         final var pCode = new Pointer(code);
         final var pGContext = new Pointer(gcontext);
         final var pMatchData = library.pcre2_match_data_create_from_pattern(pCode, pGContext);
@@ -452,6 +661,11 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
 
     @Override
     public void matchDataFree(long matchData) {
+        if (direct) {
+            DirectLibrary.pcre2_match_data_free(matchData);
+            return;
+        }
+
         final var pMatchData = new Pointer(matchData);
         library.pcre2_match_data_free(pMatchData);
     }
@@ -520,7 +734,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("blength must be an array of length 1");
         }
 
-        final var pszPattern = pattern.getBytes(charset);
+        final var pszPattern = encode(pattern);
         final var patternLength = new Pointer(pszPattern.length / codeUnitSize);
         final var bufferRef = new PointerByReference(new Pointer(buffer[0]));
         final var blengthRef = new LongByReference(blength[0]);
@@ -567,8 +781,23 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("subject must not be null");
         }
 
+        try (var buffer = SubjectBuffer.open()) {
+            final var pSubject = buffer != null ? buffer.encode(subject, charset, copyChars) : 0;
+            if (pSubject != 0) {
+                return match(
+                        code, pSubject, buffer.length() / codeUnitSize, startoffset, options, matchData, mcontext
+                );
+            }
+        }
+
+        final var pszSubject = encode(subject);
+        if (direct) {
+            return DirectLibrary.pcre2_match(
+                    code, pszSubject, pszSubject.length / codeUnitSize, startoffset, options, matchData, mcontext
+            );
+        }
+
         final var pCode = new Pointer(code);
-        final var pszSubject = subject.getBytes(charset);
         final var subjectLength = new Pointer(pszSubject.length / codeUnitSize);
         final var startOffset = new Pointer(startoffset);
         final var pMatchData = new Pointer(matchData);
@@ -586,19 +815,397 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
     }
 
     @Override
-    public int dfaMatch(
+    public int match(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        if (subject == 0) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+
+        if (direct) {
+            return DirectLibrary.pcre2_match(code, subject, length, startoffset, options, matchData, mcontext);
+        }
+
+        final var pCode = new Pointer(code);
+        final var pSubject = new Pointer(subject);
+        final var subjectLength = new Pointer(length);
+        final var startOffset = new Pointer(startoffset);
+        final var pMatchData = new Pointer(matchData);
+        final var pMContext = new Pointer(mcontext);
+
+        return library.pcre2_match(
+                pCode,
+                pSubject,
+                subjectLength,
+                startOffset,
+                options,
+                pMatchData,
+                pMContext
+        );
+    }
+
+    @Override
+    public int matchEncoded(
+            long code,
+            ByteBuffer subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (!subject.isDirect()) {
+            return matchEncoded(
+                    code, heapSubject(subject), 0, subject.remaining(), startoffset, options, matchData, mcontext
+            );
+        }
+
+        try {
+            return match(
+                    code,
+                    directAddress(subject),
+                    subjectLength(subject.remaining()),
+                    startoffset,
+                    options,
+                    matchData,
+                    mcontext
+            );
+        } finally {
+            Reference.reachabilityFence(subject);
+        }
+    }
+
+    @Override
+    public int matchEncoded(
+            long code,
+            byte[] subject,
+            int offset,
+            int length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext
+    ) {
+        final var pszSubject = subjectSlice(subject, offset, length);
+        if (direct) {
+            return DirectLibrary.pcre2_match(
+                    code, pszSubject, subjectLength(length), startoffset, options, matchData, mcontext
+            );
+        }
+
+        final var pCode = new Pointer(code);
+        final var subjectLength = new Pointer(subjectLength(length));
+        final var startOffset = new Pointer(startoffset);
+        final var pMatchData = new Pointer(matchData);
+        final var pMContext = new Pointer(mcontext);
+
+        return library.pcre2_match(
+                pCode,
+                pszSubject,
+                subjectLength,
+                startOffset,
+                options,
+                pMatchData,
+                pMContext
+        );
+    }
+
+    @Override
+    public int matchAll(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            int flags,
+            long matchData,
+            long mcontext,
+            long[] ovectors
+    ) {
+        if (subject == 0) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (ovectors == null) {
+            throw new IllegalArgumentException("ovectors must not be null");
+        }
+
+        final var pSubject = new Pointer(subject);
+        if (pcre4jMatchAll == null) {
+            return Pcre2GlobalMatch.matchAll(
+                    this,
+                    code,
+                    subject,
+                    length,
+                    startoffset,
+                    options,
+                    flags,
+                    matchData,
+                    mcontext,
+                    ovectors,
+                    offset -> switch (codeUnitSize) {
+                        case 1 -> Byte.toUnsignedLong(pSubject.getByte(offset));
+                        case 2 -> Short.toUnsignedLong(pSubject.getShort(offset * 2));
+                        default -> Integer.toUnsignedLong(pSubject.getInt(offset * 4));
+                    }
+            );
+        }
+
+        final var helperFlags = Pcre2GlobalMatch.helperFlags(this, code, flags);
+        final var pMatchData = new Pointer(matchData);
+        final var pairs = getOvectorCount(matchData);
+        final var capacity = ovectors.length / (pairs * 2);
+        final var pOvectors = new Memory(Math.max((long) capacity * pairs * 2 * Long.BYTES, 1));
+
+        final var result = pcre4jMatchAll.invokeInt(new Object[]{
+                pcre2Match,
+                new Pointer(code),
+                pSubject,
+                new Pointer(length),
+                new Pointer(startoffset),
+                options,
+                helperFlags,
+                codeUnitSize,
+                pMatchData,
+                new Pointer(mcontext),
+                new Pointer(getOvectorPointer(matchData)),
+                pairs,
+                pOvectors,
+                new Pointer(capacity)
+        });
+        if (result > 0) {
+            pOvectors.read(0, ovectors, 0, result * pairs * 2);
+        }
+        return result;
+    }
+
+    @Override
+    public long subjectCreate(String subject, long[] length) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (length == null || length.length < 1) {
+            throw new IllegalArgumentException("length must be an array of length 1");
+        }
+
+        final var bytes = encode(subject);
+        final var pSubject = Native.malloc(bytes.length + codeUnitSize);
+        if (pSubject == 0) {
+            return 0;
+        }
+
+        final var pointer = new Pointer(pSubject);
+        pointer.write(0, bytes, 0, bytes.length);
+        pointer.setMemory(bytes.length, codeUnitSize, (byte) 0);
+
+        length[0] = bytes.length / codeUnitSize;
+        return pSubject;
+    }
+
+    @Override
+    public void subjectFree(long subject) {
+        if (subject != 0) {
+            Native.free(subject);
+        }
+    }
+
+    @Override
+    public int codeUnitSize() {
+        return codeUnitSize;
+    }
+
+    @Override
+    public int dfaMatch(
+            long code,
+            String subject,
+            int startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            int[] workspace,
+            int wscount
+    ) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (workspace == null) {
+            throw new IllegalArgumentException("workspace must not be null");
+        }
+        if (wscount < 0) {
+            throw new IllegalArgumentException("wscount must not be negative");
+        }
+        if (wscount > workspace.length) {
+            throw new IllegalArgumentException("wscount must not be greater than workspace.length");
+        }
+
+        try (var buffer = SubjectBuffer.open()) {
+            final var pSubject = buffer != null ? buffer.encode(subject, charset, copyChars) : 0;
+            if (pSubject != 0) {
+                return dfaMatch(
+                        code,
+                        pSubject,
+                        buffer.length() / codeUnitSize,
+                        startoffset,
+                        options,
+                        matchData,
+                        mcontext,
+                        workspace,
+                        wscount
+                );
+            }
+        }
+
+        final var pszSubject = encode(subject);
+        if (direct) {
+            return DirectLibrary.pcre2_dfa_match(
+                    code,
+                    pszSubject,
+                    pszSubject.length / codeUnitSize,
+                    startoffset,
+                    options,
+                    matchData,
+                    mcontext,
+                    workspace,
+                    wscount
+            );
+        }
+
+        final var pCode = new Pointer(code);
+        final var subjectLength = new Pointer(pszSubject.length / codeUnitSize);
+        final var startOffset = new Pointer(startoffset);
+        final var pMatchData = new Pointer(matchData);
+        final var pMContext = new Pointer(mcontext);
+        final var wsCount = new Pointer(wscount);
+
+        return library.pcre2_dfa_match(
+                pCode,
+                pszSubject,
+                subjectLength,
+                startOffset,
+                options,
+                pMatchData,
+                pMContext,
+                workspace,
+                wsCount
+        );
+    }
+
+    @Override
+    public int dfaMatch(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            int[] workspace,
+            int wscount
+    ) {
+        if (subject == 0) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (workspace == null) {
+            throw new IllegalArgumentException("workspace must not be null");
+        }
+        if (wscount < 0) {
+            throw new IllegalArgumentException("wscount must not be negative");
+        }
+        if (wscount > workspace.length) {
+            throw new IllegalArgumentException("wscount must not be greater than workspace.length");
+        }
+
+        if (direct) {
+            return DirectLibrary.pcre2_dfa_match(
+                    code, subject, length, startoffset, options, matchData, mcontext, workspace, wscount
+            );
+        }
+
+        final var pCode = new Pointer(code);
+        final var pSubject = new Pointer(subject);
+        final var subjectLength = new Pointer(length);
+        final var startOffset = new Pointer(startoffset);
+        final var pMatchData = new Pointer(matchData);
+        final var pMContext = new Pointer(mcontext);
+        final var wsCount = new Pointer(wscount);
+
+        return library.pcre2_dfa_match(
+                pCode,
+                pSubject,
+                subjectLength,
+                startOffset,
+                options,
+                pMatchData,
+                pMContext,
+                workspace,
+                wsCount
+        );
+    }
+
+    @Override
+    public int dfaMatchEncoded(
+            long code,
+            ByteBuffer subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            int[] workspace,
+            int wscount
+    ) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (!subject.isDirect()) {
+            return dfaMatchEncoded(
+                    code,
+                    heapSubject(subject),
+                    0,
+                    subject.remaining(),
+                    startoffset,
+                    options,
+                    matchData,
+                    mcontext,
+                    workspace,
+                    wscount
+            );
+        }
+
+        try {
+            return dfaMatch(
+                    code,
+                    directAddress(subject),
+                    subjectLength(subject.remaining()),
+                    startoffset,
+                    options,
+                    matchData,
+                    mcontext, workspace, wscount
+            );
+        } finally {
+            Reference.reachabilityFence(subject);
+        }
+    }
+
+    @Override
+    public int dfaMatchEncoded(
             long code,
-            String subject,
-            int startoffset,
+            byte[] subject,
+            int offset,
+            int length,
+            long startoffset,
             int options,
             long matchData,
             long mcontext,
             int[] workspace,
             int wscount
     ) {
-        if (subject == null) {
-            throw new IllegalArgumentException("subject must not be null");
-        }
         if (workspace == null) {
             throw new IllegalArgumentException("workspace must not be null");
         }
@@ -608,10 +1215,23 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         if (wscount > workspace.length) {
             throw new IllegalArgumentException("wscount must not be greater than workspace.length");
         }
+        final var pszSubject = subjectSlice(subject, offset, length);
+        if (direct) {
+            return DirectLibrary.pcre2_dfa_match(
+                    code,
+                    pszSubject,
+                    subjectLength(length),
+                    startoffset,
+                    options,
+                    matchData,
+                    mcontext,
+                    workspace,
+                    wscount
+            );
+        }
 
         final var pCode = new Pointer(code);
-        final var pszSubject = subject.getBytes(charset);
-        final var subjectLength = new Pointer(pszSubject.length / codeUnitSize);
+        final var subjectLength = new Pointer(subjectLength(length));
         final var startOffset = new Pointer(startoffset);
         final var pMatchData = new Pointer(matchData);
         final var pMContext = new Pointer(mcontext);
@@ -632,6 +1252,10 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
 
     @Override
     public int getOvectorCount(long matchData) {
+        if (direct) {
+            return DirectLibrary.pcre2_get_ovector_count(matchData);
+        }
+
         final var pMatchData = new Pointer(matchData);
         return library.pcre2_get_ovector_count(pMatchData);
     }
@@ -648,11 +1272,33 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("ovector must not be null");
         }
 
-        final var pMatchData = new Pointer(matchData);
-        final var pOvector = library.pcre2_get_ovector_pointer(pMatchData);
+        final var pOvector = new Pointer(getOvectorPointer(matchData));
         pOvector.read(0, ovector, 0, ovector.length);
     }
 
+    @Override
+    public long getOvectorPointer(long matchData) {
+        if (direct) {
+            return DirectLibrary.pcre2_get_ovector_pointer(matchData);
+        }
+
+        final var pMatchData = new Pointer(matchData);
+        return Pointer.nativeValue(library.pcre2_get_ovector_pointer(pMatchData));
+    }
+
+    /**
+     * Get a pointer to the output vector of the match data, to read its offsets in place.
+     * <p>
+     * The pointer is valid for as long as the match data exists, and reflects every match made with it without copying
+     * the offsets: for example, {@code view.getLong(Long.BYTES)} is the end of the last match.
+     *
+     * @param matchData the match data handle
+     * @return the pointer to the output vector
+     */
+    public Pointer ovectorView(long matchData) {
+        return new Pointer(getOvectorPointer(matchData));
+    }
+
     @Override
     public long getStartchar(long matchData) {
         final var pMatchData = new Pointer(matchData);
@@ -772,13 +1418,48 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
             throw new IllegalArgumentException("outputlength must be an array of length 1");
         }
 
+        try (var buffer = SubjectBuffer.open()) {
+            final var pSubject = buffer != null ? buffer.encode(subject, charset, copyChars) : 0;
+            if (pSubject != 0) {
+                return substitute(
+                        code,
+                        pSubject,
+                        buffer.length() / codeUnitSize,
+                        startoffset,
+                        options,
+                        matchData,
+                        mcontext,
+                        replacement,
+                        outputbuffer,
+                        outputlength
+                );
+            }
+        }
+
+        final var pszSubject = encode(subject);
+        if (direct) {
+            final var pszReplacement = encode(replacement);
+            return DirectLibrary.pcre2_substitute(
+                    code,
+                    pszSubject,
+                    pszSubject.length / codeUnitSize,
+                    startoffset,
+                    options,
+                    matchData,
+                    mcontext,
+                    pszReplacement,
+                    pszReplacement.length / codeUnitSize,
+                    Pointer.nativeValue(Native.getDirectBufferPointer(outputbuffer)),
+                    outputlength
+            );
+        }
+
         final var pCode = new Pointer(code);
-        final var pszSubject = subject.getBytes(charset);
         final var subjectLength = new Pointer(pszSubject.length / codeUnitSize);
         final var startOffset = new Pointer(startoffset);
         final var pMatchData = new Pointer(matchData);
         final var pMContext = new Pointer(mcontext);
-        final var pszReplacement = replacement.getBytes(charset);
+        final var pszReplacement = encode(replacement);
         final var replacementLength = new Pointer(pszReplacement.length / codeUnitSize);
         final var pOutputBuffer = Native.getDirectBufferPointer(outputbuffer);
         final var outputLengthRef = new LongByReference(outputlength[0]);
@@ -802,6 +1483,199 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         return result;
     }
 
+    @Override
+    public int substitute(
+            long code,
+            long subject,
+            long length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            String replacement,
+            ByteBuffer outputbuffer,
+            long[] outputlength
+    ) {
+        if (subject == 0) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (replacement == null) {
+            throw new IllegalArgumentException("replacement must not be null");
+        }
+        if (outputbuffer == null) {
+            throw new IllegalArgumentException("outputbuffer must not be null");
+        }
+        if (!outputbuffer.isDirect()) {
+            throw new IllegalArgumentException("outputbuffer must be direct");
+        }
+        if (outputlength == null || outputlength.length < 1) {
+            throw new IllegalArgumentException("outputlength must be an array of length 1");
+        }
+
+        if (direct) {
+            final var pszReplacement = encode(replacement);
+            return DirectLibrary.pcre2_substitute(
+                    code,
+                    subject,
+                    length,
+                    startoffset,
+                    options,
+                    matchData,
+                    mcontext,
+                    pszReplacement,
+                    pszReplacement.length / codeUnitSize,
+                    Pointer.nativeValue(Native.getDirectBufferPointer(outputbuffer)),
+                    outputlength
+            );
+        }
+
+        final var pCode = new Pointer(code);
+        final var pSubject = new Pointer(subject);
+        final var subjectLength = new Pointer(length);
+        final var startOffset = new Pointer(startoffset);
+        final var pMatchData = new Pointer(matchData);
+        final var pMContext = new Pointer(mcontext);
+        final var pszReplacement = encode(replacement);
+        final var replacementLength = new Pointer(pszReplacement.length / codeUnitSize);
+        final var pOutputBuffer = Native.getDirectBufferPointer(outputbuffer);
+        final var outputLengthRef = new LongByReference(outputlength[0]);
+
+        final var result = library.pcre2_substitute(
+                pCode,
+                pSubject,
+                subjectLength,
+                startOffset,
+                options,
+                pMatchData,
+                pMContext,
+                pszReplacement,
+                replacementLength,
+                pOutputBuffer,
+                outputLengthRef
+        );
+
+        outputlength[0] = outputLengthRef.getValue();
+        return result;
+    }
+
+    @Override
+    public int substituteEncoded(
+            long code,
+            ByteBuffer subject,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            String replacement,
+            ByteBuffer outputbuffer,
+            long[] outputlength
+    ) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (!subject.isDirect()) {
+            return substituteEncoded(
+                    code,
+                    heapSubject(subject),
+                    0,
+                    subject.remaining(),
+                    startoffset,
+                    options,
+                    matchData,
+                    mcontext,
+                    replacement,
+                    outputbuffer,
+                    outputlength
+            );
+        }
+
+        try {
+            return substitute(
+                    code,
+                    directAddress(subject),
+                    subjectLength(subject.remaining()),
+                    startoffset,
+                    options,
+                    matchData,
+                    mcontext, replacement, outputbuffer, outputlength
+            );
+        } finally {
+            Reference.reachabilityFence(subject);
+        }
+    }
+
+    @Override
+    public int substituteEncoded(
+            long code,
+            byte[] subject,
+            int offset,
+            int length,
+            long startoffset,
+            int options,
+            long matchData,
+            long mcontext,
+            String replacement,
+            ByteBuffer outputbuffer,
+            long[] outputlength
+    ) {
+        if (replacement == null) {
+            throw new IllegalArgumentException("replacement must not be null");
+        }
+        if (outputbuffer == null) {
+            throw new IllegalArgumentException("outputbuffer must not be null");
+        }
+        if (!outputbuffer.isDirect()) {
+            throw new IllegalArgumentException("outputbuffer must be direct");
+        }
+        if (outputlength == null || outputlength.length < 1) {
+            throw new IllegalArgumentException("outputlength must be an array of length 1");
+        }
+        final var pszSubject = subjectSlice(subject, offset, length);
+        if (direct) {
+            final var pszReplacement = encode(replacement);
+            return DirectLibrary.pcre2_substitute(
+                    code,
+                    pszSubject,
+                    subjectLength(length),
+                    startoffset,
+                    options,
+                    matchData,
+                    mcontext,
+                    pszReplacement,
+                    pszReplacement.length / codeUnitSize,
+                    Pointer.nativeValue(Native.getDirectBufferPointer(outputbuffer)),
+                    outputlength
+            );
+        }
+
+        final var pCode = new Pointer(code);
+        final var subjectLength = new Pointer(subjectLength(length));
+        final var startOffset = new Pointer(startoffset);
+        final var pMatchData = new Pointer(matchData);
+        final var pMContext = new Pointer(mcontext);
+        final var pszReplacement = encode(replacement);
+        final var replacementLength = new Pointer(pszReplacement.length / codeUnitSize);
+        final var pOutputBuffer = Native.getDirectBufferPointer(outputbuffer);
+        final var outputLengthRef = new LongByReference(outputlength[0]);
+
+        final var result = library.pcre2_substitute(
+                pCode,
+                pszSubject,
+                subjectLength,
+                startOffset,
+                options,
+                pMatchData,
+                pMContext,
+                pszReplacement,
+                replacementLength,
+                pOutputBuffer,
+                outputLengthRef
+        );
+
+        outputlength[0] = outputLengthRef.getValue();
+        return result;
+    }
+
     @Override
     public int substringGetByNumber(long matchData, int number, long[] bufferptr, long[] bufflen) {
         if (bufferptr == null || bufferptr.length < 1) {
@@ -869,7 +1743,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         }
 
         final var pMatchData = new Pointer(matchData);
-        final var nameBytes = name.getBytes(charset);
+        final var nameBytes = encode(name);
         // Null terminator size must match code unit size (1 for UTF-8, 2 for UTF-16, 4 for UTF-32)
         final var pszName = new byte[nameBytes.length + codeUnitSize];
         System.arraycopy(nameBytes, 0, pszName, 0, nameBytes.length);
@@ -906,7 +1780,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         }
 
         final var pMatchData = new Pointer(matchData);
-        final var nameBytes = name.getBytes(charset);
+        final var nameBytes = encode(name);
         // Null terminator size must match code unit size (1 for UTF-8, 2 for UTF-16, 4 for UTF-32)
         final var pszName = new byte[nameBytes.length + codeUnitSize];
         System.arraycopy(nameBytes, 0, pszName, 0, nameBytes.length);
@@ -933,7 +1807,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         }
 
         final var pMatchData = new Pointer(matchData);
-        final var nameBytes = name.getBytes(charset);
+        final var nameBytes = encode(name);
         // Null terminator size must match code unit size (1 for UTF-8, 2 for UTF-16, 4 for UTF-32)
         final var pszName = new byte[nameBytes.length + codeUnitSize];
         System.arraycopy(nameBytes, 0, pszName, 0, nameBytes.length);
@@ -1016,7 +1890,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         }
 
         final var pCode = new Pointer(code);
-        final var nameBytes = name.getBytes(charset);
+        final var nameBytes = encode(name);
         // Null terminator size must match code unit size (1 for UTF-8, 2 for UTF-16, 4 for UTF-32)
         final var pszName = new byte[nameBytes.length + codeUnitSize];
         System.arraycopy(nameBytes, 0, pszName, 0, nameBytes.length);
@@ -1032,7 +1906,7 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         }
 
         final var pCode = new Pointer(code);
-        final var nameBytes = name.getBytes(charset);
+        final var nameBytes = encode(name);
         // Null terminator size must match code unit size (1 for UTF-8, 2 for UTF-16, 4 for UTF-32)
         final var pszName = new byte[nameBytes.length + codeUnitSize];
         System.arraycopy(nameBytes, 0, pszName, 0, nameBytes.length);
@@ -1070,6 +1944,31 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         return bytes;
     }
 
+    @Override
+    public ByteBuffer byteBufferView(long pointer, int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length must not be negative");
+        }
+
+        return new Pointer(pointer).getByteBuffer(0, length);
+    }
+
+    @Override
+    public long allocate(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+
+        return Native.malloc(size);
+    }
+
+    @Override
+    public void free(long pointer) {
+        if (pointer != 0) {
+            Native.free(pointer);
+        }
+    }
+
     @Override
     public int serializeEncode(long[] codes, int numberOfCodes, long[] serializedBytes, long[] serializedSize,
             long gcontext) {
@@ -1208,6 +2107,84 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
         callbackEntries.remove(callbackHandle);
     }
 
+    /**
+     * Get the number of code units of an encoded subject.
+     *
+     * @param length the length of the encoded subject in bytes
+     * @return the length of the encoded subject in code units
+     */
+    private long subjectLength(int length) {
+        if (length % codeUnitSize != 0) {
+            throw new IllegalArgumentException("subject length must be a multiple of the code unit size");
+        }
+        return length / codeUnitSize;
+    }
+
+    /**
+     * Get the native address of the content of a direct buffer at its position.
+     *
+     * @param buffer the direct buffer
+     * @return the native address
+     */
+    private static long directAddress(ByteBuffer buffer) {
+        // The buffer pointer addresses the start of the buffer regardless of its position
+        return Pointer.nativeValue(Native.getDirectBufferPointer(buffer)) + buffer.position();
+    }
+
+    /**
+     * Get the content of a heap buffer between its position and its limit as an array that starts with it, which is
+     * the backing array of the buffer if that is the case already.
+     *
+     * @param buffer the heap buffer
+     * @return the array
+     */
+    private static byte[] heapSubject(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() + buffer.position() == 0) {
+            return buffer.array();
+        }
+
+        final var bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Get a slice of a byte array as an array that starts with it, which is the array itself if the slice starts at
+     * its beginning.
+     *
+     * @param subject the array
+     * @param offset  the index of the first byte of the slice
+     * @param length  the length of the slice in bytes
+     * @return the array
+     */
+    private static byte[] subjectSlice(byte[] subject, int offset, int length) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (offset < 0 || length < 0 || offset > subject.length - length) {
+            throw new IllegalArgumentException("offset and length must be within the bounds of the subject array");
+        }
+
+        return offset == 0 ? subject : Arrays.copyOfRange(subject, offset, offset + length);
+    }
+
+    /**
+     * Encode a string in the code units of this API. In native-order UTF-16, the characters of the string are copied
+     * as they are, without transcoding; unpaired surrogates are thus left for the UTF check of PCRE2 to reject.
+     *
+     * @param str the string to encode
+     * @return the encoded string, without a null terminator
+     */
+    private byte[] encode(String str) {
+        if (!copyChars) {
+            return str.getBytes(charset);
+        }
+
+        final var bytes = new byte[str.length() * 2];
+        ByteBuffer.wrap(bytes).order(ByteOrder.nativeOrder()).asCharBuffer().put(str);
+        return bytes;
+    }
+
     private static String readCalloutString(Pointer block, long stringOffset, long stringLengthOffset,
                                             long stringPtrOffset, int codeUnitSize, Charset charset) {
         final var stringLength = block.getLong(stringLengthOffset);
@@ -1404,6 +2381,15 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
                 Pointer matchData,
                 Pointer mcontext
         );
+        int pcre2_jit_match(
+                Pointer code,
+                Pointer subject,
+                Pointer length,
+                Pointer startoffset,
+                int options,
+                Pointer matchData,
+                Pointer mcontext
+        );
         Pointer pcre2_jit_stack_create(Pointer startSize, Pointer maxSize, Pointer gcontext);
         void pcre2_jit_stack_free(Pointer stack);
         void pcre2_jit_stack_assign(Pointer mcontext, Pointer callback, Pointer data);
@@ -1444,6 +2430,16 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
                 Pointer mcontext
         );
 
+        int pcre2_match(
+                Pointer code,
+                Pointer subject,
+                Pointer length,
+                Pointer startoffset,
+                int options,
+                Pointer matchData,
+                Pointer mcontext
+        );
+
         int pcre2_dfa_match(
                 Pointer code,
                 byte[] subject,
@@ -1456,6 +2452,18 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
                 Pointer wscount
         );
 
+        int pcre2_dfa_match(
+                Pointer code,
+                Pointer subject,
+                Pointer length,
+                Pointer startoffset,
+                int options,
+                Pointer matchData,
+                Pointer mcontext,
+                int[] workspace,
+                Pointer wscount
+        );
+
         int pcre2_get_ovector_count(Pointer matchData);
         Pointer pcre2_get_match_data_size(Pointer matchData);
         Pointer pcre2_get_ovector_pointer(Pointer matchData);
@@ -1500,6 +2508,20 @@ public class Pcre2 implements IPcre2, INativeMemoryAccess {
                 LongByReference outlengthptr
         );
 
+        int pcre2_substitute(
+                Pointer code,
+                Pointer subject,
+                Pointer length,
+                Pointer startoffset,
+                int options,
+                Pointer matchData,
+                Pointer mcontext,
+                byte[] replacement,
+                Pointer rlength,
+                Pointer outputbuffer,
+                LongByReference outlengthptr
+        );
+
         int pcre2_substring_get_bynumber(
                 Pointer matchData,
                 int number,
@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.jna;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reusable native memory that string subjects are encoded into before a match or a substitution.
+ * <p>
+ * Passing a {@code byte[]} subject costs a copy into temporary native memory that JNA allocates and frees for every
+ * call. Instead, the encoded subject is copied into a block of native memory that is reused across calls, and its
+ * address is passed. Blocks come in power-of-two sizes, up to {@link #RETAINED_BYTES_PROPERTY} bytes (default
+ * {@value #DEFAULT_RETAINED_BYTES}); subjects that do not fit are passed as before. A buffer remembers the string it
+ * holds, so that matching the same subject again, as successive finds do, skips encoding and copying it altogether.
+ * <p>
+ * Strings are encoded with {@link String#getBytes(Charset)}, whose intrinsics outpace a {@code CharsetEncoder} writing
+ * into native memory many times over, at the cost of a short-lived array; native-order UTF-16 subjects are copied
+ * into the block as they are.
+ * <p>
+ * Platform threads keep their buffer for their lifetime. Virtual threads take one from a small lock-free pool for the
+ * call and return it when the call completes. A buffer serves one call at a time: calls made from a callout while
+ * another call is running on the same thread pass their subject as before.
+ */
+final class SubjectBuffer implements AutoCloseable {
+
+    /**
+     * System property name for configuring the largest block a subject buffer keeps across calls, in bytes.
+     * <p>
+     * A value of {@code 0} disables reuse: every subject is then passed as an encoded {@code byte[]}.
+     */
+    static final String RETAINED_BYTES_PROPERTY = "pcre2.jna.subject.retained.bytes";
+
+    /**
+     * The default largest block a subject buffer keeps across calls, in bytes
+     */
+    static final long DEFAULT_RETAINED_BYTES = 1024 * 1024;
+
+    /**
+     * The size of the first block of a subject buffer, in bytes
+     */
+    private static final long INITIAL_BLOCK_SIZE = 256;
+
+    private static final long RETAINED_BYTES = retainedBytes();
+
+    private static final int POOL_CAPACITY = Runtime.getRuntime().availableProcessors() * 2;
+
+    /**
+     * The subject buffer of the current platform thread
+     */
+    private static final ThreadLocal<SubjectBuffer> CURRENT = new ThreadLocal<>();
+
+    private static final Queue<SubjectBuffer> POOL = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicInteger POOL_SIZE = new AtomicInteger();
+
+    /**
+     * The block subjects are encoded into, or {@code null} before the first subject
+     */
+    private Memory block;
+
+    /**
+     * A view of the whole block as native-order UTF-16 code units
+     */
+    private CharBuffer chars;
+
+    /**
+     * The string the block holds, or {@code null}
+     */
+    private String subject;
+
+    /**
+     * The charset the block holds {@link #subject} in
+     */
+    private Charset charset;
+
+    /**
+     * Whether the block holds {@link #subject} as characters copied as they are rather than encoded
+     */
+    private boolean copiedChars;
+
+    /**
+     * The length of the encoded subject in bytes
+     */
+    private long length;
+
+    /**
+     * Whether a call is using this buffer
+     */
+    private boolean open;
+
+    /**
+     * Whether this buffer goes back to the pool once closed
+     */
+    private boolean pooled;
+
+    private SubjectBuffer() {
+    }
+
+    /**
+     * Open the subject buffer of the current thread for a call. The buffer must be closed once the call is complete,
+     * which a try-with-resources statement guarantees.
+     *
+     * @return the subject buffer, or {@code null} if reuse is disabled or the buffer of the thread is in use
+     */
+    static SubjectBuffer open() {
+        if (RETAINED_BYTES == 0) {
+            return null;
+        }
+
+        SubjectBuffer buffer;
+        if (Thread.currentThread().isVirtual()) {
+            buffer = POOL.poll();
+            if (buffer != null) {
+                POOL_SIZE.decrementAndGet();
+            } else {
+                buffer = new SubjectBuffer();
+                buffer.pooled = true;
+            }
+        } else {
+            buffer = CURRENT.get();
+            if (buffer == null) {
+                buffer = new SubjectBuffer();
+                CURRENT.set(buffer);
+            } else if (buffer.open) {
+                return null;
+            }
+        }
+
+        buffer.open = true;
+        return buffer;
+    }
+
+    /**
+     * Copy an encoded subject into the buffer, unless the buffer holds that very string already.
+     *
+     * @param subject    the subject
+     * @param charset    the charset to encode the subject in
+     * @param copyChars  whether to copy the characters of the subject as they are, in native-order UTF-16
+     * @return the address of the encoded subject, or {@code 0} if it does not fit the retained size
+     */
+    long encode(String subject, Charset charset, boolean copyChars) {
+        if (!open) {
+            throw new IllegalStateException("subject buffer is not open");
+        }
+
+        if (subject == this.subject && copyChars == copiedChars && charset.equals(this.charset)) {
+            return Pointer.nativeValue(block);
+        }
+        this.subject = null;
+
+        if (copyChars) {
+            final var byteLength = subject.length() * 2L;
+            if (!reserve(byteLength)) {
+                return 0;
+            }
+            chars.clear();
+            chars.put(subject);
+            length = byteLength;
+        } else {
+            final var bytes = subject.getBytes(charset);
+            if (!reserve(bytes.length)) {
+                return 0;
+            }
+            block.write(0, bytes, 0, bytes.length);
+            length = bytes.length;
+        }
+
+        this.subject = subject;
+        this.charset = charset;
+        copiedChars = copyChars;
+        return Pointer.nativeValue(block);
+    }
+
+    /**
+     * Get the length of the subject last encoded.
+     *
+     * @return the length in bytes
+     */
+    long length() {
+        return length;
+    }
+
+    /**
+     * Give the buffer back once the call is complete.
+     */
+    @Override
+    public void close() {
+        if (!open) {
+            throw new IllegalStateException("subject buffer is not open");
+        }
+
+        open = false;
+        if (pooled) {
+            if (POOL_SIZE.incrementAndGet() <= POOL_CAPACITY) {
+                POOL.offer(this);
+            } else {
+                POOL_SIZE.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Make sure the block holds at least the given number of bytes, replacing it with a larger one if needed.
+     *
+     * @param byteSize the size in bytes
+     * @return {@code true} if the block is large enough, or {@code false} if it would grow past the retained size
+     */
+    private boolean reserve(long byteSize) {
+        if (block != null && block.size() >= byteSize) {
+            return true;
+        }
+
+        var size = block != null ? block.size() * 2 : INITIAL_BLOCK_SIZE;
+        while (size < byteSize) {
+            size *= 2;
+        }
+        if (size > RETAINED_BYTES || size > Integer.MAX_VALUE) {
+            return false;
+        }
+
+        if (block != null) {
+            block.close();
+        }
+        block = new Memory(size);
+        chars = block.getByteBuffer(0, size).order(ByteOrder.nativeOrder()).asCharBuffer();
+        return true;
+    }
+
+    private static long retainedBytes() {
+        final var retainedBytes = System.getProperty(RETAINED_BYTES_PROPERTY);
+        if (retainedBytes == null) {
+            return DEFAULT_RETAINED_BYTES;
+        }
+        try {
+            final var result = Long.parseLong(retainedBytes);
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through
+        }
+        throw new IllegalArgumentException(
+                "System property " + RETAINED_BYTES_PROPERTY + " must be a non-negative integer, got: " + retainedBytes
+        );
+    }
+}
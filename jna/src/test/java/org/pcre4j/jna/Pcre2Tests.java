@@ -15,6 +15,7 @@
 package org.pcre4j.jna;
 
 import com.sun.jna.Callback;
+import com.sun.jna.Memory;
 import com.sun.jna.Pointer;
 import org.junit.jupiter.api.Test;
 import org.pcre4j.api.IPcre2;
@@ -23,6 +24,7 @@ import org.pcre4j.api.Pcre2UtfWidth;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -208,4 +210,87 @@ public class Pcre2Tests extends org.pcre4j.test.Pcre2Tests {
         api.codeFree(code);
         api.convertedPatternFree(buffer[0]);
     }
+
+    @Test
+    public void ovectorViewMatch() {
+        final var errorcode = new int[1];
+        final var erroroffset = new long[1];
+        final var code = pcre2.compile("(b)", 0, errorcode, erroroffset, 0);
+        final var matchData = pcre2.matchDataCreateFromPattern(code, 0);
+        try {
+            final var view = pcre2.ovectorView(matchData);
+
+            assertEquals(2, pcre2.match(code, "abc", 0, 0, matchData, 0));
+            assertArrayEquals(new long[]{1, 2, 1, 2}, view.getLongArray(0, 4));
+            assertEquals(2, pcre2.match(code, "--b", 0, 0, matchData, 0));
+            assertEquals(2, view.getLong(0));
+            assertEquals(3, view.getLong(Long.BYTES));
+        } finally {
+            pcre2.matchDataFree(matchData);
+            pcre2.codeFree(code);
+        }
+    }
+
+    @Test
+    public void directMappingMatch() {
+        final var direct = Boolean.parseBoolean(System.getProperty(DirectLibrary.DIRECT_PROPERTY, "true"));
+        assertEquals(direct, pcre2.isDirectMapped());
+        assertEquals(direct, new Pcre2().isDirectMapped());
+
+        // Direct-mapped calls take the subject by address, as an array, or encoded from a string
+        final var code = pcre2.compile("(b+)", 0, new int[1], new long[1], 0);
+        final var matchData = pcre2.matchDataCreateFromPattern(code, 0);
+        final var subject = new Memory(4);
+        subject.write(0, new byte[]{'a', 'b', 'b', 'c'}, 0, 4);
+        try {
+            final var ovector = new long[4];
+            assertEquals(2, pcre2.match(code, "abbc", 0, 0, matchData, 0));
+            pcre2.getOvector(matchData, ovector);
+            assertArrayEquals(new long[]{1, 3, 1, 3}, ovector);
+            assertEquals(2, pcre2.matchEncoded(code, new byte[]{'x', 'b'}, 0, 2, 0, 0, matchData, 0));
+            pcre2.getOvector(matchData, ovector);
+            assertArrayEquals(new long[]{1, 2, 1, 2}, ovector);
+            assertEquals(2, pcre2.match(code, Pointer.nativeValue(subject), 4, 2, 0, matchData, 0));
+            pcre2.getOvector(matchData, ovector);
+            assertArrayEquals(new long[]{2, 3, 2, 3}, ovector);
+        } finally {
+            pcre2.matchDataFree(matchData);
+            pcre2.codeFree(code);
+        }
+    }
+
+    @Test
+    public void pooledSubjectWithNestedCalloutMatch() {
+        final var code = pcre2.compile("(x+)(?C1)(y+)", 0, new int[1], new long[1], 0);
+        final var inner = pcre2.compile("(\\d+)", 0, new int[1], new long[1], 0);
+        final var matchData = pcre2.matchDataCreateFromPattern(code, 0);
+        final var innerMatchData = pcre2.matchDataCreateFromPattern(inner, 0);
+        final var innerResults = new AtomicInteger();
+        final var callback = pcre2.createCalloutCallback(block -> {
+            // A match from within a match on the same thread leaves the subject of the outer match in place
+            if (pcre2.match(inner, "1234567890".repeat(10), 0, 0, innerMatchData, 0) == 2) {
+                innerResults.incrementAndGet();
+            }
+            return 0;
+        });
+        final var mcontext = pcre2.matchContextCreate(0);
+        try {
+            pcre2.setCallout(mcontext, callback, 0);
+            final var subject = "--xxyyy--";
+            final var ovector = new long[6];
+            for (int i = 0; i < 2; i++) {
+                assertEquals(3, pcre2.match(code, subject, 0, 0, matchData, mcontext));
+                pcre2.getOvector(matchData, ovector);
+                assertArrayEquals(new long[]{2, 7, 2, 4, 4, 7}, ovector);
+            }
+            assertTrue(innerResults.get() > 0);
+        } finally {
+            pcre2.matchContextFree(mcontext);
+            pcre2.freeCalloutCallback(callback);
+            pcre2.matchDataFree(innerMatchData);
+            pcre2.matchDataFree(matchData);
+            pcre2.codeFree(inner);
+            pcre2.codeFree(code);
+        }
+    }
 }
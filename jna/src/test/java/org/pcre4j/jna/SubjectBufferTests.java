@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.jna;
+
+import com.sun.jna.Pointer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SubjectBufferTests {
+
+    private static byte[] read(long address, long length) {
+        return new Pointer(address).getByteArray(0, (int) length);
+    }
+
+    @Test
+    public void encodesLikeGetBytes() {
+        // Unpaired surrogates are replaced as String.getBytes replaces them
+        for (var subject : new String[]{"", "abc", "naïve café", "😀 \uD800 x", "é".repeat(1000)}) {
+            try (var buffer = SubjectBuffer.open()) {
+                final var address = buffer.encode(subject, StandardCharsets.UTF_8, false);
+                assertTrue(address != 0);
+                assertArrayEquals(subject.getBytes(StandardCharsets.UTF_8), read(address, buffer.length()));
+            }
+        }
+    }
+
+    @Test
+    public void copiesCharsInNativeOrder() {
+        // Unpaired surrogates are copied as they are
+        final var subject = "a\uD800b";
+        try (var buffer = SubjectBuffer.open()) {
+            final var address = buffer.encode(subject, StandardCharsets.UTF_16, true);
+            assertEquals(6, buffer.length());
+            final var chars = ByteBuffer.wrap(read(address, buffer.length())).order(ByteOrder.nativeOrder());
+            assertEquals(subject, chars.asCharBuffer().toString());
+        }
+    }
+
+    @Test
+    public void reusesEncodingOfSameSubject() {
+        final var subject = "abc";
+        final long address;
+        try (var buffer = SubjectBuffer.open()) {
+            address = buffer.encode(subject, StandardCharsets.UTF_8, false);
+            new Pointer(address).setByte(0, (byte) 'x');
+        }
+        try (var buffer = SubjectBuffer.open()) {
+            // The same string is not encoded again, an equal one is
+            assertEquals(address, buffer.encode(subject, StandardCharsets.UTF_8, false));
+            assertArrayEquals("xbc".getBytes(StandardCharsets.US_ASCII), read(address, buffer.length()));
+            assertEquals(address, buffer.encode(new String("abc"), StandardCharsets.UTF_8, false));
+            assertArrayEquals("abc".getBytes(StandardCharsets.US_ASCII), read(address, buffer.length()));
+
+            // Nor is the same string in another charset
+            buffer.encode(subject, StandardCharsets.UTF_8, false);
+            new Pointer(address).setByte(0, (byte) 'x');
+            buffer.encode(subject, StandardCharsets.ISO_8859_1, false);
+            assertArrayEquals("abc".getBytes(StandardCharsets.US_ASCII), read(address, buffer.length()));
+        }
+    }
+
+    @Test
+    public void growsToFitSubject() {
+        final var subject = "😀".repeat(10_000);
+        try (var buffer = SubjectBuffer.open()) {
+            final var address = buffer.encode(subject, StandardCharsets.UTF_8, false);
+            assertEquals(40_000, buffer.length());
+            assertArrayEquals(subject.getBytes(StandardCharsets.UTF_8), read(address, buffer.length()));
+        }
+    }
+
+    @Test
+    public void rejectsSubjectBeyondRetainedSize() {
+        final var subject = "x".repeat((int) SubjectBuffer.DEFAULT_RETAINED_BYTES + 1);
+        try (var buffer = SubjectBuffer.open()) {
+            assertEquals(0, buffer.encode(subject, StandardCharsets.UTF_8, false));
+            assertTrue(buffer.encode("abc", StandardCharsets.UTF_8, false) != 0);
+        }
+    }
+
+    @Test
+    public void servesOneCallAtATime() {
+        try (var outer = SubjectBuffer.open()) {
+            assertNotNull(outer);
+            try (var inner = SubjectBuffer.open()) {
+                assertNull(inner);
+            }
+        }
+        try (var buffer = SubjectBuffer.open()) {
+            assertNotNull(buffer);
+        }
+    }
+
+    @Test
+    public void rejectsUseWhenClosed() {
+        final SubjectBuffer buffer;
+        try (var open = SubjectBuffer.open()) {
+            buffer = open;
+        }
+        assertThrows(IllegalStateException.class, () -> buffer.encode("abc", StandardCharsets.UTF_8, false));
+        assertThrows(IllegalStateException.class, buffer::close);
+    }
+
+    @Test
+    public void virtualThreadsShareSubjectBuffers() throws InterruptedException {
+        final var api = new Pcre2();
+        final var code = api.compile("(\\d+)", 0, new int[1], new long[1], 0);
+        final var errors = new AtomicInteger();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1000; i++) {
+                final var number = i;
+                executor.submit(() -> {
+                    final var matchData = api.matchDataCreateFromPattern(code, 0);
+                    try {
+                        final var subject = "x".repeat(number) + number;
+                        if (api.match(code, subject, 0, 0, matchData, 0) != 2) {
+                            errors.incrementAndGet();
+                            return;
+                        }
+                        final var ovector = new long[4];
+                        api.getOvector(matchData, ovector);
+                        if (ovector[2] != number || ovector[3] != subject.length()) {
+                            errors.incrementAndGet();
+                        }
+                    } finally {
+                        api.matchDataFree(matchData);
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        } finally {
+            api.codeFree(code);
+        }
+        assertEquals(0, errors.get());
+    }
+}
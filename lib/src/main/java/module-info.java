@@ -22,6 +22,7 @@
  */
 module org.pcre4j {
     requires transitive org.pcre4j.api;
+    requires static java.management;
 
     exports org.pcre4j;
     exports org.pcre4j.exception;
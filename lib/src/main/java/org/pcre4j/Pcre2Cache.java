@@ -0,0 +1,358 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded, thread-safe cache of values backed by native memory, such as compiled patterns.
+ * <p>
+ * Every entry is weighed by the native memory it holds, and the cache keeps the total weight of its entries within a
+ * budget in bytes. The cache estimates how often every key is requested, including keys it does not hold, and uses
+ * the estimate both to evict and to admit entries: when the budget is exceeded, the least recently used entries are
+ * evicted, unless the new entry is requested less often than them, in which case the new entry is not cached at all.
+ * This keeps a burst of one-off keys from flushing the entries that are requested over and over.
+ * <p>
+ * Evicted entries are not freed explicitly: their native memory is released by the {@link java.lang.ref.Cleaner}
+ * once they are no longer referenced, so values handed out by the cache stay usable after eviction.
+ * <p>
+ * Values are loaded outside of the lock of the cache, so concurrent requests for a missing key may load it more than
+ * once; only one of the loaded values is cached.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class Pcre2Cache<K, V> {
+
+    /**
+     * The maximum total weight of the entries in bytes
+     */
+    private final long maximumWeight;
+
+    /**
+     * The function to weigh the values in bytes
+     */
+    private final ToLongFunction<? super V> weigher;
+
+    /**
+     * The entries in access order, least recently used first
+     */
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The estimate of how often every key is requested
+     */
+    private final FrequencySketch sketch = new FrequencySketch();
+
+    /**
+     * The lock guarding the entries, the sketch and the statistics
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long rejectionCount;
+
+    /**
+     * Create a new cache.
+     *
+     * @param maximumWeight the maximum total weight of the entries in bytes
+     * @param weigher       the function to weigh the values in bytes
+     */
+    public Pcre2Cache(long maximumWeight, ToLongFunction<? super V> weigher) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("maximumWeight must be non-negative, got: " + maximumWeight);
+        }
+        if (weigher == null) {
+            throw new IllegalArgumentException("weigher cannot be null");
+        }
+
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Get the maximum total weight of the entries in bytes.
+     *
+     * @return the maximum total weight
+     */
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Get the value cached for the given key, loading and caching it if it is not cached.
+     * <p>
+     * Exceptions thrown by the loader are propagated and nothing is cached.
+     *
+     * @param key    the key
+     * @param loader the function to load the value of a missing key
+     * @return the cached or loaded value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        if (key == null) {
+            throw new IllegalArgumentException("key cannot be null");
+        }
+        if (loader == null) {
+            throw new IllegalArgumentException("loader cannot be null");
+        }
+
+        lock.lock();
+        try {
+            sketch.increment(key.hashCode());
+            final var entry = entries.get(key);
+            if (entry != null) {
+                hitCount++;
+                return entry.value;
+            }
+            missCount++;
+        } finally {
+            lock.unlock();
+        }
+
+        final V value = loader.apply(key);
+        if (value == null) {
+            throw new IllegalStateException("loader returned null for key: " + key);
+        }
+        final var valueWeight = weigher.applyAsLong(value);
+
+        lock.lock();
+        try {
+            final var existing = entries.get(key);
+            if (existing != null) {
+                return existing.value;
+            }
+            if (admit(key, valueWeight)) {
+                entries.put(key, new Entry<>(value, valueWeight));
+                weight += valueWeight;
+            } else {
+                rejectionCount++;
+            }
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the value cached for the given key without loading it.
+     *
+     * @param key the key
+     * @return the cached value, or {@code null} if the key is not cached
+     */
+    public V getIfPresent(K key) {
+        lock.lock();
+        try {
+            final var entry = entries.get(key);
+            return entry != null ? entry.value : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove every entry from the cache. The statistics are kept.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evict the least recently used entries until their total weight reaches the given weight or the cache is empty,
+     * such as from a {@link Pcre2NativeMemory.EvictionHook}.
+     *
+     * @param weight the weight to evict in bytes
+     * @return the total weight of the evicted entries in bytes
+     */
+    public long evict(long weight) {
+        lock.lock();
+        try {
+            var evicted = 0L;
+            final var iterator = entries.values().iterator();
+            while (evicted < weight && iterator.hasNext()) {
+                final var victim = iterator.next();
+                iterator.remove();
+                this.weight -= victim.weight;
+                evicted += victim.weight;
+                evictionCount++;
+            }
+            return evicted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get a snapshot of the statistics of the cache.
+     *
+     * @return the statistics
+     */
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(hitCount, missCount, evictionCount, rejectionCount, entries.size(), weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Make room for a new entry by evicting the least recently used entries, unless they are requested more often
+     * than the new entry. Must be called with the lock held.
+     *
+     * @param key         the key of the new entry
+     * @param valueWeight the weight of the new entry
+     * @return {@code true} if the new entry fits into the budget, otherwise {@code false}
+     */
+    private boolean admit(K key, long valueWeight) {
+        if (valueWeight > maximumWeight) {
+            return false;
+        }
+
+        final var candidateFrequency = sketch.frequency(key.hashCode());
+        var excess = weight + valueWeight - maximumWeight;
+        if (excess <= 0) {
+            return true;
+        }
+
+        // Check that the victims can be evicted before evicting any of them
+        var freed = 0L;
+        for (var victim : entries.entrySet()) {
+            if (sketch.frequency(victim.getKey().hashCode()) > candidateFrequency) {
+                return false;
+            }
+            freed += victim.getValue().weight;
+            if (freed >= excess) {
+                break;
+            }
+        }
+
+        final var iterator = entries.values().iterator();
+        while (excess > 0 && iterator.hasNext()) {
+            final var victim = iterator.next();
+            iterator.remove();
+            weight -= victim.weight;
+            excess -= victim.weight;
+            evictionCount++;
+        }
+        return true;
+    }
+
+    /**
+     * A snapshot of the statistics of a cache.
+     *
+     * @param hitCount       the number of requests served from the cache
+     * @param missCount      the number of requests that had to load the value
+     * @param evictionCount  the number of entries evicted to make room for others
+     * @param rejectionCount the number of loaded values not cached because they were requested less often than the
+     *                       entries they would have evicted, or outweighed the budget
+     * @param entryCount     the number of entries
+     * @param weight         the total weight of the entries in bytes
+     */
+    public record Stats(
+            long hitCount,
+            long missCount,
+            long evictionCount,
+            long rejectionCount,
+            int entryCount,
+            long weight
+    ) {
+
+        /**
+         * Get the ratio of requests that were served from the cache.
+         *
+         * @return the hit rate between {@code 0.0} and {@code 1.0}, or {@code 1.0} if there were no requests
+         */
+        public double hitRate() {
+            final var requestCount = hitCount + missCount;
+            return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+        }
+    }
+
+    private record Entry<V>(V value, long weight) {
+    }
+
+    /**
+     * A count-min sketch of 4-bit counters estimating how often keys are requested.
+     * <p>
+     * All counters are halved periodically, so that the estimate follows the recent popularity of the keys.
+     */
+    private static final class FrequencySketch {
+
+        private static final int TABLE_SIZE = 1024;
+        private static final int SAMPLE_SIZE = TABLE_SIZE * 16 * 10 / 4;
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+
+        private final long[] table = new long[TABLE_SIZE];
+        private int additions;
+
+        /**
+         * Get the estimated number of requests of the key with the given hash.
+         *
+         * @param hash the hash of the key
+         * @return the estimate, saturating at 15
+         */
+        int frequency(int hash) {
+            var frequency = Integer.MAX_VALUE;
+            for (var i = 0; i < SEEDS.length; i++) {
+                final var index = index(hash, i);
+                frequency = Math.min(frequency, (int) ((table[index >>> 4] >>> ((index & 15) << 2)) & 0xfL));
+            }
+            return frequency;
+        }
+
+        /**
+         * Record a request of the key with the given hash.
+         *
+         * @param hash the hash of the key
+         */
+        void increment(int hash) {
+            var added = false;
+            for (var i = 0; i < SEEDS.length; i++) {
+                final var index = index(hash, i);
+                final var shift = (index & 15) << 2;
+                if (((table[index >>> 4] >>> shift) & 0xfL) != 0xfL) {
+                    table[index >>> 4] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions == SAMPLE_SIZE) {
+                for (var i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+                }
+                additions /= 2;
+            }
+        }
+
+        private static int index(int hash, int i) {
+            var h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return (int) h & (TABLE_SIZE * 16 - 1);
+        }
+    }
+}
@@ -28,21 +28,23 @@ import org.pcre4j.option.Pcre2Bsr;
 import org.pcre4j.option.Pcre2CompileExtraOption;
 import org.pcre4j.option.Pcre2CompileOption;
 import org.pcre4j.option.Pcre2DfaMatchOption;
+import org.pcre4j.option.Pcre2JitOption;
 import org.pcre4j.option.Pcre2MatchOption;
 import org.pcre4j.option.Pcre2Newline;
 import org.pcre4j.option.Pcre2PatternInfo;
 import org.pcre4j.option.Pcre2SubstituteOption;
 
 import java.lang.ref.Cleaner;
+import java.lang.ref.Reference;
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.EnumSet;
 
 /**
  * A compiled pattern.
  */
-public class Pcre2Code {
+public class Pcre2Code implements AutoCloseable {
 
     /**
      * The compiled pattern handle
@@ -59,6 +61,11 @@ public class Pcre2Code {
      */
     private final Cleaner.Cleanable cleanable;
 
+    /**
+     * The prefilter rejecting subjects without a native call, built on first use
+     */
+    private volatile Pcre2MatchPrefilter prefilter;
+
     /**
      * Wrap an existing compiled pattern handle.
      * <p>
@@ -80,7 +87,9 @@ public class Pcre2Code {
 
         this.api = api;
         this.handle = handle;
-        this.cleanable = Pcre4jCleaner.INSTANCE.register(this, new Clean(api, handle));
+        this.cleanable = Pcre2NativeMemory.track(
+                this, api, Pcre2NativeMemory.Resource.CODE, size(), new Clean(api, handle)
+        );
     }
 
     /**
@@ -196,7 +205,9 @@ public class Pcre2Code {
 
         this.api = api;
         this.handle = handle;
-        this.cleanable = Pcre4jCleaner.INSTANCE.register(this, new Clean(api, handle));
+        this.cleanable = Pcre2NativeMemory.track(
+                this, api, Pcre2NativeMemory.Resource.CODE, size(), new Clean(api, handle)
+        );
     }
 
     /**
@@ -330,6 +341,61 @@ public class Pcre2Code {
         return deserialize(Pcre4j.api(), data);
     }
 
+    /**
+     * Get the prefilter that rejects subjects this pattern definitely cannot match without calling into the native
+     * library. The match methods consult it before every match that is not a partial match and whose match context
+     * has no callout; a rejected match returns {@link IPcre2#ERROR_NOMATCH} and leaves the match data untouched, so it
+     * still holds the ovector and mark of the previous match.
+     *
+     * @return the prefilter, built from the pattern information on first use
+     */
+    public Pcre2MatchPrefilter prefilter() {
+        var prefilter = this.prefilter;
+        if (prefilter == null) {
+            prefilter = Pcre2MatchPrefilter.of(this);
+            this.prefilter = prefilter;
+        }
+        return prefilter;
+    }
+
+    /**
+     * Check whether a match may succeed according to the prefilter. Partial matches and matches with a callout are
+     * always run, so that the callout sees every match attempt, and so are matches starting inside a surrogate pair,
+     * so that PCRE2 reports the offset as invalid.
+     *
+     * @param subject      the subject string
+     * @param startIndex   the index at which the match may start at the earliest
+     * @param toIndex      the index at which the subject ends (exclusive)
+     * @param options      the match option bits
+     * @param matchContext the match context or null
+     * @return {@code false} if the match definitely fails
+     */
+    /* package-private */ boolean mayMatch(
+            String subject,
+            int startIndex,
+            int toIndex,
+            int options,
+            Pcre2MatchContext matchContext
+    ) {
+        return (options & (IPcre2.PARTIAL_SOFT | IPcre2.PARTIAL_HARD)) != 0
+                || (matchContext != null && matchContext.hasCallout())
+                || isInsideSurrogatePair(subject, startIndex)
+                || prefilter().mayMatch(subject, startIndex, toIndex);
+    }
+
+    /**
+     * Check whether an index falls between the high and the low surrogate of a surrogate pair.
+     *
+     * @param subject the subject string
+     * @param index   the index
+     * @return {@code true} if the index splits a surrogate pair
+     */
+    private static boolean isInsideSurrogatePair(String subject, int index) {
+        return index > 0 && index < subject.length()
+                && Character.isHighSurrogate(subject.charAt(index - 1))
+                && Character.isLowSurrogate(subject.charAt(index));
+    }
+
     /**
      * Get the pattern information that is an integer
      *
@@ -693,30 +759,69 @@ public class Pcre2Code {
     public NameTableEntry[] nameTable() {
         final var nameCount = nameCount();
         final var nameEntrySize = nameEntrySize();
-        final var where = ByteBuffer.allocate(nameCount * nameEntrySize);
+        final var codeUnitSize = api.codeUnitSize();
+        final var where = ByteBuffer.allocate(nameCount * nameEntrySize * codeUnitSize);
         final var error = api.patternInfo(handle, IPcre2.INFO_NAMETABLE, where);
         if (error != 0) {
             throw new IllegalStateException(Pcre4jUtils.getErrorMessage(api, error));
         }
 
+        // The 8-bit library stores the group number as two big-endian bytes, the others as the first code unit
+        if (codeUnitSize > 1) {
+            where.order(ByteOrder.nativeOrder());
+        }
+        final var nameOffset = codeUnitSize > 1 ? codeUnitSize : 2;
+
         final var nameTable = new NameTableEntry[nameCount];
         for (var nameIndex = 0; nameIndex < nameCount; nameIndex++) {
-            final var offset = nameIndex * nameEntrySize;
-            final var groupIndex = where.slice(offset, 2).getShort();
-            final var groupNameUtf8 = where.slice(offset + 2, nameEntrySize - 2);
-            while (groupNameUtf8.remaining() > 0) {
-                if (groupNameUtf8.get() == 0) {
-                    groupNameUtf8.limit(groupNameUtf8.position() - 1);
-                    groupNameUtf8.position(0);
-                    break;
-                }
+            final var offset = nameIndex * nameEntrySize * codeUnitSize;
+            final var groupIndex = codeUnitSize == 4
+                    ? where.getInt(offset)
+                    : Short.toUnsignedInt(where.getShort(offset));
+            final var groupName = where.slice(offset + nameOffset, nameEntrySize * codeUnitSize - nameOffset)
+                    .order(where.order());
+            final var maxNameLength = groupName.limit() / codeUnitSize;
+            var nameLength = 0;
+            while (nameLength < maxNameLength && codeUnitAt(groupName, nameLength, codeUnitSize) != 0) {
+                nameLength++;
             }
-            final var groupName = StandardCharsets.UTF_8.decode(groupNameUtf8).toString();
-            nameTable[nameIndex] = new NameTableEntry(groupIndex, groupName);
+            nameTable[nameIndex] = new NameTableEntry(groupIndex, Pcre4jUtils.decode(api, groupName, nameLength));
         }
         return nameTable;
     }
 
+    /**
+     * Read a code unit of the given width from a buffer.
+     *
+     * @param buffer       the buffer
+     * @param index        the index of the code unit
+     * @param codeUnitSize the code unit size in bytes
+     * @return the code unit, as an unsigned value
+     */
+    private static int codeUnitAt(ByteBuffer buffer, int index, int codeUnitSize) {
+        return switch (codeUnitSize) {
+            case 1 -> Byte.toUnsignedInt(buffer.get(index));
+            case 2 -> Short.toUnsignedInt(buffer.getShort(index * 2));
+            default -> buffer.getInt(index * 4);
+        };
+    }
+
+    /**
+     * Create a JIT-compiled copy of this compiled pattern, without compiling the pattern from its source again.
+     * <p>
+     * This compiled pattern is left unchanged, so it can keep serving matches while the copy is JIT-compiled.
+     *
+     * @param jitOptions the flags to compile the copy with JIT, see {@link Pcre2JitOption} or null for default options
+     * @return the JIT-compiled copy
+     */
+    public Pcre2JitCode jitCopy(EnumSet<Pcre2JitOption> jitOptions) {
+        final var copy = api.codeCopy(handle);
+        if (copy == 0) {
+            throw new IllegalStateException("Failed to copy the compiled pattern");
+        }
+        return new Pcre2JitCode(api, copy, jitOptions);
+    }
+
     /**
      * Get the size of the compiled pattern
      *
@@ -791,17 +896,23 @@ public class Pcre2Code {
             throw new IllegalStateException(Pcre4jUtils.getErrorMessage(api, entrySize));
         }
 
-        // Calculate the number of entries
-        final var numEntries = (int) ((last[0] - first[0]) / entrySize) + 1;
+        // Calculate the number of entries, whose size is in code units
+        final var codeUnitSize = api.codeUnitSize();
+        final var entryBytes = (long) entrySize * codeUnitSize;
+        final var numEntries = (int) ((last[0] - first[0]) / entryBytes) + 1;
         final int[] groupNumbers = new int[numEntries];
 
         // Read the group numbers from each entry
-        // Each entry starts with a 2-byte group number (big-endian)
+        // Each entry starts with the group number: two big-endian bytes in the 8-bit library, otherwise the first
+        // code unit in native byte order
+        final var groupNumberSize = Math.max(codeUnitSize, 2);
         for (int i = 0; i < numEntries; i++) {
-            final var entryStart = first[0] + ((long) i * entrySize);
-            final var bytes = ((INativeMemoryAccess) api).readBytes(entryStart, 2);
-            // Group number is stored as big-endian 16-bit value
-            groupNumbers[i] = ((bytes[0] & 0xFF) << 8) | (bytes[1] & 0xFF);
+            final var entryStart = first[0] + i * entryBytes;
+            final var bytes = ByteBuffer.wrap(((INativeMemoryAccess) api).readBytes(entryStart, groupNumberSize));
+            if (codeUnitSize > 1) {
+                bytes.order(ByteOrder.nativeOrder());
+            }
+            groupNumbers[i] = codeUnitSize == 4 ? bytes.getInt() : Short.toUnsignedInt(bytes.getShort());
         }
 
         return groupNumbers;
@@ -838,19 +949,270 @@ public class Pcre2Code {
             throw new IllegalArgumentException("matchData must not be null");
         }
 
+        final var optionBits = options
+                .stream()
+                .mapToInt(Pcre2MatchOption::value)
+                .sum();
+        if (!mayMatch(subject, startOffset, subject.length(), optionBits, matchContext)) {
+            return IPcre2.ERROR_NOMATCH;
+        }
+
         return api.match(
                 handle,
                 subject,
-                Pcre4jUtils.convertCharacterIndexToByteOffset(subject, startOffset),
-                options
-                        .stream()
-                        .mapToInt(Pcre2MatchOption::value)
-                        .sum(),
+                Pcre4jUtils.convertCharacterIndexToOffset(api, subject, startOffset),
+                optionBits,
+                matchData.handle,
+                matchContext != null ? matchContext.handle : 0
+        );
+    }
+
+    /**
+     * Match this compiled pattern against a subject already encoded in the code units of the API, held in a buffer
+     * between its position and its limit. A direct buffer is passed to PCRE2 in place, without decoding or copying.
+     * <p>
+     * Unlike the string-based methods, offsets here, including those stored in the match data, are code unit offsets
+     * relative to the position of the buffer, that is byte offsets in the 8-bit library.
+     *
+     * @param subject      the buffer holding the subject to match this pattern against
+     * @param startOffset  code unit offset in the subject at which to start matching
+     * @param options      the options, see {@link Pcre2MatchOption}
+     * @param matchData    the match data to store the results in
+     * @param matchContext the match context to use or null
+     * @return the number of captures plus one, zero if the {@param matchData} is too small, or a negative value if
+     * there was no match or an actual error occurred
+     */
+    public int matchEncoded(
+            ByteBuffer subject,
+            int startOffset,
+            EnumSet<Pcre2MatchOption> options,
+            Pcre2MatchData matchData,
+            Pcre2MatchContext matchContext
+    ) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        checkEncodedSubject(subject.remaining(), startOffset, matchData);
+
+        return api.matchEncoded(
+                handle,
+                subject,
+                startOffset,
+                options.stream().mapToInt(Pcre2MatchOption::value).sum(),
+                matchData.handle,
+                matchContext != null ? matchContext.handle : 0
+        );
+    }
+
+    /**
+     * Match this compiled pattern against a subject already encoded in the code units of the API, held in a slice of
+     * a byte array. Offsets are treated as by
+     * {@link #matchEncoded(ByteBuffer, int, EnumSet, Pcre2MatchData, Pcre2MatchContext)}, relative to the start of the
+     * slice.
+     *
+     * @param subject      the array holding the subject to match this pattern against
+     * @param offset       the index of the first byte of the subject in the array
+     * @param length       the length of the subject in bytes
+     * @param startOffset  code unit offset in the subject at which to start matching
+     * @param options      the options, see {@link Pcre2MatchOption}
+     * @param matchData    the match data to store the results in
+     * @param matchContext the match context to use or null
+     * @return the number of captures plus one, zero if the {@param matchData} is too small, or a negative value if
+     * there was no match or an actual error occurred
+     */
+    public int matchEncoded(
+            byte[] subject,
+            int offset,
+            int length,
+            int startOffset,
+            EnumSet<Pcre2MatchOption> options,
+            Pcre2MatchData matchData,
+            Pcre2MatchContext matchContext
+    ) {
+        checkEncodedSubject(subject, offset, length);
+        checkEncodedSubject(length, startOffset, matchData);
+
+        return api.matchEncoded(
+                handle,
+                subject,
+                offset,
+                length,
+                startOffset,
+                options.stream().mapToInt(Pcre2MatchOption::value).sum(),
                 matchData.handle,
                 matchContext != null ? matchContext.handle : 0
         );
     }
 
+    /**
+     * Match this compiled pattern against a given pre-encoded subject.
+     *
+     * @param subject      the subject to match this pattern against
+     * @param startOffset  offset in the subject at which to start matching
+     * @param options      the options, see {@link Pcre2MatchOption}
+     * @param matchData    the match data to store the results in
+     * @param matchContext the match context to use or null
+     * @return the number of captures plus one, zero if the {@param matchData} is too small, or a negative value if
+     * there was no match or an actual error occurred
+     */
+    public int matchSubject(
+            Pcre2Subject subject,
+            int startOffset,
+            EnumSet<Pcre2MatchOption> options,
+            Pcre2MatchData matchData,
+            Pcre2MatchContext matchContext
+    ) {
+        checkSubject(subject, startOffset);
+        if (matchData == null) {
+            throw new IllegalArgumentException("matchData must not be null");
+        }
+
+        final var optionBits = options
+                .stream()
+                .mapToInt(Pcre2MatchOption::value)
+                .sum();
+        if (!mayMatch(subject.subject(), startOffset, subject.subject().length(), optionBits, matchContext)) {
+            return IPcre2.ERROR_NOMATCH;
+        }
+
+        try {
+            final var result = api.match(
+                    handle,
+                    subject.handle,
+                    subject.length,
+                    subject.toOffset(startOffset),
+                    optionBits | subject.noUtfCheckOption(startOffset),
+                    matchData.handle,
+                    matchContext != null ? matchContext.handle : 0
+            );
+            subject.recordUtfCheck(startOffset, optionBits, result);
+            return result;
+        } finally {
+            Reference.reachabilityFence(subject);
+        }
+    }
+
+    /**
+     * Match this compiled pattern against a range of a given pre-encoded subject, as if the range was a subject of its
+     * own: neither the pattern nor the match results see anything outside of it, and the offsets stored in the match
+     * data are relative to the start of the range.
+     * <p>
+     * Unlike the other match methods, this one takes the options as a bit mask of {@link Pcre2MatchOption#value()}s,
+     * so that repeated calls need not allocate.
+     *
+     * @param subject      the subject to match this pattern against
+     * @param fromIndex    the character index at which the range starts (inclusive)
+     * @param toIndex      the character index at which the range ends (exclusive)
+     * @param startOffset  offset in the range at which to start matching
+     * @param options      the option bits, see {@link Pcre2MatchOption}
+     * @param matchData    the match data to store the results in
+     * @param matchContext the match context to use or null
+     * @return the number of captures plus one, zero if the {@param matchData} is too small, or a negative value if
+     * there was no match or an actual error occurred
+     */
+    public int matchSubject(
+            Pcre2Subject subject,
+            int fromIndex,
+            int toIndex,
+            int startOffset,
+            int options,
+            Pcre2MatchData matchData,
+            Pcre2MatchContext matchContext
+    ) {
+        checkSubjectRange(subject, fromIndex, toIndex, startOffset);
+        if (matchData == null) {
+            throw new IllegalArgumentException("matchData must not be null");
+        }
+        if (!mayMatch(subject.subject(), fromIndex + startOffset, toIndex, options, matchContext)) {
+            return IPcre2.ERROR_NOMATCH;
+        }
+
+        try {
+            final var rangeOffset = subject.toOffset(fromIndex);
+            final var result = api.match(
+                    handle,
+                    subject.rangeHandle(fromIndex),
+                    subject.toOffset(toIndex) - rangeOffset,
+                    subject.toOffset(fromIndex + startOffset) - rangeOffset,
+                    options | subject.noUtfCheckOption(fromIndex + startOffset),
+                    matchData.handle,
+                    matchContext != null ? matchContext.handle : 0
+            );
+            if (fromIndex == 0 && toIndex == subject.subject().length()) {
+                subject.recordUtfCheck(startOffset, options, result);
+            }
+            return result;
+        } finally {
+            Reference.reachabilityFence(subject);
+        }
+    }
+
+    /**
+     * Find all successive matches of this compiled pattern in a range of a given pre-encoded subject, storing the
+     * output vector of each match into the given array in turn. The range is treated as by
+     * {@link #matchSubject(Pcre2Subject, int, int, int, int, Pcre2MatchData, Pcre2MatchContext)}, and the offsets
+     * stored are code unit offsets relative to the start of the range.
+     * <p>
+     * Each match takes {@link Pcre2MatchData#ovectorCount()} offset pairs of the array, and the search stops early
+     * once the array is full; see {@link IPcre2#matchAll} for how to resume it. If the native helper library is
+     * available, the whole search runs in a single native call.
+     *
+     * @param subject      the subject to match this pattern against
+     * @param fromIndex    the character index at which the range starts (inclusive)
+     * @param toIndex      the character index at which the range ends (exclusive)
+     * @param startOffset  offset in the range at which to start matching
+     * @param options      the option bits passed to every match attempt, see {@link Pcre2MatchOption}
+     * @param flags        the flag bits, see {@link IPcre2#MATCH_ALL_RETRY_EMPTY} and
+     *                     {@link IPcre2#MATCH_ALL_AFTER_EMPTY}
+     * @param matchData    the match data to use
+     * @param matchContext the match context to use or null
+     * @param ovectors     the array to store the output vectors of the matches in
+     * @return the number of matches stored, or a negative error code if a match attempt failed
+     */
+    public int matchAllSubject(
+            Pcre2Subject subject,
+            int fromIndex,
+            int toIndex,
+            int startOffset,
+            int options,
+            int flags,
+            Pcre2MatchData matchData,
+            Pcre2MatchContext matchContext,
+            long[] ovectors
+    ) {
+        checkSubjectRange(subject, fromIndex, toIndex, startOffset);
+        if (matchData == null) {
+            throw new IllegalArgumentException("matchData must not be null");
+        }
+        if (ovectors == null) {
+            throw new IllegalArgumentException("ovectors must not be null");
+        }
+        if (!mayMatch(subject.subject(), fromIndex + startOffset, toIndex, options, matchContext)) {
+            return 0;
+        }
+
+        try {
+            final var rangeOffset = subject.toOffset(fromIndex);
+            final var result = api.matchAll(
+                    handle,
+                    subject.rangeHandle(fromIndex),
+                    subject.toOffset(toIndex) - rangeOffset,
+                    subject.toOffset(fromIndex + startOffset) - rangeOffset,
+                    options | subject.noUtfCheckOption(fromIndex + startOffset),
+                    flags,
+                    matchData.handle,
+                    matchContext != null ? matchContext.handle : 0,
+                    ovectors
+            );
+            if (fromIndex == 0 && toIndex == subject.subject().length()) {
+                subject.recordUtfCheck(startOffset, options, result);
+            }
+            return result;
+        } finally {
+            Reference.reachabilityFence(subject);
+        }
+    }
+
     /**
      * Substitute matches of this compiled pattern in the given subject string.
      *
@@ -891,41 +1253,114 @@ public class Pcre2Code {
                 .stream()
                 .mapToInt(Pcre2SubstituteOption::value)
                 .sum();
+        final var offset = Pcre4jUtils.convertCharacterIndexToOffset(api, subject, startOffset);
+
+        return substitute(
+                optionBits,
+                Math.max(subject.length() * 2 + replacement.length(), 256),
+                (substituteOptions, outputBuffer, outputLength) -> api.substitute(
+                        handle,
+                        subject,
+                        offset,
+                        substituteOptions,
+                        matchData != null ? matchData.handle : 0,
+                        matchContext != null ? matchContext.handle : 0,
+                        replacement,
+                        outputBuffer,
+                        outputLength
+                )
+        );
+    }
+
+    /**
+     * Substitute matches of this compiled pattern in the given pre-encoded subject.
+     *
+     * @param subject      the subject to perform substitution on
+     * @param startOffset  offset in the subject at which to start matching
+     * @param options      the options, see {@link Pcre2SubstituteOption}
+     * @param matchData    the match data to use or null
+     * @param matchContext the match context to use or null
+     * @param replacement  the replacement string (supports backreferences like $1, ${name})
+     * @return the result string after substitution
+     * @throws Pcre2SubstituteException if an error occurs during substitution
+     */
+    public String substituteSubject(
+            Pcre2Subject subject,
+            int startOffset,
+            EnumSet<Pcre2SubstituteOption> options,
+            Pcre2MatchData matchData,
+            Pcre2MatchContext matchContext,
+            String replacement
+    ) {
+        checkSubject(subject, startOffset);
+        if (replacement == null) {
+            throw new IllegalArgumentException("replacement must not be null");
+        }
+        if (options == null) {
+            options = EnumSet.noneOf(Pcre2SubstituteOption.class);
+        }
+
+        final var optionBits = options
+                .stream()
+                .mapToInt(Pcre2SubstituteOption::value)
+                .sum();
+        final var offset = subject.toOffset(startOffset);
+        // A substitution on existing match data does not look at the subject, so it validates nothing
+        final var checksUtf = (optionBits & IPcre2.SUBSTITUTE_MATCHED) == 0;
+
+        try {
+            return substitute(
+                    optionBits | subject.noUtfCheckOption(startOffset),
+                    Math.max(subject.subject().length() * 2 + replacement.length(), 256),
+                    (substituteOptions, outputBuffer, outputLength) -> {
+                        final var result = api.substitute(
+                                handle,
+                                subject.handle,
+                                subject.length,
+                                offset,
+                                substituteOptions,
+                                matchData != null ? matchData.handle : 0,
+                                matchContext != null ? matchContext.handle : 0,
+                                replacement,
+                                outputBuffer,
+                                outputLength
+                        );
+                        if (checksUtf) {
+                            subject.recordUtfCheck(startOffset, optionBits, result);
+                        }
+                        return result;
+                    }
+            );
+        } finally {
+            Reference.reachabilityFence(subject);
+        }
+    }
+
+    /**
+     * Run a substitution, growing the output buffer once if the initial one turns out to be too small.
+     *
+     * @param optionBits        the substitute option bits
+     * @param initialBufferSize the initial output buffer size in code units
+     * @param call              the substitution call
+     * @return the result string after substitution
+     */
+    private String substitute(int optionBits, int initialBufferSize, SubstituteCall call) {
+        final var codeUnitSize = api.codeUnitSize();
 
         // First, try with a reasonable initial buffer size
-        var bufferSize = Math.max(subject.length() * 2 + replacement.length(), 256);
-        var outputBuffer = ByteBuffer.allocateDirect(bufferSize);
+        var bufferSize = initialBufferSize;
+        var outputBuffer = ByteBuffer.allocateDirect(bufferSize * codeUnitSize);
         var outputLength = new long[]{bufferSize};
 
-        var result = api.substitute(
-                handle,
-                subject,
-                Pcre4jUtils.convertCharacterIndexToByteOffset(subject, startOffset),
-                optionBits | IPcre2.SUBSTITUTE_OVERFLOW_LENGTH,
-                matchData != null ? matchData.handle : 0,
-                matchContext != null ? matchContext.handle : 0,
-                replacement,
-                outputBuffer,
-                outputLength
-        );
+        var result = call.substitute(optionBits | IPcre2.SUBSTITUTE_OVERFLOW_LENGTH, outputBuffer, outputLength);
 
         // If buffer was too small, reallocate and retry
         if (result == IPcre2.ERROR_NOMEMORY) {
             bufferSize = (int) outputLength[0] + 1; // +1 for null terminator
-            outputBuffer = ByteBuffer.allocateDirect(bufferSize);
+            outputBuffer = ByteBuffer.allocateDirect(bufferSize * codeUnitSize);
             outputLength[0] = bufferSize;
 
-            result = api.substitute(
-                    handle,
-                    subject,
-                    Pcre4jUtils.convertCharacterIndexToByteOffset(subject, startOffset),
-                    optionBits,
-                    matchData != null ? matchData.handle : 0,
-                    matchContext != null ? matchContext.handle : 0,
-                    replacement,
-                    outputBuffer,
-                    outputLength
-            );
+            result = call.substitute(optionBits, outputBuffer, outputLength);
         }
 
         if (result < 0) {
@@ -933,9 +1368,7 @@ public class Pcre2Code {
         }
 
         // Extract the result string from the buffer
-        final var resultBytes = new byte[(int) outputLength[0]];
-        outputBuffer.get(resultBytes);
-        return new String(resultBytes, StandardCharsets.UTF_8);
+        return Pcre4jUtils.decode(api, outputBuffer, (int) outputLength[0]);
     }
 
     /**
@@ -1019,7 +1452,7 @@ public class Pcre2Code {
             var result = api.dfaMatch(
                     handle,
                     subject,
-                    Pcre4jUtils.convertCharacterIndexToByteOffset(subject, startOffset),
+                    Pcre4jUtils.convertCharacterIndexToOffset(api, subject, startOffset),
                     optionBits,
                     matchData,
                     matchContext != null ? matchContext.handle : 0,
@@ -1033,7 +1466,7 @@ public class Pcre2Code {
                 result = api.dfaMatch(
                         handle,
                         subject,
-                        Pcre4jUtils.convertCharacterIndexToByteOffset(subject, startOffset),
+                        Pcre4jUtils.convertCharacterIndexToOffset(api, subject, startOffset),
                         optionBits,
                         matchData,
                         matchContext != null ? matchContext.handle : 0,
@@ -1056,8 +1489,8 @@ public class Pcre2Code {
             final var ovector = new long[matchCount * 2];
             api.getOvector(matchData, ovector);
 
-            // Convert byte offsets to character indices
-            final var stringIndices = Pcre4jUtils.convertOvectorToStringIndices(subject, ovector);
+            // Convert code unit offsets to character indices
+            final var stringIndices = Pcre4jUtils.convertOvectorToStringIndices(api, subject, ovector);
 
             // Build result: start is common, ends are per-match
             final var matchStart = stringIndices[0];
@@ -1072,6 +1505,102 @@ public class Pcre2Code {
         }
     }
 
+    /**
+     * Match this compiled pattern against a given pre-encoded subject using the DFA matching algorithm.
+     *
+     * @param subject       the subject to match against
+     * @param startOffset   offset in the subject at which to start matching (character index)
+     * @param options       the match options, see {@link Pcre2DfaMatchOption}, or {@code null} for no options
+     * @param matchContext  the match context to use, or {@code null}
+     * @param workspaceSize the number of int-sized slots in the workspace used by the DFA algorithm
+     * @return the match result, or {@code null} if no match was found
+     * @throws IllegalArgumentException if subject is null, startOffset is out of bounds, or workspaceSize is less
+     *                                  than 1
+     * @throws Pcre2MatchException if a DFA-specific error occurs (e.g., unsupported pattern item, recursion)
+     */
+    public Pcre2DfaMatchResult dfaMatchSubject(
+            Pcre2Subject subject,
+            int startOffset,
+            EnumSet<Pcre2DfaMatchOption> options,
+            Pcre2MatchContext matchContext,
+            int workspaceSize
+    ) {
+        checkSubject(subject, startOffset);
+        if (workspaceSize < 1) {
+            throw new IllegalArgumentException("workspaceSize must be at least 1");
+        }
+
+        if (options == null) {
+            options = EnumSet.noneOf(Pcre2DfaMatchOption.class);
+        }
+
+        final var optionBits = options
+                .stream()
+                .mapToInt(Pcre2DfaMatchOption::value)
+                .sum() | subject.noUtfCheckOption(startOffset);
+
+        final var matchData = api.matchDataCreate(workspaceSize, 0);
+        if (matchData == 0) {
+            throw new IllegalStateException("Failed to create match data");
+        }
+
+        try {
+            var workspace = new int[workspaceSize];
+            var result = api.dfaMatch(
+                    handle,
+                    subject.handle,
+                    subject.length,
+                    subject.toOffset(startOffset),
+                    optionBits,
+                    matchData,
+                    matchContext != null ? matchContext.handle : 0,
+                    workspace,
+                    workspace.length
+            );
+
+            // Auto-retry with larger workspace if needed
+            if (result == IPcre2.ERROR_DFA_WSSIZE) {
+                workspace = new int[workspaceSize * 2];
+                result = api.dfaMatch(
+                        handle,
+                        subject.handle,
+                        subject.length,
+                        subject.toOffset(startOffset),
+                        optionBits,
+                        matchData,
+                        matchContext != null ? matchContext.handle : 0,
+                        workspace,
+                        workspace.length
+                );
+            }
+            subject.recordUtfCheck(startOffset, optionBits, result);
+
+            if (result == IPcre2.ERROR_NOMATCH) {
+                return null;
+            }
+
+            final var isPartial = result == IPcre2.ERROR_PARTIAL;
+            if (result < 0 && !isPartial) {
+                throw new Pcre2MatchException(Pcre4jUtils.getErrorMessage(api, result), result);
+            }
+
+            final var matchCount = isPartial ? 1 : result;
+            final var ovector = new long[matchCount * 2];
+            api.getOvector(matchData, ovector);
+
+            final var stringIndices = Pcre4jUtils.convertSubjectOvectorToStringIndices(subject, ovector);
+            final var matchEnds = new int[matchCount];
+            for (var i = 0; i < matchCount; i++) {
+                matchEnds[i] = stringIndices[i * 2 + 1];
+            }
+
+            return new Pcre2DfaMatchResult(subject.subject(), stringIndices[0], matchEnds, isPartial);
+        } finally {
+            api.matchDataFree(matchData);
+            Reference.reachabilityFence(subject);
+        }
+    }
+
     /**
      * Enumerate all callout points in this compiled pattern.
      * <p>
@@ -1100,6 +1629,85 @@ public class Pcre2Code {
         }
     }
 
+    /**
+     * Validate a pre-encoded subject and a start offset within it.
+     *
+     * @param subject     the subject to validate
+     * @param startOffset the start offset (character index) to validate
+     */
+    /* package-private */ void checkSubject(Pcre2Subject subject, int startOffset) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (startOffset < 0) {
+            throw new IllegalArgumentException("startOffset must be greater than or equal to zero");
+        }
+        if (startOffset > subject.subject().length()) {
+            throw new IllegalArgumentException("startOffset must be less than or equal to the length of the subject");
+        }
+    }
+
+    /**
+     * Validate a pre-encoded subject, a range of it, and a start offset within that range.
+     *
+     * @param subject     the subject to validate
+     * @param fromIndex   the character index at which the range starts (inclusive)
+     * @param toIndex     the character index at which the range ends (exclusive)
+     * @param startOffset the start offset (character index) within the range to validate
+     */
+    /* package-private */ void checkSubjectRange(Pcre2Subject subject, int fromIndex, int toIndex, int startOffset) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (fromIndex < 0 || fromIndex > toIndex || toIndex > subject.subject().length()) {
+            throw new IllegalArgumentException("fromIndex and toIndex must denote a range within the subject");
+        }
+        if (subject.isWithinSurrogatePair(fromIndex) || subject.isWithinSurrogatePair(toIndex)) {
+            throw new IllegalArgumentException("fromIndex and toIndex must not split a surrogate pair");
+        }
+        if (startOffset < 0) {
+            throw new IllegalArgumentException("startOffset must be greater than or equal to zero");
+        }
+        if (startOffset > toIndex - fromIndex) {
+            throw new IllegalArgumentException("startOffset must be less than or equal to the length of the range");
+        }
+    }
+
+    /**
+     * Check that a slice of a byte array is a valid encoded subject.
+     *
+     * @param subject the array
+     * @param offset  the index of the first byte of the subject in the array
+     * @param length  the length of the subject in bytes
+     */
+    /* package-private */ static void checkEncodedSubject(byte[] subject, int offset, int length) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (offset < 0 || length < 0 || offset > subject.length - length) {
+            throw new IllegalArgumentException("offset and length must be within the bounds of the subject array");
+        }
+    }
+
+    /**
+     * Check the start offset and the match data of a match against an encoded subject.
+     *
+     * @param byteLength  the length of the subject in bytes
+     * @param startOffset code unit offset in the subject at which to start matching
+     * @param matchData   the match data to store the results in
+     */
+    /* package-private */ void checkEncodedSubject(int byteLength, int startOffset, Pcre2MatchData matchData) {
+        if (startOffset < 0) {
+            throw new IllegalArgumentException("startOffset must be greater than or equal to zero");
+        }
+        if (startOffset > byteLength / api.codeUnitSize()) {
+            throw new IllegalArgumentException("startOffset must be less than or equal to the length of the subject");
+        }
+        if (matchData == null) {
+            throw new IllegalArgumentException("matchData must not be null");
+        }
+    }
+
     /**
      * A name table entry
      *
@@ -1109,6 +1717,20 @@ public class Pcre2Code {
     public record NameTableEntry(int group, String name) {
     }
 
+    @FunctionalInterface
+    private interface SubstituteCall {
+        int substitute(int options, ByteBuffer outputBuffer, long[] outputLength);
+    }
+
+    /**
+     * Free the compiled pattern now rather than once it becomes unreachable, leaving nothing for the cleaner to do.
+     * The compiled pattern must not be used once closed; closing it again has no effect.
+     */
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+
     private record Clean(IPcre2 api, long code) implements Runnable {
         @Override
         public void run() {
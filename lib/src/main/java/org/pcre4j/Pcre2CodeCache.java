@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.option.Pcre2CompileOption;
+import org.pcre4j.option.Pcre2JitOption;
+
+import java.util.EnumSet;
+
+/**
+ * A bounded, thread-safe cache of compiled patterns, so that patterns compiled over and over are compiled once.
+ * <p>
+ * Patterns are keyed by the PCRE2 API, the pattern string, the compile options and the JIT options, and weighed by
+ * {@link Pcre2Code#size()} plus {@link Pcre2Code#jitSize()} against a budget of native memory in bytes; see
+ * {@link Pcre2Cache} for the admission and eviction policy. Patterns are compiled with the default compile context.
+ * <p>
+ * A {@link Pcre2Code} is safe to use from multiple threads, so the cached patterns are shared by all callers.
+ */
+public class Pcre2CodeCache {
+
+    /**
+     * The cached patterns
+     */
+    private final Pcre2Cache<Key, Pcre2Code> cache;
+
+    /**
+     * Create a new cache of compiled patterns.
+     *
+     * @param maximumWeight the native memory budget of the cached patterns in bytes
+     */
+    public Pcre2CodeCache(long maximumWeight) {
+        this.cache = new Pcre2Cache<>(maximumWeight, Pcre2CodeCache::weigh);
+    }
+
+    /**
+     * Get the compiled pattern from the cache, compiling it if it is not cached.
+     *
+     * @param api     the PCRE2 API to use
+     * @param pattern the pattern to compile
+     * @param options the flags to compile the pattern with, see {@link Pcre2CompileOption} or null for default
+     *                options
+     * @return the compiled pattern
+     */
+    public Pcre2Code compile(IPcre2 api, String pattern, EnumSet<Pcre2CompileOption> options) {
+        return cache.get(
+                key(api, pattern, options, null),
+                key -> new Pcre2Code(key.api(), key.pattern(), EnumSet.copyOf(key.options()), null)
+        );
+    }
+
+    /**
+     * Get the JIT-compiled pattern from the cache, compiling it if it is not cached.
+     *
+     * @param api        the PCRE2 API to use
+     * @param pattern    the pattern to compile
+     * @param options    the flags to compile the pattern with, see {@link Pcre2CompileOption} or null for default
+     *                   options
+     * @param jitOptions the flags to compile the pattern with JIT, see {@link Pcre2JitOption} or null for default
+     *                   options
+     * @return the JIT-compiled pattern
+     */
+    public Pcre2JitCode jitCompile(
+            IPcre2 api,
+            String pattern,
+            EnumSet<Pcre2CompileOption> options,
+            EnumSet<Pcre2JitOption> jitOptions
+    ) {
+        final var jitOptionSet = jitOptions != null
+                ? EnumSet.copyOf(jitOptions)
+                : EnumSet.of(Pcre2JitOption.COMPLETE, Pcre2JitOption.PARTIAL_SOFT, Pcre2JitOption.PARTIAL_HARD);
+        return (Pcre2JitCode) cache.get(
+                key(api, pattern, options, jitOptionSet),
+                key -> new Pcre2JitCode(key.api(), key.pattern(), EnumSet.copyOf(key.options()),
+                        EnumSet.copyOf(key.jitOptions()), null)
+        );
+    }
+
+    /**
+     * Remove every pattern from the cache. The statistics are kept.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Evict the least recently used patterns until their total weight reaches the given weight or the cache is empty.
+     * <p>
+     * To give the memory of the cached patterns back under native memory pressure, add this method as a hook:
+     * {@code Pcre2NativeMemory.addEvictionHook(cache::evict)}.
+     *
+     * @param weight the weight to evict in bytes
+     * @return the total weight of the evicted patterns in bytes
+     */
+    public long evict(long weight) {
+        return cache.evict(weight);
+    }
+
+    /**
+     * Get a snapshot of the statistics of the cache.
+     *
+     * @return the statistics
+     */
+    public Pcre2Cache.Stats stats() {
+        return cache.stats();
+    }
+
+    private static Key key(
+            IPcre2 api,
+            String pattern,
+            EnumSet<Pcre2CompileOption> options,
+            EnumSet<Pcre2JitOption> jitOptions
+    ) {
+        if (api == null) {
+            throw new IllegalArgumentException("api cannot be null");
+        }
+        if (pattern == null) {
+            throw new IllegalArgumentException("pattern cannot be null");
+        }
+
+        return new Key(
+                api,
+                pattern,
+                options != null ? EnumSet.copyOf(options) : EnumSet.noneOf(Pcre2CompileOption.class),
+                jitOptions
+        );
+    }
+
+    private static long weigh(Pcre2Code code) {
+        return code.size() + code.jitSize();
+    }
+
+    /**
+     * The key of a cached pattern.
+     *
+     * @param api        the PCRE2 API
+     * @param pattern    the pattern string
+     * @param options    the compile options
+     * @param jitOptions the JIT options, or {@code null} if the pattern is not JIT-compiled
+     */
+    private record Key(
+            IPcre2 api,
+            String pattern,
+            EnumSet<Pcre2CompileOption> options,
+            EnumSet<Pcre2JitOption> jitOptions
+    ) {
+    }
+}
@@ -25,7 +25,7 @@ import java.util.EnumSet;
 /**
  * A compile context for controlling pattern compilation settings.
  */
-public class Pcre2CompileContext {
+public class Pcre2CompileContext implements AutoCloseable {
 
     /**
      * The compile context handle
@@ -71,7 +71,9 @@ public class Pcre2CompileContext {
 
         this.api = api;
         this.handle = handle;
-        this.cleanable = Pcre4jCleaner.INSTANCE.register(this, new Pcre2CompileContext.Clean(api, handle));
+        this.cleanable = Pcre2NativeMemory.track(
+                this, api, Pcre2NativeMemory.Resource.COMPILE_CONTEXT, 0, new Pcre2CompileContext.Clean(api, handle)
+        );
     }
 
     /**
@@ -190,6 +192,15 @@ public class Pcre2CompileContext {
         }
     }
 
+    /**
+     * Free the compile context now rather than once it becomes unreachable, leaving nothing for the cleaner to do. The
+     * compile context must not be used once closed; closing it again has no effect.
+     */
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+
     private record Clean(IPcre2 api, long compileContext) implements Runnable {
         @Override
         public void run() {
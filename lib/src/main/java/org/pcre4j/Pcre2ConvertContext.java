@@ -27,7 +27,7 @@ import java.lang.ref.Cleaner;
  * Settings that can be configured through a convert context include the glob escape character
  * and the glob path separator character.
  */
-public class Pcre2ConvertContext {
+public class Pcre2ConvertContext implements AutoCloseable {
 
     /**
      * The convert context handle
@@ -73,7 +73,9 @@ public class Pcre2ConvertContext {
 
         this.api = api;
         this.handle = handle;
-        this.cleanable = Pcre4jCleaner.INSTANCE.register(this, new Pcre2ConvertContext.Clean(api, handle));
+        this.cleanable = Pcre2NativeMemory.track(
+                this, api, Pcre2NativeMemory.Resource.CONVERT_CONTEXT, 0, new Pcre2ConvertContext.Clean(api, handle)
+        );
     }
 
     /**
@@ -133,6 +135,15 @@ public class Pcre2ConvertContext {
         }
     }
 
+    /**
+     * Free the convert context now rather than once it becomes unreachable, leaving nothing for the cleaner to do. The
+     * convert context must not be used once closed; closing it again has no effect.
+     */
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+
     private record Clean(IPcre2 api, long convertContext) implements Runnable {
         @Override
         public void run() {
@@ -15,13 +15,18 @@
 package org.pcre4j;
 
 import org.pcre4j.api.IPcre2;
+import org.pcre4j.api.Pcre2MemoryAllocator;
 
 import java.lang.ref.Cleaner;
 
 /**
  * A general context for custom memory management functions.
+ * <p>
+ * A general context created with a {@link Pcre2MemoryAllocator}, such as a {@link Pcre2SlabAllocator}, has PCRE2
+ * allocate through it the memory of the context itself and of the compile and match contexts, JIT stacks, compiled
+ * patterns and match data created from it, including match data created from such patterns.
  */
-public class Pcre2GeneralContext {
+public class Pcre2GeneralContext implements AutoCloseable {
 
     /**
      * The general context handle
@@ -31,6 +36,10 @@ public class Pcre2GeneralContext {
      * The PCRE2 API reference to use across the entire lifecycle of the object
      */
     /* package-private */ final IPcre2 api;
+    /**
+     * The allocator PCRE2 allocates memory through, or {@code null} for the system functions
+     */
+    private final Pcre2MemoryAllocator allocator;
     /**
      * The cleaner to free the resources
      */
@@ -61,7 +70,37 @@ public class Pcre2GeneralContext {
 
         this.api = api;
         this.handle = handle;
-        this.cleanable = Pcre4jCleaner.INSTANCE.register(this, new Pcre2GeneralContext.Clean(api, handle));
+        this.allocator = null;
+        this.cleanable = Pcre2NativeMemory.track(
+                this, api, Pcre2NativeMemory.Resource.GENERAL_CONTEXT, 0, new Pcre2GeneralContext.Clean(api, handle)
+        );
+    }
+
+    /**
+     * Create a new general context using a Java memory allocator
+     *
+     * @param api       the PCRE2 API to use
+     * @param allocator the allocator for PCRE2 to allocate and free memory through
+     */
+    public Pcre2GeneralContext(IPcre2 api, Pcre2MemoryAllocator allocator) {
+        if (api == null) {
+            throw new IllegalArgumentException("api cannot be null");
+        }
+        if (allocator == null) {
+            throw new IllegalArgumentException("allocator cannot be null");
+        }
+
+        final var handle = api.generalContextCreate(allocator);
+        if (handle == 0) {
+            throw new IllegalStateException("Failed to create general context");
+        }
+
+        this.api = api;
+        this.handle = handle;
+        this.allocator = allocator;
+        this.cleanable = Pcre2NativeMemory.track(
+                this, api, Pcre2NativeMemory.Resource.GENERAL_CONTEXT, 0, new Pcre2GeneralContext.Clean(api, handle)
+        );
     }
 
     /**
@@ -82,6 +121,24 @@ public class Pcre2GeneralContext {
         return handle;
     }
 
+    /**
+     * Get the allocator PCRE2 allocates the memory of this general context through
+     *
+     * @return the allocator, or {@code null} if the system memory management functions are used
+     */
+    public Pcre2MemoryAllocator allocator() {
+        return allocator;
+    }
+
+    /**
+     * Free the general context now rather than once it becomes unreachable, leaving nothing for the cleaner to do. The
+     * general context must not be used once closed; closing it again has no effect.
+     */
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+
     private record Clean(IPcre2 api, long generalContext) implements Runnable {
         @Override
         public void run() {
@@ -15,10 +15,14 @@
 package org.pcre4j;
 
 import org.pcre4j.api.IPcre2;
+import org.pcre4j.exception.Pcre2MemoryBudgetException;
 import org.pcre4j.option.Pcre2CompileOption;
 import org.pcre4j.option.Pcre2JitOption;
 import org.pcre4j.option.Pcre2MatchOption;
 
+import java.lang.ref.Cleaner;
+import java.lang.ref.Reference;
+import java.nio.ByteBuffer;
 import java.util.EnumSet;
 
 /**
@@ -38,6 +42,11 @@ public class Pcre2JitCode extends Pcre2Code {
             Pcre2MatchOption.PARTIAL_SOFT
     );
 
+    /**
+     * The cleaner to release the accounted bytes of the JIT-compiled code
+     */
+    private final Cleaner.Cleanable jitCleanable;
+
     /**
      * Constructor for Pcre2JitCode
      *
@@ -76,7 +85,30 @@ public class Pcre2JitCode extends Pcre2Code {
             Pcre2CompileContext compileContext
     ) {
         super(api, pattern, options, compileContext);
+        this.jitCleanable = jitCompile(jitOptions);
+    }
 
+    /**
+     * JIT-compile an existing compiled pattern handle, such as one produced by {@link IPcre2#serializeDecode}.
+     *
+     * @param api        the PCRE2 API to use
+     * @param handle     the compiled pattern handle
+     * @param jitOptions the flags to compile the pattern with JIT, see {@link Pcre2JitOption} or null for default
+     *                   options
+     */
+    /* package-private */ Pcre2JitCode(IPcre2 api, long handle, EnumSet<Pcre2JitOption> jitOptions) {
+        super(api, handle);
+        this.jitCleanable = jitCompile(jitOptions);
+    }
+
+    /**
+     * JIT-compile the compiled pattern.
+     *
+     * @param jitOptions the flags to compile the pattern with JIT, see {@link Pcre2JitOption} or null for default
+     *                   options
+     * @return the cleanable releasing the accounted bytes of the JIT-compiled code
+     */
+    private Cleaner.Cleanable jitCompile(EnumSet<Pcre2JitOption> jitOptions) {
         if (jitOptions == null) {
             jitOptions = EnumSet.of(
                     Pcre2JitOption.COMPLETE,
@@ -94,6 +126,22 @@ public class Pcre2JitCode extends Pcre2Code {
         if (jitResult != 0) {
             throw new IllegalStateException(Pcre4jUtils.getErrorMessage(api, jitResult));
         }
+
+        // The JIT-compiled code is freed along with the compiled pattern, so there is nothing to free but the pattern
+        // itself when the budget cannot make room for it
+        try {
+            return Pcre2NativeMemory.track(this, api, Pcre2NativeMemory.Resource.JIT_CODE, jitSize(), () -> {
+            });
+        } catch (Pcre2MemoryBudgetException e) {
+            super.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        jitCleanable.clean();
+        super.close();
     }
 
     /**
@@ -126,10 +174,130 @@ public class Pcre2JitCode extends Pcre2Code {
             throw new IllegalArgumentException("matchData must not be null");
         }
 
+        final var optionBits = options.stream().mapToInt(Pcre2MatchOption::value).sum();
+        if (!mayMatch(subject, startOffset, subject.length(), optionBits, matchContext)) {
+            return IPcre2.ERROR_NOMATCH;
+        }
+
         return api.jitMatch(
                 handle,
                 subject,
-                Pcre4jUtils.convertCharacterIndexToByteOffset(subject, startOffset),
+                Pcre4jUtils.convertCharacterIndexToOffset(api, subject, startOffset),
+                optionBits,
+                matchData.handle,
+                matchContext != null ? matchContext.handle : 0
+        );
+    }
+
+    @Override
+    public int matchSubject(
+            Pcre2Subject subject,
+            int startOffset,
+            EnumSet<Pcre2MatchOption> options,
+            Pcre2MatchData matchData,
+            Pcre2MatchContext matchContext
+    ) {
+        checkSubject(subject, startOffset);
+        if (matchData == null) {
+            throw new IllegalArgumentException("matchData must not be null");
+        }
+
+        final var optionBits = options.stream().mapToInt(Pcre2MatchOption::value).sum();
+        if (!mayMatch(subject.subject(), startOffset, subject.subject().length(), optionBits, matchContext)) {
+            return IPcre2.ERROR_NOMATCH;
+        }
+
+        try {
+            return api.jitMatch(
+                    handle,
+                    subject.handle,
+                    subject.length,
+                    subject.toOffset(startOffset),
+                    optionBits,
+                    matchData.handle,
+                    matchContext != null ? matchContext.handle : 0
+            );
+        } finally {
+            Reference.reachabilityFence(subject);
+        }
+    }
+
+    @Override
+    public int matchSubject(
+            Pcre2Subject subject,
+            int fromIndex,
+            int toIndex,
+            int startOffset,
+            int options,
+            Pcre2MatchData matchData,
+            Pcre2MatchContext matchContext
+    ) {
+        checkSubjectRange(subject, fromIndex, toIndex, startOffset);
+        if (matchData == null) {
+            throw new IllegalArgumentException("matchData must not be null");
+        }
+        if (!mayMatch(subject.subject(), fromIndex + startOffset, toIndex, options, matchContext)) {
+            return IPcre2.ERROR_NOMATCH;
+        }
+
+        try {
+            final var rangeOffset = subject.toOffset(fromIndex);
+            return api.jitMatch(
+                    handle,
+                    subject.rangeHandle(fromIndex),
+                    subject.toOffset(toIndex) - rangeOffset,
+                    subject.toOffset(fromIndex + startOffset) - rangeOffset,
+                    options,
+                    matchData.handle,
+                    matchContext != null ? matchContext.handle : 0
+            );
+        } finally {
+            Reference.reachabilityFence(subject);
+        }
+    }
+
+    @Override
+    public int matchEncoded(
+            ByteBuffer subject,
+            int startOffset,
+            EnumSet<Pcre2MatchOption> options,
+            Pcre2MatchData matchData,
+            Pcre2MatchContext matchContext
+    ) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        checkEncodedSubject(subject.remaining(), startOffset, matchData);
+
+        return api.jitMatchEncoded(
+                handle,
+                subject,
+                startOffset,
+                options.stream().mapToInt(Pcre2MatchOption::value).sum(),
+                matchData.handle,
+                matchContext != null ? matchContext.handle : 0
+        );
+    }
+
+    @Override
+    public int matchEncoded(
+            byte[] subject,
+            int offset,
+            int length,
+            int startOffset,
+            EnumSet<Pcre2MatchOption> options,
+            Pcre2MatchData matchData,
+            Pcre2MatchContext matchContext
+    ) {
+        checkEncodedSubject(subject, offset, length);
+        checkEncodedSubject(length, startOffset, matchData);
+
+        return api.jitMatchEncoded(
+                handle,
+                subject,
+                offset,
+                length,
+                startOffset,
                 options.stream().mapToInt(Pcre2MatchOption::value).sum(),
                 matchData.handle,
                 matchContext != null ? matchContext.handle : 0
@@ -21,7 +21,7 @@ import java.lang.ref.Cleaner;
 /**
  * A custom stack for JIT-compiled pattern matching.
  */
-public class Pcre2JitStack {
+public class Pcre2JitStack implements AutoCloseable {
 
     /**
      * The JIT stack handle
@@ -62,18 +62,23 @@ public class Pcre2JitStack {
             throw new IllegalArgumentException("api cannot be null");
         }
 
+        // The stack may grow up to its maximum size, which is reserved up front
+        Pcre2NativeMemory.reserve(api, maxSize);
         final var handle = api.jitStackCreate(
                 startSize,
                 maxSize,
                 generalContext != null ? generalContext.handle : 0
         );
         if (handle == 0) {
+            Pcre2NativeMemory.unreserve(maxSize);
             throw new IllegalStateException("Failed to create JIT stack");
         }
 
         this.api = api;
         this.handle = handle;
-        this.cleanable = Pcre4jCleaner.INSTANCE.register(this, new Pcre2JitStack.Clean(api, handle));
+        this.cleanable = Pcre2NativeMemory.register(
+                this, Pcre2NativeMemory.Resource.JIT_STACK, maxSize, new Pcre2JitStack.Clean(api, handle)
+        );
     }
 
     /**
@@ -94,6 +99,15 @@ public class Pcre2JitStack {
         return handle;
     }
 
+    /**
+     * Free the JIT stack now rather than once it becomes unreachable, leaving nothing for the cleaner to do. The
+     * JIT stack must not be used once closed; closing it again has no effect.
+     */
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+
     private record Clean(IPcre2 api, long jitStack) implements Runnable {
         @Override
         public void run() {
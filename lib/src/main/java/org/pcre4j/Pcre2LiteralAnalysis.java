@@ -0,0 +1,517 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.pcre4j.option.Pcre2CompileOption;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Static utility methods for finding the literals that every match of a pattern must contain.
+ * <p>
+ * A required literal is a necessary condition for a match, so a subject that contains none of the literals of a
+ * pattern cannot match it and need not be handed to PCRE2. The literals are matched ignoring the case of ASCII
+ * letters, which only ever admits more subjects; the analysis gives up rather than guess wherever a literal could be
+ * wrong, such as in extended mode, with alternatives at the top level or with {@code (*ACCEPT)}.
+ */
+/* package-private */ final class Pcre2LiteralAnalysis {
+
+    /**
+     * The largest number of distinct first code units of a first code unit bitmap used as required literals
+     */
+    private static final int MAX_BITMAP_LITERALS = 8;
+
+    private Pcre2LiteralAnalysis() {
+        // Utility class
+    }
+
+    /**
+     * Find the literals that every match of a pattern must contain at least one of.
+     * <p>
+     * The longest literal found in the pattern source is preferred. Otherwise, the first or the last code unit
+     * reported by PCRE2 is used, and failing that, the ASCII characters of a small first code unit bitmap.
+     *
+     * @param pattern the pattern
+     * @param options the compile options of the pattern
+     * @param code    the compiled pattern
+     * @return the required literals, or an empty list if a match need not contain any particular literal
+     */
+    static List<String> requiredLiterals(String pattern, EnumSet<Pcre2CompileOption> options, Pcre2Code code) {
+        final var literal = requiredLiteral(pattern, options);
+        if (literal != null) {
+            return List.of(literal);
+        }
+
+        final var caseless = isCaseless(pattern, options);
+        if (code.firstCodeType() == 1 && isAsciiLiteral(code.firstCodeUnit(), caseless)) {
+            return List.of(Character.toString(code.firstCodeUnit()));
+        }
+        if (code.lastCodeType() == 1 && isAsciiLiteral(code.lastCodeUnit(), caseless)) {
+            return List.of(Character.toString(code.lastCodeUnit()));
+        }
+
+        if (code.api().codeUnitSize() == 1) {
+            final var bitmap = code.firstBitmap();
+            if (bitmap != null) {
+                return bitmapLiterals(bitmap, caseless);
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Find the longest literal of a pattern source that every match must contain.
+     *
+     * @param pattern the pattern
+     * @param options the compile options of the pattern
+     * @return the literal, or {@code null} if none can be determined
+     */
+    static String requiredLiteral(String pattern, EnumSet<Pcre2CompileOption> options) {
+        if (options.contains(Pcre2CompileOption.LITERAL)) {
+            final var caseless = options.contains(Pcre2CompileOption.CASELESS);
+            if (pattern.isEmpty() || caseless && !pattern.chars().allMatch(Pcre2LiteralAnalysis::isCaselessSafe)) {
+                return null;
+            }
+            return pattern;
+        }
+        if (options.contains(Pcre2CompileOption.EXTENDED)
+                || options.contains(Pcre2CompileOption.EXTENDED_MORE)
+                || options.contains(Pcre2CompileOption.ALT_BSUX)
+                || options.contains(Pcre2CompileOption.ALLOW_EMPTY_CLASS)
+                || pattern.contains("(*")
+                || hasInlineOption(pattern, 'x')) {
+            return null;
+        }
+
+        final var caseless = isCaseless(pattern, options);
+        final var run = new StringBuilder();
+        var best = "";
+        var lastIsLiteral = false;
+        var i = 0;
+        while (i < pattern.length()) {
+            final var c = pattern.charAt(i);
+
+            if (c == '{' || c == '*' || c == '+' || c == '?') {
+                final var quantifierEnd = c == '{' ? quantifierEnd(pattern, i) : i + 1;
+                if (quantifierEnd > i) {
+                    if (lastIsLiteral && !run.isEmpty() && minimumRepeat(pattern, i) == 0) {
+                        run.setLength(run.length() - 1);
+                    }
+                    best = longer(best, run);
+                    run.setLength(0);
+                    lastIsLiteral = false;
+                    i = quantifierEnd;
+                    // Lazy and possessive quantifiers
+                    if (i < pattern.length() && (pattern.charAt(i) == '?' || pattern.charAt(i) == '+')) {
+                        i++;
+                    }
+                    continue;
+                }
+            }
+
+            if (c == '|') {
+                return null;
+            }
+
+            if (c == '\\' && i + 1 < pattern.length()) {
+                final var escaped = pattern.charAt(i + 1);
+                if (escaped == 'Q') {
+                    final var end = pattern.indexOf("\\E", i + 2);
+                    final var quoted = pattern.substring(i + 2, end < 0 ? pattern.length() : end);
+                    for (var q = 0; q < quoted.length(); q++) {
+                        lastIsLiteral = appendLiteral(run, quoted.charAt(q), caseless);
+                        if (!lastIsLiteral) {
+                            best = longer(best, run);
+                            run.setLength(0);
+                        }
+                    }
+                    i = end < 0 ? pattern.length() : end + 2;
+                    continue;
+                }
+                if (escaped == 'E') {
+                    i += 2;
+                    continue;
+                }
+                if (Character.isLetterOrDigit(escaped)) {
+                    best = longer(best, run);
+                    run.setLength(0);
+                    lastIsLiteral = false;
+                    i = escapeEnd(pattern, i);
+                    continue;
+                }
+                lastIsLiteral = appendLiteral(run, escaped, caseless);
+                if (!lastIsLiteral) {
+                    best = longer(best, run);
+                    run.setLength(0);
+                }
+                i += 2;
+                continue;
+            }
+
+            if (c == '(' || c == '[') {
+                best = longer(best, run);
+                run.setLength(0);
+                lastIsLiteral = false;
+                i = c == '(' ? groupEnd(pattern, i) : classEnd(pattern, i);
+                if (i < 0) {
+                    return null;
+                }
+                continue;
+            }
+
+            if (c == ')' || c == '\\') {
+                return null;
+            }
+
+            if (c == '.' || c == '^' || c == '$') {
+                best = longer(best, run);
+                run.setLength(0);
+                lastIsLiteral = false;
+                i++;
+                continue;
+            }
+
+            lastIsLiteral = appendLiteral(run, c, caseless);
+            if (!lastIsLiteral) {
+                best = longer(best, run);
+                run.setLength(0);
+            }
+            i++;
+        }
+
+        best = longer(best, run);
+        return best.isEmpty() ? null : best;
+    }
+
+    /**
+     * Append a literal character to a run of literal characters, unless the matching of the character could disagree
+     * with matching it ignoring the case of ASCII letters only.
+     *
+     * @param run      the run of literal characters
+     * @param c        the character
+     * @param caseless whether the character may be matched ignoring case
+     * @return {@code true} if the character was appended
+     */
+    private static boolean appendLiteral(StringBuilder run, char c, boolean caseless) {
+        if (caseless && !isCaselessSafe(c)) {
+            return false;
+        }
+        run.append(c);
+        return true;
+    }
+
+    /**
+     * Check whether a character matched ignoring case matches only what it matches ignoring the case of ASCII letters
+     * only. Non-ASCII letters have case variants of their own, and Unicode case folding matches {@code k} with the
+     * Kelvin sign and {@code s} with the long s.
+     *
+     * @param c the character
+     * @return {@code true} if the character is safe to match ignoring the case of ASCII letters only
+     */
+    private static boolean isCaselessSafe(int c) {
+        if (c >= 0x80) {
+            return false;
+        }
+        final var lower = Character.toLowerCase(c);
+        return lower != 'k' && lower != 's';
+    }
+
+    /**
+     * Check whether a code unit reported by PCRE2 can be used as a single character literal.
+     *
+     * @param unit     the code unit
+     * @param caseless whether the pattern may be matched ignoring case
+     * @return {@code true} if the code unit can be used as a literal
+     */
+    private static boolean isAsciiLiteral(int unit, boolean caseless) {
+        return unit < 0x80 && (!caseless || isCaselessSafe(unit));
+    }
+
+    /**
+     * Get the ASCII characters of a first code unit bitmap as literals.
+     *
+     * @param bitmap   the first code unit bitmap
+     * @param caseless whether the pattern may be matched ignoring case
+     * @return the literals, or an empty list if the bitmap allows non-ASCII or too many first code units
+     */
+    private static List<String> bitmapLiterals(byte[] bitmap, boolean caseless) {
+        final var literals = new ArrayList<String>();
+        for (var unit = 0; unit < 256; unit++) {
+            if ((bitmap[unit / 8] & (1 << (unit % 8))) == 0) {
+                continue;
+            }
+            if (!isAsciiLiteral(unit, caseless)) {
+                return List.of();
+            }
+            final var literal = Character.toString(Character.toLowerCase(unit));
+            if (!literals.contains(literal)) {
+                literals.add(literal);
+            }
+            if (literals.size() > MAX_BITMAP_LITERALS) {
+                return List.of();
+            }
+        }
+        return literals;
+    }
+
+    /**
+     * Check whether a pattern may be matched ignoring case.
+     *
+     * @param pattern the pattern
+     * @param options the compile options of the pattern
+     * @return {@code true} if the pattern is compiled caseless or sets the caseless option inline
+     */
+    private static boolean isCaseless(String pattern, EnumSet<Pcre2CompileOption> options) {
+        return options.contains(Pcre2CompileOption.CASELESS) || hasInlineOption(pattern, 'i');
+    }
+
+    /**
+     * Check whether a pattern may set a given option inline, as in {@code (?i)} or {@code (?i:...)}.
+     *
+     * @param pattern the pattern
+     * @param option  the option letter
+     * @return {@code true} if an inline option setting of the pattern contains the option letter
+     */
+    private static boolean hasInlineOption(String pattern, char option) {
+        for (var i = pattern.indexOf("(?"); i >= 0; i = pattern.indexOf("(?", i + 2)) {
+            for (var j = i + 2; j < pattern.length(); j++) {
+                final var c = pattern.charAt(j);
+                if (c == option) {
+                    return true;
+                }
+                if (!Character.isLetter(c) && c != '^' && c != '-') {
+                    break;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the longer of the best literal so far and a run of literal characters.
+     *
+     * @param best the best literal so far
+     * @param run  the run of literal characters
+     * @return the longer of the two, the best literal so far if they are equally long
+     */
+    private static String longer(String best, StringBuilder run) {
+        return run.length() > best.length() ? run.toString() : best;
+    }
+
+    /**
+     * Get the end of a quantifier in braces, such as {@code {2}}, {@code {2,}}, {@code {2,5}} or {@code {,5}}.
+     *
+     * @param pattern the pattern
+     * @param start   the index of the opening brace
+     * @return the index following the closing brace, or {@code start} if the brace is a literal
+     */
+    private static int quantifierEnd(String pattern, int start) {
+        var i = start + 1;
+        var digits = 0;
+        var comma = false;
+        while (i < pattern.length()) {
+            final var c = pattern.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == ',' && !comma) {
+                comma = true;
+            } else if (c == '}' && digits > 0) {
+                return i + 1;
+            } else if (c != ' ') {
+                return start;
+            }
+            i++;
+        }
+        return start;
+    }
+
+    /**
+     * Get the minimum number of repetitions of a quantifier.
+     *
+     * @param pattern the pattern
+     * @param start   the index of the quantifier
+     * @return the minimum number of repetitions
+     */
+    private static int minimumRepeat(String pattern, int start) {
+        final var c = pattern.charAt(start);
+        if (c == '+') {
+            return 1;
+        }
+        if (c != '{') {
+            return 0;
+        }
+
+        var minimum = 0;
+        for (var i = start + 1; i < pattern.length(); i++) {
+            final var d = pattern.charAt(i);
+            if (d == ' ') {
+                continue;
+            }
+            if (d < '0' || d > '9') {
+                break;
+            }
+            minimum = Math.min(minimum * 10 + (d - '0'), 1_000_000);
+        }
+        return minimum;
+    }
+
+    /**
+     * Get the end of an escape sequence that is not a literal character, including its argument.
+     *
+     * @param pattern the pattern
+     * @param start   the index of the backslash
+     * @return the index following the escape sequence
+     */
+    private static int escapeEnd(String pattern, int start) {
+        final var escaped = pattern.charAt(start + 1);
+        var i = start + 2;
+        if (i < pattern.length() && "xopPgkN".indexOf(escaped) >= 0) {
+            final var open = pattern.charAt(i);
+            final var close = open == '{' ? '}' : open == '<' ? '>' : open == '\'' ? '\'' : 0;
+            if (close != 0) {
+                final var end = pattern.indexOf(close, i + 1);
+                return end < 0 ? pattern.length() : end + 1;
+            }
+        }
+
+        switch (escaped) {
+            case 'c' -> i++;
+            case 'x' -> i = skipDigits(pattern, i, 2, 16);
+            case 'p', 'P' -> i++;
+            case 'g' -> {
+                if (i < pattern.length() && (pattern.charAt(i) == '+' || pattern.charAt(i) == '-')) {
+                    i++;
+                }
+                i = skipDigits(pattern, i, Integer.MAX_VALUE, 10);
+            }
+            case '0' -> i = skipDigits(pattern, i, 2, 8);
+            default -> {
+                if (escaped >= '1' && escaped <= '9') {
+                    i = skipDigits(pattern, i, Integer.MAX_VALUE, 10);
+                }
+            }
+        }
+        return Math.min(i, pattern.length());
+    }
+
+    /**
+     * Skip the digits following an index.
+     *
+     * @param pattern the pattern
+     * @param start   the index of the first digit
+     * @param limit   the maximum number of digits to skip
+     * @param radix   the radix of the digits
+     * @return the index following the digits
+     */
+    private static int skipDigits(String pattern, int start, int limit, int radix) {
+        var i = start;
+        while (i < pattern.length() && i - start < limit && Character.digit(pattern.charAt(i), radix) >= 0) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Get the end of a character class, including POSIX classes such as {@code [[:alpha:]]}.
+     *
+     * @param pattern the pattern
+     * @param start   the index of the opening bracket
+     * @return the index following the closing bracket, or {@code -1} if the class is not closed
+     */
+    private static int classEnd(String pattern, int start) {
+        var i = start + 1;
+        if (i < pattern.length() && pattern.charAt(i) == '^') {
+            i++;
+        }
+        // A closing bracket right at the start is a literal
+        if (i < pattern.length() && pattern.charAt(i) == ']') {
+            i++;
+        }
+        while (i < pattern.length()) {
+            final var c = pattern.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == 'Q') {
+                    final var end = pattern.indexOf("\\E", i + 2);
+                    if (end < 0) {
+                        return -1;
+                    }
+                    i = end + 2;
+                    continue;
+                }
+                i += 2;
+                continue;
+            }
+            if (c == '[' && i + 1 < pattern.length() && ":.=".indexOf(pattern.charAt(i + 1)) >= 0) {
+                final var end = pattern.indexOf(pattern.charAt(i + 1) + "]", i + 2);
+                if (end < 0) {
+                    return -1;
+                }
+                i = end + 2;
+                continue;
+            }
+            if (c == ']') {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the end of a group, skipping nested groups, character classes and escapes.
+     *
+     * @param pattern the pattern
+     * @param start   the index of the opening parenthesis
+     * @return the index following the closing parenthesis, or {@code -1} if the group is not closed
+     */
+    private static int groupEnd(String pattern, int start) {
+        var depth = 0;
+        var i = start;
+        while (i < pattern.length()) {
+            final var c = pattern.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == 'Q') {
+                    final var end = pattern.indexOf("\\E", i + 2);
+                    if (end < 0) {
+                        return -1;
+                    }
+                    i = end + 2;
+                    continue;
+                }
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                i = classEnd(pattern, i);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+                if (depth == 0) {
+                    return i + 1;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+}
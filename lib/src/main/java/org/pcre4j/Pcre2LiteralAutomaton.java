@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An Aho-Corasick automaton finding which of many literals occur in a text in a single pass over the text.
+ * <p>
+ * Every literal belongs to an owner, such as the index of a pattern, and a scan reports the owners of the literals
+ * that occur. The case of ASCII letters is ignored. Transitions on ASCII characters are precomputed into a dense
+ * table, so that scanning ASCII text costs one array lookup per character; transitions on other characters follow
+ * failure links.
+ * <p>
+ * The automaton is immutable and safe to use from multiple threads.
+ */
+/* package-private */ final class Pcre2LiteralAutomaton {
+
+    /**
+     * The number of characters with a dense transition table
+     */
+    private static final int ASCII = 128;
+
+    /**
+     * The dense transitions on ASCII characters, {@link #ASCII} per state
+     */
+    private final int[] asciiTransitions;
+
+    /**
+     * The transitions on non-ASCII characters of the trie, per state, {@code null} for states without any
+     */
+    private final Map<Character, Integer>[] wideTransitions;
+
+    /**
+     * The failure link of every state
+     */
+    private final int[] failures;
+
+    /**
+     * The owners of the literals that end at every state, including those reachable through failure links,
+     * {@code null} for states where no literal ends
+     */
+    private final int[][] owners;
+
+    /**
+     * Create an automaton
+     *
+     * @param literals the literals, none of them empty
+     * @param owners   the owner of every literal
+     */
+    /* package-private */ Pcre2LiteralAutomaton(List<String> literals, int[] owners) {
+        if (literals.size() != owners.length) {
+            throw new IllegalArgumentException("Every literal must have an owner");
+        }
+
+        // Build the trie
+        final var children = new ArrayList<Map<Character, Integer>>();
+        final var ends = new ArrayList<int[]>();
+        children.add(new HashMap<>());
+        ends.add(null);
+        for (var l = 0; l < literals.size(); l++) {
+            final var literal = literals.get(l);
+            if (literal.isEmpty()) {
+                throw new IllegalArgumentException("Literals must not be empty");
+            }
+
+            var state = 0;
+            for (var i = 0; i < literal.length(); i++) {
+                final var c = fold(literal.charAt(i));
+                final var next = children.get(state).get(c);
+                if (next != null) {
+                    state = next;
+                } else {
+                    children.add(new HashMap<>());
+                    ends.add(null);
+                    children.get(state).put(c, children.size() - 1);
+                    state = children.size() - 1;
+                }
+            }
+            ends.set(state, append(ends.get(state), owners[l]));
+        }
+
+        // Link the states breadth-first, so that the failure of every state is complete before its children
+        final var states = children.size();
+        this.asciiTransitions = new int[states * ASCII];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final Map<Character, Integer>[] wideTransitions = new Map[states];
+        this.wideTransitions = wideTransitions;
+        this.failures = new int[states];
+        this.owners = new int[states][];
+        this.owners[0] = ends.get(0);
+
+        final var queue = new ArrayDeque<Integer>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            final var failure = failures[state];
+            for (var c = 0; c < ASCII; c++) {
+                final var child = children.get(state).get((char) c);
+                if (child == null) {
+                    asciiTransitions[state * ASCII + c] = state == 0 ? 0 : asciiTransitions[failure * ASCII + c];
+                    continue;
+                }
+                asciiTransitions[state * ASCII + c] = child;
+                failures[child] = state == 0 ? 0 : asciiTransitions[failure * ASCII + c];
+                queue.add(child);
+            }
+            for (var entry : children.get(state).entrySet()) {
+                final char c = entry.getKey();
+                if (c < ASCII) {
+                    continue;
+                }
+                if (wideTransitions[state] == null) {
+                    wideTransitions[state] = new HashMap<>();
+                }
+                final int child = entry.getValue();
+                wideTransitions[state].put(c, child);
+                failures[child] = state == 0 ? 0 : wideTransition(failure, c);
+                queue.add(child);
+            }
+        }
+
+        // Merge the owners along the failure links, again breadth-first
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            for (var child : children.get(state).values()) {
+                this.owners[child] = merge(ends.get(child), this.owners[failures[child]]);
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Scan a text and add the owners of the literals that occur in it to a set.
+     *
+     * @param text  the text to scan
+     * @param found the set to add the owners to
+     */
+    /* package-private */ void scan(CharSequence text, BitSet found) {
+        var state = 0;
+        for (var i = 0; i < text.length(); i++) {
+            final var c = fold(text.charAt(i));
+            state = c < ASCII ? asciiTransitions[state * ASCII + c] : wideTransition(state, c);
+            final var ended = owners[state];
+            if (ended != null) {
+                for (var owner : ended) {
+                    found.set(owner);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of states of the automaton
+     *
+     * @return the number of states
+     */
+    /* package-private */ int stateCount() {
+        return failures.length;
+    }
+
+    /**
+     * Follow the transition on a non-ASCII character, falling back along the failure links.
+     *
+     * @param state the state
+     * @param c     the non-ASCII character
+     * @return the next state
+     */
+    private int wideTransition(int state, char c) {
+        while (true) {
+            final var transitions = wideTransitions[state];
+            final var next = transitions != null ? transitions.get(c) : null;
+            if (next != null) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failures[state];
+        }
+    }
+
+    /**
+     * Fold the case of an ASCII letter.
+     *
+     * @param c the character
+     * @return the lower case of the character if it is an ASCII upper case letter, the character otherwise
+     */
+    private static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    /**
+     * Append an owner to an array of owners.
+     *
+     * @param array the array of owners, or {@code null}
+     * @param owner the owner
+     * @return the array with the owner appended
+     */
+    private static int[] append(int[] array, int owner) {
+        if (array == null) {
+            return new int[]{owner};
+        }
+        final var result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = owner;
+        return result;
+    }
+
+    /**
+     * Merge two arrays of owners.
+     *
+     * @param first  the first array of owners, or {@code null}
+     * @param second the second array of owners, or {@code null}
+     * @return the merged array, or {@code null} if both are {@code null}
+     */
+    private static int[] merge(int[] first, int[] second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        final var result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -23,7 +23,7 @@ import java.lang.ref.Cleaner;
 /**
  * A match context for controlling pattern matching settings.
  */
-public class Pcre2MatchContext {
+public class Pcre2MatchContext implements AutoCloseable {
 
     /**
      * The match context handle
@@ -75,7 +75,7 @@ public class Pcre2MatchContext {
         this.api = api;
         this.handle = handle;
         this.cleanState = new Clean(api, handle);
-        this.cleanable = Pcre4jCleaner.INSTANCE.register(this, cleanState);
+        this.cleanable = Pcre2NativeMemory.track(this, api, Pcre2NativeMemory.Resource.MATCH_CONTEXT, 0, cleanState);
     }
 
     /**
@@ -139,6 +139,15 @@ public class Pcre2MatchContext {
         }
     }
 
+    /**
+     * Check whether a callout handler is set on this match context.
+     *
+     * @return {@code true} if a callout handler is set, otherwise {@code false}
+     */
+    /* package-private */ boolean hasCallout() {
+        return cleanState.calloutCallbackHandle != 0;
+    }
+
     /**
      * Set the match limit for this match context.
      * <p>
@@ -208,6 +217,15 @@ public class Pcre2MatchContext {
         api.setOffsetLimit(handle, limit);
     }
 
+    /**
+     * Free the match context now rather than once it becomes unreachable, leaving nothing for the cleaner to do. The
+     * match context must not be used once closed; closing it again has no effect.
+     */
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+
     private static final class Clean implements Runnable {
         private final IPcre2 api;
         private final long matchContext;
@@ -20,11 +20,13 @@ import org.pcre4j.option.Pcre2MatchOption;
 
 import java.lang.ref.Cleaner;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
 
 /**
  * The match data where the results of the match are stored
  */
-public class Pcre2MatchData {
+public class Pcre2MatchData implements AutoCloseable {
 
     /**
      * The match data handle
@@ -41,6 +43,12 @@ public class Pcre2MatchData {
      */
     private final Cleaner.Cleanable cleanable;
 
+    /**
+     * The view of the output vector in native memory, created on first use; the output vector stays at the same
+     * address for the lifetime of the match data, so that every match is read through the same view without a call
+     */
+    private volatile LongBuffer ovectorView;
+
     /**
      * Create a new match data object
      *
@@ -71,7 +79,9 @@ public class Pcre2MatchData {
 
         this.api = api;
         this.handle = handle;
-        this.cleanable = Pcre4jCleaner.INSTANCE.register(this, new Pcre2MatchData.Clean(api, handle));
+        this.cleanable = Pcre2NativeMemory.track(
+                this, api, Pcre2NativeMemory.Resource.MATCH_DATA, size(), new Pcre2MatchData.Clean(api, handle)
+        );
     }
 
     /**
@@ -94,7 +104,9 @@ public class Pcre2MatchData {
 
         this.api = code.api;
         this.handle = handle;
-        this.cleanable = Pcre4jCleaner.INSTANCE.register(this, new Pcre2MatchData.Clean(api, handle));
+        this.cleanable = Pcre2NativeMemory.track(
+                this, api, Pcre2NativeMemory.Resource.MATCH_DATA, size(), new Pcre2MatchData.Clean(api, handle)
+        );
     }
 
     /**
@@ -121,7 +133,7 @@ public class Pcre2MatchData {
      * @return the number of the offset pairs in the output vector
      */
     public int ovectorCount() {
-        return api.getOvectorCount(handle);
+        return ovectorView().capacity() / 2;
     }
 
     /**
@@ -143,11 +155,73 @@ public class Pcre2MatchData {
      * @return the output vector
      */
     public long[] ovector() {
-        final var ovector = new long[api.getOvectorCount(handle) * 2];
-        api.getOvector(handle, ovector);
+        final var view = ovectorView();
+        final var ovector = new long[view.capacity()];
+        view.get(0, ovector);
         return ovector;
     }
 
+    /**
+     * Read the output vector composed of offset pairs into the given array, so that it can be reused across matches.
+     * <p>
+     * Only the first {@code ovector.length / 2} offset pairs are read, so the array should hold
+     * {@link #ovectorCount()} pairs in order to receive all of them.
+     *
+     * @param ovector the array to store the output vector in
+     */
+    public void ovector(long[] ovector) {
+        if (ovector == null) {
+            throw new IllegalArgumentException("ovector must not be null");
+        }
+        final var view = ovectorView();
+        if (ovector.length > view.capacity()) {
+            throw new IllegalArgumentException("ovector must not be longer than the output vector");
+        }
+
+        view.get(0, ovector);
+    }
+
+    /**
+     * Get the start offset of an offset pair of the output vector, read in place without copying the output vector.
+     *
+     * @param pair the index of the offset pair, 0 for the whole match and the group number for a capturing group
+     * @return the start offset, or {@code -1} ({@code PCRE2_UNSET}) if the pair is unset
+     * @throws IndexOutOfBoundsException if the output vector has no such pair
+     */
+    public long ovectorStart(int pair) {
+        return ovectorView().get(pairIndex(pair));
+    }
+
+    /**
+     * Get the end offset of an offset pair of the output vector, read in place without copying the output vector.
+     *
+     * @param pair the index of the offset pair, 0 for the whole match and the group number for a capturing group
+     * @return the end offset, or {@code -1} ({@code PCRE2_UNSET}) if the pair is unset
+     * @throws IndexOutOfBoundsException if the output vector has no such pair
+     */
+    public long ovectorEnd(int pair) {
+        return ovectorView().get(pairIndex(pair) + 1);
+    }
+
+    private static int pairIndex(int pair) {
+        if (pair < 0) {
+            throw new IndexOutOfBoundsException("pair must not be negative");
+        }
+        return pair * 2;
+    }
+
+    private LongBuffer ovectorView() {
+        var view = ovectorView;
+        if (view == null) {
+            final var length = api.getOvectorCount(handle) * 2 * Long.BYTES;
+            view = ((INativeMemoryAccess) api).byteBufferView(api.getOvectorPointer(handle), length)
+                    .order(ByteOrder.nativeOrder())
+                    .asLongBuffer();
+            ovectorView = view;
+        }
+        return view;
+    }
+
     /**
      * Extract a captured substring by its group number.
      * <p>
@@ -160,7 +234,8 @@ public class Pcre2MatchData {
      * undefined behavior or corrupted data.
      *
      * @param number the group number (0 = entire match, 1+ = capturing groups)
-     * @return the extracted substring as a byte array (UTF-8 encoded)
+     * @return the extracted substring as a byte array, encoded in the code unit width of the API (UTF-8 for the
+     * 8-bit library)
      * @throws IllegalArgumentException if the group number is negative
      * @throws IndexOutOfBoundsException if there are no groups of that number
      * @throws IllegalStateException if the ovector was too small for that group, the group did not participate in
@@ -177,7 +252,7 @@ public class Pcre2MatchData {
 
         if (result == 0) {
             try {
-                return ((INativeMemoryAccess) api).readBytes(bufferptr[0], (int) bufflen[0]);
+                return ((INativeMemoryAccess) api).readBytes(bufferptr[0], (int) bufflen[0] * api.codeUnitSize());
             } finally {
                 api.substringFree(bufferptr[0]);
             }
@@ -214,7 +289,8 @@ public class Pcre2MatchData {
      * undefined behavior or corrupted data.
      *
      * @param name the name of the capturing group
-     * @return the extracted substring as a byte array (UTF-8 encoded)
+     * @return the extracted substring as a byte array, encoded in the code unit width of the API (UTF-8 for the
+     * 8-bit library)
      * @throws IllegalArgumentException if the name is null
      * @throws IndexOutOfBoundsException if there are no groups of that name
      * @throws IllegalStateException if the ovector was too small for that group, the group did not participate in
@@ -231,7 +307,7 @@ public class Pcre2MatchData {
 
         if (result == 0) {
             try {
-                return ((INativeMemoryAccess) api).readBytes(bufferptr[0], (int) bufflen[0]);
+                return ((INativeMemoryAccess) api).readBytes(bufferptr[0], (int) bufflen[0] * api.codeUnitSize());
             } finally {
                 api.substringFree(bufferptr[0]);
             }
@@ -286,11 +362,12 @@ public class Pcre2MatchData {
             throw new IllegalArgumentException("buffer must be a direct ByteBuffer");
         }
 
-        final var bufflen = new long[]{buffer.remaining()};
+        final var codeUnitSize = api.codeUnitSize();
+        final var bufflen = new long[]{buffer.remaining() / codeUnitSize};
         final var result = api.substringCopyByNumber(handle, number, buffer, bufflen);
 
         if (result == 0) {
-            return (int) bufflen[0];
+            return (int) bufflen[0] * codeUnitSize;
         }
 
         switch (result) {
@@ -304,7 +381,8 @@ public class Pcre2MatchData {
                     "Group " + number + " did not participate in the match"
             );
             case IPcre2.ERROR_NOMEMORY -> throw new IllegalStateException(
-                    "Buffer is too small for group " + number + " (need at least " + (bufflen[0] + 1) + " bytes)"
+                    "Buffer is too small for group " + number
+                            + " (need at least " + (bufflen[0] + 1) * codeUnitSize + " bytes)"
             );
             default -> throw new IllegalStateException(
                     "Unexpected error copying substring: " + result
@@ -342,11 +420,12 @@ public class Pcre2MatchData {
             throw new IllegalArgumentException("buffer must be a direct ByteBuffer");
         }
 
-        final var bufflen = new long[]{buffer.remaining()};
+        final var codeUnitSize = api.codeUnitSize();
+        final var bufflen = new long[]{buffer.remaining() / codeUnitSize};
         final var result = api.substringCopyByName(handle, name, buffer, bufflen);
 
         if (result == 0) {
-            return (int) bufflen[0];
+            return (int) bufflen[0] * codeUnitSize;
         }
 
         switch (result) {
@@ -360,7 +439,8 @@ public class Pcre2MatchData {
                     "Group '" + name + "' did not participate in the match"
             );
             case IPcre2.ERROR_NOMEMORY -> throw new IllegalStateException(
-                    "Buffer is too small for group '" + name + "' (need at least " + (bufflen[0] + 1) + " bytes)"
+                    "Buffer is too small for group '" + name
+                            + "' (need at least " + (bufflen[0] + 1) * codeUnitSize + " bytes)"
             );
             default -> throw new IllegalStateException(
                     "Unexpected error copying substring: " + result
@@ -450,6 +530,16 @@ public class Pcre2MatchData {
         }
     }
 
+    /**
+     * Free the match data now rather than once it becomes unreachable, leaving nothing for the cleaner to do. The
+     * match data must not be used once closed; closing it again has no effect.
+     */
+    @Override
+    public void close() {
+        ovectorView = null;
+        cleanable.clean();
+    }
+
     private record Clean(IPcre2 api, long matchData) implements Runnable {
         @Override
         public void run() {
@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.pcre4j.option.Pcre2CompileOption;
+
+/**
+ * A Java-side check that rejects subjects a compiled pattern definitely cannot match, without calling into the native
+ * library.
+ * <p>
+ * The prefilter is built once from the pattern information PCRE2 reports: the minimum length of a match, the code
+ * unit every match starts with, the code unit every match contains, and the bitmap of code units a match can start
+ * with. A subject is rejected if it is shorter than the minimum length, lacks the first or the required code unit, or
+ * has no character that a match can start with. Code units are only used when they are ASCII characters; letters are
+ * looked up in every case they may match in, so that patterns compiled with {@code (?i)} are never rejected wrongly.
+ * <p>
+ * Like the start-up optimizations of PCRE2 itself, a rejection skips the callouts the match would have run. Patterns
+ * compiled with {@link Pcre2CompileOption#NO_START_OPTIMIZE} therefore get a prefilter that rejects nothing, and the
+ * match methods of {@link Pcre2Code} do not consult the prefilter when the match context has a callout.
+ * <p>
+ * The prefilter is immutable and safe to use from multiple threads.
+ *
+ * @see Pcre2Code#prefilter()
+ */
+public final class Pcre2MatchPrefilter {
+
+    /**
+     * The number of characters covered by the first character bitmap
+     */
+    private static final int ASCII = 128;
+
+    /**
+     * The minimum number of characters of a match, or 0 if the subject length is not checked
+     */
+    private final int minLength;
+
+    /**
+     * Whether an encoded subject may have more code units than the string has characters
+     */
+    private final boolean expandsOnEncoding;
+
+    /**
+     * The characters one of which every match starts with, or {@code null} if not known
+     */
+    private final char[] firstChars;
+
+    /**
+     * The characters one of which every match contains, or {@code null} if not known
+     */
+    private final char[] requiredChars;
+
+    /**
+     * The ASCII characters a match can start with, or {@code null} if not known
+     */
+    private final boolean[] startChars;
+
+    private Pcre2MatchPrefilter(
+            int minLength,
+            boolean expandsOnEncoding,
+            char[] firstChars,
+            char[] requiredChars,
+            boolean[] startChars
+    ) {
+        this.minLength = minLength;
+        this.expandsOnEncoding = expandsOnEncoding;
+        this.firstChars = firstChars;
+        this.requiredChars = requiredChars;
+        this.startChars = startChars;
+    }
+
+    /**
+     * Build the prefilter of a compiled pattern.
+     *
+     * @param code the compiled pattern
+     * @return the prefilter
+     */
+    public static Pcre2MatchPrefilter of(Pcre2Code code) {
+        if (code == null) {
+            throw new IllegalArgumentException("code must not be null");
+        }
+
+        final var codeUnitSize = code.api().codeUnitSize();
+        final var allOptions = code.allOptions();
+        final var utf = allOptions.contains(Pcre2CompileOption.UTF);
+        if (allOptions.contains(Pcre2CompileOption.NO_START_OPTIMIZE)) {
+            return new Pcre2MatchPrefilter(0, codeUnitSize == 1 && !utf, null, null, null);
+        }
+        // \C matches a single code unit, which the minimum length counts as a character
+        final var minLength = code.hasBackslashC() ? 0 : code.minLength();
+
+        final var firstChars = code.firstCodeType() == 1 ? caseVariants(code.firstCodeUnit()) : null;
+        final var requiredChars = code.lastCodeType() == 1 ? caseVariants(code.lastCodeUnit()) : null;
+
+        boolean[] startChars = null;
+        if (firstChars == null && codeUnitSize == 1) {
+            final var bitmap = code.firstBitmap();
+            if (bitmap != null) {
+                startChars = asciiStartChars(bitmap);
+            }
+        }
+
+        return new Pcre2MatchPrefilter(minLength, codeUnitSize == 1 && !utf, firstChars, requiredChars, startChars);
+    }
+
+    /**
+     * Get the characters a code unit may match, in every case.
+     *
+     * @param unit the code unit
+     * @return the characters, or {@code null} if the code unit is not an ASCII character
+     */
+    private static char[] caseVariants(int unit) {
+        if (unit < 0 || unit >= ASCII) {
+            return null;
+        }
+
+        final var c = (char) unit;
+        final var lower = Character.toLowerCase(c);
+        final var upper = Character.toUpperCase(c);
+        if (lower == upper) {
+            return new char[]{c};
+        }
+        // Unicode case folding also matches k with the Kelvin sign and s with the long s
+        return switch (lower) {
+            case 'k' -> new char[]{lower, upper, '\u212A'};
+            case 's' -> new char[]{lower, upper, '\u017F'};
+            default -> new char[]{lower, upper};
+        };
+    }
+
+    /**
+     * Get the ASCII characters of a first code unit bitmap.
+     *
+     * @param bitmap the first code unit bitmap
+     * @return the characters a match can start with, or {@code null} if a match may start with a non-ASCII code unit
+     */
+    private static boolean[] asciiStartChars(byte[] bitmap) {
+        for (var i = ASCII / 8; i < bitmap.length; i++) {
+            if (bitmap[i] != 0) {
+                return null;
+            }
+        }
+
+        final var startChars = new boolean[ASCII];
+        for (var unit = 0; unit < ASCII; unit++) {
+            startChars[unit] = (bitmap[unit / 8] & (1 << (unit % 8))) != 0;
+        }
+        return startChars;
+    }
+
+    /**
+     * Get the minimum number of characters of a match
+     *
+     * @return the minimum number of characters, or 0 if the subject length is not checked
+     */
+    public int minLength() {
+        return minLength;
+    }
+
+    /**
+     * Check whether the prefilter never rejects any subject
+     *
+     * @return {@code true} if the prefilter has nothing to check
+     */
+    public boolean isTrivial() {
+        return minLength == 0 && firstChars == null && requiredChars == null && startChars == null;
+    }
+
+    /**
+     * Check whether the pattern may match a subject
+     *
+     * @param subject the subject
+     * @return {@code false} if the pattern definitely does not match the subject
+     */
+    public boolean mayMatch(CharSequence subject) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+
+        return mayMatch(subject, 0, subject.length());
+    }
+
+    /**
+     * Check whether the pattern may match a range of a subject, starting at or after a given index.
+     *
+     * @param subject    the subject
+     * @param startIndex the index at which the match may start at the earliest
+     * @param toIndex    the index at which the subject ends (exclusive)
+     * @return {@code false} if the pattern definitely does not match
+     */
+    public boolean mayMatch(CharSequence subject, int startIndex, int toIndex) {
+        if (minLength > 0 && encodedLength(subject, startIndex, toIndex) < minLength) {
+            return false;
+        }
+        if (firstChars != null && !containsAny(subject, startIndex, toIndex, firstChars)) {
+            return false;
+        }
+        if (requiredChars != null && !containsAny(subject, startIndex, toIndex, requiredChars)) {
+            return false;
+        }
+        return startChars == null || containsStartChar(subject, startIndex, toIndex);
+    }
+
+    /**
+     * Get the number of characters PCRE2 sees in a range of a subject, counting no further than the minimum length.
+     * Without UTF, the 8-bit library sees every byte of the UTF-8 encoding of the subject as a character.
+     *
+     * @param subject   the subject
+     * @param fromIndex the index at which the range starts (inclusive)
+     * @param toIndex   the index at which the range ends (exclusive)
+     * @return the number of characters, or at least the minimum length if there are more
+     */
+    private long encodedLength(CharSequence subject, int fromIndex, int toIndex) {
+        final var length = toIndex - fromIndex;
+        if (!expandsOnEncoding || length >= minLength) {
+            return length;
+        }
+
+        var encoded = 0L;
+        for (var i = fromIndex; i < toIndex && encoded < minLength; i++) {
+            final var c = subject.charAt(i);
+            encoded += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+        }
+        return encoded;
+    }
+
+    /**
+     * Check whether a range of a subject contains any of the given characters.
+     *
+     * @param subject   the subject
+     * @param fromIndex the index at which the range starts (inclusive)
+     * @param toIndex   the index at which the range ends (exclusive)
+     * @param chars     the characters
+     * @return {@code true} if the range contains any of the characters
+     */
+    private static boolean containsAny(CharSequence subject, int fromIndex, int toIndex, char[] chars) {
+        if (subject instanceof String string) {
+            for (var c : chars) {
+                final var index = string.indexOf(c, fromIndex, toIndex);
+                if (index >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        for (var i = fromIndex; i < toIndex; i++) {
+            final var c = subject.charAt(i);
+            for (var candidate : chars) {
+                if (c == candidate) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a range of a subject contains a character a match can start with.
+     *
+     * @param subject   the subject
+     * @param fromIndex the index at which the range starts (inclusive)
+     * @param toIndex   the index at which the range ends (exclusive)
+     * @return {@code true} if the range contains a character a match can start with
+     */
+    private boolean containsStartChar(CharSequence subject, int fromIndex, int toIndex) {
+        for (var i = fromIndex; i < toIndex; i++) {
+            final var c = subject.charAt(i);
+            if (c < ASCII && startChars[c]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
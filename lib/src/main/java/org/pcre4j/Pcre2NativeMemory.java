@@ -0,0 +1,545 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.exception.Pcre2MemoryBudgetException;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Cleaner;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The accounting of the native memory held by the resources of this library, and its budget.
+ * <p>
+ * Every compiled pattern, JIT-compiled code, match data, JIT stack, native subject and context is counted from its
+ * creation until it is freed by the {@link java.lang.ref.Cleaner}, along with the bytes of native memory it holds:
+ * {@link Pcre2Code#size()}, {@link Pcre2Code#jitSize()}, {@link Pcre2MatchData#size()}, the maximum size of a JIT stack
+ * and the encoded length of a subject. Contexts are counted without bytes, as PCRE2 does not report their size.
+ * <p>
+ * A global budget in bytes, set with {@link #setBudget(long)} or the {@link #BUDGET_PROPERTY} system property, caps the
+ * native memory of live resources. When creating a resource would exceed it, the following are tried in turn, each
+ * followed by another attempt, before the creation fails with a {@link Pcre2MemoryBudgetException}:
+ * <ol>
+ *   <li>the {@linkplain #addEvictionHook(EvictionHook) eviction hooks} are asked to release the missing bytes, such
+ *   as by evicting entries of a {@link Pcre2Cache};</li>
+ *   <li>the unused JIT memory of the PCRE2 API is freed;</li>
+ *   <li>a garbage collection is requested, and the creating thread waits, backing off exponentially, for the
+ *   {@link java.lang.ref.Cleaner} to free resources that are no longer reachable.</li>
+ * </ol>
+ * A JIT stack is reserved before it is created; the other resources only know their size once created, so they are
+ * freed at once if the budget cannot make room for them.
+ * <p>
+ * The accounting is available through a {@link Pcre2NativeMemoryMXBean}, registered with the platform MBean server by
+ * {@link #registerMBean()} or at startup with the {@link #MBEAN_PROPERTY} system property.
+ */
+public final class Pcre2NativeMemory {
+
+    /**
+     * System property name for the native memory budget in bytes.
+     * <p>
+     * The property is read once, when the first resource is created. A value of {@code 0} (the default) means no
+     * budget.
+     */
+    public static final String BUDGET_PROPERTY = "pcre2.native.memory.budget";
+
+    /**
+     * System property name for registering the MBean when the first resource is created, if set to {@code true}.
+     */
+    public static final String MBEAN_PROPERTY = "pcre2.native.memory.mbean";
+
+    /**
+     * The object name the MBean is registered under
+     */
+    public static final String OBJECT_NAME = "org.pcre4j:type=NativeMemory";
+
+    /**
+     * The number of times to wait for resources to be freed before giving up, the wait doubling from 1 millisecond
+     */
+    private static final int MAX_SLEEPS = 9;
+
+    private static final Resource[] RESOURCES = Resource.values();
+
+    private static final LongAdder[] COUNTS = newAdders();
+
+    private static final LongAdder[] BYTES = newAdders();
+
+    /**
+     * The number of bytes held by live resources, plus the bytes reserved for resources being created
+     */
+    private static final LongAdder TOTAL_BYTES = new LongAdder();
+
+    /**
+     * The lock making the check of a reservation against the budget and its addition to the total atomic. Releasing
+     * bytes only lowers the total, so it does not take the lock, and neither do reservations while there is no budget.
+     */
+    private static final Object BUDGET_LOCK = new Object();
+
+    private static final List<EvictionHook> EVICTION_HOOKS = new CopyOnWriteArrayList<>();
+
+    /**
+     * The PCRE2 APIs that created resources, whose unused JIT memory is freed under pressure
+     */
+    private static final Set<IPcre2> APIS = ConcurrentHashMap.newKeySet();
+
+    private static final LongAdder EVICTION_COUNT = new LongAdder();
+
+    private static final LongAdder REJECTION_COUNT = new LongAdder();
+
+    private static volatile long budget = budgetProperty();
+
+    static {
+        if (Boolean.getBoolean(MBEAN_PROPERTY)) {
+            registerMBean();
+        }
+    }
+
+    private Pcre2NativeMemory() {
+    }
+
+    /**
+     * Get the number of live resources of a type.
+     *
+     * @param resource the type of resources
+     * @return the number of live resources
+     */
+    public static long liveCount(Resource resource) {
+        if (resource == null) {
+            throw new IllegalArgumentException("resource cannot be null");
+        }
+        return COUNTS[resource.ordinal()].sum();
+    }
+
+    /**
+     * Get the number of bytes of native memory held by live resources of a type.
+     *
+     * @param resource the type of resources
+     * @return the number of bytes
+     */
+    public static long liveBytes(Resource resource) {
+        if (resource == null) {
+            throw new IllegalArgumentException("resource cannot be null");
+        }
+        return BYTES[resource.ordinal()].sum();
+    }
+
+    /**
+     * Get the number of bytes of native memory held by live resources of all types, including the bytes reserved for
+     * resources being created.
+     *
+     * @return the number of bytes
+     */
+    public static long totalBytes() {
+        return TOTAL_BYTES.sum();
+    }
+
+    /**
+     * Get the native memory budget.
+     *
+     * @return the budget in bytes, or {@code 0} if there is none
+     */
+    public static long budget() {
+        return budget;
+    }
+
+    /**
+     * Set the native memory budget. Resources already live are not affected, even if they exceed the new budget.
+     *
+     * @param budget the budget in bytes, or {@code 0} for none
+     */
+    public static void setBudget(long budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("budget must be non-negative, got: " + budget);
+        }
+        Pcre2NativeMemory.budget = budget;
+    }
+
+    /**
+     * Add a hook to run when creating a resource would exceed the budget.
+     *
+     * @param hook the hook
+     */
+    public static void addEvictionHook(EvictionHook hook) {
+        if (hook == null) {
+            throw new IllegalArgumentException("hook cannot be null");
+        }
+        EVICTION_HOOKS.add(hook);
+    }
+
+    /**
+     * Remove a hook added by {@link #addEvictionHook(EvictionHook)}.
+     *
+     * @param hook the hook
+     * @return {@code true} if the hook was removed, or {@code false} if it was not added
+     */
+    public static boolean removeEvictionHook(EvictionHook hook) {
+        return EVICTION_HOOKS.remove(hook);
+    }
+
+    /**
+     * Get the number of times the budget was exceeded and the eviction hooks were run.
+     *
+     * @return the number of times
+     */
+    public static long evictionCount() {
+        return EVICTION_COUNT.sum();
+    }
+
+    /**
+     * Get the number of resources that could not be created within the budget.
+     *
+     * @return the number of resources
+     */
+    public static long rejectionCount() {
+        return REJECTION_COUNT.sum();
+    }
+
+    /**
+     * Free the unused JIT memory of every PCRE2 API that created resources.
+     *
+     * @see IPcre2#jitFreeUnusedMemory(long)
+     */
+    public static void freeUnusedJitMemory() {
+        for (var api : APIS) {
+            api.jitFreeUnusedMemory(0);
+        }
+    }
+
+    /**
+     * Register the {@link Pcre2NativeMemoryMXBean} with the platform MBean server as {@value #OBJECT_NAME}, unless it
+     * is registered already. Requires the {@code java.management} module.
+     */
+    public static void registerMBean() {
+        Management.register();
+    }
+
+    /**
+     * Account for a resource just created, freeing it if the budget cannot make room for it.
+     *
+     * @param owner    the object the resource belongs to, which frees it once unreachable
+     * @param api      the PCRE2 API the resource was created with
+     * @param resource the type of the resource
+     * @param bytes    the number of bytes of native memory the resource holds
+     * @param free     the action freeing the resource
+     * @return the cleanable freeing the resource and releasing its bytes
+     * @throws Pcre2MemoryBudgetException if the budget cannot make room for the resource
+     */
+    static Cleaner.Cleanable track(Object owner, IPcre2 api, Resource resource, long bytes, Runnable free) {
+        try {
+            reserve(api, bytes);
+        } catch (Pcre2MemoryBudgetException e) {
+            free.run();
+            throw e;
+        }
+        return register(owner, resource, bytes, free);
+    }
+
+    /**
+     * Account for a resource whose bytes were already {@linkplain #reserve(IPcre2, long) reserved}.
+     *
+     * @param owner    the object the resource belongs to, which frees it once unreachable
+     * @param resource the type of the resource
+     * @param bytes    the number of bytes reserved for the resource
+     * @param free     the action freeing the resource
+     * @return the cleanable freeing the resource and releasing its bytes
+     */
+    static Cleaner.Cleanable register(Object owner, Resource resource, long bytes, Runnable free) {
+        COUNTS[resource.ordinal()].increment();
+        BYTES[resource.ordinal()].add(bytes);
+        return Pcre4jCleaner.INSTANCE.register(owner, new Release(resource, bytes, free));
+    }
+
+    /**
+     * Reserve bytes of native memory within the budget, putting pressure on the caches and waiting for unreachable
+     * resources to be freed if needed.
+     *
+     * @param api   the PCRE2 API the memory is for
+     * @param bytes the number of bytes
+     * @throws Pcre2MemoryBudgetException if the budget cannot make room for the bytes
+     */
+    static void reserve(IPcre2 api, long bytes) {
+        // Adding to the set locks a bin of the map even if the API is in it already
+        if (!APIS.contains(api)) {
+            APIS.add(api);
+        }
+        if (bytes == 0 || tryReserve(bytes)) {
+            return;
+        }
+
+        final var limit = budget;
+        if (limit != 0 && bytes > limit) {
+            REJECTION_COUNT.increment();
+            throw new Pcre2MemoryBudgetException(
+                    "Native memory budget of " + limit + " bytes cannot fit " + bytes + " bytes", bytes, limit
+            );
+        }
+
+        EVICTION_COUNT.increment();
+        for (var hook : EVICTION_HOOKS) {
+            hook.evict(TOTAL_BYTES.sum() + bytes - limit);
+        }
+        if (tryReserve(bytes)) {
+            return;
+        }
+
+        api.jitFreeUnusedMemory(0);
+        if (tryReserve(bytes)) {
+            return;
+        }
+
+        // As java.nio.Bits does for direct buffers: let the cleaner free what is no longer reachable
+        System.gc();
+        var interrupted = false;
+        try {
+            var sleepTime = 1L;
+            for (int sleeps = 0; sleeps < MAX_SLEEPS; sleeps++) {
+                if (tryReserve(bytes)) {
+                    return;
+                }
+                try {
+                    Thread.sleep(sleepTime);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+                sleepTime <<= 1;
+            }
+            if (tryReserve(bytes)) {
+                return;
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        REJECTION_COUNT.increment();
+        throw new Pcre2MemoryBudgetException(
+                "Native memory budget of " + limit + " bytes exhausted: " + TOTAL_BYTES.sum()
+                        + " bytes in use, " + bytes + " bytes requested",
+                bytes,
+                limit
+        );
+    }
+
+    /**
+     * Release bytes reserved for a resource that failed to be created.
+     *
+     * @param bytes the number of bytes
+     */
+    static void unreserve(long bytes) {
+        TOTAL_BYTES.add(-bytes);
+    }
+
+    private static boolean tryReserve(long bytes) {
+        if (budget == 0) {
+            TOTAL_BYTES.add(bytes);
+            return true;
+        }
+
+        synchronized (BUDGET_LOCK) {
+            final var limit = budget;
+            if (limit != 0 && TOTAL_BYTES.sum() + bytes > limit) {
+                return false;
+            }
+            TOTAL_BYTES.add(bytes);
+            return true;
+        }
+    }
+
+    private static LongAdder[] newAdders() {
+        final var adders = new LongAdder[Resource.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long budgetProperty() {
+        final var budget = System.getProperty(BUDGET_PROPERTY);
+        if (budget == null) {
+            return 0;
+        }
+        try {
+            final var result = Long.parseLong(budget);
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through
+        }
+        throw new IllegalArgumentException(
+                "System property " + BUDGET_PROPERTY + " must be a non-negative integer, got: " + budget
+        );
+    }
+
+    /**
+     * The types of resources accounted for
+     */
+    public enum Resource {
+        /**
+         * A compiled pattern, {@link Pcre2Code#size()} bytes
+         */
+        CODE,
+
+        /**
+         * The JIT-compiled code of a pattern, {@link Pcre2Code#jitSize()} bytes
+         */
+        JIT_CODE,
+
+        /**
+         * A match data block, {@link Pcre2MatchData#size()} bytes
+         */
+        MATCH_DATA,
+
+        /**
+         * A JIT stack, its maximum size in bytes
+         */
+        JIT_STACK,
+
+        /**
+         * A native subject, its encoded length in bytes
+         */
+        SUBJECT,
+
+        /**
+         * A general context
+         */
+        GENERAL_CONTEXT,
+
+        /**
+         * A compile context
+         */
+        COMPILE_CONTEXT,
+
+        /**
+         * A match context
+         */
+        MATCH_CONTEXT,
+
+        /**
+         * A convert context
+         */
+        CONVERT_CONTEXT
+    }
+
+    /**
+     * A hook run when creating a resource would exceed the native memory budget
+     */
+    @FunctionalInterface
+    public interface EvictionHook {
+
+        /**
+         * Release native memory, such as by dropping the references to cached resources. Memory is only released once
+         * the resources are freed, which happens right away for resources that are no longer reachable otherwise.
+         *
+         * @param bytes the number of bytes missing to fit the resource being created
+         */
+        void evict(long bytes);
+    }
+
+    /**
+     * Free a resource and release its bytes
+     *
+     * @param resource the type of the resource
+     * @param bytes    the number of bytes the resource holds
+     * @param free     the action freeing the resource
+     */
+    private record Release(Resource resource, long bytes, Runnable free) implements Runnable {
+        @Override
+        public void run() {
+            try {
+                free.run();
+            } finally {
+                COUNTS[resource.ordinal()].decrement();
+                BYTES[resource.ordinal()].add(-bytes);
+                TOTAL_BYTES.add(-bytes);
+            }
+        }
+    }
+
+    /**
+     * The MBean, kept apart so that {@code java.management} is only needed once it is registered
+     */
+    private static final class Management implements Pcre2NativeMemoryMXBean {
+
+        static synchronized void register() {
+            try {
+                final var server = ManagementFactory.getPlatformMBeanServer();
+                final var name = new ObjectName(OBJECT_NAME);
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(new Management(), name);
+                }
+            } catch (JMException e) {
+                throw new IllegalStateException("Failed to register the native memory MBean", e);
+            }
+        }
+
+        @Override
+        public long getTotalBytes() {
+            return totalBytes();
+        }
+
+        @Override
+        public long getBudget() {
+            return budget();
+        }
+
+        @Override
+        public void setBudget(long budget) {
+            Pcre2NativeMemory.setBudget(budget);
+        }
+
+        @Override
+        public Map<String, Long> getLiveCounts() {
+            final var counts = new LinkedHashMap<String, Long>();
+            for (var resource : RESOURCES) {
+                counts.put(resource.name(), liveCount(resource));
+            }
+            return counts;
+        }
+
+        @Override
+        public Map<String, Long> getLiveBytes() {
+            final var bytes = new LinkedHashMap<String, Long>();
+            for (var resource : RESOURCES) {
+                bytes.put(resource.name(), liveBytes(resource));
+            }
+            return bytes;
+        }
+
+        @Override
+        public long getEvictionCount() {
+            return evictionCount();
+        }
+
+        @Override
+        public long getRejectionCount() {
+            return rejectionCount();
+        }
+
+        @Override
+        public void freeUnusedJitMemory() {
+            Pcre2NativeMemory.freeUnusedJitMemory();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import java.util.Map;
+
+/**
+ * The management interface of the native memory accounting of {@link Pcre2NativeMemory}, registered as
+ * {@value Pcre2NativeMemory#OBJECT_NAME} by {@link Pcre2NativeMemory#registerMBean()}.
+ */
+public interface Pcre2NativeMemoryMXBean {
+
+    /**
+     * Get the number of bytes of native memory held by live resources.
+     *
+     * @return the number of bytes
+     * @see Pcre2NativeMemory#totalBytes()
+     */
+    long getTotalBytes();
+
+    /**
+     * Get the native memory budget.
+     *
+     * @return the budget in bytes, or {@code 0} if there is none
+     * @see Pcre2NativeMemory#budget()
+     */
+    long getBudget();
+
+    /**
+     * Set the native memory budget.
+     *
+     * @param budget the budget in bytes, or {@code 0} for none
+     * @see Pcre2NativeMemory#setBudget(long)
+     */
+    void setBudget(long budget);
+
+    /**
+     * Get the number of live resources of each type.
+     *
+     * @return the number of live resources by {@link Pcre2NativeMemory.Resource} name
+     */
+    Map<String, Long> getLiveCounts();
+
+    /**
+     * Get the number of bytes of native memory held by live resources of each type.
+     *
+     * @return the number of bytes by {@link Pcre2NativeMemory.Resource} name
+     */
+    Map<String, Long> getLiveBytes();
+
+    /**
+     * Get the number of times the budget was exceeded and the eviction hooks were run.
+     *
+     * @return the number of times
+     * @see Pcre2NativeMemory#evictionCount()
+     */
+    long getEvictionCount();
+
+    /**
+     * Get the number of resources that could not be created within the budget.
+     *
+     * @return the number of resources
+     * @see Pcre2NativeMemory#rejectionCount()
+     */
+    long getRejectionCount();
+
+    /**
+     * Free the unused JIT memory of every PCRE2 API that created resources.
+     *
+     * @see Pcre2NativeMemory#freeUnusedJitMemory()
+     */
+    void freeUnusedJitMemory();
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright (C) 2024-2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import java.util.Arrays;
+
+/**
+ * A translation between character indices of a string and code unit offsets of its encoding in the code unit width
+ * of a PCRE2 library: byte offsets of its UTF-8 encoding, or code unit offsets of its UTF-16 or UTF-32 encoding.
+ * <p>
+ * The map is built once per subject and then answers every translation in constant time:
+ * <ul>
+ *   <li>offsets of the UTF-16 encoding are the identity, and so are those of an all-ASCII subject in UTF-8 and of a
+ *       subject without supplementary characters in UTF-32, so no index is kept at all;</li>
+ *   <li>otherwise a sparse index of checkpoints, one per {@value #CHECKPOINT_INTERVAL} characters and one per
+ *       {@value #CHECKPOINT_INTERVAL} bytes, bounds every translation to a short walk from the nearest
+ *       checkpoint.</li>
+ * </ul>
+ * <p>
+ * In UTF-8, character widths follow {@link Pcre4jUtils#convertCharacterIndexToByteOffset(String, int)}: each half
+ * of a surrogate pair accounts for two of the four bytes of the encoded code point. In UTF-32, the high surrogate of
+ * a pair accounts for its code unit and the low surrogate for none.
+ * <p>
+ * The method names speak of bytes, which are the code units of UTF-8; for the other widths, every "byte" offset and
+ * length is in code units.
+ */
+public final class Pcre2OffsetMap {
+
+    /**
+     * The number of characters (and bytes) between two consecutive checkpoints
+     */
+    private static final int CHECKPOINT_INTERVAL = 64;
+
+    private static final int CHECKPOINT_SHIFT = Integer.numberOfTrailingZeros(CHECKPOINT_INTERVAL);
+
+    private static final int CHECKPOINT_MASK = CHECKPOINT_INTERVAL - 1;
+
+    /**
+     * The number of characters folded together by the ASCII scan before checking for non-ASCII bits
+     */
+    private static final int ASCII_SCAN_BLOCK = 64;
+
+    private final String subject;
+    private final int codeUnitSize;
+    private final int byteLength;
+
+    /**
+     * The byte offset of every {@link #CHECKPOINT_INTERVAL}-th character index, or {@code null} for the identity
+     */
+    private final int[] charCheckpoints;
+
+    /**
+     * The index of the character containing every {@link #CHECKPOINT_INTERVAL}-th byte offset, or {@code null} for
+     * the identity
+     */
+    private final int[] byteCheckpoints;
+
+    private Pcre2OffsetMap(
+            String subject,
+            int codeUnitSize,
+            int byteLength,
+            int[] charCheckpoints,
+            int[] byteCheckpoints
+    ) {
+        this.subject = subject;
+        this.codeUnitSize = codeUnitSize;
+        this.byteLength = byteLength;
+        this.charCheckpoints = charCheckpoints;
+        this.byteCheckpoints = byteCheckpoints;
+    }
+
+    /**
+     * Build the offset map of the UTF-8 encoding of the given subject.
+     *
+     * @param subject the subject string
+     * @return the offset map
+     */
+    public static Pcre2OffsetMap of(String subject) {
+        return of(subject, 1);
+    }
+
+    /**
+     * Build the offset map of the encoding of the given subject in the given code unit width.
+     *
+     * @param subject      the subject string
+     * @param codeUnitSize the code unit size in bytes, i.e. 1 for UTF-8, 2 for UTF-16 and 4 for UTF-32
+     * @return the offset map
+     */
+    public static Pcre2OffsetMap of(String subject, int codeUnitSize) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (codeUnitSize != 1 && codeUnitSize != 2 && codeUnitSize != 4) {
+            throw new IllegalArgumentException("codeUnitSize must be 1, 2, or 4");
+        }
+
+        final var length = subject.length();
+        if (codeUnitSize == 2 || codeUnitSize == 1 && asciiPrefixLength(subject, 0, length) == length) {
+            return identity(subject, codeUnitSize);
+        }
+
+        final var charCheckpoints = new int[(length >> CHECKPOINT_SHIFT) + 1];
+        var byteCheckpoints = new int[((length * 3) >> CHECKPOINT_SHIFT) + 1];
+        var offset = 0;
+        var nextByteCheckpoint = 0;
+        for (var index = 0; index < length; index++) {
+            if ((index & CHECKPOINT_MASK) == 0) {
+                charCheckpoints[index >> CHECKPOINT_SHIFT] = offset;
+            }
+            offset += width(subject, index, codeUnitSize);
+            while (nextByteCheckpoint < offset) {
+                byteCheckpoints[nextByteCheckpoint >> CHECKPOINT_SHIFT] = index;
+                nextByteCheckpoint += CHECKPOINT_INTERVAL;
+            }
+        }
+        if ((length & CHECKPOINT_MASK) == 0) {
+            charCheckpoints[length >> CHECKPOINT_SHIFT] = offset;
+        }
+        if (nextByteCheckpoint == offset) {
+            byteCheckpoints[nextByteCheckpoint >> CHECKPOINT_SHIFT] = length;
+        }
+        if (offset == length) {
+            return identity(subject, codeUnitSize);
+        }
+        byteCheckpoints = Arrays.copyOf(byteCheckpoints, (offset >> CHECKPOINT_SHIFT) + 1);
+
+        return new Pcre2OffsetMap(subject, codeUnitSize, offset, charCheckpoints, byteCheckpoints);
+    }
+
+    /**
+     * Build an offset map of the given subject whose offsets are the identity of character indices, e.g. because
+     * the subject is known to be all-ASCII or is encoded in UTF-16.
+     *
+     * @param subject      the subject string
+     * @param codeUnitSize the code unit size in bytes
+     * @return the offset map
+     */
+    /* package-private */ static Pcre2OffsetMap identity(String subject, int codeUnitSize) {
+        return new Pcre2OffsetMap(subject, codeUnitSize, subject.length(), null, null);
+    }
+
+    /**
+     * Get the subject string
+     *
+     * @return the subject string
+     */
+    public String subject() {
+        return subject;
+    }
+
+    /**
+     * Get the code unit size of the encoding in bytes
+     *
+     * @return the code unit size in bytes
+     */
+    public int codeUnitSize() {
+        return codeUnitSize;
+    }
+
+    /**
+     * Get the length of the encoded subject in bytes
+     *
+     * @return the length of the encoded subject in bytes
+     */
+    public int byteLength() {
+        return byteLength;
+    }
+
+    /**
+     * Check whether byte offsets are the same as character indices
+     *
+     * @return {@code true} if byte offsets are the same as character indices, otherwise {@code false}
+     */
+    public boolean isIdentity() {
+        return charCheckpoints == null;
+    }
+
+    /**
+     * Convert a character index to a byte offset.
+     *
+     * @param index the character index
+     * @return the byte offset
+     */
+    public int toByteOffset(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("index must be non-negative");
+        }
+        if (index > subject.length()) {
+            throw new IllegalArgumentException("index must be within the bounds of the subject string");
+        }
+
+        if (charCheckpoints == null) {
+            return index;
+        }
+
+        var offset = charCheckpoints[index >> CHECKPOINT_SHIFT];
+        for (var charIndex = index & ~CHECKPOINT_MASK; charIndex < index; charIndex++) {
+            offset += width(subject, charIndex, codeUnitSize);
+        }
+        return offset;
+    }
+
+    /**
+     * Convert a byte offset to a character index.
+     *
+     * @param byteOffset the byte offset
+     * @return the index of the character that the byte offset belongs to
+     */
+    public int toCharacterIndex(long byteOffset) {
+        if (byteOffset < 0 || byteOffset > byteLength) {
+            throw new IllegalArgumentException("byteOffset must be within the bounds of the encoded subject");
+        }
+
+        if (byteCheckpoints == null) {
+            return (int) byteOffset;
+        }
+
+        var index = byteCheckpoints[(int) (byteOffset >> CHECKPOINT_SHIFT)];
+        var offset = toByteOffset(index);
+        while (index < subject.length()) {
+            final var nextOffset = offset + width(subject, index, codeUnitSize);
+            if (nextOffset > byteOffset) {
+                break;
+            }
+            offset = nextOffset;
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Convert the byte-based ovector offset pairs to string index pairs.
+     *
+     * @param ovector the byte-based ovector offset pairs
+     * @param indices the array to store the string index pairs in, unset offsets being stored as {@code -1}
+     */
+    public void toStringIndices(long[] ovector, int[] indices) {
+        toStringIndices(ovector, indices, 0);
+    }
+
+    /**
+     * Convert the byte-based ovector offset pairs of a match against a suffix of the subject to string index pairs.
+     *
+     * @param ovector   the byte-based ovector offset pairs, relative to the suffix of the subject
+     * @param indices   the array to store the string index pairs in, relative to the whole subject, unset offsets
+     *                  being stored as {@code -1}
+     * @param fromIndex the character index at which the suffix starts in the subject
+     */
+    public void toStringIndices(long[] ovector, int[] indices, int fromIndex) {
+        if (ovector == null) {
+            throw new IllegalArgumentException("ovector must not be null");
+        }
+        if (indices == null) {
+            throw new IllegalArgumentException("indices must not be null");
+        }
+        if (indices.length < ovector.length) {
+            throw new IllegalArgumentException("indices must be at least as long as ovector");
+        }
+
+        final var fromOffset = toByteOffset(fromIndex);
+        for (var i = 0; i < ovector.length; i++) {
+            final var value = ovector[i];
+            indices[i] = value < 0 ? -1 : toCharacterIndex(fromOffset + value);
+        }
+    }
+
+    /**
+     * Convert the byte-based ovector offset pairs of a single match to string index pairs without building an offset
+     * map, walking the subject only up to the largest offset of the ovector.
+     *
+     * @param subject      the subject string
+     * @param codeUnitSize the code unit size in bytes, i.e. 1 for UTF-8, 2 for UTF-16 and 4 for UTF-32
+     * @param ovector      the byte-based ovector offset pairs
+     * @param indices      the array to store the string index pairs in, unset offsets being stored as {@code -1}
+     */
+    /* package-private */ static void toStringIndices(String subject, int codeUnitSize, long[] ovector, int[] indices) {
+        if (codeUnitSize == 2) {
+            for (var i = 0; i < ovector.length; i++) {
+                indices[i] = ovector[i] < 0 ? -1 : (int) ovector[i];
+            }
+            return;
+        }
+
+        // Translate the offsets in ascending order, so that the subject is walked once
+        final var offsets = ovector.clone();
+        Arrays.sort(offsets);
+        final var sortedIndices = new int[offsets.length];
+        final var length = subject.length();
+        final var maxOffset = offsets[offsets.length - 1];
+        // Byte offsets within the all-ASCII prefix are character indices
+        final var asciiLength = maxOffset < 0 ? 0 : asciiPrefixLength(subject, 0, (int) Math.min(length, maxOffset));
+        var index = asciiLength;
+        var offset = (long) index;
+        for (var i = 0; i < offsets.length; i++) {
+            final var value = offsets[i];
+            if (value < asciiLength) {
+                sortedIndices[i] = value < 0 ? -1 : (int) value;
+                continue;
+            }
+            while (index < length) {
+                final var nextOffset = offset + width(subject, index, codeUnitSize);
+                if (nextOffset > value) {
+                    break;
+                }
+                offset = nextOffset;
+                index++;
+            }
+            sortedIndices[i] = index;
+        }
+
+        for (var i = 0; i < ovector.length; i++) {
+            indices[i] = sortedIndices[Arrays.binarySearch(offsets, ovector[i])];
+        }
+    }
+
+    /**
+     * Get the length of the all-ASCII run of characters of the given string within the given range.
+     * <p>
+     * Characters are folded together in fixed-size blocks, which keeps the hot loop free of branches so that the
+     * JIT compiler can vectorize it.
+     *
+     * @param subject   the string
+     * @param fromIndex the index to start scanning at (inclusive)
+     * @param toIndex   the index to stop scanning at (exclusive)
+     * @return the number of consecutive ASCII characters starting at {@code fromIndex}
+     */
+    /* package-private */ static int asciiPrefixLength(String subject, int fromIndex, int toIndex) {
+        var blockStart = fromIndex;
+        while (blockStart < toIndex) {
+            final var blockEnd = Math.min(blockStart + ASCII_SCAN_BLOCK, toIndex);
+            var bits = 0;
+            for (var index = blockStart; index < blockEnd; index++) {
+                bits |= subject.charAt(index);
+            }
+            if (bits > 0x7F) {
+                var index = blockStart;
+                while (subject.charAt(index) <= 0x7F) {
+                    index++;
+                }
+                return index - fromIndex;
+            }
+            blockStart = blockEnd;
+        }
+        return toIndex - fromIndex;
+    }
+
+    /**
+     * Get the number of code units accounted to the character at the given index of a string.
+     *
+     * @param subject      the string
+     * @param index        the index of the character
+     * @param codeUnitSize the code unit size in bytes, either 1 or 4
+     * @return the number of code units
+     */
+    private static int width(String subject, int index, int codeUnitSize) {
+        final var theChar = subject.charAt(index);
+        if (codeUnitSize == 1) {
+            return byteWidth(theChar);
+        }
+        return Character.isLowSurrogate(theChar) && index > 0 && Character.isHighSurrogate(subject.charAt(index - 1))
+                ? 0
+                : 1;
+    }
+
+    /**
+     * Get the number of UTF-8 bytes accounted to a character.
+     *
+     * @param theChar the character
+     * @return the number of bytes
+     */
+    /* package-private */ static int byteWidth(char theChar) {
+        if (theChar <= 0x007F) {
+            return 1;
+        } else if (theChar <= 0x07FF) {
+            return 2;
+        } else if (Character.isSurrogate(theChar)) {
+            return 2;
+        } else {
+            return 3;
+        }
+    }
+}
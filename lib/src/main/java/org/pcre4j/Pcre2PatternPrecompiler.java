@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.exception.Pcre2CompileException;
+import org.pcre4j.option.Pcre2CompileOption;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Precompiles the constant patterns listed in registry files into a {@link Pcre2PatternStore} file at build time, so
+ * that invalid patterns fail the build and the application decodes the patterns instead of compiling them at startup.
+ * <p>
+ * A registry file lists one pattern per line. Blank lines and lines starting with {@code #} are ignored. A line
+ * containing a tab character lists comma-separated {@link Pcre2CompileOption} names before the first tab and the
+ * pattern after it; the name {@code JIT} requests JIT compilation with the default JIT options. A line without a tab
+ * is a pattern compiled with no options:
+ * <pre>
+ * # Patterns of the request router
+ * \d{4}-\d{2}-\d{2}
+ * UTF,CASELESS,JIT&#9;^/api/v(\d+)/
+ * </pre>
+ * <p>
+ * The generated file is meant to be packaged as the {@link Pcre2PatternStore#PRECOMPILED_RESOURCE} classpath
+ * resource and read with {@link Pcre2PatternStore#openPrecompiled(IPcre2)}; the {@code pcre4j-precompiled-patterns}
+ * Gradle convention plugin wires this up. Since serialized patterns are tied to the PCRE2 version that produced them,
+ * the build should use the same PCRE2 library as the application; otherwise the resource is ignored as stale and the
+ * patterns are compiled at runtime.
+ */
+public final class Pcre2PatternPrecompiler {
+
+    /**
+     * The option name that requests JIT compilation
+     */
+    public static final String JIT_OPTION = "JIT";
+
+    private Pcre2PatternPrecompiler() {
+    }
+
+    /**
+     * Compile the patterns of the given registry files and write them to a pattern store file.
+     * <p>
+     * Usage: {@code Pcre2PatternPrecompiler <output file> <registry file>...}. Exits with status 1 if any pattern
+     * fails to compile, after reporting every failure.
+     *
+     * @param args the output file followed by the registry files
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: Pcre2PatternPrecompiler <output file> <registry file>...");
+            System.exit(2);
+        }
+
+        final var registries = new ArrayList<Path>();
+        for (var i = 1; i < args.length; i++) {
+            registries.add(Path.of(args[i]));
+        }
+
+        final var errors = precompile(Pcre4j.api(), Path.of(args[0]), registries);
+        if (!errors.isEmpty()) {
+            errors.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compile the patterns of the given registry files and write them to a pattern store file. The output file is
+     * not written if any pattern fails to compile.
+     *
+     * @param api        the PCRE2 API to use
+     * @param output     the pattern store file to write
+     * @param registries the registry files
+     * @return the compile errors, each prefixed with the registry file and the line number; empty on success
+     * @throws IOException if a file cannot be read or written
+     */
+    public static List<String> precompile(IPcre2 api, Path output, List<Path> registries) throws IOException {
+        if (api == null) {
+            throw new IllegalArgumentException("api must not be null");
+        }
+        if (output == null) {
+            throw new IllegalArgumentException("output must not be null");
+        }
+        if (registries == null) {
+            throw new IllegalArgumentException("registries must not be null");
+        }
+
+        Files.deleteIfExists(output);
+        final var store = Pcre2PatternStore.open(api, output);
+        final var errors = new ArrayList<String>();
+        for (var registry : registries) {
+            final var lines = Files.readAllLines(registry, StandardCharsets.UTF_8);
+            for (var i = 0; i < lines.size(); i++) {
+                final var location = registry + ":" + (i + 1) + ": ";
+                try {
+                    compile(store, lines.get(i));
+                } catch (Pcre2CompileException e) {
+                    errors.add(location + e.message() + " at offset " + e.offset() + " in pattern: " + e.pattern());
+                } catch (IllegalArgumentException e) {
+                    errors.add(location + e.getMessage());
+                }
+            }
+        }
+
+        if (errors.isEmpty()) {
+            final var parent = output.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            store.save();
+        }
+        return errors;
+    }
+
+    /**
+     * Compile the pattern of a registry line into the given store.
+     *
+     * @param store the pattern store
+     * @param line  the registry line
+     * @throws IllegalArgumentException if the line names an unknown option
+     */
+    private static void compile(Pcre2PatternStore store, String line) {
+        if (line.isBlank() || line.startsWith("#")) {
+            return;
+        }
+
+        final var tab = line.indexOf('\t');
+        final var pattern = tab >= 0 ? line.substring(tab + 1) : line;
+        final var options = EnumSet.noneOf(Pcre2CompileOption.class);
+        var jit = false;
+        if (tab >= 0) {
+            for (var name : line.substring(0, tab).split(",")) {
+                final var option = name.strip();
+                if (option.isEmpty()) {
+                    continue;
+                }
+                if (JIT_OPTION.equals(option)) {
+                    jit = true;
+                    continue;
+                }
+                try {
+                    options.add(Pcre2CompileOption.valueOf(option));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown compile option: " + option, e);
+                }
+            }
+        }
+
+        if (jit) {
+            store.jitCompile(pattern, options, null);
+        } else {
+            store.compile(pattern, options);
+        }
+    }
+}
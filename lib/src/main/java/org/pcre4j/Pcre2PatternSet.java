@@ -0,0 +1,593 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.pcre4j.api.INativeMemoryAccess;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.exception.Pcre2CompileException;
+import org.pcre4j.option.Pcre2CompileOption;
+import org.pcre4j.option.Pcre2JitOption;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * A set of patterns matched against a subject together, reporting which of them match.
+ * <p>
+ * Matching hundreds of patterns one by one costs a native call, a subject transcoding and a match data setup per
+ * pattern. A pattern set encodes the subject once, reuses one match data, and combines the patterns into a single
+ * program where their semantics allow it:
+ * <pre>
+ * (?:pattern0)(*MARK:0)|(?:pattern1)(*MARK:1)|...
+ * </pre>
+ * The mark of a successful match of the combined program names the pattern that matched. Patterns that cannot be
+ * combined without changing their meaning, such as those with back references, subroutine calls, named groups or
+ * backtracking control verbs, are matched on their own.
+ * <p>
+ * In {@link MatchMode#FIRST_MATCH} mode, the result holds the pattern whose match starts leftmost in the subject,
+ * ties going to the pattern that comes first in the set. In {@link MatchMode#ALL_MATCHES} mode, the result holds every
+ * pattern that matches anywhere in the subject; a subject that matches no combined pattern is rejected with a single
+ * native call.
+ * <p>
+ * Before any native call, the subject is scanned once by an Aho-Corasick automaton built from the literals that every
+ * match of each pattern must contain, found by analyzing the pattern source and the first code unit, last code unit,
+ * first code unit bitmap and minimum length that PCRE2 reports. Only the patterns whose literals occur in the subject
+ * are handed to PCRE2; see {@link #requiredLiterals(int)}.
+ * <p>
+ * A pattern set is immutable and safe to use from multiple threads.
+ */
+public class Pcre2PatternSet {
+
+    /**
+     * The mode of matching a subject against a pattern set
+     */
+    public enum MatchMode {
+        /**
+         * Report the pattern whose match starts leftmost in the subject, ties going to the pattern that comes first
+         */
+        FIRST_MATCH,
+        /**
+         * Report every pattern that matches the subject
+         */
+        ALL_MATCHES
+    }
+
+    /**
+     * The sequences that mark a pattern as one that cannot be combined with others without changing its meaning:
+     * backtracking control verbs and start-of-pattern items, branch reset groups, conditions, recursion and
+     * subroutine calls, named references, quoting that could swallow the closing parenthesis, and comments that could
+     * swallow the rest of the combined program.
+     */
+    private static final String[] UNCOMBINABLE_SEQUENCES = {
+            "(*", "(?|", "(?(", "(?R", "(?&", "(?P>", "(?P=", "\\g", "\\k", "\\Q", "#", "\n"
+    };
+
+    /**
+     * The PCRE2 API reference to use across the entire lifecycle of the object
+     */
+    private final IPcre2 api;
+
+    /**
+     * The patterns of the set
+     */
+    private final List<String> patterns;
+
+    /**
+     * The compiled patterns of the set, in the order of the patterns
+     */
+    private final Pcre2Code[] codes;
+
+    /**
+     * The patterns that are part of the combined program
+     */
+    private final BitSet combined;
+
+    /**
+     * The combined patterns whose matches depend on the start offset, which are always matched from the start of the
+     * subject
+     */
+    private final BitSet offsetSensitive;
+
+    /**
+     * The combined program, or {@code null} if no patterns could be combined
+     */
+    private final Pcre2Code combinedCode;
+
+    /**
+     * The indices of the patterns that are matched on their own
+     */
+    private final int[] separate;
+
+    /**
+     * The maximum number of code units of a mark name
+     */
+    private final int markLength;
+
+    /**
+     * The literals that every match of each pattern must contain at least one of
+     */
+    private final List<List<String>> requiredLiterals;
+
+    /**
+     * The patterns without required literals, which are candidates for every subject
+     */
+    private final BitSet unfiltered;
+
+    /**
+     * The automaton finding the patterns whose required literals occur in a subject, or {@code null} if no pattern
+     * has required literals
+     */
+    private final Pcre2LiteralAutomaton prefilter;
+
+    /**
+     * The minimum length of a match of each pattern, in code units
+     */
+    private final int[] minLengths;
+
+    /**
+     * Create a pattern set
+     *
+     * @param patterns the patterns of the set
+     */
+    public Pcre2PatternSet(List<String> patterns) {
+        this(Pcre4j.api(), patterns, null, false);
+    }
+
+    /**
+     * Create a pattern set
+     *
+     * @param api      the PCRE2 API to use
+     * @param patterns the patterns of the set
+     * @param options  the flags to compile every pattern with, see {@link Pcre2CompileOption} or null for default
+     *                 options
+     * @param jit      whether to JIT-compile the patterns where JIT compilation is supported
+     * @throws Pcre2CompileException if any of the patterns fails to compile
+     */
+    public Pcre2PatternSet(
+            IPcre2 api,
+            List<String> patterns,
+            EnumSet<Pcre2CompileOption> options,
+            boolean jit
+    ) {
+        if (api == null) {
+            throw new IllegalArgumentException("api cannot be null");
+        }
+        if (patterns == null) {
+            throw new IllegalArgumentException("patterns cannot be null");
+        }
+        for (var pattern : patterns) {
+            if (pattern == null) {
+                throw new IllegalArgumentException("patterns must not contain null");
+            }
+        }
+        if (options == null) {
+            options = EnumSet.noneOf(Pcre2CompileOption.class);
+        }
+        final var useJit = jit && Pcre4jUtils.isJitSupported(api);
+
+        this.api = api;
+        this.patterns = List.copyOf(patterns);
+        this.codes = new Pcre2Code[this.patterns.size()];
+        this.combined = new BitSet(this.patterns.size());
+        this.offsetSensitive = new BitSet(this.patterns.size());
+        for (var i = 0; i < codes.length; i++) {
+            final var pattern = this.patterns.get(i);
+            codes[i] = compile(api, pattern, options, useJit);
+            // A literal set would turn the combined program into a single literal that none of the patterns match
+            if (!options.contains(Pcre2CompileOption.LITERAL) && isCombinable(pattern, codes[i])) {
+                combined.set(i);
+            }
+            if (options.contains(Pcre2CompileOption.ANCHORED) || pattern.contains("\\G")) {
+                offsetSensitive.set(i);
+            }
+        }
+
+        this.combinedCode = compileCombined(options, useJit);
+        if (combinedCode == null) {
+            combined.clear();
+        }
+        this.separate = new int[codes.length - combined.cardinality()];
+        for (int i = 0, next = 0; i < codes.length; i++) {
+            if (!combined.get(i)) {
+                separate[next++] = i;
+            }
+        }
+        this.markLength = Integer.toString(Math.max(codes.length - 1, 0)).length();
+
+        final var literals = new ArrayList<List<String>>(codes.length);
+        final var automatonLiterals = new ArrayList<String>();
+        final var automatonOwners = new ArrayList<Integer>();
+        this.unfiltered = new BitSet(codes.length);
+        this.minLengths = new int[codes.length];
+        for (var i = 0; i < codes.length; i++) {
+            final var required = Pcre2LiteralAnalysis.requiredLiterals(this.patterns.get(i), options, codes[i]);
+            literals.add(required);
+            if (required.isEmpty()) {
+                unfiltered.set(i);
+            }
+            for (var literal : required) {
+                automatonLiterals.add(literal);
+                automatonOwners.add(i);
+            }
+            minLengths[i] = codes[i].minLength();
+        }
+        this.requiredLiterals = List.copyOf(literals);
+        this.prefilter = automatonLiterals.isEmpty() ? null : new Pcre2LiteralAutomaton(
+                automatonLiterals,
+                automatonOwners.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    /**
+     * Compile a pattern of the set.
+     *
+     * @param api     the PCRE2 API to use
+     * @param pattern the pattern
+     * @param options the compile options
+     * @param jit     whether to JIT-compile the pattern
+     * @return the compiled pattern
+     */
+    private static Pcre2Code compile(IPcre2 api, String pattern, EnumSet<Pcre2CompileOption> options, boolean jit) {
+        if (jit) {
+            return new Pcre2JitCode(api, pattern, options, EnumSet.of(Pcre2JitOption.COMPLETE), null);
+        }
+        return new Pcre2Code(api, pattern, options, null);
+    }
+
+    /**
+     * Check whether a pattern can become an alternative of the combined program without changing its meaning.
+     *
+     * @param pattern the pattern
+     * @param code    the pattern compiled on its own
+     * @return {@code true} if the pattern can be combined
+     */
+    private static boolean isCombinable(String pattern, Pcre2Code code) {
+        if (code.backRefMax() > 0 || code.nameCount() > 0) {
+            return false;
+        }
+
+        for (var sequence : UNCOMBINABLE_SEQUENCES) {
+            if (pattern.contains(sequence)) {
+                return false;
+            }
+        }
+
+        // Numbered and relative subroutine calls: (?1), (?+1), (?-1)
+        for (var i = pattern.indexOf("(?"); i >= 0; i = pattern.indexOf("(?", i + 2)) {
+            if (i + 2 < pattern.length()) {
+                final var next = pattern.charAt(i + 2);
+                if (Character.isDigit(next) || next == '+' || next == '-') {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compile the combinable patterns into a single program of mark-tagged alternatives.
+     *
+     * @param options the compile options
+     * @param jit     whether to JIT-compile the program
+     * @return the combined program, or {@code null} if there is nothing to combine or the program fails to compile
+     */
+    private Pcre2Code compileCombined(EnumSet<Pcre2CompileOption> options, boolean jit) {
+        if (combined.isEmpty()) {
+            return null;
+        }
+
+        final var program = new StringBuilder();
+        for (var i = combined.nextSetBit(0); i >= 0; i = combined.nextSetBit(i + 1)) {
+            if (!program.isEmpty()) {
+                program.append('|');
+            }
+            program.append("(?:").append(patterns.get(i)).append(")(*MARK:").append(i).append(')');
+        }
+
+        try {
+            return compile(api, program.toString(), options, jit);
+        } catch (Pcre2CompileException e) {
+            // Combining may exceed limits of a single program, such as its size; match every pattern on its own
+            return null;
+        }
+    }
+
+    /**
+     * Get the PCRE2 API backing this pattern set
+     *
+     * @return the PCRE2 API
+     */
+    public IPcre2 api() {
+        return api;
+    }
+
+    /**
+     * Get the number of patterns in the set
+     *
+     * @return the number of patterns
+     */
+    public int size() {
+        return codes.length;
+    }
+
+    /**
+     * Get a pattern of the set
+     *
+     * @param index the index of the pattern
+     * @return the pattern
+     */
+    public String pattern(int index) {
+        return patterns.get(index);
+    }
+
+    /**
+     * Get a pattern of the set compiled on its own
+     *
+     * @param index the index of the pattern
+     * @return the compiled pattern
+     */
+    public Pcre2Code code(int index) {
+        return codes[index];
+    }
+
+    /**
+     * Check whether a pattern is matched as part of the combined program rather than on its own
+     *
+     * @param index the index of the pattern
+     * @return {@code true} if the pattern is part of the combined program
+     */
+    public boolean isCombined(int index) {
+        if (index < 0 || index >= codes.length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return combined.get(index);
+    }
+
+    /**
+     * Get the literals that every match of a pattern must contain at least one of, ignoring the case of ASCII
+     * letters. A subject that contains none of them is not matched against the pattern.
+     *
+     * @param index the index of the pattern
+     * @return the required literals, or an empty list if the pattern is matched against every subject
+     */
+    public List<String> requiredLiterals(int index) {
+        return requiredLiterals.get(index);
+    }
+
+    /**
+     * Find the patterns of the set that may match a subject, without matching it: those whose required literals
+     * occur in the subject and whose minimum match length the subject reaches.
+     *
+     * @param subject the subject
+     * @return the indices of the patterns that may match the subject
+     */
+    public BitSet candidates(Pcre2Subject subject) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+
+        final var candidates = (BitSet) unfiltered.clone();
+        if (prefilter != null) {
+            prefilter.scan(subject.subject(), candidates);
+        }
+        for (var index = candidates.nextSetBit(0); index >= 0; index = candidates.nextSetBit(index + 1)) {
+            if (minLengths[index] > subject.length) {
+                candidates.clear(index);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Match the patterns of the set against a subject string
+     *
+     * @param subject the subject string
+     * @param mode    the match mode
+     * @return the indices of the matching patterns
+     */
+    public BitSet match(String subject, MatchMode mode) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+
+        try (var encoded = new Pcre2Subject(api, subject)) {
+            return matchSubject(encoded, mode);
+        }
+    }
+
+    /**
+     * Match the patterns of the set against a pre-encoded subject
+     *
+     * @param subject the subject
+     * @param mode    the match mode
+     * @return the indices of the matching patterns
+     */
+    public BitSet matchSubject(Pcre2Subject subject, MatchMode mode) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        if (subject.api != api) {
+            throw new IllegalArgumentException("subject must be encoded by the API of the pattern set");
+        }
+        if (mode == null) {
+            throw new IllegalArgumentException("mode must not be null");
+        }
+
+        final var candidates = candidates(subject);
+        final var matches = new BitSet(codes.length);
+        if (candidates.isEmpty()) {
+            return matches;
+        }
+
+        try (var matchData = new Pcre2MatchData(api, 1)) {
+            return match(subject, mode, candidates, matches, matchData);
+        }
+    }
+
+    /**
+     * Match the candidate patterns of the set against a subject
+     *
+     * @param subject    the subject
+     * @param mode       the match mode
+     * @param candidates the indices of the patterns whose literals occur in the subject
+     * @param matches    the indices of the matching patterns to fill in
+     * @param matchData  the match data to match with
+     * @return the indices of the matching patterns
+     */
+    private BitSet match(
+            Pcre2Subject subject,
+            MatchMode mode,
+            BitSet candidates,
+            BitSet matches,
+            Pcre2MatchData matchData
+    ) {
+        final var ovector = new long[2];
+        final var length = subject.subject().length();
+
+        var first = -1;
+        var firstStart = Long.MAX_VALUE;
+        if (combinedCode != null && combined.intersects(candidates)) {
+            final var result = combinedCode.matchSubject(subject, 0, length, 0, 0, matchData, null);
+            if (result >= 0) {
+                first = mark(matchData);
+                if (mode == MatchMode.FIRST_MATCH) {
+                    matchData.ovector(ovector);
+                    firstStart = ovector[0];
+                } else {
+                    // Unlike the start of the match, which \K moves forward, this is where the match attempt began
+                    firstStart = api.getStartchar(matchData.handle);
+                }
+                matches.set(first);
+            } else {
+                checkResult(result);
+            }
+        }
+
+        if (mode == MatchMode.FIRST_MATCH) {
+            for (var index : separate) {
+                if (index > first && firstStart == 0) {
+                    break;
+                }
+                if (!candidates.get(index)) {
+                    continue;
+                }
+                final var result = codes[index].matchSubject(subject, 0, length, 0, 0, matchData, null);
+                if (result >= 0) {
+                    matchData.ovector(ovector);
+                    if (ovector[0] < firstStart || ovector[0] == firstStart && index < first) {
+                        first = index;
+                        firstStart = ovector[0];
+                    }
+                } else {
+                    checkResult(result);
+                }
+            }
+
+            matches.clear();
+            if (first >= 0) {
+                matches.set(first);
+            }
+            return matches;
+        }
+
+        // Combined patterns ahead of the one that matched failed at every start up to and including the one it matched
+        // from, so they resume after it unless their matches depend on the start offset
+        final var nextStart = first >= 0 ? nextIndex(subject, subject.toIndex(firstStart)) : 0;
+        for (var index = combined.nextSetBit(0); first >= 0 && index >= 0; index = combined.nextSetBit(index + 1)) {
+            final var resume = index < first && !offsetSensitive.get(index);
+            if (index == first || !candidates.get(index) || resume && nextStart > length) {
+                continue;
+            }
+            final var startOffset = resume ? nextStart : 0;
+            final var result = codes[index].matchSubject(subject, 0, length, startOffset, 0, matchData, null);
+            if (result >= 0) {
+                matches.set(index);
+            } else {
+                checkResult(result);
+            }
+        }
+        for (var index : separate) {
+            if (!candidates.get(index)) {
+                continue;
+            }
+            final var result = codes[index].matchSubject(subject, 0, length, 0, 0, matchData, null);
+            if (result >= 0) {
+                matches.set(index);
+            } else {
+                checkResult(result);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Get the character index following the character at a given index.
+     *
+     * @param subject the subject
+     * @param index   the character index
+     * @return the index of the next character, past the end of the subject if the index is at its end
+     */
+    private static int nextIndex(Pcre2Subject subject, int index) {
+        final var string = subject.subject();
+        if (index < string.length() - 1
+                && Character.isHighSurrogate(string.charAt(index))
+                && Character.isLowSurrogate(string.charAt(index + 1))) {
+            return index + 2;
+        }
+        return index + 1;
+    }
+
+    /**
+     * Read the index of the pattern that matched from the mark of a successful match of the combined program.
+     *
+     * @param matchData the match data of the match
+     * @return the index of the pattern
+     */
+    private int mark(Pcre2MatchData matchData) {
+        final var address = api.getMark(matchData.handle);
+        if (address == 0) {
+            throw new IllegalStateException("Combined pattern matched without a mark");
+        }
+
+        // Mark names are decimal digits, so every code unit holds the digit in one byte whatever the byte order is
+        final var codeUnitSize = api.codeUnitSize();
+        final var bytes = ((INativeMemoryAccess) api).readBytes(address, (markLength + 1) * codeUnitSize);
+        var index = 0;
+        for (var offset = 0; offset < bytes.length; offset += codeUnitSize) {
+            var unit = 0;
+            for (var i = 0; i < codeUnitSize; i++) {
+                unit |= bytes[offset + i] & 0xFF;
+            }
+            if (unit == 0) {
+                break;
+            }
+            index = index * 10 + (unit - '0');
+        }
+        return index;
+    }
+
+    /**
+     * Check the result of a failed match, rejecting errors other than a failure to match.
+     *
+     * @param result the result of the match
+     */
+    private void checkResult(int result) {
+        if (result != IPcre2.ERROR_NOMATCH) {
+            throw new IllegalStateException(Pcre4jUtils.getErrorMessage(api, result));
+        }
+    }
+}
@@ -0,0 +1,541 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.option.Pcre2CompileOption;
+import org.pcre4j.option.Pcre2JitOption;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A persistent store of compiled patterns, so that an application compiling many patterns at startup compiles them
+ * once and decodes them from a file on subsequent starts.
+ * <p>
+ * The store file holds every pattern serialized on its own, see {@link Pcre2Code#serialize(Pcre2Code...)}, behind an
+ * index keyed by the pattern string, the compile options and the JIT options. The file is memory-mapped when the
+ * store is opened and only the index is read; a pattern is decoded on its first use. Patterns that are not in the file
+ * are compiled, and written to it by {@link #save()}.
+ * <p>
+ * Serialized patterns are only valid for the PCRE2 version, code unit width, byte order and architecture that
+ * produced them. The file records these as the {@linkplain #key(IPcre2) store key}; a file with a different key, or
+ * one that cannot be read, is ignored as {@linkplain #isStale() stale} and replaced by the next {@link #save()}.
+ * JIT-compiled code is not serialized: patterns stored with JIT options are JIT-compiled again when decoded.
+ * <p>
+ * A store can also be read from a classpath resource, such as one generated at build time from a registry of
+ * constant patterns by {@link Pcre2PatternPrecompiler}; see {@link #openResource(IPcre2, ClassLoader, String)}.
+ * <p>
+ * Patterns are compiled with the default compile context. The store is safe to use from multiple threads.
+ */
+public class Pcre2PatternStore {
+
+    /**
+     * The magic bytes every store file starts with
+     */
+    private static final byte[] MAGIC = "PCRE4JPS".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The version of the store file format
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The JIT options value of entries that are not JIT-compiled
+     */
+    private static final int NO_JIT = -1;
+
+    /**
+     * The name of the classpath resource holding the patterns precompiled at build time
+     */
+    public static final String PRECOMPILED_RESOURCE = "META-INF/pcre4j/precompiled-patterns.bin";
+
+    /**
+     * The PCRE2 API reference to use across the entire lifecycle of the object
+     */
+    private final IPcre2 api;
+
+    /**
+     * The store file, or {@code null} if the store was read from a classpath resource
+     */
+    private final Path file;
+
+    /**
+     * The key of the patterns of this store
+     */
+    private final String key;
+
+    /**
+     * The memory-mapped store file or the classpath resource, or {@code null} if it does not exist or is stale
+     */
+    private final ByteBuffer stored;
+
+    /**
+     * The position of the serialized patterns within the store file
+     */
+    private final int dataStart;
+
+    /**
+     * The location of every serialized pattern within the store file
+     */
+    private final Map<Key, Slice> index;
+
+    /**
+     * Whether the store file exists but was ignored
+     */
+    private final boolean stale;
+
+    /**
+     * The patterns decoded from the store file or compiled so far
+     */
+    private final ConcurrentHashMap<Key, Pcre2Code> codes = new ConcurrentHashMap<>();
+
+    private Pcre2PatternStore(
+            IPcre2 api,
+            Path file,
+            String key,
+            ByteBuffer stored,
+            int dataStart,
+            Map<Key, Slice> index,
+            boolean stale
+    ) {
+        this.api = api;
+        this.file = file;
+        this.key = key;
+        this.stored = stored;
+        this.dataStart = dataStart;
+        this.index = index;
+        this.stale = stale;
+    }
+
+    /**
+     * Open a pattern store backed by the given file, using the global backend.
+     *
+     * @param file the store file, which does not need to exist
+     * @return the pattern store
+     * @throws IOException if the store file exists but cannot be mapped
+     */
+    public static Pcre2PatternStore open(Path file) throws IOException {
+        return open(Pcre4j.api(), file);
+    }
+
+    /**
+     * Open a pattern store backed by the given file.
+     *
+     * @param api  the PCRE2 API to use
+     * @param file the store file, which does not need to exist
+     * @return the pattern store
+     * @throws IOException if the store file exists but cannot be mapped
+     */
+    public static Pcre2PatternStore open(IPcre2 api, Path file) throws IOException {
+        if (api == null) {
+            throw new IllegalArgumentException("api must not be null");
+        }
+        if (file == null) {
+            throw new IllegalArgumentException("file must not be null");
+        }
+
+        final var key = key(api);
+        if (!Files.exists(file)) {
+            return new Pcre2PatternStore(api, file, key, null, 0, Map.of(), false);
+        }
+
+        final ByteBuffer stored;
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            stored = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return read(api, file, key, stored);
+    }
+
+    /**
+     * Open the read-only pattern store holding the patterns precompiled at build time into the
+     * {@link #PRECOMPILED_RESOURCE} classpath resource.
+     *
+     * @param api the PCRE2 API to use
+     * @return the pattern store, empty if there is no such resource
+     * @throws IOException if the resource cannot be read
+     */
+    public static Pcre2PatternStore openPrecompiled(IPcre2 api) throws IOException {
+        return openResource(api, Pcre2PatternStore.class.getClassLoader(), PRECOMPILED_RESOURCE);
+    }
+
+    /**
+     * Open a read-only pattern store from a classpath resource. Patterns that are not in the resource are still
+     * compiled, but cannot be saved.
+     *
+     * @param api          the PCRE2 API to use
+     * @param classLoader  the class loader to load the resource with
+     * @param resourceName the name of the resource
+     * @return the pattern store, empty if there is no such resource
+     * @throws IOException if the resource cannot be read
+     */
+    public static Pcre2PatternStore openResource(
+            IPcre2 api,
+            ClassLoader classLoader,
+            String resourceName
+    ) throws IOException {
+        if (api == null) {
+            throw new IllegalArgumentException("api must not be null");
+        }
+        if (classLoader == null) {
+            throw new IllegalArgumentException("classLoader must not be null");
+        }
+        if (resourceName == null) {
+            throw new IllegalArgumentException("resourceName must not be null");
+        }
+
+        final var key = key(api);
+        try (var in = classLoader.getResourceAsStream(resourceName)) {
+            if (in == null) {
+                return new Pcre2PatternStore(api, null, key, null, 0, Map.of(), false);
+            }
+            return read(api, null, key, ByteBuffer.wrap(in.readAllBytes()));
+        }
+    }
+
+    /**
+     * Read the header and the index of a store.
+     *
+     * @param api    the PCRE2 API to use
+     * @param file   the store file, or {@code null} if the store is read from a classpath resource
+     * @param key    the store key of the backend
+     * @param stored the contents of the store
+     * @return the pattern store, empty and stale if the contents are for another store key or cannot be read
+     */
+    private static Pcre2PatternStore read(IPcre2 api, Path file, String key, ByteBuffer stored) {
+        try {
+            final var magic = new byte[MAGIC.length];
+            stored.get(magic);
+            if (!Arrays.equals(magic, MAGIC) || stored.getInt() != FORMAT_VERSION || !key.equals(readString(stored))) {
+                return new Pcre2PatternStore(api, file, key, null, 0, Map.of(), true);
+            }
+
+            final var entryCount = stored.getInt();
+            if (entryCount < 0 || entryCount > stored.remaining()) {
+                return new Pcre2PatternStore(api, file, key, null, 0, Map.of(), true);
+            }
+            final var index = new HashMap<Key, Slice>(entryCount * 2);
+            for (var i = 0; i < entryCount; i++) {
+                final var entryKey = new Key(readString(stored), stored.getInt(), stored.getInt());
+                index.put(entryKey, new Slice(stored.getInt(), stored.getInt()));
+            }
+            for (var slice : index.values()) {
+                if (slice.offset() < 0 || slice.length() <= 0 || slice.length() > stored.remaining() - slice.offset()) {
+                    return new Pcre2PatternStore(api, file, key, null, 0, Map.of(), true);
+                }
+            }
+            return new Pcre2PatternStore(
+                    api,
+                    file,
+                    key,
+                    stored,
+                    stored.position(),
+                    Collections.unmodifiableMap(index),
+                    false
+            );
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return new Pcre2PatternStore(api, file, key, null, 0, Map.of(), true);
+        }
+    }
+
+    /**
+     * Get the key that identifies which serialized patterns the given backend can decode: the PCRE2 version, the code
+     * unit width, the byte order and the architecture.
+     *
+     * @param api the PCRE2 API
+     * @return the store key
+     */
+    public static String key(IPcre2 api) {
+        if (api == null) {
+            throw new IllegalArgumentException("api must not be null");
+        }
+
+        return "PCRE2 " + Pcre4jUtils.getVersion(api)
+                + "; " + api.codeUnitSize() * 8 + "-bit"
+                + "; " + ByteOrder.nativeOrder()
+                + "; " + System.getProperty("os.arch");
+    }
+
+    /**
+     * Get the store key of this store.
+     *
+     * @return the store key
+     * @see #key(IPcre2)
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Get the store file.
+     *
+     * @return the store file, or {@code null} if the store was read from a classpath resource
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Check whether the store file was ignored because it was written for a different store key or could not be
+     * read.
+     *
+     * @return {@code true} if the store file is stale, otherwise {@code false}
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Get the number of patterns in the store file.
+     *
+     * @return the number of stored patterns
+     */
+    public int storedCount() {
+        return index.size();
+    }
+
+    /**
+     * Get the number of patterns in the store, including those compiled but not saved yet.
+     *
+     * @return the number of patterns
+     */
+    public int size() {
+        final var keys = new LinkedHashSet<>(index.keySet());
+        keys.addAll(codes.keySet());
+        return keys.size();
+    }
+
+    /**
+     * Get the compiled pattern from the store, decoding it from the store file or compiling it.
+     *
+     * @param pattern the pattern to compile
+     * @param options the flags to compile the pattern with, see {@link Pcre2CompileOption} or null for default
+     *                options
+     * @return the compiled pattern
+     */
+    public Pcre2Code compile(String pattern, EnumSet<Pcre2CompileOption> options) {
+        return codes.computeIfAbsent(key(pattern, options, null), this::load);
+    }
+
+    /**
+     * Get the JIT-compiled pattern from the store, decoding it from the store file or compiling it.
+     *
+     * @param pattern    the pattern to compile
+     * @param options    the flags to compile the pattern with, see {@link Pcre2CompileOption} or null for default
+     *                   options
+     * @param jitOptions the flags to compile the pattern with JIT, see {@link Pcre2JitOption} or null for default
+     *                   options
+     * @return the JIT-compiled pattern
+     */
+    public Pcre2JitCode jitCompile(
+            String pattern,
+            EnumSet<Pcre2CompileOption> options,
+            EnumSet<Pcre2JitOption> jitOptions
+    ) {
+        if (jitOptions == null) {
+            jitOptions = EnumSet.of(Pcre2JitOption.COMPLETE, Pcre2JitOption.PARTIAL_SOFT, Pcre2JitOption.PARTIAL_HARD);
+        }
+        return (Pcre2JitCode) codes.computeIfAbsent(key(pattern, options, jitOptions), this::load);
+    }
+
+    /**
+     * Write every pattern of the store to the store file, replacing it atomically where the file system supports it.
+     * Patterns that were read from the store file are copied without being decoded.
+     *
+     * @throws IOException           if the store file cannot be written
+     * @throws IllegalStateException if the store was read from a classpath resource
+     */
+    public void save() throws IOException {
+        if (file == null) {
+            throw new IllegalStateException("A store read from a classpath resource cannot be saved");
+        }
+
+        final var keys = new LinkedHashSet<>(index.keySet());
+        keys.addAll(codes.keySet());
+
+        final var blobs = new byte[keys.size()][];
+        var i = 0;
+        for (var entryKey : keys) {
+            final var slice = index.get(entryKey);
+            blobs[i++] = slice != null ? read(slice) : Pcre2Code.serialize(codes.get(entryKey));
+        }
+
+        final var directory = file.toAbsolutePath().getParent();
+        final var temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.write(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, key);
+                out.writeInt(keys.size());
+                var offset = 0;
+                i = 0;
+                for (var entryKey : keys) {
+                    writeString(out, entryKey.pattern());
+                    out.writeInt(entryKey.options());
+                    out.writeInt(entryKey.jitOptions());
+                    out.writeInt(offset);
+                    out.writeInt(blobs[i].length);
+                    offset += blobs[i++].length;
+                }
+                for (var blob : blobs) {
+                    out.write(blob);
+                }
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Decode the pattern with the given key from the store file, or compile it if it is not stored or cannot be
+     * decoded.
+     *
+     * @param entryKey the key of the pattern
+     * @return the compiled pattern
+     */
+    private Pcre2Code load(Key entryKey) {
+        final var slice = index.get(entryKey);
+        if (slice != null) {
+            final var handle = decode(read(slice));
+            if (handle != 0) {
+                if (entryKey.jitOptions() == NO_JIT) {
+                    return new Pcre2Code(api, handle);
+                }
+                return new Pcre2JitCode(api, handle, jitOptionSet(entryKey.jitOptions()));
+            }
+        }
+
+        final var options = compileOptionSet(entryKey.options());
+        if (entryKey.jitOptions() == NO_JIT) {
+            return new Pcre2Code(api, entryKey.pattern(), options, null);
+        }
+        return new Pcre2JitCode(api, entryKey.pattern(), options, jitOptionSet(entryKey.jitOptions()), null);
+    }
+
+    /**
+     * Decode a single serialized pattern.
+     *
+     * @param data the serialized pattern
+     * @return the compiled pattern handle, or {@code 0} if the data does not hold exactly one pattern that this
+     * backend can decode
+     */
+    private long decode(byte[] data) {
+        if (api.serializeGetNumberOfCodes(data) != 1) {
+            return 0;
+        }
+        final var handles = new long[1];
+        if (api.serializeDecode(handles, 1, data, 0) != 1) {
+            return 0;
+        }
+        return handles[0];
+    }
+
+    private byte[] read(Slice slice) {
+        final var bytes = new byte[slice.length()];
+        stored.get(dataStart + slice.offset(), bytes);
+        return bytes;
+    }
+
+    private static Key key(String pattern, EnumSet<Pcre2CompileOption> options, EnumSet<Pcre2JitOption> jitOptions) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("pattern must not be null");
+        }
+
+        return new Key(
+                pattern,
+                options != null ? options.stream().mapToInt(Pcre2CompileOption::value).sum() : 0,
+                jitOptions != null ? jitOptions.stream().mapToInt(Pcre2JitOption::value).sum() : NO_JIT
+        );
+    }
+
+    private static EnumSet<Pcre2CompileOption> compileOptionSet(int options) {
+        final var result = EnumSet.noneOf(Pcre2CompileOption.class);
+        for (var option : Pcre2CompileOption.values()) {
+            if ((options & option.value()) != 0) {
+                result.add(option);
+            }
+        }
+        return result;
+    }
+
+    private static EnumSet<Pcre2JitOption> jitOptionSet(int jitOptions) {
+        final var result = EnumSet.noneOf(Pcre2JitOption.class);
+        for (var option : Pcre2JitOption.values()) {
+            if ((jitOptions & option.value()) != 0) {
+                result.add(option);
+            }
+        }
+        return result;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final var length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length: " + length);
+        }
+        final var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * The key of a stored pattern.
+     *
+     * @param pattern    the pattern string
+     * @param options    the compile option bits
+     * @param jitOptions the JIT option bits, or {@link #NO_JIT} if the pattern is not JIT-compiled
+     */
+    private record Key(String pattern, int options, int jitOptions) {
+    }
+
+    /**
+     * The location of a serialized pattern relative to the start of the serialized patterns in the store file.
+     *
+     * @param offset the offset in bytes
+     * @param length the length in bytes
+     */
+    private record Slice(int offset, int length) {
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.option.Pcre2CompileOption;
+import org.pcre4j.option.Pcre2JitOption;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * A scope owning native resources, which frees all of them at once when closed.
+ * <p>
+ * Resources created through a session, or handed over to it with {@link #own(AutoCloseable)}, are closed in reverse
+ * order of creation by {@link #close()}, so that a request handler can release every match data, match context, JIT
+ * stack and transient pattern it used without waiting for the garbage collector:
+ * <pre>{@code
+ * try (var session = new Pcre2Session()) {
+ *     final var code = session.compile(pattern, null, null);
+ *     final var matchData = session.matchData(code);
+ *     code.match(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null);
+ * }
+ * }</pre>
+ * Closed resources are deregistered from the {@link java.lang.ref.Cleaner}, which still frees resources that are
+ * never closed once they become unreachable. Resources created elsewhere, such as patterns handed out by a
+ * {@link Pcre2CodeCache}, are not owned by a session, so that they stay usable after it is closed; resources owned by
+ * a session must not be used once it is closed.
+ * <p>
+ * A session may be used from multiple threads.
+ */
+public final class Pcre2Session implements AutoCloseable {
+
+    /**
+     * The PCRE2 API to create resources with
+     */
+    private final IPcre2 api;
+
+    /**
+     * The resources owned by this session, in order of creation, or {@code null} once closed
+     */
+    private List<AutoCloseable> resources = new ArrayList<>();
+
+    /**
+     * Create a new session creating its resources with the default API
+     */
+    public Pcre2Session() {
+        this(Pcre4j.api());
+    }
+
+    /**
+     * Create a new session creating its resources with the given API
+     *
+     * @param api the PCRE2 API to use
+     */
+    public Pcre2Session(IPcre2 api) {
+        if (api == null) {
+            throw new IllegalArgumentException("api cannot be null");
+        }
+
+        this.api = api;
+    }
+
+    /**
+     * Get the PCRE2 API backing this session
+     *
+     * @return the PCRE2 API
+     */
+    public IPcre2 api() {
+        return api;
+    }
+
+    /**
+     * Hand a resource over to this session, to be closed along with it.
+     *
+     * @param resource the resource
+     * @param <T>      the type of the resource
+     * @return the resource
+     */
+    public <T extends AutoCloseable> T own(T resource) {
+        if (resource == null) {
+            throw new IllegalArgumentException("resource cannot be null");
+        }
+
+        synchronized (this) {
+            if (resources != null) {
+                resources.add(resource);
+                return resource;
+            }
+        }
+        close(resource);
+        throw new IllegalStateException("session is closed");
+    }
+
+    /**
+     * Compile a pattern owned by this session
+     *
+     * @param pattern        the pattern to compile
+     * @param options        the flags to compile the pattern with, see {@link Pcre2CompileOption} or null for default
+     *                       options
+     * @param compileContext the compile context to use or null
+     * @return the compiled pattern
+     */
+    public Pcre2Code compile(
+            String pattern,
+            EnumSet<Pcre2CompileOption> options,
+            Pcre2CompileContext compileContext
+    ) {
+        checkOpen();
+        return own(new Pcre2Code(api, pattern, options, compileContext));
+    }
+
+    /**
+     * JIT-compile a pattern owned by this session
+     *
+     * @param pattern        the pattern to compile
+     * @param options        the flags to compile the pattern with, see {@link Pcre2CompileOption} or null for default
+     *                       options
+     * @param jitOptions     the flags to compile the pattern with JIT, see {@link Pcre2JitOption} or null for default
+     *                       options
+     * @param compileContext the compile context to use or null
+     * @return the JIT-compiled pattern
+     */
+    public Pcre2JitCode jitCompile(
+            String pattern,
+            EnumSet<Pcre2CompileOption> options,
+            EnumSet<Pcre2JitOption> jitOptions,
+            Pcre2CompileContext compileContext
+    ) {
+        checkOpen();
+        return own(new Pcre2JitCode(api, pattern, options, jitOptions, compileContext));
+    }
+
+    /**
+     * Create a match data owned by this session
+     *
+     * @param ovecsize the size of the output vector
+     * @return the match data
+     */
+    public Pcre2MatchData matchData(int ovecsize) {
+        checkOpen();
+        return own(new Pcre2MatchData(api, ovecsize));
+    }
+
+    /**
+     * Create a match data owned by this session, sized for a compiled pattern
+     *
+     * @param code the compiled pattern to create the match data for
+     * @return the match data
+     */
+    public Pcre2MatchData matchData(Pcre2Code code) {
+        checkOpen();
+        return own(new Pcre2MatchData(code));
+    }
+
+    /**
+     * Create a match context owned by this session
+     *
+     * @param generalContext the general context to use or {@code null} to use the default context
+     * @return the match context
+     */
+    public Pcre2MatchContext matchContext(Pcre2GeneralContext generalContext) {
+        checkOpen();
+        return own(new Pcre2MatchContext(api, generalContext));
+    }
+
+    /**
+     * Create a JIT stack owned by this session
+     *
+     * @param startSize      the initial size of the JIT stack
+     * @param maxSize        the maximum size of the JIT stack
+     * @param generalContext the general context to use or {@code null} to use the default context
+     * @return the JIT stack
+     */
+    public Pcre2JitStack jitStack(long startSize, long maxSize, Pcre2GeneralContext generalContext) {
+        checkOpen();
+        return own(new Pcre2JitStack(api, startSize, maxSize, generalContext));
+    }
+
+    /**
+     * Create a native subject owned by this session
+     *
+     * @param subject the subject string
+     * @return the native subject
+     */
+    public Pcre2Subject subject(String subject) {
+        checkOpen();
+        return own(new Pcre2Subject(api, subject));
+    }
+
+    /**
+     * Get the number of resources owned by this session.
+     *
+     * @return the number of resources, or {@code 0} once closed
+     */
+    public synchronized int resourceCount() {
+        return resources != null ? resources.size() : 0;
+    }
+
+    /**
+     * Check whether this session is closed.
+     *
+     * @return {@code true} if this session is closed
+     */
+    public synchronized boolean isClosed() {
+        return resources == null;
+    }
+
+    /**
+     * Close every resource owned by this session, the most recently created first. Resources are all closed even if
+     * closing some of them fails, in which case the first failure is thrown with the others suppressed. Closing the
+     * session again has no effect.
+     */
+    @Override
+    public void close() {
+        final List<AutoCloseable> owned;
+        synchronized (this) {
+            owned = resources;
+            resources = null;
+        }
+        if (owned == null) {
+            return;
+        }
+
+        RuntimeException failure = null;
+        for (int i = owned.size() - 1; i >= 0; i--) {
+            try {
+                close(owned.get(i));
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private synchronized void checkOpen() {
+        if (resources == null) {
+            throw new IllegalStateException("session is closed");
+        }
+    }
+
+    private static void close(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to close a resource of the session", e);
+        }
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.pcre4j.api.INativeMemoryAccess;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.api.Pcre2MemoryAllocator;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Pcre2MemoryAllocator} that serves PCRE2 allocations from slabs of native memory managed in Java, and
+ * accounts for every byte PCRE2 holds through it.
+ * <p>
+ * Blocks of up to {@value #MAX_BLOCK_SIZE} bytes come in power-of-two size classes, carved from slabs of
+ * {@value #SLAB_SIZE} bytes allocated with the system {@code malloc}. Freed blocks go back to a free list of their size
+ * class for reuse, and larger blocks are allocated and freed with the system functions directly. Free lists and the
+ * slabs being carved are kept in as many pools as there are processors, each thread using the pool its identifier
+ * falls on, so that threads allocating at once rarely contend on the same lock.
+ * <p>
+ * Slabs are only freed once the allocator becomes unreachable, which it does not before all memory allocated through
+ * it is freed; the memory of a slab is thus kept for reuse by later allocations, as the system heap keeps its own.
+ * <p>
+ * Use a separate allocator for each {@link Pcre2GeneralContext} to account for the memory of each context on its own:
+ * {@link #allocatedBytes()} is the exact number of bytes PCRE2 asked for and has not freed yet.
+ */
+public final class Pcre2SlabAllocator implements Pcre2MemoryAllocator {
+
+    /**
+     * The size of the smallest blocks, in bytes, which keeps every block aligned as the system {@code malloc} aligns
+     */
+    public static final int MIN_BLOCK_SIZE = 32;
+
+    /**
+     * The size of the largest blocks served from slabs, in bytes
+     */
+    public static final int MAX_BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * The size of a slab, in bytes
+     */
+    public static final int SLAB_SIZE = 256 * 1024;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_BLOCK_SIZE);
+
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_BLOCK_SIZE) - MIN_SHIFT + 1;
+
+    /**
+     * The native memory access of the API
+     */
+    private final INativeMemoryAccess memory;
+
+    /**
+     * The pools threads allocate from and free to
+     */
+    private final Pool[] pools;
+
+    /**
+     * The native memory held by this allocator, freed along with it
+     */
+    private final Reserve reserve;
+
+    /**
+     * The number of bytes allocated and not freed yet
+     */
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    /**
+     * The number of blocks allocated and not freed yet
+     */
+    private final LongAdder allocationCount = new LongAdder();
+
+    /**
+     * Create a new slab allocator getting its native memory through the default API
+     */
+    public Pcre2SlabAllocator() {
+        this(Pcre4j.api());
+    }
+
+    /**
+     * Create a new slab allocator getting its native memory through the given API
+     *
+     * @param api the PCRE2 API to use
+     */
+    public Pcre2SlabAllocator(IPcre2 api) {
+        if (api == null) {
+            throw new IllegalArgumentException("api cannot be null");
+        }
+
+        this.memory = (INativeMemoryAccess) api;
+        this.pools = new Pool[Runtime.getRuntime().availableProcessors()];
+        for (int i = 0; i < pools.length; i++) {
+            pools[i] = new Pool();
+        }
+        this.reserve = new Reserve(memory);
+        Pcre4jCleaner.INSTANCE.register(this, reserve);
+    }
+
+    @Override
+    public long malloc(long size) {
+        if (size < 0) {
+            return 0;
+        }
+
+        final long pointer;
+        if (size > MAX_BLOCK_SIZE) {
+            pointer = reserve.allocateLarge(size);
+            if (pointer == 0) {
+                return 0;
+            }
+        } else {
+            final var sizeClass = sizeClass(size);
+            final var pool = pools[poolIndex()];
+            synchronized (pool) {
+                pointer = pool.take(sizeClass, reserve);
+            }
+            if (pointer == 0) {
+                return 0;
+            }
+            reserve.slabOf(pointer).setSize(pointer, (int) size);
+        }
+
+        allocatedBytes.add(size);
+        allocationCount.increment();
+        return pointer;
+    }
+
+    @Override
+    public void free(long pointer) {
+        final var slab = reserve.slabOf(pointer);
+        final long size;
+        if (slab != null) {
+            size = slab.size(pointer);
+            final var pool = pools[poolIndex()];
+            synchronized (pool) {
+                pool.give(slab.sizeClass, pointer);
+            }
+        } else {
+            size = reserve.freeLarge(pointer);
+        }
+
+        allocatedBytes.add(-size);
+        allocationCount.decrement();
+    }
+
+    /**
+     * Get the number of bytes allocated through this allocator and not freed yet, exactly as PCRE2 asked for them.
+     *
+     * @return the number of bytes
+     */
+    public long allocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    /**
+     * Get the number of blocks allocated through this allocator and not freed yet.
+     *
+     * @return the number of blocks
+     */
+    public long allocationCount() {
+        return allocationCount.sum();
+    }
+
+    /**
+     * Get the number of bytes of native memory this allocator holds: its slabs, whether carved or not, and the blocks
+     * too large for a slab.
+     *
+     * @return the number of bytes
+     */
+    public long reservedBytes() {
+        return reserve.reservedBytes.get();
+    }
+
+    private int poolIndex() {
+        return (int) (Thread.currentThread().threadId() % pools.length);
+    }
+
+    private static int sizeClass(long size) {
+        if (size <= MIN_BLOCK_SIZE) {
+            return 0;
+        }
+        return 64 - Long.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * The free blocks of each size class, and the slab of each size class blocks are carved from
+     */
+    private static final class Pool {
+
+        private final long[][] free = new long[SIZE_CLASSES][];
+
+        private final int[] freeCount = new int[SIZE_CLASSES];
+
+        private final Slab[] carving = new Slab[SIZE_CLASSES];
+
+        private final int[] carved = new int[SIZE_CLASSES];
+
+        /**
+         * Take a free block of a size class, or carve one from a slab, allocating a new slab if needed.
+         *
+         * @param sizeClass the size class
+         * @param reserve   the reserve to allocate slabs from
+         * @return the address of the block, or {@code 0} if a slab cannot be allocated
+         */
+        long take(int sizeClass, Reserve reserve) {
+            if (freeCount[sizeClass] > 0) {
+                return free[sizeClass][--freeCount[sizeClass]];
+            }
+
+            var slab = carving[sizeClass];
+            if (slab == null || carved[sizeClass] == slab.sizes.length) {
+                slab = reserve.allocateSlab(sizeClass);
+                if (slab == null) {
+                    return 0;
+                }
+                carving[sizeClass] = slab;
+                carved[sizeClass] = 0;
+            }
+            return slab.base + ((long) carved[sizeClass]++ << (sizeClass + MIN_SHIFT));
+        }
+
+        /**
+         * Put a block back on the free list of its size class.
+         *
+         * @param sizeClass the size class
+         * @param pointer   the address of the block
+         */
+        void give(int sizeClass, long pointer) {
+            var blocks = free[sizeClass];
+            if (blocks == null) {
+                blocks = new long[16];
+                free[sizeClass] = blocks;
+            } else if (freeCount[sizeClass] == blocks.length) {
+                blocks = Arrays.copyOf(blocks, blocks.length * 2);
+                free[sizeClass] = blocks;
+            }
+            blocks[freeCount[sizeClass]++] = pointer;
+        }
+    }
+
+    /**
+     * A slab of native memory carved into blocks of one size class
+     *
+     * @param base      the address of the slab
+     * @param sizeClass the size class of its blocks
+     * @param sizes     the size PCRE2 asked for of each block in use
+     */
+    private record Slab(long base, int sizeClass, int[] sizes) {
+
+        int size(long pointer) {
+            return sizes[(int) ((pointer - base) >>> (sizeClass + MIN_SHIFT))];
+        }
+
+        void setSize(long pointer, int size) {
+            sizes[(int) ((pointer - base) >>> (sizeClass + MIN_SHIFT))] = size;
+        }
+    }
+
+    /**
+     * The slabs and large blocks of an allocator, which it frees once the allocator becomes unreachable
+     */
+    private static final class Reserve implements Runnable {
+
+        private final INativeMemoryAccess memory;
+
+        /**
+         * The slabs, sorted by address, replaced as a whole when a slab is added
+         */
+        private volatile Slab[] slabs = new Slab[0];
+
+        /**
+         * The size of each block too large for a slab, by address
+         */
+        private final Map<Long, Long> largeBlocks = new ConcurrentHashMap<>();
+
+        private final AtomicLong reservedBytes = new AtomicLong();
+
+        Reserve(INativeMemoryAccess memory) {
+            this.memory = memory;
+        }
+
+        /**
+         * Allocate a slab for blocks of a size class.
+         *
+         * @param sizeClass the size class
+         * @return the slab, or {@code null} if it cannot be allocated
+         */
+        Slab allocateSlab(int sizeClass) {
+            final var base = memory.allocate(SLAB_SIZE);
+            if (base == 0) {
+                return null;
+            }
+
+            final var slab = new Slab(base, sizeClass, new int[SLAB_SIZE >>> (sizeClass + MIN_SHIFT)]);
+            synchronized (this) {
+                final var current = slabs;
+                var index = Arrays.binarySearch(current, slab, (a, b) -> Long.compareUnsigned(a.base, b.base));
+                index = -index - 1;
+                final var updated = new Slab[current.length + 1];
+                System.arraycopy(current, 0, updated, 0, index);
+                updated[index] = slab;
+                System.arraycopy(current, index, updated, index + 1, current.length - index);
+                slabs = updated;
+            }
+            reservedBytes.addAndGet(SLAB_SIZE);
+            return slab;
+        }
+
+        /**
+         * Find the slab a block was carved from.
+         *
+         * @param pointer the address of the block
+         * @return the slab, or {@code null} if the block is not from a slab
+         */
+        Slab slabOf(long pointer) {
+            final var current = slabs;
+            int low = 0;
+            int high = current.length - 1;
+            while (low <= high) {
+                final var middle = (low + high) >>> 1;
+                final var slab = current[middle];
+                if (Long.compareUnsigned(pointer, slab.base) < 0) {
+                    high = middle - 1;
+                } else if (Long.compareUnsigned(pointer - slab.base, SLAB_SIZE) >= 0) {
+                    low = middle + 1;
+                } else {
+                    return slab;
+                }
+            }
+            return null;
+        }
+
+        long allocateLarge(long size) {
+            final var pointer = memory.allocate(size);
+            if (pointer != 0) {
+                largeBlocks.put(pointer, size);
+                reservedBytes.addAndGet(size);
+            }
+            return pointer;
+        }
+
+        long freeLarge(long pointer) {
+            final var size = largeBlocks.remove(pointer);
+            if (size == null) {
+                throw new IllegalArgumentException("pointer was not allocated by this allocator");
+            }
+            memory.free(pointer);
+            reservedBytes.addAndGet(-size);
+            return size;
+        }
+
+        @Override
+        public void run() {
+            for (var slab : slabs) {
+                memory.free(slab.base);
+            }
+            slabs = new Slab[0];
+            for (var pointer : largeBlocks.keySet()) {
+                memory.free(pointer);
+            }
+            largeBlocks.clear();
+            reservedBytes.set(0);
+        }
+    }
+}
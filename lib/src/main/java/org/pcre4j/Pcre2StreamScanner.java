@@ -0,0 +1,429 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.exception.Pcre2MatchException;
+import org.pcre4j.option.Pcre2CompileOption;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+
+/**
+ * A scanner finding all matches of a compiled pattern in a stream, without holding the whole stream in memory.
+ * <p>
+ * The stream is read in chunks of a fixed size into a native buffer, which is matched in place with
+ * {@link IPcre2#PARTIAL_HARD}. When a match could continue past the end of the data read so far, only the tail of the
+ * buffer starting at the partial match, preceded by the {@link Pcre2Code#maxLookBehind() maximum lookbehind} of the
+ * pattern, is kept and matched again once the next chunk is read. The buffer thus holds a chunk plus that tail, and
+ * only grows when a single partial match is longer than a chunk.
+ * <p>
+ * The stream holds the subject encoded in the code units of the API of the pattern: UTF-8 or bytes for the 8-bit
+ * library, UTF-16 or UTF-32 code units in native byte order for the 16-bit and 32-bit libraries. Matches are reported
+ * with absolute byte offsets in the stream. A code unit or, with {@link Pcre2CompileOption#UTF}, a character split
+ * across chunks is never matched in halves. After an empty match, the search resumes at the same offset with
+ * {@link IPcre2#NOTEMPTY_ATSTART}, as Perl's {@code /g} does.
+ * <p>
+ * A scanner holds no state between scans and may be used from multiple threads at once.
+ */
+public final class Pcre2StreamScanner {
+
+    /**
+     * The default number of bytes read from the stream at once
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * The maximum number of bytes of a character in any encoding
+     */
+    private static final int MAX_CHARACTER_BYTES = 4;
+
+    /**
+     * The value of an unset offset of the output vector
+     */
+    private static final long PCRE2_UNSET = -1L;
+
+    /**
+     * The compiled pattern to scan for
+     */
+    private final Pcre2Code code;
+
+    /**
+     * The number of bytes read from the stream at once
+     */
+    private final int chunkSize;
+
+    /**
+     * The match context to use or {@code null}
+     */
+    private final Pcre2MatchContext matchContext;
+
+    /**
+     * The size of a code unit in bytes
+     */
+    private final int codeUnitSize;
+
+    /**
+     * Whether the pattern is compiled in UTF mode
+     */
+    private final boolean utf;
+
+    /**
+     * The number of bytes kept before the resume offset so that lookbehinds can see them
+     */
+    private final int lookBehindBytes;
+
+    /**
+     * Create a new scanner reading chunks of {@link #DEFAULT_CHUNK_SIZE} bytes
+     *
+     * @param code the compiled pattern to scan for
+     */
+    public Pcre2StreamScanner(Pcre2Code code) {
+        this(code, DEFAULT_CHUNK_SIZE, null);
+    }
+
+    /**
+     * Create a new scanner
+     *
+     * @param code      the compiled pattern to scan for
+     * @param chunkSize the number of bytes read from the stream at once
+     */
+    public Pcre2StreamScanner(Pcre2Code code, int chunkSize) {
+        this(code, chunkSize, null);
+    }
+
+    /**
+     * Create a new scanner
+     *
+     * @param code         the compiled pattern to scan for
+     * @param chunkSize    the number of bytes read from the stream at once
+     * @param matchContext the match context to use or null
+     */
+    public Pcre2StreamScanner(Pcre2Code code, int chunkSize, Pcre2MatchContext matchContext) {
+        if (code == null) {
+            throw new IllegalArgumentException("code cannot be null");
+        }
+        this.codeUnitSize = code.api.codeUnitSize();
+        if (chunkSize < MAX_CHARACTER_BYTES || chunkSize % codeUnitSize != 0) {
+            throw new IllegalArgumentException(
+                    "chunkSize must be at least " + MAX_CHARACTER_BYTES + " and a multiple of the code unit size"
+            );
+        }
+
+        this.code = code;
+        this.chunkSize = chunkSize;
+        this.matchContext = matchContext;
+        this.utf = code.allOptions().contains(Pcre2CompileOption.UTF);
+        // At least one character is kept so that \b, \B and multiline ^ see the character before the resume offset
+        this.lookBehindBytes = Math.max(1, code.maxLookBehind()) * (utf ? MAX_CHARACTER_BYTES : codeUnitSize);
+    }
+
+    /**
+     * Get the compiled pattern this scanner scans for
+     *
+     * @return the compiled pattern
+     */
+    public Pcre2Code code() {
+        return code;
+    }
+
+    /**
+     * Get the number of bytes read from the stream at once
+     *
+     * @return the chunk size in bytes
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Find all matches in a stream, reading it to its end unless the handler stops the scan. The stream is not closed.
+     *
+     * @param input   the stream to scan
+     * @param handler the handler to report the matches to
+     * @return the number of matches reported
+     * @throws IOException if reading the stream fails
+     */
+    public long scan(InputStream input, MatchHandler handler) throws IOException {
+        if (input == null) {
+            throw new IllegalArgumentException("input must not be null");
+        }
+
+        final var chunk = new byte[chunkSize];
+        return scan((buffer, offset) -> {
+            final var read = input.readNBytes(chunk, 0, chunkSize);
+            buffer.put(offset, chunk, 0, read);
+            return read;
+        }, handler);
+    }
+
+    /**
+     * Find all matches in a channel, reading it to its end unless the handler stops the scan. The channel is not
+     * closed.
+     *
+     * @param channel the channel to scan, in blocking mode
+     * @param handler the handler to report the matches to
+     * @return the number of matches reported
+     * @throws IOException if reading the channel fails
+     */
+    public long scan(ReadableByteChannel channel, MatchHandler handler) throws IOException {
+        if (channel == null) {
+            throw new IllegalArgumentException("channel must not be null");
+        }
+        if (channel instanceof SelectableChannel selectableChannel && !selectableChannel.isBlocking()) {
+            throw new IllegalArgumentException("channel must be in blocking mode");
+        }
+
+        return scan((buffer, offset) -> {
+            final var target = buffer.duplicate().limit(offset + chunkSize).position(offset);
+            while (target.hasRemaining()) {
+                if (channel.read(target) < 0) {
+                    break;
+                }
+            }
+            return target.position() - offset;
+        }, handler);
+    }
+
+    private long scan(ChunkReader reader, MatchHandler handler) throws IOException {
+        if (handler == null) {
+            throw new IllegalArgumentException("handler must not be null");
+        }
+
+        final var api = code.api;
+        final var matchContextHandle = matchContext != null ? matchContext.handle : 0;
+        var buffer = ByteBuffer.allocateDirect(chunkSize + lookBehindBytes + chunkSize).order(ByteOrder.nativeOrder());
+        // The absolute offset in the stream of the first byte of the buffer
+        var base = 0L;
+        // The number of bytes in the buffer, and the offset at which to resume matching
+        var length = 0;
+        var start = 0;
+        // The absolute offset of the last empty match, not to be matched again
+        var emptyAt = -1L;
+        var eof = false;
+        var count = 0L;
+
+        try (var matchData = new Pcre2MatchData(code)) {
+            final var ovector = new long[matchData.ovectorCount() * 2];
+            while (true) {
+                if (buffer.capacity() - length < chunkSize) {
+                    final var grown = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, length + chunkSize))
+                            .order(ByteOrder.nativeOrder());
+                    grown.put(0, buffer, 0, length);
+                    buffer = grown;
+                }
+                final var read = reader.read(buffer, length);
+                length += read;
+                eof = read < chunkSize;
+
+                final var subjectLength = eof ? length - length % codeUnitSize : completeLength(buffer, length);
+                buffer.limit(subjectLength).position(0);
+
+                int resumeAt;
+                while (true) {
+                    var options = eof ? 0 : IPcre2.PARTIAL_HARD;
+                    if (base > 0) {
+                        options |= IPcre2.NOTBOL;
+                    }
+                    if (base + start == emptyAt) {
+                        options |= IPcre2.NOTEMPTY_ATSTART;
+                    }
+
+                    final var result = api.matchEncoded(
+                            code.handle,
+                            buffer,
+                            start / codeUnitSize,
+                            options,
+                            matchData.handle,
+                            matchContextHandle
+                    );
+                    if (result == IPcre2.ERROR_NOMATCH) {
+                        if (eof) {
+                            return count;
+                        }
+                        resumeAt = subjectLength;
+                        break;
+                    }
+                    if (result == IPcre2.ERROR_PARTIAL) {
+                        resumeAt = (int) matchData.ovectorStart(0) * codeUnitSize;
+                        break;
+                    }
+                    if (result < 0) {
+                        throw new Pcre2MatchException(Pcre4jUtils.getErrorMessage(api, result), result);
+                    }
+
+                    matchData.ovector(ovector);
+                    final var matchStart = (int) ovector[0] * codeUnitSize;
+                    final var matchEnd = (int) ovector[1] * codeUnitSize;
+                    final var bytes = new byte[Math.max(0, matchEnd - matchStart)];
+                    buffer.get(matchStart, bytes);
+                    for (int i = 0; i < ovector.length; i++) {
+                        if (ovector[i] != PCRE2_UNSET) {
+                            ovector[i] = base + ovector[i] * codeUnitSize;
+                        }
+                    }
+                    count++;
+                    if (!handler.onMatch(new Match(ovector.clone(), bytes))) {
+                        return count;
+                    }
+
+                    if (matchEnd == matchStart) {
+                        emptyAt = base + matchEnd;
+                    }
+                    start = matchEnd;
+                }
+
+                // Keep the bytes from the resume offset on, preceded by those a lookbehind may inspect
+                var keepFrom = Math.max(0, resumeAt - lookBehindBytes);
+                keepFrom = characterStart(buffer, keepFrom, resumeAt);
+                buffer.clear();
+                buffer.put(0, buffer, keepFrom, length - keepFrom);
+                base += keepFrom;
+                length -= keepFrom;
+                start = resumeAt - keepFrom;
+            }
+        }
+    }
+
+    /**
+     * Get the length of the buffer up to the last complete code unit or, in UTF mode, the last complete character.
+     */
+    private int completeLength(ByteBuffer buffer, int length) {
+        var complete = length - length % codeUnitSize;
+        if (!utf || complete == 0) {
+            return complete;
+        }
+
+        if (codeUnitSize == 1) {
+            // Find the lead byte of the last character and check that all of its continuation bytes are there
+            var lead = complete - 1;
+            while (lead > 0 && complete - lead < MAX_CHARACTER_BYTES && isContinuationByte(buffer.get(lead))) {
+                lead--;
+            }
+            final var leadByte = buffer.get(lead) & 0xFF;
+            final var characterLength = leadByte >= 0xF0 ? 4 : leadByte >= 0xE0 ? 3 : leadByte >= 0xC0 ? 2 : 1;
+            return complete - lead < characterLength ? lead : complete;
+        }
+        if (codeUnitSize == 2 && Character.isHighSurrogate(buffer.getChar(complete - 2))) {
+            return complete - 2;
+        }
+        return complete;
+    }
+
+    /**
+     * Move an offset forward to the start of a character, so that the buffer does not start in the middle of one.
+     */
+    private int characterStart(ByteBuffer buffer, int offset, int limit) {
+        if (!utf) {
+            return offset;
+        }
+
+        if (codeUnitSize == 1) {
+            while (offset < limit && isContinuationByte(buffer.get(offset))) {
+                offset++;
+            }
+        } else if (codeUnitSize == 2 && offset < limit && Character.isLowSurrogate(buffer.getChar(offset))) {
+            offset += 2;
+        }
+        return offset;
+    }
+
+    private static boolean isContinuationByte(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    /**
+     * Reads the next chunk of a stream into a buffer.
+     */
+    @FunctionalInterface
+    private interface ChunkReader {
+
+        /**
+         * Read up to a chunk into the buffer, fewer bytes only at the end of the stream.
+         *
+         * @param buffer the buffer to read into, with room for a chunk
+         * @param offset the offset in the buffer to read to
+         * @return the number of bytes read
+         * @throws IOException if reading fails
+         */
+        int read(ByteBuffer buffer, int offset) throws IOException;
+    }
+
+    /**
+     * A handler of the matches found by a scanner.
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+
+        /**
+         * Handle a match.
+         *
+         * @param match the match
+         * @return {@code true} to continue the scan, {@code false} to stop it
+         */
+        boolean onMatch(Match match);
+    }
+
+    /**
+     * A match found in a stream.
+     *
+     * @param ovector the output vector, with absolute byte offsets in the stream, or {@code -1} for unset groups
+     * @param bytes   the bytes of the stream from the start to the end of the match
+     */
+    public record Match(long[] ovector, byte[] bytes) {
+
+        /**
+         * Get the absolute byte offset in the stream at which the match starts.
+         *
+         * @return the start offset
+         */
+        public long start() {
+            return ovector[0];
+        }
+
+        /**
+         * Get the absolute byte offset in the stream at which the match ends.
+         *
+         * @return the end offset
+         */
+        public long end() {
+            return ovector[1];
+        }
+
+        /**
+         * Get the absolute byte offset in the stream at which a group starts.
+         *
+         * @param group the group number, 0 for the whole match
+         * @return the start offset, or {@code -1} if the group is unset
+         */
+        public long start(int group) {
+            return ovector[group * 2];
+        }
+
+        /**
+         * Get the absolute byte offset in the stream at which a group ends.
+         *
+         * @param group the group number, 0 for the whole match
+         * @return the end offset, or {@code -1} if the group is unset
+         */
+        public long end(int group) {
+            return ovector[group * 2 + 1];
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2024-2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.pcre4j.api.IPcre2;
+
+import java.lang.ref.Cleaner;
+
+/**
+ * A subject string encoded once into native memory, so that it can be matched many times without being transcoded
+ * and copied on every call.
+ * <p>
+ * Besides the native buffer, the subject keeps the mapping between character indices of the original string and
+ * code unit offsets of the encoded buffer, so that match results can be translated back cheaply.
+ * <p>
+ * The encoded subject is checked for UTF validity by the first match that runs through the interpreter; every later
+ * match skips the check by passing {@link org.pcre4j.option.Pcre2MatchOption#NO_UTF_CHECK} automatically.
+ */
+public class Pcre2Subject implements AutoCloseable {
+
+    /**
+     * The native subject handle
+     */
+    /* package-private */ final long handle;
+
+    /**
+     * The PCRE2 API reference to use across the entire lifecycle of the object
+     */
+    /* package-private */ final IPcre2 api;
+
+    /**
+     * The length of the encoded subject in code units
+     */
+    /* package-private */ final long length;
+
+    /**
+     * The original subject string
+     */
+    private final String subject;
+
+    /**
+     * The translation between character indices and code unit offsets
+     */
+    private final Pcre2OffsetMap offsetMap;
+
+    /**
+     * Whether the native library has already checked the encoded subject for UTF validity
+     */
+    private volatile boolean validated;
+
+    /**
+     * The cleaner to free the resources
+     */
+    private final Cleaner.Cleanable cleanable;
+
+    /**
+     * Create a new native subject
+     *
+     * @param subject the subject string
+     */
+    public Pcre2Subject(String subject) {
+        this(Pcre4j.api(), subject);
+    }
+
+    /**
+     * Create a new native subject
+     *
+     * @param api     the PCRE2 API to use
+     * @param subject the subject string
+     */
+    public Pcre2Subject(IPcre2 api, String subject) {
+        if (api == null) {
+            throw new IllegalArgumentException("api cannot be null");
+        }
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+
+        final var length = new long[1];
+        final var handle = api.subjectCreate(subject, length);
+        if (handle == 0) {
+            throw new IllegalStateException("Failed to create subject");
+        }
+
+        this.api = api;
+        this.handle = handle;
+        this.length = length[0];
+        this.subject = subject;
+        this.offsetMap = length[0] == subject.length()
+                ? Pcre2OffsetMap.identity(subject, api.codeUnitSize())
+                : Pcre2OffsetMap.of(subject, api.codeUnitSize());
+        this.cleanable = Pcre2NativeMemory.track(
+                this,
+                api,
+                Pcre2NativeMemory.Resource.SUBJECT,
+                length[0] * api.codeUnitSize(),
+                new Pcre2Subject.Clean(api, handle)
+        );
+    }
+
+    /**
+     * Get the PCRE2 API backing this subject
+     *
+     * @return the PCRE2 API
+     */
+    public IPcre2 api() {
+        return api;
+    }
+
+    /**
+     * Get the handle of the native subject
+     *
+     * @return the handle of the native subject
+     */
+    public long handle() {
+        return handle;
+    }
+
+    /**
+     * Get the length of the encoded subject in code units
+     *
+     * @return the length of the encoded subject in code units
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Get the original subject string
+     *
+     * @return the original subject string
+     */
+    public String subject() {
+        return subject;
+    }
+
+    /**
+     * Get the translation between character indices and code unit offsets of this subject
+     *
+     * @return the offset map
+     */
+    public Pcre2OffsetMap offsetMap() {
+        return offsetMap;
+    }
+
+    /**
+     * Convert a character index to a code unit offset within the encoded subject.
+     *
+     * @param index the character index
+     * @return the code unit offset
+     */
+    public long toOffset(int index) {
+        return offsetMap.toByteOffset(index);
+    }
+
+    /**
+     * Convert a code unit offset within the encoded subject to a character index.
+     *
+     * @param offset the code unit offset
+     * @return the character index
+     */
+    public int toIndex(long offset) {
+        if (offset < 0 || offset > length) {
+            throw new IllegalArgumentException("offset must be within the bounds of the encoded subject");
+        }
+
+        return offsetMap.toCharacterIndex(offset);
+    }
+
+    /**
+     * Convert the code unit based ovector offset pairs to string index pairs
+     *
+     * @param ovector the code unit based ovector offset pairs
+     * @return the string index pairs, unset pairs being {@code -1}
+     */
+    public int[] toStringIndices(long[] ovector) {
+        if (ovector == null) {
+            throw new IllegalArgumentException("ovector must not be null");
+        }
+
+        final var indices = new int[ovector.length];
+        offsetMap.toStringIndices(ovector, indices);
+        return indices;
+    }
+
+    /**
+     * Convert the code unit based ovector offset pairs to string index pairs in place, without allocating
+     *
+     * @param ovector the code unit based ovector offset pairs
+     * @param indices the array to store the string index pairs in, unset pairs being stored as {@code -1}
+     */
+    public void toStringIndices(long[] ovector, int[] indices) {
+        offsetMap.toStringIndices(ovector, indices);
+    }
+
+    /**
+     * Check whether the given character index lies between the two halves of a surrogate pair, so that it does not
+     * correspond to a code point boundary of the encoded subject.
+     *
+     * @param index the character index
+     * @return {@code true} if the index splits a surrogate pair, otherwise {@code false}
+     */
+    public boolean isWithinSurrogatePair(int index) {
+        return index > 0 && index < subject.length()
+                && Character.isLowSurrogate(subject.charAt(index))
+                && Character.isHighSurrogate(subject.charAt(index - 1));
+    }
+
+    /**
+     * Get the native handle of the part of the encoded subject that starts at the given character index.
+     *
+     * @param fromIndex the character index
+     * @return the native handle addressing the code unit at which the character starts
+     */
+    /* package-private */ long rangeHandle(int fromIndex) {
+        return handle + toOffset(fromIndex) * api.codeUnitSize();
+    }
+
+    /**
+     * Check whether the native library has already validated the encoded subject, so that the UTF check is skipped
+     * by subsequent matches
+     *
+     * @return {@code true} if the encoded subject has been validated, otherwise {@code false}
+     */
+    public boolean isValidated() {
+        return validated;
+    }
+
+    /**
+     * Get the option bits that skip the UTF check of a match starting at the given character index, if that is safe.
+     * <p>
+     * Besides the subject having been validated, the start has to be on a code point boundary: the check also
+     * rejects a start offset in the middle of a character, which would otherwise be undefined behavior.
+     *
+     * @param startOffset the character index at which the match starts
+     * @return {@link IPcre2#NO_UTF_CHECK} if the UTF check can be skipped, otherwise {@code 0}
+     */
+    /* package-private */ int noUtfCheckOption(int startOffset) {
+        if (!validated || isWithinSurrogatePair(startOffset)) {
+            return 0;
+        }
+        return IPcre2.NO_UTF_CHECK;
+    }
+
+    /**
+     * Record the result of a match against this whole subject that may have run the UTF check.
+     * <p>
+     * PCRE2 only checks the subject from the start offset, less the longest lookbehind of the pattern, onwards, so
+     * the subject is only known to be valid once a match starting at its beginning ran the check and did not fail.
+     *
+     * @param startOffset the character index at which the match started
+     * @param options     the option bits the match was performed with
+     * @param result      the match result
+     */
+    /* package-private */ void recordUtfCheck(int startOffset, int options, int result) {
+        if (startOffset != 0 || (options & IPcre2.NO_UTF_CHECK) != 0) {
+            return;
+        }
+        if (result >= 0 || result == IPcre2.ERROR_NOMATCH || result == IPcre2.ERROR_PARTIAL) {
+            validated = true;
+        }
+    }
+
+    /**
+     * Free the native subject now rather than once it becomes unreachable, leaving nothing for the cleaner to do. The
+     * native subject must not be used once closed; closing it again has no effect.
+     */
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+
+    private record Clean(IPcre2 api, long subject) implements Runnable {
+        @Override
+        public void run() {
+            api.subjectFree(subject);
+        }
+    }
+}
@@ -20,14 +20,14 @@ import java.lang.ref.Cleaner;
  * Shared {@link Cleaner} instance for all PCRE4J native resource wrappers.
  * <p>
  * Using a single shared cleaner reduces daemon thread overhead from one thread per wrapper class to a single thread
- * for the entire library.
+ * for the entire library. The other PCRE4J modules register their cleanup actions with it as well.
  */
-/* package-private */ final class Pcre4jCleaner {
+public final class Pcre4jCleaner {
 
     /**
      * The shared {@link Cleaner} instance.
      */
-    static final Cleaner INSTANCE = Cleaner.create();
+    public static final Cleaner INSTANCE = Cleaner.create();
 
     private Pcre4jCleaner() {
     }
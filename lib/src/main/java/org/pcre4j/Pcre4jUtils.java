@@ -20,8 +20,6 @@ import org.pcre4j.option.Pcre2Bsr;
 import org.pcre4j.option.Pcre2Newline;
 
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
@@ -53,13 +51,13 @@ public final class Pcre4jUtils {
             throw new IllegalStateException(getErrorMessage(api, versionSize));
         }
 
-        final var versionBuffer = ByteBuffer.allocateDirect(versionSize);
+        final var versionBuffer = ByteBuffer.allocateDirect(versionSize * api.codeUnitSize());
         final var versionCopyResult = api.config(IPcre2.CONFIG_VERSION, versionBuffer);
         if (versionCopyResult < 0) {
             throw new IllegalStateException(getErrorMessage(api, versionCopyResult));
         }
 
-        return StandardCharsets.UTF_8.decode(versionBuffer.limit(versionSize - 1)).toString();
+        return decode(api, versionBuffer, versionSize - 1);
     }
 
     /**
@@ -109,13 +107,13 @@ public final class Pcre4jUtils {
             throw new IllegalStateException(getErrorMessage(api, versionSize));
         }
 
-        final var versionBuffer = ByteBuffer.allocateDirect(versionSize);
+        final var versionBuffer = ByteBuffer.allocateDirect(versionSize * api.codeUnitSize());
         final var versionCopyResult = api.config(IPcre2.CONFIG_UNICODE_VERSION, versionBuffer);
         if (versionCopyResult < 0) {
             throw new IllegalStateException(getErrorMessage(api, versionCopyResult));
         }
 
-        return StandardCharsets.UTF_8.decode(versionBuffer.limit(versionSize - 1)).toString();
+        return decode(api, versionBuffer, versionSize - 1);
     }
 
     /**
@@ -257,13 +255,13 @@ public final class Pcre4jUtils {
             throw new IllegalStateException(getErrorMessage(api, targetSize));
         }
 
-        final var targetBuffer = ByteBuffer.allocateDirect(targetSize);
+        final var targetBuffer = ByteBuffer.allocateDirect(targetSize * api.codeUnitSize());
         final var targetCopyResult = api.config(IPcre2.CONFIG_JITTARGET, targetBuffer);
         if (targetCopyResult < 0) {
             throw new IllegalStateException(getErrorMessage(api, targetCopyResult));
         }
 
-        return StandardCharsets.UTF_8.decode(targetBuffer.limit(targetSize - 1)).toString();
+        return decode(api, targetBuffer, targetSize - 1);
     }
 
     /**
@@ -375,23 +373,48 @@ public final class Pcre4jUtils {
             throw new IllegalArgumentException("index must be within the bounds of the input string");
         }
 
-        var offset = 0;
-        for (var charIndex = 0; charIndex < index; charIndex++) {
-            final var theChar = input.charAt(charIndex);
-            if (theChar <= 0x007F) {
-                offset += 1;
-            } else if (theChar <= 0x07FF) {
-                offset += 2;
-            } else if (Character.isHighSurrogate(theChar) || Character.isLowSurrogate(theChar)) {
-                offset += 2;
-            } else {
-                offset += 3;
-            }
+        // Every ASCII character encodes to a single byte, so only the remainder needs to be walked
+        var offset = Pcre2OffsetMap.asciiPrefixLength(input, 0, index);
+        for (var charIndex = offset; charIndex < index; charIndex++) {
+            offset += Pcre2OffsetMap.byteWidth(input.charAt(charIndex));
         }
 
         return offset;
     }
 
+    /**
+     * Convert a character index to a code unit offset in the encoding of the given PCRE2 API.
+     *
+     * @param api   the PCRE2 API whose code unit width to convert to
+     * @param input the input string
+     * @param index the character index
+     * @return the code unit offset, which is the byte offset for the 8-bit library
+     */
+    public static int convertCharacterIndexToOffset(IPcre2 api, String input, int index) {
+        if (api == null) {
+            throw new IllegalArgumentException("api must not be null");
+        }
+
+        final var codeUnitSize = api.codeUnitSize();
+        if (codeUnitSize == 1) {
+            return convertCharacterIndexToByteOffset(input, index);
+        }
+        if (input == null) {
+            throw new IllegalArgumentException("input must not be null");
+        }
+        if (index < 0) {
+            throw new IllegalArgumentException("index must be non-negative");
+        }
+        if (index > input.length()) {
+            throw new IllegalArgumentException("index must be within the bounds of the input string");
+        }
+        if (codeUnitSize == 2) {
+            return index;
+        }
+
+        return input.codePointCount(0, index);
+    }
+
     /**
      * Get what \R matches by default.
      *
@@ -424,7 +447,7 @@ public final class Pcre4jUtils {
             throw new IllegalArgumentException("api must not be null");
         }
 
-        var buffer = ByteBuffer.allocateDirect(256);
+        var buffer = ByteBuffer.allocateDirect(256 * api.codeUnitSize());
         while (true) {
             final var size = api.getErrorMessage(errorcode, buffer);
             if (size == IPcre2.ERROR_NOMEMORY) {
@@ -434,10 +457,24 @@ public final class Pcre4jUtils {
                 throw new IllegalStateException("Error getting error message: %d".formatted(size));
             }
 
-            return StandardCharsets.UTF_8.decode(buffer.slice(0, size)).toString();
+            return decode(api, buffer, size);
         }
     }
 
+    /**
+     * Decode a string of code units of the width of the given API.
+     *
+     * @param api    the PCRE2 API the code units come from
+     * @param buffer the buffer holding the code units from its start, in native byte order
+     * @param length the number of code units to decode
+     * @return the decoded string
+     */
+    /* package-private */ static String decode(IPcre2 api, ByteBuffer buffer, int length) {
+        final var codeUnitSize = api.codeUnitSize();
+        final var charset = Pcre2UtfWidth.fromCodeUnitSize(codeUnitSize).orElseThrow().charset();
+        return charset.decode(buffer.slice(0, length * codeUnitSize)).toString();
+    }
+
     /**
      * Get the group names for the given code.
      *
@@ -495,9 +532,24 @@ public final class Pcre4jUtils {
             throw new IllegalArgumentException("ovector must not be null");
         }
 
-        final var stringIndices = convertOvectorToStringIndices(subject, ovector);
+        return getMatchGroups(subject, convertOvectorToStringIndices(code.api(), subject, ovector));
+    }
 
-        final var matchGroupsCount = ovector.length / 2;
+    /**
+     * Get the match groups of a match against a pre-encoded subject, translating offsets with its offset map
+     *
+     * @param subject the subject the match was performed against
+     * @param ovector an array of offset pairs corresponding to the match results
+     * @return an array of strings where the index is the group number and the value is the matched group or
+     * {@code null}
+     */
+    public static String[] getSubjectMatchGroups(Pcre2Subject subject, long[] ovector) {
+        final var stringIndices = convertSubjectOvectorToStringIndices(subject, ovector);
+        return getMatchGroups(subject.subject(), stringIndices);
+    }
+
+    private static String[] getMatchGroups(String subject, int[] stringIndices) {
+        final var matchGroupsCount = stringIndices.length / 2;
         final var matchGroups = new String[matchGroupsCount];
         for (var matchIndex = 0; matchIndex < matchGroupsCount; matchIndex++) {
             matchGroups[matchIndex] = subject.substring(
@@ -543,11 +595,30 @@ public final class Pcre4jUtils {
             throw new IllegalArgumentException("ovector must not be null");
         }
 
-        final var stringIndices = convertOvectorToStringIndices(subject, ovector);
+        return getNamedMatchGroups(code, subject, convertOvectorToStringIndices(code.api(), subject, ovector));
+    }
+
+    /**
+     * Get the match named groups of a match against a pre-encoded subject, translating offsets with its offset map
+     *
+     * @param code    the compiled pattern the match was performed with
+     * @param subject the subject the match was performed against
+     * @param ovector an array of offset pairs corresponding to the match results
+     * @return a map of group names to the matched group or {@code null}
+     */
+    public static Map<String, String> getSubjectNamedMatchGroups(Pcre2Code code, Pcre2Subject subject, long[] ovector) {
+        if (code == null) {
+            throw new IllegalArgumentException("code must not be null");
+        }
+
+        final var stringIndices = convertSubjectOvectorToStringIndices(subject, ovector);
+        return getNamedMatchGroups(code, subject.subject(), stringIndices);
+    }
 
+    private static Map<String, String> getNamedMatchGroups(Pcre2Code code, String subject, int[] stringIndices) {
         final var groupNames = getGroupNames(code);
         final var matchGroups = new HashMap<String, String>();
-        for (var matchIndex = 1; matchIndex < ovector.length; matchIndex++) {
+        for (var matchIndex = 1; matchIndex < stringIndices.length / 2; matchIndex++) {
             final var groupName = groupNames[matchIndex - 1];
             if (groupName != null) {
                 matchGroups.put(groupName, subject.substring(
@@ -567,9 +638,73 @@ public final class Pcre4jUtils {
      * @return a string index pairs
      */
     public static int[] convertOvectorToStringIndices(String subject, long[] ovector) {
+        return convertOvectorToStringIndices(1, subject, ovector);
+    }
+
+    /**
+     * Convert the ovector offset pairs of a match performed by the given PCRE2 API to string index pairs
+     *
+     * @param api     the PCRE2 API whose code unit width the ovector values are in
+     * @param subject the string to which the ovector values correspond
+     * @param ovector the code unit based ovector offset pairs
+     * @return a string index pairs
+     */
+    public static int[] convertOvectorToStringIndices(IPcre2 api, String subject, long[] ovector) {
+        if (api == null) {
+            throw new IllegalArgumentException("api must not be null");
+        }
+
+        return convertOvectorToStringIndices(api.codeUnitSize(), subject, ovector);
+    }
+
+    /**
+     * Convert the code unit based ovector offset pairs to string index pairs with an offset map built once for the
+     * subject, so that the subject is not walked again for every match
+     *
+     * @param offsetMap the offset map of the string to which the ovector values correspond
+     * @param ovector   the code unit based ovector offset pairs
+     * @return a string index pairs
+     */
+    public static int[] convertMappedOvectorToStringIndices(Pcre2OffsetMap offsetMap, long[] ovector) {
+        if (offsetMap == null) {
+            throw new IllegalArgumentException("offsetMap must not be null");
+        }
+        checkOvector(ovector);
+
+        final var stringIndices = new int[ovector.length];
+        offsetMap.toStringIndices(ovector, stringIndices);
+        return stringIndices;
+    }
+
+    /**
+     * Convert the code unit based ovector offset pairs of a match against a pre-encoded subject to string index pairs
+     * with the offset map of the subject
+     *
+     * @param subject the subject to which the ovector values correspond
+     * @param ovector the code unit based ovector offset pairs
+     * @return a string index pairs
+     */
+    public static int[] convertSubjectOvectorToStringIndices(Pcre2Subject subject, long[] ovector) {
         if (subject == null) {
             throw new IllegalArgumentException("subject must not be null");
         }
+
+        return convertMappedOvectorToStringIndices(subject.offsetMap(), ovector);
+    }
+
+    private static int[] convertOvectorToStringIndices(int codeUnitSize, String subject, long[] ovector) {
+        if (subject == null) {
+            throw new IllegalArgumentException("subject must not be null");
+        }
+        checkOvector(ovector);
+
+        // A single match only needs the subject walked up to its largest offset
+        final var stringIndices = new int[ovector.length];
+        Pcre2OffsetMap.toStringIndices(subject, codeUnitSize, ovector, stringIndices);
+        return stringIndices;
+    }
+
+    private static void checkOvector(long[] ovector) {
         if (ovector == null) {
             throw new IllegalArgumentException("ovector must not be null");
         }
@@ -579,65 +714,5 @@ public final class Pcre4jUtils {
         if (ovector.length % 2 != 0) {
             throw new IllegalArgumentException("ovector must have an even number of elements");
         }
-
-        // Find the maximum byte offset to determine how far we need to map
-        var maxByteOffset = -1L;
-        for (final var value : ovector) {
-            if (value > maxByteOffset) {
-                maxByteOffset = value;
-            }
-        }
-
-        // If all ovector entries are unmatched, return all -1
-        if (maxByteOffset == -1) {
-            final var result = new int[ovector.length];
-            Arrays.fill(result, -1);
-            return result;
-        }
-
-        // Build a mapping from byte offsets to string indices by walking through the subject
-        final var limit = (int) maxByteOffset;
-        final var byteOffsetToStringIndex = new int[limit + 1];
-        var byteOffset = 0;
-        var stringIndex = 0;
-        while (byteOffset <= limit && stringIndex < subject.length()) {
-            byteOffsetToStringIndex[byteOffset] = stringIndex;
-
-            final var ch = subject.charAt(stringIndex);
-            final int charByteLength;
-            if (ch <= 0x7F) {
-                charByteLength = 1;
-            } else if (ch <= 0x7FF) {
-                charByteLength = 2;
-            } else if (Character.isHighSurrogate(ch)) {
-                charByteLength = 4;
-                stringIndex++;
-            } else {
-                charByteLength = 3;
-            }
-
-            for (var b = 1; b < charByteLength && byteOffset + b <= limit; b++) {
-                byteOffsetToStringIndex[byteOffset + b] = stringIndex;
-            }
-            byteOffset += charByteLength;
-            stringIndex++;
-        }
-        // Handle end-of-match offsets that land exactly at the next character boundary
-        if (byteOffset <= limit) {
-            byteOffsetToStringIndex[byteOffset] = stringIndex;
-        }
-
-        // Convert byte offsets to string indices
-        final var stringIndices = new int[ovector.length];
-        for (var i = 0; i < ovector.length; i++) {
-            final var value = ovector[i];
-            if (value == -1) {
-                stringIndices[i] = -1;
-            } else {
-                stringIndices[i] = byteOffsetToStringIndex[(int) value];
-            }
-        }
-
-        return stringIndices;
     }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.exception;
+
+import org.pcre4j.api.IPcre2;
+
+/**
+ * An exception thrown when a native resource cannot be created because the native memory budget is exhausted, even
+ * after evicting caches, freeing unused JIT memory and waiting for unreachable resources to be freed.
+ * <p>
+ * The error code is always {@link IPcre2#ERROR_NOMEMORY}.
+ */
+public class Pcre2MemoryBudgetException extends Pcre2Exception {
+
+    /**
+     * The number of bytes that were requested
+     */
+    private final long requestedBytes;
+
+    /**
+     * The budget in bytes at the time of the request
+     */
+    private final long budget;
+
+    /**
+     * Creates a new memory budget exception.
+     *
+     * @param message        the error message
+     * @param requestedBytes the number of bytes that were requested
+     * @param budget         the budget in bytes at the time of the request
+     */
+    public Pcre2MemoryBudgetException(String message, long requestedBytes, long budget) {
+        super(message, IPcre2.ERROR_NOMEMORY);
+        this.requestedBytes = requestedBytes;
+        this.budget = budget;
+    }
+
+    /**
+     * Returns the number of bytes that were requested.
+     *
+     * @return the number of bytes
+     */
+    public long requestedBytes() {
+        return requestedBytes;
+    }
+
+    /**
+     * Returns the budget in bytes at the time of the request.
+     *
+     * @return the budget in bytes
+     */
+    public long budget() {
+        return budget;
+    }
+}
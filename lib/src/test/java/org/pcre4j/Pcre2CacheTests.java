@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.option.Pcre2CompileOption;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for {@link Pcre2Cache} and {@link Pcre2CodeCache}.
+ */
+public class Pcre2CacheTests {
+
+    @Test
+    void hitAndMiss() {
+        final var cache = new Pcre2Cache<String, String>(100, String::length);
+
+        assertEquals("a", cache.get("a", key -> key));
+        assertEquals("a", cache.get("a", key -> "loaded again"));
+
+        final var stats = cache.stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.entryCount());
+        assertEquals(1, stats.weight());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenOverBudget() {
+        final var cache = new Pcre2Cache<String, String>(10, String::length);
+
+        cache.get("aaaa", key -> key);
+        cache.get("bbbb", key -> key);
+        cache.get("aaaa", key -> key);
+        cache.get("cccc", key -> key);
+
+        assertEquals("aaaa", cache.getIfPresent("aaaa"));
+        assertNull(cache.getIfPresent("bbbb"));
+        assertEquals("cccc", cache.getIfPresent("cccc"));
+        assertEquals(1, cache.stats().evictionCount());
+        assertEquals(8, cache.stats().weight());
+    }
+
+    @Test
+    void rejectsRarelyRequestedValue() {
+        final var cache = new Pcre2Cache<String, String>(4, String::length);
+
+        for (var i = 0; i < 5; i++) {
+            cache.get("hot!", key -> key);
+        }
+        assertEquals("cold", cache.get("cold", key -> key));
+
+        assertEquals("hot!", cache.getIfPresent("hot!"));
+        assertNull(cache.getIfPresent("cold"));
+        assertEquals(1, cache.stats().rejectionCount());
+        assertEquals(0, cache.stats().evictionCount());
+    }
+
+    @Test
+    void admitsValueOnceRequestedOften() {
+        final var cache = new Pcre2Cache<String, String>(4, String::length);
+
+        cache.get("old!", key -> key);
+        for (var i = 0; i < 3; i++) {
+            cache.get("new!", key -> key);
+        }
+
+        assertEquals("new!", cache.getIfPresent("new!"));
+        assertNull(cache.getIfPresent("old!"));
+    }
+
+    @Test
+    void rejectsValueOverBudget() {
+        final var cache = new Pcre2Cache<String, String>(3, String::length);
+
+        assertEquals("long", cache.get("long", key -> key));
+        assertNull(cache.getIfPresent("long"));
+        assertEquals(1, cache.stats().rejectionCount());
+    }
+
+    @Test
+    void loaderExceptionIsPropagated() {
+        final var cache = new Pcre2Cache<String, String>(100, String::length);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("a", key -> {
+            throw new IllegalStateException("failed");
+        }));
+        assertEquals(0, cache.stats().entryCount());
+    }
+
+    @Test
+    void clear() {
+        final var cache = new Pcre2Cache<String, String>(100, String::length);
+        cache.get("a", key -> key);
+
+        cache.clear();
+
+        assertNull(cache.getIfPresent("a"));
+        assertEquals(0, cache.stats().weight());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void evict() {
+        final var cache = new Pcre2Cache<String, String>(100, String::length);
+        cache.get("aaaa", key -> key);
+        cache.get("bbbb", key -> key);
+        cache.get("cccc", key -> key);
+        cache.get("aaaa", key -> key);
+
+        assertEquals(8, cache.evict(5));
+        assertNull(cache.getIfPresent("bbbb"));
+        assertNull(cache.getIfPresent("cccc"));
+        assertEquals("aaaa", cache.getIfPresent("aaaa"));
+        assertEquals(2, cache.stats().evictionCount());
+
+        assertEquals(4, cache.evict(100));
+        assertEquals(0, cache.stats().weight());
+        assertEquals(0, cache.evict(100));
+    }
+
+    @Test
+    void hitRateWithoutRequests() {
+        assertEquals(1.0, new Pcre2Cache<String, String>(100, String::length).stats().hitRate());
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new Pcre2Cache<String, String>(-1, String::length));
+        assertThrows(IllegalArgumentException.class, () -> new Pcre2Cache<String, String>(1, null));
+
+        final var cache = new Pcre2Cache<String, String>(100, String::length);
+        assertThrows(IllegalArgumentException.class, () -> cache.get(null, key -> key));
+        assertThrows(IllegalArgumentException.class, () -> cache.get("a", null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void codeCacheReturnsSameCode(IPcre2 api) {
+        final var cache = new Pcre2CodeCache(1024 * 1024);
+
+        final var code = cache.compile(api, "\\d+", EnumSet.of(Pcre2CompileOption.UTF));
+        assertSame(code, cache.compile(api, "\\d+", EnumSet.of(Pcre2CompileOption.UTF)));
+        assertNotSame(code, cache.compile(api, "\\d+", null));
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(2, cache.stats().missCount());
+        assertTrue(cache.stats().weight() >= code.size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void codeCacheKeepsJitCodeApart(IPcre2 api) {
+        assumeTrue(Pcre4jUtils.isJitSupported(api), "JIT is not supported");
+        final var cache = new Pcre2CodeCache(1024 * 1024);
+
+        final var code = cache.compile(api, "\\d+", null);
+        final var jitCode = cache.jitCompile(api, "\\d+", null, null);
+        assertNotSame(code, jitCode);
+        assertSame(jitCode, cache.jitCompile(api, "\\d+", null, null));
+        assertTrue(jitCode.jitSize() > 0);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.option.Pcre2CompileOption;
+import org.pcre4j.option.Pcre2MatchOption;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for matching {@link Pcre2Code} and {@link Pcre2JitCode} against subjects already encoded in bytes.
+ */
+public class Pcre2CodeEncodedSubjectTests {
+
+    private static final EnumSet<Pcre2MatchOption> NO_OPTIONS = EnumSet.noneOf(Pcre2MatchOption.class);
+
+    private static final String PATTERN = "caf(é)";
+    private static final byte[] SUBJECT = "naïve café".getBytes(StandardCharsets.UTF_8);
+
+    private static Pcre2Code[] compile(IPcre2 api) {
+        return new Pcre2Code[]{
+                new Pcre2Code(api, PATTERN, EnumSet.of(Pcre2CompileOption.UTF), null),
+                new Pcre2JitCode(api, PATTERN, EnumSet.of(Pcre2CompileOption.UTF), null, null)
+        };
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchDirectBuffer(IPcre2 api) {
+        // The subject preceded by a byte that is not part of it
+        final var buffer = ByteBuffer.allocateDirect(SUBJECT.length + 1);
+        buffer.put((byte) 'x').put(SUBJECT).flip().position(1);
+
+        for (var code : compile(api)) {
+            final var matchData = new Pcre2MatchData(code);
+
+            assertEquals(2, code.matchEncoded(buffer, 0, NO_OPTIONS, matchData, null));
+            assertArrayEquals(new long[]{7, 12, 10, 12}, matchData.ovector());
+            assertEquals(IPcre2.ERROR_NOMATCH, code.matchEncoded(buffer, 8, NO_OPTIONS, matchData, null));
+            assertEquals(1, buffer.position());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchHeapBuffer(IPcre2 api) {
+        for (var code : compile(api)) {
+            final var matchData = new Pcre2MatchData(code);
+
+            assertEquals(2, code.matchEncoded(ByteBuffer.wrap(SUBJECT), 0, NO_OPTIONS, matchData, null));
+            assertArrayEquals(new long[]{7, 12, 10, 12}, matchData.ovector());
+
+            // Only the content between the position and the limit is the subject
+            final var tail = ByteBuffer.wrap(SUBJECT, 7, SUBJECT.length - 7);
+            assertEquals(2, code.matchEncoded(tail, 0, NO_OPTIONS, matchData, null));
+            assertArrayEquals(new long[]{0, 5, 3, 5}, matchData.ovector());
+            assertEquals(IPcre2.ERROR_NOMATCH, code.matchEncoded(tail.limit(10), 0, NO_OPTIONS, matchData, null));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchArraySlice(IPcre2 api) {
+        for (var code : compile(api)) {
+            final var matchData = new Pcre2MatchData(code);
+
+            assertEquals(2, code.matchEncoded(SUBJECT, 0, SUBJECT.length, 0, NO_OPTIONS, matchData, null));
+            assertArrayEquals(new long[]{7, 12, 10, 12}, matchData.ovector());
+            assertEquals(2, code.matchEncoded(SUBJECT, 6, SUBJECT.length - 6, 0, NO_OPTIONS, matchData, null));
+            assertArrayEquals(new long[]{1, 6, 4, 6}, matchData.ovector());
+            assertEquals(IPcre2.ERROR_NOMATCH, code.matchEncoded(SUBJECT, 0, 10, 0, NO_OPTIONS, matchData, null));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void rejectsInvalidArguments(IPcre2 api) {
+        final var code = compile(api)[0];
+        final var matchData = new Pcre2MatchData(code);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> code.matchEncoded((ByteBuffer) null, 0, NO_OPTIONS, matchData, null)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> code.matchEncoded(ByteBuffer.wrap(SUBJECT), SUBJECT.length + 1, NO_OPTIONS, matchData, null)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> code.matchEncoded(ByteBuffer.wrap(SUBJECT), 0, NO_OPTIONS, null, null)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> code.matchEncoded(SUBJECT, 1, SUBJECT.length, 0, NO_OPTIONS, matchData, null)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> code.matchEncoded(SUBJECT, 0, 4, 5, NO_OPTIONS, matchData, null)
+        );
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.option.Pcre2CompileExtraOption;
+import org.pcre4j.option.Pcre2CompileOption;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link Pcre2Code#matchAllSubject} and the {@link IPcre2#matchAll} global-match loop.
+ */
+public class Pcre2CodeMatchAllTests {
+
+    private static Pcre2Code compile(IPcre2 api, String pattern) {
+        return new Pcre2Code(api, pattern, EnumSet.of(Pcre2CompileOption.UTF));
+    }
+
+    /**
+     * Find all matches with room for the given number of matches per call, resuming until the search is done, and
+     * return the output vectors of all matches.
+     */
+    private static List<long[]> matchAll(Pcre2Code code, Pcre2Subject subject, int flags, int capacity) {
+        final var matchData = new Pcre2MatchData(code);
+        final var pairs = matchData.ovectorCount();
+        final var ovectors = new long[capacity * pairs * 2];
+        final var length = subject.length();
+
+        final var result = new ArrayList<long[]>();
+        var offset = 0L;
+        var afterEmpty = false;
+        while (true) {
+            final var count = code.matchAllSubject(
+                    subject,
+                    0,
+                    subject.subject().length(),
+                    subject.toIndex((int) offset),
+                    0,
+                    flags | (afterEmpty ? IPcre2.MATCH_ALL_AFTER_EMPTY : 0),
+                    matchData,
+                    null,
+                    ovectors
+            );
+            assertTrue(count >= 0, "Unexpected error " + count);
+            for (int i = 0; i < count; i++) {
+                result.add(Arrays.copyOfRange(ovectors, i * pairs * 2, (i + 1) * pairs * 2));
+            }
+            if (count < capacity) {
+                return result;
+            }
+
+            final var last = result.get(result.size() - 1);
+            offset = last[1];
+            afterEmpty = last[0] == last[1];
+            if (afterEmpty && offset >= length) {
+                return result;
+            }
+        }
+    }
+
+    private static List<String> spans(List<long[]> ovectors) {
+        return ovectors.stream().map(ovector -> ovector[0] + "-" + ovector[1]).toList();
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void findsAllMatchesWithGroups(IPcre2 api) {
+        final var code = compile(api, "(\\d)(\\w)?");
+        final var subject = new Pcre2Subject(api, "1a 2 3c");
+
+        final var ovectors = matchAll(code, subject, 0, 10);
+
+        assertEquals(3, ovectors.size());
+        assertArrayEquals(new long[]{0, 2, 0, 1, 1, 2}, ovectors.get(0));
+        assertArrayEquals(new long[]{3, 4, 3, 4, -1, -1}, ovectors.get(1));
+        assertArrayEquals(new long[]{5, 7, 5, 6, 6, 7}, ovectors.get(2));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void advancesPastEmptyMatches(IPcre2 api) {
+        final var code = compile(api, "a*");
+        final var subject = new Pcre2Subject(api, "baab");
+
+        assertEquals(List.of("0-0", "1-3", "3-3", "4-4"), spans(matchAll(code, subject, 0, 10)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void retriesEmptyMatches(IPcre2 api) {
+        final var code = compile(api, "(?=b)|b");
+        final var subject = new Pcre2Subject(api, "b");
+
+        assertEquals(List.of("0-0"), spans(matchAll(code, subject, 0, 10)));
+        assertEquals(List.of("0-0", "0-1"), spans(matchAll(code, subject, IPcre2.MATCH_ALL_RETRY_EMPTY, 10)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void advancesByCharacter(IPcre2 api) {
+        final var subject = new Pcre2Subject(api, "é\r\n🌐");
+        final var cr = subject.toOffset(1);
+        final var lf = subject.toOffset(2);
+        final var emoji = subject.toOffset(3);
+        final var end = subject.length();
+
+        final var defaultNewline = compile(api, "");
+        assertEquals(
+                List.of("0-0", cr + "-" + cr, lf + "-" + lf, emoji + "-" + emoji, end + "-" + end),
+                spans(matchAll(defaultNewline, subject, IPcre2.MATCH_ALL_RETRY_EMPTY, 10))
+        );
+
+        // In retry mode, a CRLF newline is skipped as a whole
+        final var anyCrlf = compile(api, "(*ANYCRLF)");
+        assertEquals(
+                List.of("0-0", cr + "-" + cr, emoji + "-" + emoji, end + "-" + end),
+                spans(matchAll(anyCrlf, subject, IPcre2.MATCH_ALL_RETRY_EMPTY, 10))
+        );
+        assertEquals(
+                spans(matchAll(defaultNewline, subject, 0, 10)),
+                spans(matchAll(anyCrlf, subject, 0, 10))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void resumesWhenFull(IPcre2 api) {
+        final var code = compile(api, "x*|\\d");
+        final var subject = new Pcre2Subject(api, "1xx2 🌐x");
+
+        for (var flags : new int[]{0, IPcre2.MATCH_ALL_RETRY_EMPTY}) {
+            final var expected = spans(matchAll(code, subject, flags, 100));
+            for (var capacity : new int[]{1, 2, 3}) {
+                assertEquals(expected, spans(matchAll(code, subject, flags, capacity)));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void advancesPastMatchesEndingBeforeTheirStart(IPcre2 api) {
+        final var compileContext = new Pcre2CompileContext(api, null);
+        compileContext.setCompileExtraOptions(EnumSet.of(Pcre2CompileExtraOption.ALLOW_LOOKAROUND_BSK));
+        final var code = new Pcre2Code(api, "(?=ab\\K)", EnumSet.of(Pcre2CompileOption.UTF), compileContext);
+        final var subject = new Pcre2Subject(api, "abab");
+        final var matchData = new Pcre2MatchData(code);
+        final var ovectors = new long[10 * 2];
+
+        final var count = code.matchAllSubject(subject, 0, 4, 0, 0, 0, matchData, null, ovectors);
+
+        assertEquals(2, count);
+        assertArrayEquals(new long[]{2, 0, 4, 2}, Arrays.copyOf(ovectors, 4));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void reportsErrorsAfterMatches(IPcre2 api) {
+        final var code = compile(api, "(*NO_AUTO_POSSESS)(*NO_START_OPT)c|(a+)+$");
+        final var subject = new Pcre2Subject(api, "c aaaaaaaaaaaaaaaaaaaaaaab");
+        final var matchData = new Pcre2MatchData(code);
+        final var matchContext = new Pcre2MatchContext(api, null);
+        matchContext.setMatchLimit(100);
+        final var length = subject.subject().length();
+
+        assertEquals(
+                IPcre2.ERROR_MATCHLIMIT,
+                code.matchAllSubject(subject, 0, length, 0, 0, 0, matchData, matchContext, new long[10 * 4])
+        );
+        assertEquals(
+                1,
+                code.matchAllSubject(subject, 0, length, 0, 0, 0, matchData, matchContext, new long[4])
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchesInRange(IPcre2 api) {
+        final var code = compile(api, "\\d+");
+        final var subject = new Pcre2Subject(api, "1 22 333 4444");
+        final var matchData = new Pcre2MatchData(code);
+        final var ovectors = new long[10 * 2];
+
+        final var count = code.matchAllSubject(subject, 2, 8, 0, 0, 0, matchData, null, ovectors);
+
+        assertEquals(2, count);
+        assertArrayEquals(new long[]{0, 2, 3, 6}, Arrays.copyOf(ovectors, 4));
+        assertEquals(0, code.matchAllSubject(subject, 2, 8, 0, 0, 0, matchData, null, new long[0]));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void returnsNoMatches(IPcre2 api) {
+        final var code = compile(api, "\\d");
+        final var subject = new Pcre2Subject(api, "no digits");
+        final var matchData = new Pcre2MatchData(code);
+
+        assertEquals(0, code.matchAllSubject(subject, 0, 9, 0, 0, 0, matchData, null, new long[20]));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> code.matchAllSubject(subject, 0, 9, 0, 0, 0, matchData, null, null)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> code.matchAllSubject(subject, 0, 9, 0, 0, 0, null, null, new long[20])
+        );
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.api.Pcre2UtfWidth;
+import org.pcre4j.option.Pcre2CompileOption;
+import org.pcre4j.option.Pcre2MatchOption;
+import org.pcre4j.option.Pcre2SubstituteOption;
+import org.pcre4j.test.BackendProvider;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for the 16-bit PCRE2 library, checked against the results of the 8-bit one.
+ */
+public class Pcre2CodeUtf16Tests {
+
+    private static final String SUBJECT = "naïve 🌐 world, café 世界 🌐!";
+    private static final EnumSet<Pcre2MatchOption> NO_OPTIONS = EnumSet.noneOf(Pcre2MatchOption.class);
+
+    private static IPcre2 utf16(IPcre2 api) {
+        final var utf16 = BackendProvider.withWidth(api, Pcre2UtfWidth.UTF16);
+        assumeTrue(utf16 != null, "UTF-16 library not available");
+        return utf16;
+    }
+
+    private static Pcre2Code compile(IPcre2 api, String pattern) {
+        return new Pcre2Code(api, pattern, EnumSet.of(Pcre2CompileOption.UTF));
+    }
+
+    private static int[] matchIndices(IPcre2 api, String pattern, String subject, int startOffset) {
+        final var code = compile(api, pattern);
+        final var matchData = new Pcre2MatchData(code);
+        final var encoded = new Pcre2Subject(api, subject);
+
+        final var result = code.matchSubject(encoded, startOffset, NO_OPTIONS, matchData, null);
+        if (result < 0) {
+            return new int[]{result};
+        }
+        return encoded.toStringIndices(matchData.ovector());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void subjectOffsetsAreCharacterIndices(IPcre2 api) {
+        final var utf16 = utf16(api);
+        final var subject = new Pcre2Subject(utf16, SUBJECT);
+
+        assertEquals(SUBJECT.length(), subject.length());
+        assertTrue(subject.offsetMap().isIdentity());
+        assertEquals(7, subject.toOffset(7));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchesLikeUtf8(IPcre2 api) {
+        final var utf16 = utf16(api);
+
+        for (var pattern : new String[]{
+                "🌐", "(\\w+)\\s(🌐)", "caf(é)", "\\X(?<w>世界)", "(\\p{So})!$", "[^\\x00-\\x7F]+"
+        }) {
+            for (var startOffset : new int[]{0, 8, 9}) {
+                assertArrayEquals(
+                        matchIndices(api, pattern, SUBJECT, startOffset),
+                        matchIndices(utf16, pattern, SUBJECT, startOffset),
+                        pattern + " @ " + startOffset
+                );
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchesStringLikeUtf8(IPcre2 api) {
+        final var utf16 = utf16(api);
+        final var code8 = compile(api, "(\\p{L}+) (🌐)");
+        final var code16 = compile(utf16, "(\\p{L}+) (🌐)");
+        final var matchData8 = new Pcre2MatchData(code8);
+        final var matchData16 = new Pcre2MatchData(code16);
+
+        assertTrue(code8.match(SUBJECT, 0, NO_OPTIONS, matchData8, null) > 0);
+        assertTrue(code16.match(SUBJECT, 0, NO_OPTIONS, matchData16, null) > 0);
+        assertArrayEquals(
+                Pcre4jUtils.getMatchGroups(code8, SUBJECT, matchData8),
+                Pcre4jUtils.getMatchGroups(code16, SUBJECT, matchData16)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void nameTableLikeUtf8(IPcre2 api) {
+        final var utf16 = utf16(api);
+        final var pattern = "(?<year>\\d+)-(?<month>\\d+)(?<day>-\\d+)?";
+
+        assertArrayEquals(compile(api, pattern).nameTable(), compile(utf16, pattern).nameTable());
+        assertArrayEquals(new int[]{2}, compile(utf16, pattern).scanNametable("month"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void substitutesLikeUtf8(IPcre2 api) {
+        final var utf16 = utf16(api);
+        final var options = EnumSet.of(Pcre2SubstituteOption.GLOBAL);
+
+        for (var replacement : new String[]{"[$0]", "🌍", ""}) {
+            assertEquals(
+                    compile(api, "🌐|é").substitute(SUBJECT, 0, options, null, null, replacement),
+                    compile(utf16, "🌐|é").substitute(SUBJECT, 0, options, null, null, replacement)
+            );
+        }
+
+        // Enough output to outgrow the initial buffer
+        final var subject = "🌐".repeat(500);
+        assertEquals(
+                "🌍🌐".repeat(500),
+                compile(utf16, "🌐").substitute(subject, 0, options, null, null, "🌍🌐")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void dfaMatchesLikeUtf8(IPcre2 api) {
+        final var utf16 = utf16(api);
+
+        final var result8 = compile(api, "🌐\\s\\w+").dfaMatch(SUBJECT);
+        final var result16 = compile(utf16, "🌐\\s\\w+").dfaMatch(SUBJECT);
+        assertEquals(result8.start(), result16.start());
+        assertArrayEquals(result8.ends(), result16.ends());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void findsAllMatchesLikeUtf8(IPcre2 api) {
+        final var utf16 = utf16(api);
+
+        assertEquals(findAll(api, "|\\X"), findAll(utf16, "|\\X"));
+    }
+
+    private static String findAll(IPcre2 api, String pattern) {
+        final var code = compile(api, pattern);
+        final var subject = new Pcre2Subject(api, SUBJECT);
+        final var matchData = new Pcre2MatchData(code);
+        final var ovectors = new long[SUBJECT.length() * 4 + 4];
+
+        final var count = code.matchAllSubject(
+                subject,
+                0,
+                SUBJECT.length(),
+                0,
+                0,
+                IPcre2.MATCH_ALL_RETRY_EMPTY,
+                matchData,
+                null,
+                ovectors
+        );
+        assertTrue(count > 0);
+        return Arrays.toString(subject.toStringIndices(Arrays.copyOf(ovectors, count * 2)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void stringsDecodeInCodeUnits(IPcre2 api) {
+        final var utf16 = utf16(api);
+
+        assertEquals(Pcre4jUtils.getVersion(api), Pcre4jUtils.getVersion(utf16));
+        assertEquals(Pcre4jUtils.getUnicodeVersion(api), Pcre4jUtils.getUnicodeVersion(utf16));
+        assertEquals(
+                Pcre4jUtils.getErrorMessage(api, IPcre2.ERROR_NOMATCH),
+                Pcre4jUtils.getErrorMessage(utf16, IPcre2.ERROR_NOMATCH)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void rejectsUnpairedSurrogates(IPcre2 api) {
+        final var utf16 = utf16(api);
+
+        // The subject reaches PCRE2 unchanged rather than with a replacement character, so the UTF check rejects it
+        final var result = matchIndices(utf16, "x", "a\uD800x", 0);
+        assertEquals(1, result.length);
+        assertTrue(result[0] < 0);
+    }
+}
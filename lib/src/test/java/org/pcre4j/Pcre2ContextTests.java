@@ -30,6 +30,8 @@ import java.util.EnumSet;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -80,6 +82,31 @@ public class Pcre2ContextTests {
         assertTrue(stack.handle() != 0);
     }
 
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void generalContextWithAllocator(IPcre2 api) {
+        var allocator = new Pcre2SlabAllocator(api);
+        var generalCtx = new Pcre2GeneralContext(api, allocator);
+        assertSame(allocator, generalCtx.allocator());
+        final var contextBytes = allocator.allocatedBytes();
+        assertTrue(contextBytes > 0);
+
+        // Patterns compiled with a compile context of the general context, and their match data, allocate through it
+        var code = new Pcre2Code(api, "(a|b)+c", null, new Pcre2CompileContext(api, generalCtx));
+        var matchData = new Pcre2MatchData(code);
+        final var beforeMatch = allocator.allocatedBytes();
+        assertTrue(beforeMatch > contextBytes);
+        assertEquals(2, code.match("ab".repeat(1000) + "c", 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null));
+        assertTrue(allocator.allocatedBytes() > beforeMatch);
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void generalContextNullAllocatorThrows(IPcre2 api) {
+        assertThrows(IllegalArgumentException.class, () -> new Pcre2GeneralContext(api, null));
+        assertNull(new Pcre2GeneralContext(api).allocator());
+    }
+
     // === Pcre2CompileContext ===
 
     @ParameterizedTest
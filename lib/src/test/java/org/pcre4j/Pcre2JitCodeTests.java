@@ -26,6 +26,7 @@ import java.util.EnumSet;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -153,4 +154,18 @@ public class Pcre2JitCodeTests {
         // Partial match returns ERROR_PARTIAL (negative)
         assertEquals(IPcre2.ERROR_PARTIAL, result, "Should get partial match");
     }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void jitCopyOfInterpretedCode(IPcre2 api) {
+        var code = new Pcre2Code(api, "(hello) (world)", EnumSet.of(Pcre2CompileOption.CASELESS), null);
+        var jitCode = code.jitCopy(null);
+        assertNotEquals(code.handle(), jitCode.handle());
+        assertEquals(0, code.jitSize());
+        assertTrue(jitCode.jitSize() > 0);
+
+        var matchData = new Pcre2MatchData(jitCode);
+        assertEquals(3, jitCode.match("HELLO world", 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null));
+        assertEquals(3, code.match("HELLO world", 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null));
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.option.Pcre2CompileOption;
+
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for {@link Pcre2LiteralAnalysis} and {@link Pcre2LiteralAutomaton}.
+ */
+public class Pcre2LiteralAnalysisTests {
+
+    private static String literal(String pattern) {
+        return Pcre2LiteralAnalysis.requiredLiteral(pattern, EnumSet.noneOf(Pcre2CompileOption.class));
+    }
+
+    @Test
+    void longestRequiredLiteral() {
+        assertEquals("ERROR", literal("ERROR"));
+        assertEquals("user=", literal("\\buser=\\w+"));
+        assertEquals(" host.example", literal("^\\d+ host\\.example(:\\d+)?$"));
+        assertEquals("abc", literal("x?abc[0-9]*d"));
+        assertEquals("foo", literal("fo(?=o)foo"));
+        assertEquals("bbb", literal("a*bbb{2}"));
+        assertEquals("a.b", literal("\\Qa.b\\E+"));
+        assertEquals("AB", literal("\\x41AB"));
+        assertEquals("café", literal("café"));
+    }
+
+    @Test
+    void noRequiredLiteral() {
+        assertNull(literal("ERROR|WARN"));
+        assertNull(literal("\\d+"));
+        assertNull(literal("(?x) a b c"));
+        assertNull(literal("(a(*ACCEPT))foo"));
+        assertNull(literal("a?"));
+        assertNull(Pcre2LiteralAnalysis.requiredLiteral("abc", EnumSet.of(Pcre2CompileOption.EXTENDED)));
+    }
+
+    @Test
+    void caselessLiteralsAvoidCharactersWithOtherCaseVariants() {
+        final var caseless = EnumSet.of(Pcre2CompileOption.CASELESS);
+        assertEquals("error", Pcre2LiteralAnalysis.requiredLiteral("error", caseless));
+        assertEquals("ta", Pcre2LiteralAnalysis.requiredLiteral("task", caseless));
+        assertEquals("caf", Pcre2LiteralAnalysis.requiredLiteral("(?i)café", EnumSet.noneOf(Pcre2CompileOption.class)));
+        assertEquals("a+b", Pcre2LiteralAnalysis.requiredLiteral("a+b", EnumSet.of(Pcre2CompileOption.LITERAL)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void literalsFromCompiledPattern(IPcre2 api) {
+        final var options = EnumSet.noneOf(Pcre2CompileOption.class);
+
+        final var alternation = "(?:x|y)\\d+";
+        assertEquals(
+                List.of("x", "y"),
+                Pcre2LiteralAnalysis.requiredLiterals(alternation, options, new Pcre2Code(api, alternation))
+        );
+        final var lastLiteral = "\\d+(?:ab|cb)";
+        assertEquals(
+                List.of("b"),
+                Pcre2LiteralAnalysis.requiredLiterals(lastLiteral, options, new Pcre2Code(api, lastLiteral))
+        );
+        final var anything = "\\w+";
+        assertEquals(List.of(), Pcre2LiteralAnalysis.requiredLiterals(anything, options, new Pcre2Code(api, anything)));
+    }
+
+    @Test
+    void automatonFindsOwnersOfOccurringLiterals() {
+        final var automaton = new Pcre2LiteralAutomaton(
+                List.of("he", "she", "his", "hers", "é€", "x"),
+                new int[]{0, 1, 2, 3, 4, 0}
+        );
+
+        final var found = new BitSet();
+        automaton.scan("USHERS", found);
+        assertEquals(BitSet.valueOf(new long[]{0b1011}), found);
+
+        found.clear();
+        automaton.scan("aé€b hi", found);
+        assertEquals(BitSet.valueOf(new long[]{0b10000}), found);
+
+        found.clear();
+        automaton.scan("nothing", found);
+        assertEquals(new BitSet(), found);
+    }
+}
@@ -23,6 +23,7 @@ import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.EnumSet;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -86,6 +87,66 @@ public class Pcre2MatchDataTests {
         assertEquals(3, ovector[3]); // group 1 end byte
     }
 
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void ovectorIntoReusedArray(IPcre2 api) {
+        var code = new Pcre2Code(api, "(ab)");
+        var matchData = new Pcre2MatchData(code);
+        var ovector = new long[4];
+
+        code.match("xaby", 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null);
+        matchData.ovector(ovector);
+        assertArrayEquals(new long[]{1, 3, 1, 3}, ovector);
+
+        code.match("abxy", 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null);
+        matchData.ovector(ovector);
+        assertArrayEquals(new long[]{0, 2, 0, 2}, ovector);
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void ovectorIntoTooLongArrayThrows(IPcre2 api) {
+        var code = new Pcre2Code(api, "(ab)");
+        var matchData = new Pcre2MatchData(code);
+        assertThrows(IllegalArgumentException.class, () -> matchData.ovector(new long[6]));
+        assertThrows(IllegalArgumentException.class, () -> matchData.ovector(null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void ovectorStartAndEnd(IPcre2 api) {
+        var code = new Pcre2Code(api, "(a)|(b)");
+        var matchData = new Pcre2MatchData(code);
+
+        code.match("xa", 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null);
+        assertEquals(1, matchData.ovectorStart(0));
+        assertEquals(2, matchData.ovectorEnd(0));
+        assertEquals(1, matchData.ovectorStart(1));
+        assertEquals(2, matchData.ovectorEnd(1));
+        assertEquals(-1, matchData.ovectorStart(2));
+        assertEquals(-1, matchData.ovectorEnd(2));
+
+        // Every match is read in place
+        code.match("xxb", 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null);
+        assertEquals(2, matchData.ovectorStart(0));
+        assertEquals(3, matchData.ovectorEnd(0));
+        assertEquals(-1, matchData.ovectorStart(1));
+        assertEquals(2, matchData.ovectorStart(2));
+        assertEquals(3, matchData.ovectorEnd(2));
+        assertArrayEquals(new long[]{2, 3, -1, -1, 2, 3}, matchData.ovector());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void ovectorStartAndEndOutOfRangeThrows(IPcre2 api) {
+        var code = new Pcre2Code(api, "(ab)");
+        var matchData = new Pcre2MatchData(code);
+        assertThrows(IndexOutOfBoundsException.class, () -> matchData.ovectorStart(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> matchData.ovectorEnd(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> matchData.ovectorStart(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> matchData.ovectorEnd(-1));
+    }
+
     // --- getSubstring(int) ---
 
     @ParameterizedTest
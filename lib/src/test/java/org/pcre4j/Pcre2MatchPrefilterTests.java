@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.option.Pcre2CompileOption;
+import org.pcre4j.option.Pcre2MatchOption;
+
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link Pcre2MatchPrefilter}.
+ */
+public class Pcre2MatchPrefilterTests {
+
+    private static boolean matches(Pcre2Code code, String subject) {
+        final var matchData = new Pcre2MatchData(code);
+        return code.match(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null) > 0;
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void rejectsShortSubjects(IPcre2 api) {
+        final var code = new Pcre2Code(api, "\\d{4}-\\d{2}");
+        final var prefilter = code.prefilter();
+
+        assertSame(prefilter, code.prefilter());
+        assertEquals(7, prefilter.minLength());
+        assertFalse(prefilter.mayMatch("123-45"));
+        assertTrue(prefilter.mayMatch("1234-56"));
+        assertFalse(prefilter.mayMatch("abc1234-56", 4, 10));
+        assertTrue(matches(code, "1234-56"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void rejectsSubjectsWithoutFirstOrRequiredCodeUnit(IPcre2 api) {
+        final var first = new Pcre2Code(api, "ERROR:\\s+\\w+");
+        assertFalse(first.prefilter().mayMatch("WARNING: low disk"));
+        assertTrue(first.prefilter().mayMatch("ERROR: disk full"));
+
+        final var required = new Pcre2Code(api, "\\w+@\\w+");
+        assertFalse(required.prefilter().mayMatch("no address in here"));
+        assertTrue(required.prefilter().mayMatch("mail user@host"));
+        assertTrue(matches(required, "mail user@host"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void rejectsSubjectsWithoutStartCharacter(IPcre2 api) {
+        final var code = new Pcre2Code(api, "[xyz]\\d");
+
+        if (api.codeUnitSize() == 1) {
+            assertFalse(code.prefilter().mayMatch("abc 123"));
+        }
+        assertTrue(code.prefilter().mayMatch("abc y1"));
+        assertTrue(matches(code, "abc y1"));
+        assertFalse(matches(code, "abc 123"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void caselessPatternsAcceptEveryCase(IPcre2 api) {
+        final var inline = new Pcre2Code(api, "(?i)error");
+        assertTrue(inline.prefilter().mayMatch("ERROR"));
+        assertTrue(matches(inline, "ERROR"));
+
+        final var kelvin = new Pcre2Code(api, "k", EnumSet.of(Pcre2CompileOption.UTF, Pcre2CompileOption.CASELESS));
+        assertTrue(kelvin.prefilter().mayMatch("K"));
+        assertTrue(matches(kelvin, "K"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void partialMatchesBypassPrefilter(IPcre2 api) {
+        final var code = new Pcre2Code(api, "abcdef");
+        final var matchData = new Pcre2MatchData(code);
+
+        assertFalse(code.prefilter().mayMatch("abc"));
+        assertEquals(
+                IPcre2.ERROR_NOMATCH,
+                code.match("abc", 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null)
+        );
+        assertEquals(
+                IPcre2.ERROR_PARTIAL,
+                code.match("abc", 0, EnumSet.of(Pcre2MatchOption.PARTIAL_HARD), matchData, null)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchesWithCalloutBypassPrefilter(IPcre2 api) {
+        final var code = new Pcre2Code(api, "abcdef");
+        final var matchContext = new Pcre2MatchContext(api, null);
+
+        assertFalse(code.mayMatch("abc", 0, 3, 0, matchContext));
+        matchContext.setCallout(block -> 0);
+        assertTrue(code.mayMatch("abc", 0, 3, 0, matchContext));
+        matchContext.setCallout(null);
+        assertFalse(code.mayMatch("abc", 0, 3, 0, matchContext));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void startWithinSurrogatePairBypassesPrefilter(IPcre2 api) {
+        final var code = new Pcre2Code(api, "xyz", EnumSet.of(Pcre2CompileOption.UTF), null);
+        final var matchData = new Pcre2MatchData(code);
+        final var subject = "a\uD83C\uDF10b";
+
+        assertFalse(code.prefilter().mayMatch(subject));
+        assertEquals(
+                IPcre2.ERROR_BADUTFOFFSET,
+                code.match(subject, 2, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null)
+        );
+        try (var encoded = new Pcre2Subject(api, subject)) {
+            assertEquals(
+                    IPcre2.ERROR_BADUTFOFFSET,
+                    code.matchSubject(encoded, 2, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null)
+            );
+        }
+        assertEquals(
+                IPcre2.ERROR_NOMATCH,
+                code.match(subject, 3, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void calloutsRunWithoutStartOptimization(IPcre2 api) {
+        final var code = new Pcre2Code(api, "(?C1)abcdef", EnumSet.of(Pcre2CompileOption.NO_START_OPTIMIZE));
+        final var matchData = new Pcre2MatchData(code);
+        final var matchContext = new Pcre2MatchContext(api, null);
+        final var callouts = new AtomicInteger();
+        matchContext.setCallout(block -> {
+            callouts.incrementAndGet();
+            return 0;
+        });
+
+        assertTrue(code.prefilter().isTrivial());
+        assertEquals(
+                IPcre2.ERROR_NOMATCH,
+                code.match("xyz", 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, matchContext)
+        );
+        assertEquals(4, callouts.get());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void trivialWhenNothingIsKnown(IPcre2 api) {
+        final var prefilter = new Pcre2Code(api, ".*").prefilter();
+
+        assertTrue(prefilter.isTrivial());
+        assertTrue(prefilter.mayMatch(""));
+        assertThrows(IllegalArgumentException.class, () -> prefilter.mayMatch(null));
+        assertThrows(IllegalArgumentException.class, () -> Pcre2MatchPrefilter.of(null));
+    }
+}
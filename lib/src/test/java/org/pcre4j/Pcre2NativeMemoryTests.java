@@ -0,0 +1,237 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.exception.Pcre2MemoryBudgetException;
+
+import javax.management.Attribute;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link Pcre2NativeMemory}.
+ */
+public class Pcre2NativeMemoryTests {
+
+    /**
+     * Wait for the resources that are no longer reachable to be freed, so that the accounting only changes with the
+     * resources a test creates and frees.
+     */
+    static void awaitQuiescence() {
+        var previous = -1L;
+        for (int i = 0; i < 50; i++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            final var current = Pcre2NativeMemory.totalBytes();
+            if (current == previous) {
+                return;
+            }
+            previous = current;
+        }
+    }
+
+    @AfterEach
+    void resetBudget() {
+        Pcre2NativeMemory.setBudget(0);
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void tracksCompiledPatterns(IPcre2 api) {
+        awaitQuiescence();
+        final var count = Pcre2NativeMemory.liveCount(Pcre2NativeMemory.Resource.CODE);
+        final var bytes = Pcre2NativeMemory.liveBytes(Pcre2NativeMemory.Resource.CODE);
+        final var jitBytes = Pcre2NativeMemory.liveBytes(Pcre2NativeMemory.Resource.JIT_CODE);
+        final var total = Pcre2NativeMemory.totalBytes();
+
+        final var code = new Pcre2Code(api, "(a+)b", null, null);
+        final var jitCode = new Pcre2JitCode(api, "(c+)d", null, null, null);
+        assertEquals(count + 2, Pcre2NativeMemory.liveCount(Pcre2NativeMemory.Resource.CODE));
+        assertEquals(
+                bytes + code.size() + jitCode.size(),
+                Pcre2NativeMemory.liveBytes(Pcre2NativeMemory.Resource.CODE)
+        );
+        assertEquals(jitBytes + jitCode.jitSize(), Pcre2NativeMemory.liveBytes(Pcre2NativeMemory.Resource.JIT_CODE));
+        assertEquals(
+                total + code.size() + jitCode.size() + jitCode.jitSize(),
+                Pcre2NativeMemory.totalBytes()
+        );
+
+        final var jitCodeSize = jitCode.size();
+        code.close();
+        assertEquals(count + 1, Pcre2NativeMemory.liveCount(Pcre2NativeMemory.Resource.CODE));
+        assertEquals(bytes + jitCodeSize, Pcre2NativeMemory.liveBytes(Pcre2NativeMemory.Resource.CODE));
+
+        jitCode.close();
+        assertEquals(count, Pcre2NativeMemory.liveCount(Pcre2NativeMemory.Resource.CODE));
+        assertEquals(jitBytes, Pcre2NativeMemory.liveBytes(Pcre2NativeMemory.Resource.JIT_CODE));
+        assertEquals(total, Pcre2NativeMemory.totalBytes());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void tracksMatchDataSubjectsStacksAndContexts(IPcre2 api) {
+        final var code = new Pcre2Code(api, "(a)(b)(c)", null, null);
+        awaitQuiescence();
+        final var total = Pcre2NativeMemory.totalBytes();
+        final var matchDataCount = Pcre2NativeMemory.liveCount(Pcre2NativeMemory.Resource.MATCH_DATA);
+        final var jitStackBytes = Pcre2NativeMemory.liveBytes(Pcre2NativeMemory.Resource.JIT_STACK);
+        final var contextCount = Pcre2NativeMemory.liveCount(Pcre2NativeMemory.Resource.MATCH_CONTEXT);
+
+        final var matchData = new Pcre2MatchData(code);
+        final var subject = new Pcre2Subject(api, "abc€");
+        final var jitStack = new Pcre2JitStack(api, 32 * 1024, 512 * 1024, null);
+        final var matchContext = new Pcre2MatchContext(api, null);
+
+        assertEquals(matchDataCount + 1, Pcre2NativeMemory.liveCount(Pcre2NativeMemory.Resource.MATCH_DATA));
+        assertEquals(jitStackBytes + 512 * 1024, Pcre2NativeMemory.liveBytes(Pcre2NativeMemory.Resource.JIT_STACK));
+        assertEquals(contextCount + 1, Pcre2NativeMemory.liveCount(Pcre2NativeMemory.Resource.MATCH_CONTEXT));
+        assertEquals(
+                total + matchData.size() + subject.length() * api.codeUnitSize() + 512 * 1024,
+                Pcre2NativeMemory.totalBytes()
+        );
+        Reference.reachabilityFence(jitStack);
+        Reference.reachabilityFence(matchContext);
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void rejectsResourceBeyondBudget(IPcre2 api) {
+        awaitQuiescence();
+        final var count = Pcre2NativeMemory.liveCount(Pcre2NativeMemory.Resource.CODE);
+        final var rejections = Pcre2NativeMemory.rejectionCount();
+        Pcre2NativeMemory.setBudget(Pcre2NativeMemory.totalBytes() + 1);
+
+        final var e = assertThrows(Pcre2MemoryBudgetException.class, () -> new Pcre2Code(api, "(a+)b", null, null));
+        assertEquals(IPcre2.ERROR_NOMEMORY, e.errorCode());
+        assertTrue(e.requestedBytes() > 1);
+        assertEquals(Pcre2NativeMemory.budget(), e.budget());
+        assertEquals(rejections + 1, Pcre2NativeMemory.rejectionCount());
+
+        // The pattern that did not fit is freed right away
+        assertEquals(count, Pcre2NativeMemory.liveCount(Pcre2NativeMemory.Resource.CODE));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void reservesJitStackBeforeCreatingIt(IPcre2 api) {
+        awaitQuiescence();
+        final var count = Pcre2NativeMemory.liveCount(Pcre2NativeMemory.Resource.JIT_STACK);
+        final var total = Pcre2NativeMemory.totalBytes();
+        Pcre2NativeMemory.setBudget(total + 64 * 1024);
+
+        final var e = assertThrows(
+                Pcre2MemoryBudgetException.class,
+                () -> new Pcre2JitStack(api, 32 * 1024, 512 * 1024, null)
+        );
+        assertEquals(512 * 1024, e.requestedBytes());
+        assertEquals(count, Pcre2NativeMemory.liveCount(Pcre2NativeMemory.Resource.JIT_STACK));
+        assertEquals(total, Pcre2NativeMemory.totalBytes());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void evictionHookMakesRoom(IPcre2 api) {
+        final var cached = new ArrayList<Pcre2Code>();
+        cached.add(new Pcre2Code(api, "(a+)b", null, null));
+        awaitQuiescence();
+        final var evictions = Pcre2NativeMemory.evictionCount();
+        final var requested = new AtomicLong();
+        final Pcre2NativeMemory.EvictionHook hook = bytes -> {
+            requested.set(bytes);
+            cached.clear();
+        };
+        Pcre2NativeMemory.addEvictionHook(hook);
+        try {
+            Pcre2NativeMemory.setBudget(Pcre2NativeMemory.totalBytes());
+
+            // The evicted pattern is freed once collected, which makes room for an identical one
+            final var code = new Pcre2Code(api, "(a+)b", null, null);
+            assertTrue(cached.isEmpty());
+            assertEquals(code.size(), requested.get());
+            assertEquals(evictions + 1, Pcre2NativeMemory.evictionCount());
+        } finally {
+            assertTrue(Pcre2NativeMemory.removeEvictionHook(hook));
+        }
+        assertFalse(Pcre2NativeMemory.removeEvictionHook(hook));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void codeCacheEvictionHook(IPcre2 api) {
+        final var cache = new Pcre2CodeCache(1024 * 1024);
+        cache.compile(api, "(a+)b", null);
+        final Pcre2NativeMemory.EvictionHook hook = cache::evict;
+        Pcre2NativeMemory.addEvictionHook(hook);
+        try {
+            awaitQuiescence();
+            Pcre2NativeMemory.setBudget(Pcre2NativeMemory.totalBytes());
+
+            new Pcre2Code(api, "(a+)b", null, null);
+            assertEquals(0, cache.stats().entryCount());
+            assertEquals(1, cache.stats().evictionCount());
+        } finally {
+            Pcre2NativeMemory.removeEvictionHook(hook);
+        }
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> Pcre2NativeMemory.setBudget(-1));
+        assertThrows(IllegalArgumentException.class, () -> Pcre2NativeMemory.addEvictionHook(null));
+        assertThrows(IllegalArgumentException.class, () -> Pcre2NativeMemory.liveCount(null));
+        assertThrows(IllegalArgumentException.class, () -> Pcre2NativeMemory.liveBytes(null));
+    }
+
+    @Test
+    void mbean() throws Exception {
+        Pcre2NativeMemory.registerMBean();
+        Pcre2NativeMemory.registerMBean();
+
+        final var server = ManagementFactory.getPlatformMBeanServer();
+        final var name = new ObjectName(Pcre2NativeMemory.OBJECT_NAME);
+        assertTrue(server.isRegistered(name));
+
+        server.setAttribute(name, new Attribute("Budget", 1L << 40));
+        assertEquals(1L << 40, Pcre2NativeMemory.budget());
+        assertEquals(1L << 40, server.getAttribute(name, "Budget"));
+        assertTrue((Long) server.getAttribute(name, "TotalBytes") >= 0);
+
+        final var liveCounts = (TabularData) server.getAttribute(name, "LiveCounts");
+        assertEquals(Pcre2NativeMemory.Resource.values().length, liveCounts.size());
+        assertTrue(liveCounts.containsKey(new Object[]{"CODE"}));
+
+        server.invoke(name, "freeUnusedJitMemory", null, null);
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2024-2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link Pcre2OffsetMap}.
+ */
+public class Pcre2OffsetMapTests {
+
+    @Test
+    void asciiIsIdentity() {
+        final var offsetMap = Pcre2OffsetMap.of("hello world");
+
+        assertTrue(offsetMap.isIdentity());
+        assertEquals(11, offsetMap.byteLength());
+        assertEquals(5, offsetMap.toByteOffset(5));
+        assertEquals(5, offsetMap.toCharacterIndex(5));
+    }
+
+    @Test
+    void emptyIsIdentity() {
+        final var offsetMap = Pcre2OffsetMap.of("");
+
+        assertTrue(offsetMap.isIdentity());
+        assertEquals(0, offsetMap.toByteOffset(0));
+        assertEquals(0, offsetMap.toCharacterIndex(0));
+    }
+
+    @Test
+    void mixedWidths() {
+        // "a" = 1 byte, "é" = 2 bytes, "世" = 3 bytes, "😀" = 4 bytes (2 per surrogate)
+        final var offsetMap = Pcre2OffsetMap.of("aé世😀b");
+
+        assertFalse(offsetMap.isIdentity());
+        assertEquals(11, offsetMap.byteLength());
+        assertEquals(0, offsetMap.toByteOffset(0));
+        assertEquals(1, offsetMap.toByteOffset(1));
+        assertEquals(3, offsetMap.toByteOffset(2));
+        assertEquals(6, offsetMap.toByteOffset(3));
+        assertEquals(8, offsetMap.toByteOffset(4));
+        assertEquals(10, offsetMap.toByteOffset(5));
+        assertEquals(11, offsetMap.toByteOffset(6));
+
+        assertEquals(2, offsetMap.toCharacterIndex(3));
+        assertEquals(3, offsetMap.toCharacterIndex(6));
+        assertEquals(5, offsetMap.toCharacterIndex(10));
+        assertEquals(6, offsetMap.toCharacterIndex(11));
+    }
+
+    @Test
+    void offsetWithinCharacter() {
+        final var offsetMap = Pcre2OffsetMap.of("a世b");
+
+        assertEquals(1, offsetMap.toCharacterIndex(1));
+        assertEquals(1, offsetMap.toCharacterIndex(2));
+        assertEquals(1, offsetMap.toCharacterIndex(3));
+        assertEquals(2, offsetMap.toCharacterIndex(4));
+    }
+
+    @Test
+    void acrossCheckpoints() {
+        final var builder = new StringBuilder();
+        for (var i = 0; i < 500; i++) {
+            builder.append(switch (i % 4) {
+                case 0 -> "x";
+                case 1 -> "é";
+                case 2 -> "世";
+                default -> "😀";
+            });
+        }
+        final var subject = builder.toString();
+        final var offsetMap = Pcre2OffsetMap.of(subject);
+
+        assertEquals(subject.getBytes(StandardCharsets.UTF_8).length, offsetMap.byteLength());
+        for (var index = 0; index <= subject.length(); index++) {
+            final var offset = Pcre4jUtils.convertCharacterIndexToByteOffset(subject, index);
+            assertEquals(offset, offsetMap.toByteOffset(index));
+            assertEquals(index, offsetMap.toCharacterIndex(offset));
+        }
+    }
+
+    @Test
+    void utf16IsIdentity() {
+        final var offsetMap = Pcre2OffsetMap.of("aé世😀b", 2);
+
+        assertTrue(offsetMap.isIdentity());
+        assertEquals(2, offsetMap.codeUnitSize());
+        assertEquals(6, offsetMap.byteLength());
+        assertEquals(4, offsetMap.toByteOffset(4));
+        assertEquals(4, offsetMap.toCharacterIndex(4));
+    }
+
+    @Test
+    void utf32CountsCodePoints() {
+        assertTrue(Pcre2OffsetMap.of("aé世b", 4).isIdentity());
+
+        // "😀" is a single code unit in UTF-32, accounted to its high surrogate
+        final var offsetMap = Pcre2OffsetMap.of("a😀b😀", 4);
+
+        assertFalse(offsetMap.isIdentity());
+        assertEquals(4, offsetMap.byteLength());
+        assertEquals(1, offsetMap.toByteOffset(1));
+        assertEquals(2, offsetMap.toByteOffset(2));
+        assertEquals(2, offsetMap.toByteOffset(3));
+        assertEquals(3, offsetMap.toByteOffset(4));
+        assertEquals(4, offsetMap.toByteOffset(6));
+
+        assertEquals(1, offsetMap.toCharacterIndex(1));
+        assertEquals(3, offsetMap.toCharacterIndex(2));
+        assertEquals(4, offsetMap.toCharacterIndex(3));
+        assertEquals(6, offsetMap.toCharacterIndex(4));
+    }
+
+    @Test
+    void utf32AcrossCheckpoints() {
+        final var subject = "x😀\uD800".repeat(200);
+        final var offsetMap = Pcre2OffsetMap.of(subject, 4);
+
+        assertEquals(subject.codePointCount(0, subject.length()), offsetMap.byteLength());
+        for (var index = 0; index <= subject.length(); index++) {
+            if (index < subject.length() && Character.isLowSurrogate(subject.charAt(index))
+                    && Character.isHighSurrogate(subject.charAt(index - 1))) {
+                // Within a surrogate pair, which has no code unit offset of its own
+                continue;
+            }
+            final var offset = subject.codePointCount(0, index);
+            assertEquals(offset, offsetMap.toByteOffset(index));
+            assertEquals(index, offsetMap.toCharacterIndex(offset));
+        }
+    }
+
+    @Test
+    void toStringIndicesInPlace() {
+        final var offsetMap = Pcre2OffsetMap.of("a😀b");
+        final var indices = new int[6];
+
+        offsetMap.toStringIndices(new long[]{0, 6, -1, -1, 5, 6}, indices);
+
+        assertArrayEquals(new int[]{0, 4, -1, -1, 3, 4}, indices);
+    }
+
+    @Test
+    void toStringIndicesFromIndex() {
+        // The ovector is relative to the "世b" suffix, which starts at character index 2
+        final var offsetMap = Pcre2OffsetMap.of("éx世b");
+        final var indices = new int[4];
+
+        offsetMap.toStringIndices(new long[]{0, 4, 3, 4}, indices, 2);
+
+        assertArrayEquals(new int[]{2, 4, 3, 4}, indices);
+    }
+
+    @Test
+    void singleMatchAgreesWithMap() {
+        final var subject = "ab".repeat(40) + "é世😀".repeat(30) + "xyz";
+        for (var codeUnitSize : new int[]{1, 2, 4}) {
+            final var offsetMap = Pcre2OffsetMap.of(subject, codeUnitSize);
+            for (long offset = 0; offset <= offsetMap.byteLength(); offset += 3) {
+                // Unsorted, repeated and unset offsets, some within the ASCII prefix
+                final var ovector = new long[]{offset, offsetMap.byteLength(), -1, -1, 7, offset, offset / 2, 0};
+                final var expected = new int[ovector.length];
+                offsetMap.toStringIndices(ovector, expected);
+
+                final var indices = new int[ovector.length];
+                Pcre2OffsetMap.toStringIndices(subject, codeUnitSize, ovector, indices);
+                assertArrayEquals(expected, indices, "code unit size " + codeUnitSize + ", offset " + offset);
+            }
+        }
+    }
+
+    @Test
+    void nullSubject() {
+        assertThrows(IllegalArgumentException.class, () -> Pcre2OffsetMap.of(null));
+        assertThrows(IllegalArgumentException.class, () -> Pcre2OffsetMap.of("abc", 3));
+    }
+
+    @Test
+    void indexOutOfBounds() {
+        final var offsetMap = Pcre2OffsetMap.of("café");
+
+        assertThrows(IllegalArgumentException.class, () -> offsetMap.toByteOffset(-1));
+        assertThrows(IllegalArgumentException.class, () -> offsetMap.toByteOffset(5));
+        assertThrows(IllegalArgumentException.class, () -> offsetMap.toCharacterIndex(-1));
+        assertThrows(IllegalArgumentException.class, () -> offsetMap.toCharacterIndex(6));
+    }
+
+    @Test
+    void indicesTooShort() {
+        final var offsetMap = Pcre2OffsetMap.of("abc");
+
+        assertThrows(IllegalArgumentException.class, () -> offsetMap.toStringIndices(new long[]{0, 1}, new int[1]));
+    }
+}
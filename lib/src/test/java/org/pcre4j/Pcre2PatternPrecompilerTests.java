@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.option.Pcre2CompileOption;
+import org.pcre4j.option.Pcre2MatchOption;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for {@link Pcre2PatternPrecompiler} and reading precompiled patterns from a classpath resource.
+ */
+public class Pcre2PatternPrecompilerTests {
+
+    private static boolean matches(Pcre2Code code, String subject) {
+        final var matchData = new Pcre2MatchData(code);
+        return code.match(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null) > 0;
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void precompileRegistry(IPcre2 api, @TempDir Path dir) throws IOException {
+        final var registry = dir.resolve("router.patterns");
+        Files.writeString(registry, String.join("\n",
+                "# Patterns of the request router",
+                "",
+                "\\d{4}-\\d{2}-\\d{2}",
+                "UTF, CASELESS\t^/api/v(\\d+)/"
+        ));
+        final var output = dir.resolve("out").resolve("patterns.bin");
+
+        assertEquals(List.of(), Pcre2PatternPrecompiler.precompile(api, output, List.of(registry)));
+
+        final var store = Pcre2PatternStore.open(api, output);
+        assertEquals(2, store.storedCount());
+        assertTrue(matches(store.compile("\\d{4}-\\d{2}-\\d{2}", null), "2026-10-16"));
+        final var router = store.compile(
+                "^/api/v(\\d+)/",
+                EnumSet.of(Pcre2CompileOption.UTF, Pcre2CompileOption.CASELESS)
+        );
+        assertTrue(matches(router, "/API/V2/users"));
+        assertEquals(1, router.captureCount());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void precompileJit(IPcre2 api, @TempDir Path dir) throws IOException {
+        assumeTrue(Pcre4jUtils.isJitSupported(api), "JIT is not supported");
+        final var registry = dir.resolve("jit.patterns");
+        Files.writeString(registry, "JIT\t\\w+@\\w+\n");
+        final var output = dir.resolve("patterns.bin");
+
+        assertEquals(List.of(), Pcre2PatternPrecompiler.precompile(api, output, List.of(registry)));
+
+        final var code = Pcre2PatternStore.open(api, output).jitCompile("\\w+@\\w+", null, null);
+        assertTrue(code.jitSize() > 0);
+        assertTrue(matches(code, "user@host"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void invalidPatternsAreReported(IPcre2 api, @TempDir Path dir) throws IOException {
+        final var registry = dir.resolve("broken.patterns");
+        Files.writeString(registry, String.join("\n",
+                "valid",
+                "(unclosed",
+                "NO_SUCH_OPTION\tvalid"
+        ));
+        final var output = dir.resolve("patterns.bin");
+
+        final var errors = Pcre2PatternPrecompiler.precompile(api, output, List.of(registry));
+
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0).startsWith(registry + ":2: "), errors.get(0));
+        assertTrue(errors.get(0).contains("at offset 9"), errors.get(0));
+        assertTrue(errors.get(1).startsWith(registry + ":3: Unknown compile option: NO_SUCH_OPTION"), errors.get(1));
+        assertFalse(Files.exists(output));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void openResource(IPcre2 api, @TempDir Path dir) throws IOException {
+        final var registry = dir.resolve("app.patterns");
+        Files.writeString(registry, "[a-z]+\\d\n");
+        final var output = dir.resolve(Pcre2PatternStore.PRECOMPILED_RESOURCE);
+        assertEquals(List.of(), Pcre2PatternPrecompiler.precompile(api, output, List.of(registry)));
+
+        try (var classLoader = new URLClassLoader(new URL[]{dir.toUri().toURL()}, null)) {
+            final var store = Pcre2PatternStore.openResource(api, classLoader, Pcre2PatternStore.PRECOMPILED_RESOURCE);
+            assertNull(store.file());
+            assertFalse(store.isStale());
+            assertEquals(1, store.storedCount());
+            assertTrue(matches(store.compile("[a-z]+\\d", null), "abc1"));
+            assertThrows(IllegalStateException.class, store::save);
+
+            final var missing = Pcre2PatternStore.openResource(api, classLoader, "META-INF/pcre4j/missing.bin");
+            assertEquals(0, missing.storedCount());
+            assertTrue(matches(missing.compile("abc", null), "abc"));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void nullArgumentsThrow(IPcre2 api, @TempDir Path dir) {
+        final var output = dir.resolve("patterns.bin");
+        assertThrows(IllegalArgumentException.class, () -> Pcre2PatternPrecompiler.precompile(null, output, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> Pcre2PatternPrecompiler.precompile(api, null, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> Pcre2PatternPrecompiler.precompile(api, output, null));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Pcre2PatternStore.openResource(api, null, Pcre2PatternStore.PRECOMPILED_RESOURCE)
+        );
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.exception.Pcre2CompileException;
+import org.pcre4j.option.Pcre2CompileOption;
+import org.pcre4j.option.Pcre2MatchOption;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link Pcre2PatternSet}.
+ */
+public class Pcre2PatternSetTests {
+
+    private static BitSet bits(int... indices) {
+        final var bits = new BitSet();
+        for (var index : indices) {
+            bits.set(index);
+        }
+        return bits;
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void allMatches(IPcre2 api) {
+        final var set = new Pcre2PatternSet(api, List.of("ERROR", "user=\\w+", "\\d{3}", "WARN"), null, false);
+
+        assertEquals(bits(0, 1, 2), set.match("ERROR 500 user=alice", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+        assertEquals(bits(3), set.match("WARN disk", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+        assertEquals(bits(), set.match("nothing here", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void allMatchesFindsEarlierPatternsAfterLaterOnes(IPcre2 api) {
+        final var set = new Pcre2PatternSet(api, List.of("b", "a", "a"), null, false);
+
+        assertEquals(bits(0, 1, 2), set.match("ab", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+        assertEquals(bits(1, 2), set.match("a", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void allMatchesResumesAfterWhereKeepOutMatchBegan(IPcre2 api) {
+        final var set = new Pcre2PatternSet(api, List.of("bbc", "ab\\K"), null, false);
+
+        assertTrue(set.isCombined(0));
+        assertTrue(set.isCombined(1));
+        assertEquals(bits(0, 1), set.match("abbc", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void allMatchesMatchesStartOfMatchPatternsFromStartOfSubject(IPcre2 api) {
+        final var set = new Pcre2PatternSet(api, List.of("\\Gbc", "x"), null, false);
+
+        assertEquals(bits(1), set.match("xbc", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+        assertEquals(bits(0), set.match("bcx", Pcre2PatternSet.MatchMode.FIRST_MATCH));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void allMatchesMatchesAnchoredPatternsFromStartOfSubject(IPcre2 api) {
+        final var set = new Pcre2PatternSet(api, List.of("bc", "a"), EnumSet.of(Pcre2CompileOption.ANCHORED), false);
+
+        assertEquals(bits(1), set.match("abc", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+        assertEquals(bits(0), set.match("bca", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void literalPatternsAreMatchedOnTheirOwn(IPcre2 api) {
+        final var set = new Pcre2PatternSet(api, List.of("a.c", "(x)"), EnumSet.of(Pcre2CompileOption.LITERAL), false);
+
+        assertFalse(set.isCombined(0));
+        assertFalse(set.isCombined(1));
+        assertEquals(bits(0, 1), set.match("a.c (x)", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+        assertEquals(bits(), set.match("abc x", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void firstMatchIsLeftmost(IPcre2 api) {
+        final var set = new Pcre2PatternSet(api, List.of("world", "hello", "hel+"), null, false);
+
+        assertEquals(bits(1), set.match("hello world", Pcre2PatternSet.MatchMode.FIRST_MATCH));
+        assertEquals(bits(0), set.match("world hello", Pcre2PatternSet.MatchMode.FIRST_MATCH));
+        assertEquals(bits(), set.match("goodbye", Pcre2PatternSet.MatchMode.FIRST_MATCH));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void uncombinablePatternsAreMatchedOnTheirOwn(IPcre2 api) {
+        final var set = new Pcre2PatternSet(
+                api,
+                List.of("(\\w)\\1", "fo+", "(?<word>bar)", "(*UTF)café", "(o|z(?1))"),
+                null,
+                false
+        );
+
+        assertFalse(set.isCombined(0));
+        assertTrue(set.isCombined(1));
+        assertFalse(set.isCombined(2));
+        assertFalse(set.isCombined(3));
+        assertFalse(set.isCombined(4));
+        assertEquals(bits(0, 1, 2, 4), set.match("foo bar", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+        assertEquals(bits(3), set.match("café", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+        assertEquals(bits(0), set.match("xxfoo", Pcre2PatternSet.MatchMode.FIRST_MATCH));
+        assertEquals(bits(1), set.match("foo", Pcre2PatternSet.MatchMode.FIRST_MATCH));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void agreesWithPerPatternMatching(IPcre2 api) {
+        final var patterns = new ArrayList<String>();
+        for (var i = 0; i < 120; i++) {
+            patterns.add("k" + i + "\\b");
+        }
+        final var set = new Pcre2PatternSet(api, patterns, EnumSet.of(Pcre2CompileOption.UTF), true);
+        final var subject = "ü k7 k42 k119 😀 k100";
+
+        final var expected = new BitSet();
+        for (var i = 0; i < patterns.size(); i++) {
+            final var code = set.code(i);
+            if (code.match(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), new Pcre2MatchData(code), null) > 0) {
+                expected.set(i);
+            }
+        }
+        assertEquals(bits(7, 42, 100, 119), expected);
+        assertEquals(expected, set.match(subject, Pcre2PatternSet.MatchMode.ALL_MATCHES));
+        assertEquals(bits(7), set.match(subject, Pcre2PatternSet.MatchMode.FIRST_MATCH));
+        assertEquals(
+                bits(100),
+                set.matchSubject(new Pcre2Subject(api, "😀k100"), Pcre2PatternSet.MatchMode.FIRST_MATCH)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void prefilterSkipsPatternsWithoutLiteralsInSubject(IPcre2 api) {
+        final var set = new Pcre2PatternSet(
+                api,
+                List.of("ERROR \\d+", "user=(\\w+)", "\\d{8}", "(?i)warn"),
+                null,
+                false
+        );
+
+        assertEquals(List.of("ERROR "), set.requiredLiterals(0));
+        assertEquals(List.of("user="), set.requiredLiterals(1));
+        assertEquals(List.of(), set.requiredLiterals(2));
+        assertEquals(List.of("warn"), set.requiredLiterals(3));
+
+        assertEquals(bits(1, 2), set.candidates(new Pcre2Subject(api, "login user=bob")));
+        assertEquals(bits(1), set.candidates(new Pcre2Subject(api, "user=b")));
+        assertEquals(bits(0, 2, 3), set.candidates(new Pcre2Subject(api, "WARN error 12")));
+        assertEquals(bits(3), set.match("WARN error 12", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+        assertEquals(
+                bits(0, 1, 2, 3),
+                set.match("Warn: ERROR 42 user=x 12345678", Pcre2PatternSet.MatchMode.ALL_MATCHES)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void invalidArguments(IPcre2 api) {
+        assertThrows(Pcre2CompileException.class, () -> new Pcre2PatternSet(api, List.of("ok", "(bad"), null, false));
+        assertThrows(IllegalArgumentException.class, () -> new Pcre2PatternSet(null, List.of(), null, false));
+        assertThrows(IllegalArgumentException.class, () -> new Pcre2PatternSet(api, null, null, false));
+
+        final var set = new Pcre2PatternSet(api, List.of(), null, false);
+        assertEquals(0, set.size());
+        assertEquals(bits(), set.match("anything", Pcre2PatternSet.MatchMode.ALL_MATCHES));
+        assertThrows(IllegalArgumentException.class, () -> set.match(null, Pcre2PatternSet.MatchMode.ALL_MATCHES));
+        assertThrows(IllegalArgumentException.class, () -> set.match("subject", null));
+    }
+}
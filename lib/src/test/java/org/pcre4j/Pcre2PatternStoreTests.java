@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.option.Pcre2CompileOption;
+import org.pcre4j.option.Pcre2MatchOption;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for {@link Pcre2PatternStore}.
+ */
+public class Pcre2PatternStoreTests {
+
+    private static boolean matches(Pcre2Code code, String subject) {
+        final var matchData = new Pcre2MatchData(code);
+        return code.match(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null) > 0;
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void emptyWhenFileDoesNotExist(IPcre2 api, @TempDir Path dir) throws IOException {
+        final var store = Pcre2PatternStore.open(api, dir.resolve("patterns.bin"));
+
+        assertFalse(store.isStale());
+        assertEquals(0, store.storedCount());
+        assertEquals(Pcre2PatternStore.key(api), store.key());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void compileReturnsSameCode(IPcre2 api, @TempDir Path dir) throws IOException {
+        final var store = Pcre2PatternStore.open(api, dir.resolve("patterns.bin"));
+
+        final var code = store.compile("\\d+", EnumSet.of(Pcre2CompileOption.UTF));
+        assertSame(code, store.compile("\\d+", EnumSet.of(Pcre2CompileOption.UTF)));
+        assertNotSame(code, store.compile("\\d+", null));
+        assertEquals(2, store.size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void saveAndReopen(IPcre2 api, @TempDir Path dir) throws IOException {
+        final var file = dir.resolve("patterns.bin");
+        final var store = Pcre2PatternStore.open(api, file);
+        store.compile("(\\w+)@(\\w+)", EnumSet.of(Pcre2CompileOption.UTF));
+        store.compile("ABC", EnumSet.of(Pcre2CompileOption.CASELESS));
+        store.save();
+
+        final var reopened = Pcre2PatternStore.open(api, file);
+        assertFalse(reopened.isStale());
+        assertEquals(2, reopened.storedCount());
+
+        final var email = reopened.compile("(\\w+)@(\\w+)", EnumSet.of(Pcre2CompileOption.UTF));
+        assertEquals(2, email.captureCount());
+        assertTrue(matches(email, "user@host"));
+        final var caseless = reopened.compile("ABC", EnumSet.of(Pcre2CompileOption.CASELESS));
+        assertTrue(matches(caseless, "abc"));
+        assertEquals(2, reopened.size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void saveKeepsStoredPatternsWithoutDecoding(IPcre2 api, @TempDir Path dir) throws IOException {
+        final var file = dir.resolve("patterns.bin");
+        final var store = Pcre2PatternStore.open(api, file);
+        store.compile("first", null);
+        store.save();
+
+        final var reopened = Pcre2PatternStore.open(api, file);
+        reopened.compile("second", null);
+        reopened.save();
+
+        final var merged = Pcre2PatternStore.open(api, file);
+        assertEquals(2, merged.storedCount());
+        assertTrue(matches(merged.compile("first", null), "first"));
+        assertTrue(matches(merged.compile("second", null), "second"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void jitCompiledPatternsAreJitCompiledAgain(IPcre2 api, @TempDir Path dir) throws IOException {
+        assumeTrue(Pcre4jUtils.isJitSupported(api), "JIT is not supported");
+        final var file = dir.resolve("patterns.bin");
+        final var store = Pcre2PatternStore.open(api, file);
+        store.jitCompile("\\d+", null, null);
+        store.save();
+
+        final var code = Pcre2PatternStore.open(api, file).jitCompile("\\d+", null, null);
+        assertTrue(code.jitSize() > 0);
+        assertTrue(matches(code, "42"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void fileWithDifferentKeyIsStale(IPcre2 api, @TempDir Path dir) throws IOException {
+        final var file = dir.resolve("patterns.bin");
+        final var store = Pcre2PatternStore.open(api, file);
+        store.compile("abc", null);
+        store.save();
+
+        // Rewrite the store key as if the file had been written by another PCRE2 version
+        final var bytes = Files.readAllBytes(file);
+        final var key = Pcre2PatternStore.key(api).getBytes(StandardCharsets.UTF_8);
+        final var keyStart = 16;
+        bytes[keyStart] = (byte) (bytes[keyStart] == '0' ? '1' : '0');
+        assertEquals(key.length, bytes[15]);
+        Files.write(file, bytes);
+
+        final var reopened = Pcre2PatternStore.open(api, file);
+        assertTrue(reopened.isStale());
+        assertEquals(0, reopened.storedCount());
+        assertTrue(matches(reopened.compile("abc", null), "abc"));
+
+        reopened.save();
+        assertFalse(Pcre2PatternStore.open(api, file).isStale());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void corruptFileIsStale(IPcre2 api, @TempDir Path dir) throws IOException {
+        final var file = dir.resolve("patterns.bin");
+        Files.write(file, new byte[]{'P', 'C', 'R', 'E'});
+
+        assertTrue(Pcre2PatternStore.open(api, file).isStale());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void nullArgumentsThrow(IPcre2 api, @TempDir Path dir) throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> Pcre2PatternStore.open(null, dir.resolve("patterns.bin")));
+        assertThrows(IllegalArgumentException.class, () -> Pcre2PatternStore.open(api, null));
+
+        final var store = Pcre2PatternStore.open(api, dir.resolve("patterns.bin"));
+        assertThrows(IllegalArgumentException.class, () -> store.compile(null, null));
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.option.Pcre2MatchOption;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link Pcre2Session} and the explicit {@code close()} of the resource wrappers.
+ */
+public class Pcre2SessionTests {
+
+    private static long liveCount() {
+        var count = 0L;
+        for (var resource : Pcre2NativeMemory.Resource.values()) {
+            count += Pcre2NativeMemory.liveCount(resource);
+        }
+        return count;
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void closesOwnedResources(IPcre2 api) {
+        Pcre2NativeMemoryTests.awaitQuiescence();
+        final var count = liveCount();
+        final var total = Pcre2NativeMemory.totalBytes();
+
+        try (var session = new Pcre2Session(api)) {
+            assertSame(api, session.api());
+            final var code = session.compile("(\\d+)", null, null);
+            final var jitCode = session.jitCompile("(\\w+)", null, null, null);
+            final var matchData = session.matchData(code);
+            session.matchData(4);
+            final var matchContext = session.matchContext(null);
+            matchContext.assignJitStack(session.jitStack(32 * 1024, 512 * 1024, null));
+            final var subject = session.subject("abc 123");
+
+            assertEquals(2, code.matchSubject(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null));
+            assertEquals(4, matchData.ovectorStart(0));
+            assertEquals(2, jitCode.match("abc", 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, matchContext));
+            assertEquals(7, session.resourceCount());
+            // The JIT-compiled code is accounted for on its own
+            assertEquals(count + 8, liveCount());
+        }
+
+        assertEquals(count, liveCount());
+        assertEquals(total, Pcre2NativeMemory.totalBytes());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void explicitCloseIsIdempotent(IPcre2 api) {
+        Pcre2NativeMemoryTests.awaitQuiescence();
+        final var count = liveCount();
+
+        final var code = new Pcre2JitCode(api, "a+", null, null, null);
+        final var matchData = new Pcre2MatchData(code);
+        final var subject = new Pcre2Subject(api, "aaa");
+        final var generalContext = new Pcre2GeneralContext(api);
+        final var compileContext = new Pcre2CompileContext(api, generalContext);
+        final var convertContext = new Pcre2ConvertContext(api, generalContext);
+        assertEquals(count + 7, liveCount());
+
+        for (int i = 0; i < 2; i++) {
+            matchData.close();
+            code.close();
+            subject.close();
+            compileContext.close();
+            convertContext.close();
+            generalContext.close();
+            assertEquals(count, liveCount());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void closedResourcesOwnedBySessionAreNotClosedAgain(IPcre2 api) {
+        Pcre2NativeMemoryTests.awaitQuiescence();
+        final var count = liveCount();
+
+        try (var session = new Pcre2Session(api)) {
+            session.compile("a", null, null).close();
+            session.matchData(1).close();
+            assertEquals(count, liveCount());
+        }
+        assertEquals(count, liveCount());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void rejectsUseOnceClosed(IPcre2 api) {
+        final var session = new Pcre2Session(api);
+        session.close();
+        session.close();
+        assertTrue(session.isClosed());
+        assertEquals(0, session.resourceCount());
+
+        assertThrows(IllegalStateException.class, () -> session.compile("a", null, null));
+        assertThrows(IllegalStateException.class, () -> session.matchData(1));
+
+        // A resource handed over to a closed session is closed right away
+        final var closed = new boolean[1];
+        assertThrows(IllegalStateException.class, () -> session.own(() -> closed[0] = true));
+        assertTrue(closed[0]);
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void closesInReverseOrder(IPcre2 api) {
+        final var closed = new ArrayList<Integer>();
+        try (var session = new Pcre2Session(api)) {
+            for (int i = 0; i < 3; i++) {
+                final var index = i;
+                session.own(() -> closed.add(index));
+            }
+            assertFalse(session.isClosed());
+        }
+        assertEquals(List.of(2, 1, 0), closed);
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void closesEveryResourceDespiteFailures(IPcre2 api) {
+        final var closed = new ArrayList<Integer>();
+        final var session = new Pcre2Session(api);
+        session.own(() -> closed.add(0));
+        session.own(() -> {
+            throw new IllegalStateException("first");
+        });
+        session.own(() -> {
+            throw new Exception("second");
+        });
+
+        // The last resource is closed first
+        final var e = assertThrows(IllegalStateException.class, session::close);
+        assertEquals("second", e.getCause().getMessage());
+        assertEquals(1, e.getSuppressed().length);
+        assertEquals("first", e.getSuppressed()[0].getMessage());
+        assertEquals(List.of(0), closed);
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void invalidArguments(IPcre2 api) {
+        assertThrows(IllegalArgumentException.class, () -> new Pcre2Session(null));
+        try (var session = new Pcre2Session(api)) {
+            assertThrows(IllegalArgumentException.class, () -> session.own(null));
+        }
+    }
+}
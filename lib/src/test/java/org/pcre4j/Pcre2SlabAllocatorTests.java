@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.INativeMemoryAccess;
+import org.pcre4j.api.IPcre2;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link Pcre2SlabAllocator}.
+ */
+public class Pcre2SlabAllocatorTests {
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void accountsForExactSizes(IPcre2 api) {
+        final var allocator = new Pcre2SlabAllocator(api);
+        final var sizes = new long[]{1, 32, 33, 1000, Pcre2SlabAllocator.MAX_BLOCK_SIZE, Pcre2SlabAllocator.SLAB_SIZE};
+        final var pointers = new long[sizes.length];
+        var total = 0L;
+        for (int i = 0; i < sizes.length; i++) {
+            pointers[i] = allocator.malloc(sizes[i]);
+            assertTrue(pointers[i] != 0);
+            assertEquals(0, pointers[i] % 16, "blocks are aligned as malloc aligns them");
+            total += sizes[i];
+        }
+        assertEquals(total, allocator.allocatedBytes());
+        assertEquals(sizes.length, allocator.allocationCount());
+        assertTrue(allocator.reservedBytes() >= total);
+
+        for (var pointer : pointers) {
+            allocator.free(pointer);
+        }
+        assertEquals(0, allocator.allocatedBytes());
+        assertEquals(0, allocator.allocationCount());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void blocksAreWritable(IPcre2 api) {
+        final var allocator = new Pcre2SlabAllocator(api);
+        final var memory = (INativeMemoryAccess) api;
+        final var first = allocator.malloc(100);
+        final var second = allocator.malloc(100);
+        memory.byteBufferView(first, 128).put(0, (byte) 1).put(127, (byte) 1);
+        memory.byteBufferView(second, 100).put(0, (byte) 2);
+
+        // Blocks of a size class do not overlap
+        assertEquals(1, memory.readBytes(first, 1)[0]);
+        assertEquals(2, memory.readBytes(second, 1)[0]);
+        assertTrue(Math.abs(second - first) >= 128);
+        allocator.free(first);
+        allocator.free(second);
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void reusesFreedBlocks(IPcre2 api) {
+        final var allocator = new Pcre2SlabAllocator(api);
+        final var pointer = allocator.malloc(200);
+        allocator.free(pointer);
+        assertEquals(pointer, allocator.malloc(256));
+
+        final var reserved = allocator.reservedBytes();
+        for (int i = 0; i < 100; i++) {
+            allocator.free(allocator.malloc(150));
+        }
+        assertEquals(reserved, allocator.reservedBytes());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void carvesMoreSlabsWhenNeeded(IPcre2 api) {
+        final var allocator = new Pcre2SlabAllocator(api);
+        final var count = Pcre2SlabAllocator.SLAB_SIZE / 64 * 3;
+        final var pointers = new HashSet<Long>();
+        for (int i = 0; i < count; i++) {
+            assertTrue(pointers.add(allocator.malloc(64)));
+        }
+        assertEquals(count * 64L, allocator.allocatedBytes());
+        assertEquals(3L * Pcre2SlabAllocator.SLAB_SIZE, allocator.reservedBytes());
+
+        for (var pointer : pointers) {
+            allocator.free(pointer);
+        }
+        assertEquals(0, allocator.allocatedBytes());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void freesLargeBlocksImmediately(IPcre2 api) {
+        final var allocator = new Pcre2SlabAllocator(api);
+        final var pointer = allocator.malloc(Pcre2SlabAllocator.MAX_BLOCK_SIZE + 1);
+        assertEquals(Pcre2SlabAllocator.MAX_BLOCK_SIZE + 1, allocator.reservedBytes());
+        allocator.free(pointer);
+        assertEquals(0, allocator.reservedBytes());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void rejectsInvalidArguments(IPcre2 api) {
+        final var allocator = new Pcre2SlabAllocator(api);
+        assertEquals(0, allocator.malloc(-1));
+        assertThrows(IllegalArgumentException.class, () -> allocator.free(16));
+        assertThrows(IllegalArgumentException.class, () -> new Pcre2SlabAllocator(null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void allocatesFromManyThreads(IPcre2 api) throws InterruptedException {
+        final var allocator = new Pcre2SlabAllocator(api);
+        final var memory = (INativeMemoryAccess) api;
+        final var errors = new AtomicInteger();
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int task = 0; task < 64; task++) {
+                final var marker = (byte) task;
+                executor.submit(() -> {
+                    final var pointers = new ArrayList<Long>();
+                    for (int i = 0; i < 200; i++) {
+                        final var pointer = allocator.malloc(16L << (i % 10));
+                        memory.byteBufferView(pointer, 1).put(0, marker);
+                        pointers.add(pointer);
+                    }
+                    for (var pointer : pointers) {
+                        if (memory.readBytes(pointer, 1)[0] != marker) {
+                            errors.incrementAndGet();
+                        }
+                        allocator.free(pointer);
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+        assertEquals(0, errors.get());
+        assertEquals(0, allocator.allocatedBytes());
+        assertEquals(0, allocator.allocationCount());
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.api.Pcre2UtfWidth;
+import org.pcre4j.option.Pcre2CompileOption;
+import org.pcre4j.test.BackendProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for {@link Pcre2StreamScanner}.
+ */
+public class Pcre2StreamScannerTests {
+
+    private static final int[] CHUNK_SIZES = {4, 5, 7, 16, Pcre2StreamScanner.DEFAULT_CHUNK_SIZE};
+
+    private static List<long[]> scan(Pcre2StreamScanner scanner, byte[] subject) throws IOException {
+        final var matches = new ArrayList<long[]>();
+        scanner.scan(new ByteArrayInputStream(subject), match -> matches.add(match.ovector()));
+        return matches;
+    }
+
+    private static List<long[]> expected(String regex, String subject) {
+        final var matches = new ArrayList<long[]>();
+        final var matcher = Pattern.compile(regex).matcher(subject);
+        while (matcher.find()) {
+            final var ovector = new long[(matcher.groupCount() + 1) * 2];
+            for (int group = 0; group <= matcher.groupCount(); group++) {
+                ovector[group * 2] = matcher.start(group);
+                ovector[group * 2 + 1] = matcher.end(group);
+            }
+            matches.add(ovector);
+        }
+        return matches;
+    }
+
+    private static void assertMatches(List<long[]> expected, List<long[]> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "match " + i);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void findsMatchesSpanningChunks(IPcre2 api) throws IOException {
+        final var subject = "ab 12345 cd 678 9 (x) 0123456789012345678901234567890123456789 end 42";
+        for (var regex : List.of("\\d+", "(\\w)(\\d*)", "\\(x\\)|\\bend\\b", "\\d{3}$", "^ab")) {
+            final var code = new Pcre2Code(api, regex, null, null);
+            for (var chunkSize : CHUNK_SIZES) {
+                assertMatches(
+                        expected(regex, subject),
+                        scan(new Pcre2StreamScanner(code, chunkSize), subject.getBytes(StandardCharsets.US_ASCII))
+                );
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void findsMatchesWithJitCompiledPattern(IPcre2 api) throws IOException {
+        final var subject = "key=value; other=thing; last=one";
+        final var regex = "(\\w+)=(\\w+)";
+        final var code = new Pcre2JitCode(api, regex, null, null, null);
+        for (var chunkSize : CHUNK_SIZES) {
+            assertMatches(
+                    expected(regex, subject),
+                    scan(new Pcre2StreamScanner(code, chunkSize), subject.getBytes(StandardCharsets.US_ASCII))
+            );
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void keepsLookBehindAcrossChunks(IPcre2 api) throws IOException {
+        final var subject = "xxabc1 abc2 abd3 zzzzzabc4";
+        final var regex = "(?<=abc)\\d";
+        final var code = new Pcre2Code(api, regex, null, null);
+        assertEquals(3, code.maxLookBehind());
+        for (var chunkSize : CHUNK_SIZES) {
+            assertMatches(
+                    expected(regex, subject),
+                    scan(new Pcre2StreamScanner(code, chunkSize), subject.getBytes(StandardCharsets.US_ASCII))
+            );
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void findsEmptyMatchesOnce(IPcre2 api) throws IOException {
+        final var subject = "axxbxxxxxxxc";
+        final var regex = "x*";
+        final var code = new Pcre2Code(api, regex, null, null);
+        for (var chunkSize : CHUNK_SIZES) {
+            assertMatches(
+                    expected(regex, subject),
+                    scan(new Pcre2StreamScanner(code, chunkSize), subject.getBytes(StandardCharsets.US_ASCII))
+            );
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void growsBufferForPartialMatchLongerThanChunk(IPcre2 api) throws IOException {
+        final var subject = "a <" + "x".repeat(1000) + "> b <y>";
+        final var code = new Pcre2Code(api, "<[^>]*>", null, null);
+        final var matches = new ArrayList<Pcre2StreamScanner.Match>();
+        new Pcre2StreamScanner(code, 8).scan(
+                new ByteArrayInputStream(subject.getBytes(StandardCharsets.US_ASCII)),
+                matches::add
+        );
+
+        assertEquals(2, matches.size());
+        assertEquals(2, matches.get(0).start());
+        assertEquals(1004, matches.get(0).end());
+        assertEquals("<" + "x".repeat(1000) + ">", new String(matches.get(0).bytes(), StandardCharsets.US_ASCII));
+        assertEquals(1007, matches.get(1).start());
+        assertArrayEquals("<y>".getBytes(StandardCharsets.US_ASCII), matches.get(1).bytes());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void reportsAbsoluteOffsetsBeyondInt(IPcre2 api) throws IOException {
+        final var size = (1L << 31) + 16;
+        final var input = new InputStream() {
+            private long position;
+
+            @Override
+            public int read() {
+                return position < size ? (position++ == size - 3 ? '7' : ' ') : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (position >= size) {
+                    return -1;
+                }
+                final var count = (int) Math.min(len, size - position);
+                Arrays.fill(b, off, off + count, (byte) ' ');
+                if (position <= size - 3 && size - 3 < position + count) {
+                    b[off + (int) (size - 3 - position)] = '7';
+                }
+                position += count;
+                return count;
+            }
+        };
+
+        final var matches = new ArrayList<Pcre2StreamScanner.Match>();
+        final var code = new Pcre2JitCode(api, "\\d", null, null, null);
+        assertEquals(1, new Pcre2StreamScanner(code, 1024 * 1024).scan(input, matches::add));
+        assertEquals(size - 3, matches.get(0).start());
+        assertEquals(size - 2, matches.get(0).end());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void neverSplitsUtf8Characters(IPcre2 api) throws IOException {
+        final var subject = "a€€b€ é𝄞x€";
+        final var bytes = subject.getBytes(StandardCharsets.UTF_8);
+        final var code = new Pcre2Code(api, "€+|\\X", EnumSet.of(Pcre2CompileOption.UTF), null);
+
+        final var expected = new ArrayList<String>();
+        final var matcher = Pattern.compile("€+|\\X").matcher(subject);
+        while (matcher.find()) {
+            expected.add(matcher.group());
+        }
+        for (var chunkSize : CHUNK_SIZES) {
+            final var actual = new ArrayList<String>();
+            final var offsets = new ArrayList<Long>();
+            new Pcre2StreamScanner(code, chunkSize).scan(new ByteArrayInputStream(bytes), match -> {
+                actual.add(new String(match.bytes(), StandardCharsets.UTF_8));
+                offsets.add(match.start());
+                return true;
+            });
+            assertEquals(expected, actual);
+            // The second match starts after "a", the third after "a€€"
+            assertEquals(1L, offsets.get(1));
+            assertEquals(7L, offsets.get(2));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void keepsUtf8LookBehindAcrossChunks(IPcre2 api) throws IOException {
+        final var subject = "€€1 x€2 €€3";
+        final var regex = "(?<=€€)\\d";
+        final var code = new Pcre2Code(api, regex, EnumSet.of(Pcre2CompileOption.UTF), null);
+        for (var chunkSize : CHUNK_SIZES) {
+            final var actual = scan(new Pcre2StreamScanner(code, chunkSize), subject.getBytes(StandardCharsets.UTF_8));
+            assertEquals(2, actual.size());
+            assertEquals(6, actual.get(0)[0]);
+            assertEquals(20, actual.get(1)[0]);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void scansChannels(IPcre2 api) throws IOException {
+        final var subject = "one 1 two 22 three 333";
+        final var regex = "[a-z]+ (\\d+)";
+        final var code = new Pcre2Code(api, regex, null, null);
+        for (var chunkSize : CHUNK_SIZES) {
+            final var matches = new ArrayList<long[]>();
+            final var channel = Channels.newChannel(
+                    new ByteArrayInputStream(subject.getBytes(StandardCharsets.US_ASCII))
+            );
+            new Pcre2StreamScanner(code, chunkSize).scan(channel, match -> matches.add(match.ovector()));
+            assertMatches(expected(regex, subject), matches);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void stopsWhenHandlerDeclines(IPcre2 api) throws IOException {
+        final var code = new Pcre2Code(api, "\\d", null, null);
+        final var scanner = new Pcre2StreamScanner(code, 4);
+        final var matches = new ArrayList<Long>();
+        final var count = scanner.scan(
+                new ByteArrayInputStream("1 2 3 4 5".getBytes(StandardCharsets.US_ASCII)),
+                match -> {
+                    matches.add(match.start());
+                    return matches.size() < 2;
+                }
+        );
+        assertEquals(2, count);
+        assertEquals(List.of(0L, 2L), matches);
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void scansUtf16Streams(IPcre2 api) throws IOException {
+        final var utf16 = BackendProvider.withWidth(api, Pcre2UtfWidth.UTF16);
+        assumeTrue(utf16 != null, "UTF-16 library not available");
+
+        final var subject = "a€𝄞 42 b𝄞c 7";
+        final var buffer = ByteBuffer.allocate(subject.length() * 2).order(ByteOrder.nativeOrder());
+        buffer.asCharBuffer().put(subject);
+        final var code = new Pcre2Code(utf16, "\\d+|𝄞\\w", EnumSet.of(Pcre2CompileOption.UTF), null);
+        for (var chunkSize : new int[]{4, 6, 16}) {
+            final var matches = scan(new Pcre2StreamScanner(code, chunkSize), buffer.array());
+            assertEquals(3, matches.size());
+            assertArrayEquals(new long[]{10, 14}, matches.get(0));
+            assertArrayEquals(new long[]{18, 24}, matches.get(1));
+            assertArrayEquals(new long[]{26, 28}, matches.get(2));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void invalidArguments(IPcre2 api) throws IOException {
+        final var code = new Pcre2Code(api, "a", null, null);
+        assertThrows(IllegalArgumentException.class, () -> new Pcre2StreamScanner(null));
+        assertThrows(IllegalArgumentException.class, () -> new Pcre2StreamScanner(code, 3));
+
+        final var scanner = new Pcre2StreamScanner(code);
+        assertEquals(code, scanner.code());
+        assertEquals(Pcre2StreamScanner.DEFAULT_CHUNK_SIZE, scanner.chunkSize());
+        assertThrows(IllegalArgumentException.class, () -> scanner.scan((InputStream) null, match -> true));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> scanner.scan(new ByteArrayInputStream(new byte[0]), null)
+        );
+
+        final var pipe = Pipe.open();
+        try {
+            pipe.source().configureBlocking(false);
+            assertThrows(IllegalArgumentException.class, () -> scanner.scan(pipe.source(), match -> true));
+        } finally {
+            pipe.source().close();
+            pipe.sink().close();
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2024-2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.api.Pcre2UtfWidth;
+import org.pcre4j.option.Pcre2CompileOption;
+import org.pcre4j.option.Pcre2JitOption;
+import org.pcre4j.option.Pcre2MatchOption;
+import org.pcre4j.option.Pcre2SubstituteOption;
+import org.pcre4j.test.BackendProvider;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for {@link Pcre2Subject} and the pre-encoded subject overloads of {@link Pcre2Code}.
+ */
+public class Pcre2SubjectTests {
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void createAsciiSubject(IPcre2 api) {
+        var subject = new Pcre2Subject(api, "hello");
+        assertEquals(api, subject.api());
+        assertTrue(subject.handle() != 0);
+        assertEquals(5, subject.length());
+        assertEquals("hello", subject.subject());
+        assertEquals(3, subject.toOffset(3));
+        assertEquals(3, subject.toIndex(3));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void createUnicodeSubject(IPcre2 api) {
+        var subject = new Pcre2Subject(api, "aé🌐b");
+        assertEquals(8, subject.length());
+        assertEquals(0, subject.toOffset(0));
+        assertEquals(1, subject.toOffset(1));
+        assertEquals(3, subject.toOffset(2));
+        assertEquals(7, subject.toOffset(4));
+        assertEquals(8, subject.toOffset(5));
+        assertEquals(2, subject.toIndex(3));
+        assertEquals(4, subject.toIndex(7));
+        assertEquals(5, subject.toIndex(8));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void createNullSubjectThrows(IPcre2 api) {
+        assertThrows(IllegalArgumentException.class, () -> new Pcre2Subject(api, null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void toOffsetOutOfBoundsThrows(IPcre2 api) {
+        var subject = new Pcre2Subject(api, "abc");
+        assertThrows(IllegalArgumentException.class, () -> subject.toOffset(-1));
+        assertThrows(IllegalArgumentException.class, () -> subject.toOffset(4));
+        assertThrows(IllegalArgumentException.class, () -> subject.toIndex(4));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchRepeatedlyAgainstSameSubject(IPcre2 api) {
+        var code = new Pcre2Code(api, "\\d+");
+        var subject = new Pcre2Subject(api, "a1 ü22 🌐333");
+        var matchData = new Pcre2MatchData(code);
+
+        var found = new StringBuilder();
+        var start = 0;
+        while (code.matchSubject(subject, start, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null) > 0) {
+            var indices = subject.toStringIndices(matchData.ovector());
+            found.append(subject.subject(), indices[0], indices[1]).append(',');
+            start = indices[1];
+        }
+
+        assertEquals("1,22,333,", found.toString());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void jitMatchAgainstSubject(IPcre2 api) {
+        var code = new Pcre2JitCode(
+                api,
+                "(w)orld",
+                EnumSet.of(Pcre2CompileOption.UTF),
+                EnumSet.of(Pcre2JitOption.COMPLETE),
+                null
+        );
+        var subject = new Pcre2Subject(api, "héllo world");
+        var matchData = new Pcre2MatchData(code);
+
+        var result = code.matchSubject(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null);
+
+        assertEquals(2, result);
+        assertArrayEquals(new int[]{6, 11, 6, 7}, subject.toStringIndices(matchData.ovector()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchGroupsOfSubject(IPcre2 api) {
+        var code = new Pcre2Code(api, "(?<word>w\\S+)(!)?", EnumSet.of(Pcre2CompileOption.UTF), null);
+        var subject = new Pcre2Subject(api, "héllo wörld");
+        var matchData = new Pcre2MatchData(code);
+        code.matchSubject(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null);
+
+        assertArrayEquals(
+                new int[]{6, 11, 6, 11, -1, -1},
+                Pcre4jUtils.convertSubjectOvectorToStringIndices(subject, matchData.ovector())
+        );
+        var groups = Pcre4jUtils.getSubjectMatchGroups(subject, new long[]{7, 13, 7, 13});
+        assertArrayEquals(new String[]{"wörld", "wörld"}, groups);
+        assertEquals(
+                "wörld",
+                Pcre4jUtils.getSubjectNamedMatchGroups(code, subject, new long[]{7, 13, 7, 13}).get("word")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchUnsetGroupIsMinusOne(IPcre2 api) {
+        var code = new Pcre2Code(api, "a(x)?");
+        var subject = new Pcre2Subject(api, "ab");
+        var matchData = new Pcre2MatchData(code);
+
+        code.matchSubject(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null);
+
+        assertArrayEquals(new int[]{0, 1, -1, -1}, subject.toStringIndices(matchData.ovector()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchStartOffsetPastEndThrows(IPcre2 api) {
+        var code = new Pcre2Code(api, "a");
+        var subject = new Pcre2Subject(api, "a");
+        var matchData = new Pcre2MatchData(code);
+        assertThrows(IllegalArgumentException.class, () ->
+                code.matchSubject(subject, 2, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void substituteAgainstSubject(IPcre2 api) {
+        var code = new Pcre2Code(api, "ö", EnumSet.of(Pcre2CompileOption.UTF), null);
+        var subject = new Pcre2Subject(api, "wörld wörld");
+
+        assertEquals("woerld woerld", code.substituteSubject(
+                subject,
+                0,
+                EnumSet.of(Pcre2SubstituteOption.GLOBAL),
+                null,
+                null,
+                "oe"
+        ));
+        assertEquals("wörld woerld", code.substituteSubject(subject, 2, null, null, null, "oe"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void dfaMatchAgainstSubject(IPcre2 api) {
+        var code = new Pcre2Code(api, "\\x{1F310}+", EnumSet.of(Pcre2CompileOption.UTF), null);
+        var subject = new Pcre2Subject(api, "hello 🌐🌐 world");
+
+        var result = code.dfaMatchSubject(subject, 0, null, null, 100);
+
+        assertNotNull(result);
+        assertEquals("hello ".length(), result.start());
+        assertEquals("hello 🌐🌐".length(), result.longestEnd());
+        assertEquals("🌐🌐", result.longestMatch());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void validatedAfterFirstMatch(IPcre2 api) {
+        var code = new Pcre2Code(api, "\\d+", EnumSet.of(Pcre2CompileOption.UTF), null);
+        var subject = new Pcre2Subject(api, "a🌐12 é34");
+        var matchData = new Pcre2MatchData(code);
+        assertFalse(subject.isValidated());
+
+        assertEquals(1, code.matchSubject(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null));
+        assertTrue(subject.isValidated());
+
+        assertEquals(1, code.matchSubject(subject, 5, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null));
+        assertArrayEquals(new int[]{7, 9}, subject.toStringIndices(matchData.ovector()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void notValidatedByMatchStartingLater(IPcre2 api) {
+        var code = new Pcre2Code(api, "\\d+", EnumSet.of(Pcre2CompileOption.UTF), null);
+        var subject = new Pcre2Subject(api, "é12 é34");
+        var matchData = new Pcre2MatchData(code);
+
+        // PCRE2 only checks the subject from the start offset on, so the prefix remains unchecked
+        assertEquals(1, code.matchSubject(subject, 4, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null));
+        assertFalse(subject.isValidated());
+        assertEquals(1, code.matchSubject(subject, 0, 7, 4, 0, matchData, null));
+        assertFalse(subject.isValidated());
+        assertEquals(1, code.matchSubject(subject, 0, 7, 2, 0, matchData, null));
+        assertFalse(subject.isValidated());
+
+        // A match passing NO_UTF_CHECK itself checks nothing either
+        assertEquals(1, code.matchSubject(subject, 0, EnumSet.of(Pcre2MatchOption.NO_UTF_CHECK), matchData, null));
+        assertFalse(subject.isValidated());
+
+        assertEquals(1, code.matchSubject(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null));
+        assertTrue(subject.isValidated());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void invalidPrefixIsCheckedAfterMatchStartingLater(IPcre2 api) {
+        var utf16 = BackendProvider.withWidth(api, Pcre2UtfWidth.UTF16);
+        assumeTrue(utf16 != null, "UTF-16 library not available");
+
+        // The unpaired surrogate reaches the 16-bit library unchanged
+        var code = new Pcre2Code(utf16, "\\d+", EnumSet.of(Pcre2CompileOption.UTF), null);
+        var subject = new Pcre2Subject(utf16, "\uD800a12");
+        var matchData = new Pcre2MatchData(code);
+
+        assertEquals(1, code.matchSubject(subject, 2, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null));
+        assertFalse(subject.isValidated());
+
+        var result = code.matchSubject(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null);
+        assertTrue(result <= IPcre2.ERROR_UTF16_ERR1 && result >= IPcre2.ERROR_UTF16_ERR3, "result " + result);
+        assertFalse(subject.isValidated());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void validatedSubjectStillRejectsStartWithinSurrogatePair(IPcre2 api) {
+        var code = new Pcre2Code(api, "\\d+", EnumSet.of(Pcre2CompileOption.UTF), null);
+        var subject = new Pcre2Subject(api, "a🌐12");
+        var matchData = new Pcre2MatchData(code);
+        code.matchSubject(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null);
+        assertTrue(subject.isValidated());
+
+        assertEquals(
+                IPcre2.ERROR_BADUTFOFFSET,
+                code.matchSubject(subject, 2, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void jitMatchDoesNotValidate(IPcre2 api) {
+        var code = new Pcre2JitCode(
+                api,
+                "b",
+                EnumSet.of(Pcre2CompileOption.UTF),
+                EnumSet.of(Pcre2JitOption.COMPLETE),
+                null
+        );
+        var subject = new Pcre2Subject(api, "abc");
+        var matchData = new Pcre2MatchData(code);
+
+        assertEquals(1, code.matchSubject(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null));
+        assertFalse(subject.isValidated());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchRangeOfSubject(IPcre2 api) {
+        var code = new Pcre2Code(api, "^\\w+$", EnumSet.of(Pcre2CompileOption.UTF), null);
+        var subject = new Pcre2Subject(api, "é,abc,🌐");
+        var matchData = new Pcre2MatchData(code);
+
+        assertEquals(1, code.matchSubject(subject, 2, 5, 0, 0, matchData, null));
+        var indices = new int[2];
+        subject.offsetMap().toStringIndices(matchData.ovector(), indices, 2);
+        assertArrayEquals(new int[]{2, 5}, indices);
+
+        assertEquals(IPcre2.ERROR_NOMATCH, code.matchSubject(subject, 1, 5, 0, 0, matchData, null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchRangeOfSubjectWithJit(IPcre2 api) {
+        var code = new Pcre2JitCode(
+                api,
+                "b+",
+                EnumSet.of(Pcre2CompileOption.UTF),
+                EnumSet.of(Pcre2JitOption.COMPLETE),
+                null
+        );
+        var subject = new Pcre2Subject(api, "bbébbb");
+        var matchData = new Pcre2MatchData(code);
+
+        assertEquals(1, code.matchSubject(subject, 3, 5, 0, 0, matchData, null));
+        assertArrayEquals(new long[]{0, 2}, matchData.ovector());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchRangeSplittingSurrogatePairThrows(IPcre2 api) {
+        var code = new Pcre2Code(api, "a");
+        var subject = new Pcre2Subject(api, "a🌐a");
+        var matchData = new Pcre2MatchData(code);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> code.matchSubject(subject, 2, 4, 0, 0, matchData, null)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> code.matchSubject(subject, 0, 2, 0, 0, matchData, null)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> code.matchSubject(subject, 3, 4, 2, 0, matchData, null)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchRangeDoesNotValidateWholeSubject(IPcre2 api) {
+        var code = new Pcre2Code(api, "b", EnumSet.of(Pcre2CompileOption.UTF), null);
+        var subject = new Pcre2Subject(api, "abc");
+        var matchData = new Pcre2MatchData(code);
+
+        assertEquals(1, code.matchSubject(subject, 1, 2, 0, 0, matchData, null));
+        assertFalse(subject.isValidated());
+
+        assertEquals(1, code.matchSubject(subject, 0, 3, 0, 0, matchData, null));
+        assertTrue(subject.isValidated());
+    }
+}
@@ -21,6 +21,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.pcre4j.api.IPcre2;
 import org.pcre4j.api.Pcre2CalloutEnumerateHandler;
 import org.pcre4j.api.Pcre2CalloutHandler;
+import org.pcre4j.api.Pcre2MemoryAllocator;
 
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
@@ -289,6 +290,11 @@ public class Pcre4jTests {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public long generalContextCreate(Pcre2MemoryAllocator allocator) {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public long generalContextCopy(long gcontext) {
             throw new UnsupportedOperationException();
@@ -384,6 +390,45 @@ public class Pcre4jTests {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public int jitMatch(
+                long code,
+                long subject,
+                long length,
+                long startoffset,
+                int options,
+                long matchData,
+                long mcontext
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int jitMatchEncoded(
+                long code,
+                ByteBuffer subject,
+                long startoffset,
+                int options,
+                long matchData,
+                long mcontext
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int jitMatchEncoded(
+                long code,
+                byte[] subject,
+                int offset,
+                int length,
+                long startoffset,
+                int options,
+                long matchData,
+                long mcontext
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public long jitStackCreate(long startsize, long maxsize, long gcontext) {
             throw new UnsupportedOperationException();
@@ -479,6 +524,75 @@ public class Pcre4jTests {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public int match(
+                long code,
+                long subject,
+                long length,
+                long startoffset,
+                int options,
+                long matchData,
+                long mcontext
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int matchEncoded(
+                long code,
+                ByteBuffer subject,
+                long startoffset,
+                int options,
+                long matchData,
+                long mcontext
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int matchEncoded(
+                long code,
+                byte[] subject,
+                int offset,
+                int length,
+                long startoffset,
+                int options,
+                long matchData,
+                long mcontext
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int matchAll(
+                long code,
+                long subject,
+                long length,
+                long startoffset,
+                int options,
+                int flags,
+                long matchData,
+                long mcontext,
+                long[] ovectors
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long subjectCreate(String subject, long[] length) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void subjectFree(long subject) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int codeUnitSize() {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public int dfaMatch(
                 long code,
@@ -493,6 +607,51 @@ public class Pcre4jTests {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public int dfaMatch(
+                long code,
+                long subject,
+                long length,
+                long startoffset,
+                int options,
+                long matchData,
+                long mcontext,
+                int[] workspace,
+                int wscount
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int dfaMatchEncoded(
+                long code,
+                ByteBuffer subject,
+                long startoffset,
+                int options,
+                long matchData,
+                long mcontext,
+                int[] workspace,
+                int wscount
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int dfaMatchEncoded(
+                long code,
+                byte[] subject,
+                int offset,
+                int length,
+                long startoffset,
+                int options,
+                long matchData,
+                long mcontext,
+                int[] workspace,
+                int wscount
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public int getOvectorCount(long matchData) {
             throw new UnsupportedOperationException();
@@ -508,6 +667,11 @@ public class Pcre4jTests {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public long getOvectorPointer(long matchData) {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public long getStartchar(long matchData) {
             throw new UnsupportedOperationException();
@@ -593,6 +757,54 @@ public class Pcre4jTests {
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public int substitute(
+                long code,
+                long subject,
+                long length,
+                long startoffset,
+                int options,
+                long matchData,
+                long mcontext,
+                String replacement,
+                ByteBuffer outputbuffer,
+                long[] outputlength
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int substituteEncoded(
+                long code,
+                ByteBuffer subject,
+                long startoffset,
+                int options,
+                long matchData,
+                long mcontext,
+                String replacement,
+                ByteBuffer outputbuffer,
+                long[] outputlength
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int substituteEncoded(
+                long code,
+                byte[] subject,
+                int offset,
+                int length,
+                long startoffset,
+                int options,
+                long matchData,
+                long mcontext,
+                String replacement,
+                ByteBuffer outputbuffer,
+                long[] outputlength
+        ) {
+            throw new UnsupportedOperationException();
+        }
+
         @Override
         public int substringGetByNumber(long matchData, int number, long[] bufferptr, long[] bufflen) {
             throw new UnsupportedOperationException();
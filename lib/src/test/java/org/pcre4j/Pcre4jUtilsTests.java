@@ -43,6 +43,28 @@ public class Pcre4jUtilsTests {
         );
     }
 
+    @Test
+    void convertOvectorToStringIndicesWithOffsetMap() {
+        final var offsetMap = Pcre2OffsetMap.of("aé世😀b");
+
+        assertArrayEquals(
+                new int[]{1, 5, -1, -1},
+                Pcre4jUtils.convertMappedOvectorToStringIndices(offsetMap, new long[]{1, 10, -1, -1})
+        );
+        assertArrayEquals(
+                Pcre4jUtils.convertOvectorToStringIndices("aé世😀b", new long[]{3, 11}),
+                Pcre4jUtils.convertMappedOvectorToStringIndices(offsetMap, new long[]{3, 11})
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Pcre4jUtils.convertMappedOvectorToStringIndices(null, new long[]{0, 0})
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Pcre4jUtils.convertMappedOvectorToStringIndices(offsetMap, new long[]{0})
+        );
+    }
+
     @Test
     void convertCharacterIndexToByteOffsetEmptyString() {
         // Empty string with index 0 should return 0
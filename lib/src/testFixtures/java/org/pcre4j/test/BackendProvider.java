@@ -16,6 +16,7 @@ package org.pcre4j.test;
 
 import org.junit.jupiter.params.provider.Arguments;
 import org.pcre4j.api.IPcre2;
+import org.pcre4j.api.Pcre2UtfWidth;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
@@ -67,6 +68,26 @@ public final class BackendProvider {
         }
     }
 
+    /**
+     * Reflectively instantiates a backend of the same implementation as the given one for another UTF width.
+     *
+     * <p>The PCRE2 library of the requested width is optional, so this returns {@code null} rather than failing when
+     * it cannot be loaded; tests are expected to skip in that case.</p>
+     *
+     * @param api   the backend whose implementation to instantiate
+     * @param width the UTF width
+     * @return the backend instance, or {@code null} if the library of that width is not available
+     */
+    public static IPcre2 withWidth(IPcre2 api, Pcre2UtfWidth width) {
+        final IPcre2 backend;
+        try {
+            backend = (IPcre2) api.getClass().getConstructor(Pcre2UtfWidth.class).newInstance(width);
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            return null;
+        }
+        return backend.codeUnitSize() == width.codeUnitSize() ? backend : null;
+    }
+
     /**
      * Provides backend instances as JUnit 5 parameterized test arguments.
      *
@@ -27,6 +27,7 @@ import org.pcre4j.api.Pcre2CalloutEnumerateBlock;
 import java.util.ArrayList;
 import java.util.EnumSet;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -502,4 +503,46 @@ public interface Pcre2CalloutContractTest<T extends IPcre2> {
         assertEquals(5, numbers.get(1));
         assertEquals(10, numbers.get(2));
     }
+
+    @Test
+    default void calloutMayMatchReentrantly() {
+        final var code = new Pcre2Code(
+                getApi(),
+                "(x+)(?C1)(y+)",
+                EnumSet.noneOf(Pcre2CompileOption.class),
+                null
+        );
+        final var matchData = new Pcre2MatchData(code);
+        final var matchContext = new Pcre2MatchContext(getApi(), null);
+
+        // The nested matches run on the same thread while the outer one is in progress, with subjects large enough
+        // to need more native scratch memory than the outer one
+        final var inner = new Pcre2Code(getApi(), "z$", EnumSet.noneOf(Pcre2CompileOption.class), null);
+        final var innerMatchData = new Pcre2MatchData(inner);
+        final var innerSubject = "a".repeat(100_000) + "z";
+        final var innerResults = new ArrayList<Integer>();
+        matchContext.setCallout(block -> {
+            innerResults.add(inner.match(
+                    innerSubject,
+                    0,
+                    EnumSet.noneOf(Pcre2MatchOption.class),
+                    innerMatchData,
+                    null
+            ));
+            return 0;
+        });
+
+        final var result = code.match(
+                "--xxyyy--",
+                0,
+                EnumSet.noneOf(Pcre2MatchOption.class),
+                matchData,
+                matchContext
+        );
+
+        assertEquals(3, result);
+        assertArrayEquals(new long[]{2, 7, 2, 4, 4, 7}, matchData.ovector());
+        assertFalse(innerResults.isEmpty(), "Callout handler should have been invoked");
+        innerResults.forEach(innerResult -> assertEquals(1, innerResult));
+    }
 }
@@ -17,14 +17,20 @@ package org.pcre4j.test;
 import org.junit.jupiter.api.Test;
 import org.pcre4j.Pcre2Code;
 import org.pcre4j.Pcre2MatchData;
+import org.pcre4j.api.INativeMemoryAccess;
 import org.pcre4j.api.IPcre2;
 import org.pcre4j.option.Pcre2CompileOption;
 import org.pcre4j.option.Pcre2MatchOption;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.EnumSet;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Contract tests for basic PCRE2 pattern matching operations.
@@ -236,4 +242,201 @@ public interface Pcre2MatchingContractTest<T extends IPcre2> {
         assertEquals(1, nameTable.length);
         assertEquals(new Pcre2Code.NameTableEntry(1, "number"), nameTable[0]);
     }
+
+    @Test
+    default void embeddedNulSubjectMatch() {
+        final var code = new Pcre2Code(
+                getApi(),
+                "b\\x00(c)$",
+                EnumSet.noneOf(Pcre2CompileOption.class),
+                null
+        );
+        final var matchData = new Pcre2MatchData(code);
+
+        final var result = code.match(
+                "a\0b\0c",
+                0,
+                EnumSet.noneOf(Pcre2MatchOption.class),
+                matchData,
+                null
+        );
+        assertEquals(2, result);
+        assertArrayEquals(new long[]{2, 5, 4, 5}, matchData.ovector());
+    }
+
+    @Test
+    default void ovectorPointerMatch() {
+        final var api = getApi();
+        final var code = new Pcre2Code(
+                api,
+                "(b)(c)",
+                EnumSet.noneOf(Pcre2CompileOption.class),
+                null
+        );
+        final var matchData = new Pcre2MatchData(code);
+        final var pointer = api.getOvectorPointer(matchData.handle());
+        final var view = ((INativeMemoryAccess) api).byteBufferView(pointer, 3 * 2 * Long.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asLongBuffer();
+
+        // The output vector stays in place and every match overwrites it
+        for (var subject : new String[]{"abc", "--bc"}) {
+            code.match(subject, 0, EnumSet.noneOf(Pcre2MatchOption.class), matchData, null);
+            assertEquals(pointer, api.getOvectorPointer(matchData.handle()));
+
+            final var ovector = new long[6];
+            view.get(0, ovector);
+            assertArrayEquals(matchData.ovector(), ovector);
+        }
+        assertEquals(2, view.get(0));
+        assertEquals(4, view.get(1));
+    }
+
+    @Test
+    default void subjectHandleMatch() {
+        final var api = getApi();
+        final var code = new Pcre2Code(
+                api,
+                "(🌐)",
+                EnumSet.of(Pcre2CompileOption.UTF),
+                null
+        );
+        final var matchData = new Pcre2MatchData(code);
+
+        final var length = new long[1];
+        final var subject = api.subjectCreate("a🌐b🌐", length);
+        try {
+            assertEquals(10, length[0]);
+
+            var result = api.match(code.handle(), subject, length[0], 0, 0, matchData.handle(), 0);
+            assertEquals(2, result);
+            assertArrayEquals(new long[]{1, 5, 1, 5}, matchData.ovector());
+
+            result = api.match(code.handle(), subject, length[0], 5, 0, matchData.handle(), 0);
+            assertEquals(2, result);
+            assertArrayEquals(new long[]{6, 10, 6, 10}, matchData.ovector());
+        } finally {
+            api.subjectFree(subject);
+        }
+    }
+
+    @Test
+    default void subjectHandleEmptySubject() {
+        final var api = getApi();
+        final var code = new Pcre2Code(
+                api,
+                "^$",
+                EnumSet.noneOf(Pcre2CompileOption.class),
+                null
+        );
+        final var matchData = new Pcre2MatchData(code);
+
+        final var length = new long[1];
+        final var subject = api.subjectCreate("", length);
+        try {
+            assertEquals(0, length[0]);
+            assertEquals(1, api.match(code.handle(), subject, length[0], 0, 0, matchData.handle(), 0));
+        } finally {
+            api.subjectFree(subject);
+        }
+    }
+
+    @Test
+    default void encodedBufferMatch() {
+        final var api = getApi();
+        final var code = new Pcre2Code(
+                api,
+                "(🌐)$",
+                EnumSet.of(Pcre2CompileOption.UTF),
+                null
+        );
+        final var matchData = new Pcre2MatchData(code);
+
+        // "a🌐b🌐" between two bytes on either side, in a direct buffer, a heap buffer at an offset and a heap buffer
+        // slice, which is copied, and in a heap buffer of its own, which is passed as is
+        final var bytes = "xxa🌐b🌐yy".getBytes(StandardCharsets.UTF_8);
+        final var buffers = new ByteBuffer[]{
+                ByteBuffer.allocateDirect(bytes.length).put(bytes).position(2),
+                ByteBuffer.wrap(bytes).position(2),
+                ByteBuffer.wrap(bytes).slice(2, 10),
+                ByteBuffer.wrap(Arrays.copyOfRange(bytes, 2, 12))
+        };
+        for (var subject : buffers) {
+            final var position = subject.position();
+
+            subject.limit(position + 6);
+            assertEquals(IPcre2.ERROR_NOMATCH, api.matchEncoded(code.handle(), subject, 0, 0, matchData.handle(), 0));
+
+            subject.limit(position + 10);
+            assertEquals(2, api.matchEncoded(code.handle(), subject, 0, 0, matchData.handle(), 0));
+            assertArrayEquals(new long[]{6, 10, 6, 10}, matchData.ovector());
+            assertEquals(position, subject.position());
+        }
+    }
+
+    @Test
+    default void encodedArrayMatch() {
+        final var api = getApi();
+        final var code = new Pcre2Code(
+                api,
+                "^(🌐)|b$",
+                EnumSet.of(Pcre2CompileOption.UTF),
+                null
+        );
+        final var matchData = new Pcre2MatchData(code);
+
+        final var bytes = "a🌐bc".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(2, api.matchEncoded(code.handle(), bytes, 1, 4, 0, 0, matchData.handle(), 0));
+        assertArrayEquals(new long[]{0, 4, 0, 4}, matchData.ovector());
+        assertEquals(1, api.matchEncoded(code.handle(), bytes, 1, 5, 4, 0, matchData.handle(), 0));
+        assertArrayEquals(new long[]{4, 5, -1, -1}, matchData.ovector());
+        assertEquals(IPcre2.ERROR_NOMATCH, api.matchEncoded(code.handle(), bytes, 0, 7, 0, 0, matchData.handle(), 0));
+        assertEquals(IPcre2.ERROR_NOMATCH, api.matchEncoded(code.handle(), bytes, 7, 0, 0, 0, matchData.handle(), 0));
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> api.matchEncoded(code.handle(), bytes, 2, 6, 0, 0, matchData.handle(), 0)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> api.matchEncoded(code.handle(), bytes, -1, 1, 0, 0, matchData.handle(), 0)
+        );
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> api.matchEncoded(code.handle(), null, 0, 0, 0, 0, matchData.handle(), 0)
+        );
+    }
+
+    @Test
+    default void encodedSubjectDfaMatchAndSubstitute() {
+        final var api = getApi();
+        final var code = new Pcre2Code(
+                api,
+                "🌐+",
+                EnumSet.of(Pcre2CompileOption.UTF, Pcre2CompileOption.NO_AUTO_POSSESS),
+                null
+        );
+        final var matchData = new Pcre2MatchData(api, 2);
+
+        final var bytes = "a🌐🌐b".getBytes(StandardCharsets.UTF_8);
+        final var direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().position(1);
+
+        final var workspace = new int[100];
+        assertEquals(2, api.dfaMatchEncoded(code.handle(), direct, 0, 0, matchData.handle(), 0, workspace, 100));
+        assertArrayEquals(new long[]{0, 8, 0, 4}, matchData.ovector());
+        assertEquals(2, api.dfaMatchEncoded(code.handle(), bytes, 1, 9, 0, 0, matchData.handle(), 0, workspace, 100));
+        assertArrayEquals(new long[]{0, 8, 0, 4}, matchData.ovector());
+
+        final var output = ByteBuffer.allocateDirect(64);
+        final var outputLength = new long[]{64};
+        assertEquals(1, api.substituteEncoded(code.handle(), direct, 0, 0, 0, 0, "-", output, outputLength));
+        assertEquals("-b", StandardCharsets.UTF_8.decode(output.limit((int) outputLength[0])).toString());
+
+        output.clear();
+        outputLength[0] = 64;
+        assertEquals(1, api.substituteEncoded(code.handle(), bytes, 0, 5, 0, 0, 0, 0, "-", output, outputLength));
+        assertEquals("a-", StandardCharsets.UTF_8.decode(output.limit((int) outputLength[0])).toString());
+    }
+
 }
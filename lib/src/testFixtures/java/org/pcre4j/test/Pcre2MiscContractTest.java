@@ -15,10 +15,15 @@
 package org.pcre4j.test;
 
 import org.junit.jupiter.api.Test;
+import org.pcre4j.api.INativeMemoryAccess;
 import org.pcre4j.api.IPcre2;
+import org.pcre4j.api.Pcre2MemoryAllocator;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -567,6 +572,88 @@ public interface Pcre2MiscContractTest<T extends IPcre2> {
         api.generalContextFree(gcontext);
     }
 
+    @Test
+    default void testGeneralContextWithAllocator() {
+        var api = getApi();
+        final var memory = (INativeMemoryAccess) api;
+
+        // An allocator tracking the blocks it hands out
+        final var blocks = ConcurrentHashMap.<Long>newKeySet();
+        final var mallocs = new AtomicInteger();
+        final var unknownFrees = new AtomicInteger();
+        final var allocator = new Pcre2MemoryAllocator() {
+            @Override
+            public long malloc(long size) {
+                final var pointer = memory.allocate(size);
+                if (pointer != 0) {
+                    blocks.add(pointer);
+                    mallocs.incrementAndGet();
+                }
+                return pointer;
+            }
+
+            @Override
+            public void free(long pointer) {
+                if (!blocks.remove(pointer)) {
+                    unknownFrees.incrementAndGet();
+                }
+                memory.free(pointer);
+            }
+        };
+
+        final var gcontext = api.generalContextCreate(allocator);
+        assertTrue(gcontext != 0, "General context creation should succeed");
+        assertEquals(1, blocks.size(), "The general context itself should be allocated through the allocator");
+
+        // Contexts, patterns and match data derived from the general context allocate through the allocator too
+        final var gcontextCopy = api.generalContextCopy(gcontext);
+        final var ccontext = api.compileContextCreate(gcontextCopy);
+        final var code = api.compile("(a|b)+c", 0, new int[1], new long[1], ccontext);
+        assertTrue(code != 0, "Pattern compilation should succeed");
+        final var matchData = api.matchDataCreateFromPattern(code, 0);
+        final var mallocsBeforeMatch = mallocs.get();
+        assertEquals(2, api.match(code, "ab".repeat(1000) + "c", 0, 0, matchData, 0));
+        assertTrue(mallocs.get() > mallocsBeforeMatch, "Match heap frames should be allocated through the allocator");
+
+        api.matchDataFree(matchData);
+        api.codeFree(code);
+        api.compileContextFree(ccontext);
+        api.generalContextFree(gcontextCopy);
+        api.generalContextFree(gcontext);
+        assertEquals(Set.of(), blocks, "All blocks should be freed");
+        assertEquals(0, unknownFrees.get());
+    }
+
+    @Test
+    default void testGeneralContextWithFailingAllocator() {
+        var api = getApi();
+
+        final var failing = new Pcre2MemoryAllocator() {
+            @Override
+            public long malloc(long size) {
+                return 0;
+            }
+
+            @Override
+            public void free(long pointer) {
+            }
+        };
+        assertEquals(0, api.generalContextCreate(failing));
+
+        // An exception cannot propagate through native code, so it fails the allocation
+        final var throwing = new Pcre2MemoryAllocator() {
+            @Override
+            public long malloc(long size) {
+                throw new IllegalStateException("out of memory");
+            }
+
+            @Override
+            public void free(long pointer) {
+            }
+        };
+        assertEquals(0, api.generalContextCreate(throwing));
+    }
+
     @Test
     default void testCompileContextCopy() {
         var api = getApi();
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2024-2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+
+/*
+ * The PCRE4J helper library: loops over PCRE2 calls that run in native code, so that a backend makes a single
+ * downcall instead of one per iteration.
+ *
+ * The helper does not link against PCRE2. The backend passes the address of the PCRE2 function to call, so the same
+ * helper works with whichever PCRE2 library, function suffix and code unit width the backend has loaded.
+ *
+ * Build it as a shared library named after Pcre2NativeLoader.HELPER_LIBRARY_NAME, e.g.
+ *
+ *     cc -O2 -shared -fPIC -o libpcre4j-helper.so pcre4j_helper.c
+ */
+#include <stddef.h>
+#include <stdint.h>
+
+#if defined(_WIN32)
+#define PCRE4J_EXPORT __declspec(dllexport)
+#else
+#define PCRE4J_EXPORT __attribute__((visibility("default")))
+#endif
+
+/* The PCRE2 constants used here, as defined in pcre2.h */
+#define PCRE2_ANCHORED 0x80000000u
+#define PCRE2_NO_UTF_CHECK 0x40000000u
+#define PCRE2_NOTEMPTY_ATSTART 0x00000008u
+#define PCRE2_ERROR_NOMATCH (-1)
+
+/* The flags of pcre4j_match_all, as defined by IPcre2.MATCH_ALL_* and Pcre2GlobalMatch.HELPER_* */
+#define PCRE4J_MATCH_ALL_RETRY_EMPTY 0x00000001u
+#define PCRE4J_MATCH_ALL_AFTER_EMPTY 0x00000002u
+#define PCRE4J_HELPER_UTF 0x00000100u
+#define PCRE4J_HELPER_CRLF 0x00000200u
+
+/* The signature shared by pcre2_match and pcre2_jit_match of any code unit width */
+typedef int (*pcre4j_match_function)(
+        const void *code,
+        const void *subject,
+        size_t length,
+        size_t start_offset,
+        uint32_t options,
+        void *match_data,
+        void *match_context
+);
+
+static uint32_t code_unit_at(const void *subject, size_t offset, uint32_t code_unit_size) {
+    switch (code_unit_size) {
+        case 1:
+            return ((const uint8_t *) subject)[offset];
+        case 2:
+            return ((const uint16_t *) subject)[offset];
+        default:
+            return ((const uint32_t *) subject)[offset];
+    }
+}
+
+static int is_continuation(uint32_t code_unit, uint32_t code_unit_size) {
+    switch (code_unit_size) {
+        case 1:
+            return (code_unit & 0xC0u) == 0x80u;
+        case 2:
+            return (code_unit & 0xFC00u) == 0xDC00u;
+        default:
+            return 0;
+    }
+}
+
+/* Advance the given offset, which is less than the length of the subject, by one character */
+static size_t advance(const void *subject, size_t length, size_t offset, uint32_t flags, uint32_t code_unit_size) {
+    if ((flags & PCRE4J_HELPER_CRLF) != 0 && offset + 1 < length
+            && code_unit_at(subject, offset, code_unit_size) == '\r'
+            && code_unit_at(subject, offset + 1, code_unit_size) == '\n') {
+        return offset + 2;
+    }
+
+    size_t next = offset + 1;
+    if ((flags & PCRE4J_HELPER_UTF) != 0) {
+        while (next < length && is_continuation(code_unit_at(subject, next, code_unit_size), code_unit_size)) {
+            next++;
+        }
+    }
+    return next;
+}
+
+/*
+ * Find all successive matches of a compiled pattern in a subject, storing the output vector of each match into the
+ * given buffer in turn. This is the native counterpart of Pcre2GlobalMatch.matchAll; see IPcre2.matchAll for the
+ * semantics.
+ *
+ * match          pcre2_match or pcre2_jit_match of the code unit width of the subject
+ * ovector        the output vector of the match data, as returned by pcre2_get_ovector_pointer
+ * pairs          the number of offset pairs of the output vector, as returned by pcre2_get_ovector_count
+ * out            the buffer to store the output vectors of the matches in
+ * capacity       the number of matches the buffer holds
+ *
+ * Returns the number of matches stored, or a negative PCRE2 error code if a match attempt failed.
+ */
+PCRE4J_EXPORT int pcre4j_match_all(
+        pcre4j_match_function match,
+        const void *code,
+        const void *subject,
+        size_t length,
+        size_t start_offset,
+        uint32_t options,
+        uint32_t flags,
+        uint32_t code_unit_size,
+        void *match_data,
+        void *match_context,
+        const size_t *ovector,
+        uint32_t pairs,
+        size_t *out,
+        size_t capacity
+) {
+    const int retry_empty = (flags & PCRE4J_MATCH_ALL_RETRY_EMPTY) != 0;
+    const size_t entries = (size_t) pairs * 2;
+
+    int count = 0;
+    size_t offset = start_offset;
+    int after_empty = (flags & PCRE4J_MATCH_ALL_AFTER_EMPTY) != 0;
+    uint32_t utf_checked = 0;
+    while ((size_t) count < capacity) {
+        uint32_t attempt_options = options | utf_checked;
+        if (after_empty) {
+            if (offset >= length) {
+                break;
+            }
+            if (retry_empty) {
+                attempt_options |= PCRE2_NOTEMPTY_ATSTART | PCRE2_ANCHORED;
+            } else {
+                offset = advance(subject, length, offset, flags & ~PCRE4J_HELPER_CRLF, code_unit_size);
+            }
+        }
+
+        const int rc = match(code, subject, length, offset, attempt_options, match_data, match_context);
+        if (rc == PCRE2_ERROR_NOMATCH) {
+            if (after_empty && retry_empty) {
+                offset = advance(subject, length, offset, flags, code_unit_size);
+                after_empty = 0;
+                utf_checked = PCRE2_NO_UTF_CHECK;
+                continue;
+            }
+            break;
+        }
+        if (rc < 0) {
+            return rc;
+        }
+
+        size_t *target = out + (size_t) count * entries;
+        for (size_t i = 0; i < entries; i++) {
+            target[i] = ovector[i];
+        }
+        count++;
+
+        utf_checked = PCRE2_NO_UTF_CHECK;
+        const size_t start = ovector[0];
+        const size_t end = ovector[1];
+        if (start <= end && (end > offset || (end == start && end == offset))) {
+            offset = end;
+            after_empty = start == end;
+            continue;
+        }
+
+        /*
+         * \K in a lookaround set the start of the match after its end, or ended a non-empty match at or before the
+         * offset the attempt started at; the search resumes one character after both, so that it makes progress
+         */
+        const size_t resume_after = end > offset ? end : offset;
+        if (resume_after >= length) {
+            break;
+        }
+        offset = advance(subject, length, resume_after, flags, code_unit_size);
+        after_empty = 0;
+    }
+    return count;
+}
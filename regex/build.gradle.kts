@@ -78,6 +78,27 @@ tasks.register<Test>("stressTest") {
     timeout = Duration.ofMinutes(10)
 }
 
+// Runs the regular test suite with literal patterns matched through PCRE2 instead of the pure-Java literal search,
+// so that both paths are covered by the same tests
+tasks.register<Test>("pcre2LiteralTest") {
+    description = "Runs tests with the pure-Java literal search disabled"
+    group = "verification"
+
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+
+    useJUnitPlatform {
+        excludeTags("stress")
+    }
+    jvmArgs("--enable-preview")
+
+    systemProperty("pcre2.regex.literal", "false")
+}
+
+tasks.named("check") {
+    dependsOn("pcre2LiteralTest")
+}
+
 tasks.named<JavaCompile>("compileTestJava") {
     options.compilerArgs.add("--enable-preview")
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2024-2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.regex;
+
+/**
+ * A pure-Java search for a pattern that matches a single literal string, used by {@link Matcher} instead of PCRE2.
+ * <p>
+ * A pattern qualifies if it is compiled with {@link Pattern#LITERAL}, or if it contains no metacharacters and is not
+ * compiled with {@link Pattern#COMMENTS}. Such a pattern has no capturing groups, anchors, lookaround or word
+ * boundaries, so region bounds do not affect it beyond confining the match to the region. Empty patterns, patterns
+ * with unpaired surrogates and {@link Pattern#CANON_EQ} patterns do not qualify.
+ * <p>
+ * Case-sensitive literals are searched for with {@link String#indexOf(String, int, int)}, which the JIT compiles to a
+ * vectorized intrinsic. A {@link Pattern#CASE_INSENSITIVE} literal qualifies only if it is ASCII; it then matches the
+ * way PCRE2 matches it in UTF mode, where {@code k} also matches the Kelvin sign and {@code s} the long s.
+ */
+/* package-private */ final class LiteralSearch {
+
+    /**
+     * The characters that have a special meaning in a pattern outside a character class
+     */
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    /**
+     * KELVIN SIGN, which PCRE2 folds to {@code k}
+     */
+    private static final char KELVIN_SIGN = '\u212A';
+
+    /**
+     * LATIN SMALL LETTER LONG S, which PCRE2 folds to {@code s}
+     */
+    private static final char LONG_S = '\u017F';
+
+    /**
+     * The literal, folded to lower case if the search is caseless
+     */
+    private final String literal;
+
+    /**
+     * Whether the search is caseless
+     */
+    private final boolean caseless;
+
+    private LiteralSearch(String literal, boolean caseless) {
+        this.literal = caseless ? fold(literal) : literal;
+        this.caseless = caseless;
+    }
+
+    /**
+     * Get the literal search for the given pattern, if the pattern matches a single literal string.
+     *
+     * @param regex the regular expression
+     * @param flags the flags of the pattern
+     * @return the literal search, or {@code null} if the pattern does not qualify
+     */
+    /* package-private */ static LiteralSearch of(String regex, int flags) {
+        if (regex.isEmpty() || (flags & Pattern.CANON_EQ) != 0) {
+            return null;
+        }
+        final var literal = (flags & Pattern.LITERAL) != 0;
+        if (!literal && (flags & Pattern.COMMENTS) != 0) {
+            return null;
+        }
+        final var caseless = (flags & Pattern.CASE_INSENSITIVE) != 0;
+
+        for (int i = 0; i < regex.length(); i++) {
+            final var c = regex.charAt(i);
+            if (!literal && METACHARACTERS.indexOf(c) != -1) {
+                return null;
+            }
+            if (caseless && c >= 0x80) {
+                return null;
+            }
+            if (Character.isHighSurrogate(c)) {
+                if (i + 1 == regex.length() || !Character.isLowSurrogate(regex.charAt(i + 1))) {
+                    return null;
+                }
+                i++;
+            } else if (Character.isLowSurrogate(c)) {
+                return null;
+            }
+        }
+
+        return new LiteralSearch(regex, caseless);
+    }
+
+    /**
+     * Get the length of the literal, which is the length of every match.
+     *
+     * @return the length of the literal
+     */
+    /* package-private */ int length() {
+        return literal.length();
+    }
+
+    /**
+     * Find the first match that starts at or after the given index and ends at or before the given end index.
+     *
+     * @param input     the input
+     * @param fromIndex the index to start searching from
+     * @param toIndex   the index that matches must end at or before
+     * @return the start index of the match, or {@code -1} if there is none
+     */
+    /* package-private */ int indexOf(String input, int fromIndex, int toIndex) {
+        final var last = toIndex - literal.length();
+        if (fromIndex > last) {
+            return -1;
+        }
+        if (!caseless) {
+            return input.indexOf(literal, fromIndex, toIndex);
+        }
+
+        final var first = literal.charAt(0);
+        for (int i = fromIndex; i <= last; i++) {
+            if (fold(input.charAt(i)) == first && regionMatches(input, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Check whether a match starts at the given index and ends at or before the given end index.
+     *
+     * @param input   the input
+     * @param index   the start index of the match
+     * @param toIndex the index that the match must end at or before
+     * @return {@code true} if a match starts at the index, otherwise {@code false}
+     */
+    /* package-private */ boolean matchesAt(String input, int index, int toIndex) {
+        if (index + literal.length() > toIndex) {
+            return false;
+        }
+        return caseless ? regionMatches(input, index) : input.startsWith(literal, index);
+    }
+
+    /**
+     * Check whether the caseless literal occurs in the input at the given index, which must leave room for it.
+     *
+     * @param input the input
+     * @param index the index
+     * @return {@code true} if the literal occurs at the index, otherwise {@code false}
+     */
+    private boolean regionMatches(String input, int index) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (fold(input.charAt(index + i)) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fold the given ASCII string to lower case.
+     *
+     * @param s the string
+     * @return the folded string
+     */
+    private static String fold(String s) {
+        final var chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Fold the given character the way PCRE2 does for comparison with an ASCII character: ASCII letters fold to lower
+     * case, the Kelvin sign to {@code k} and the long s to {@code s}. Every other non-ASCII character is returned as
+     * is and hence never equals a folded ASCII character.
+     *
+     * @param c the character
+     * @return the folded character
+     */
+    private static char fold(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return (char) (c + ('a' - 'A'));
+        }
+        if (c == KELVIN_SIGN) {
+            return 'k';
+        }
+        if (c == LONG_S) {
+            return 's';
+        }
+        return c;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.regex;
+
+import org.pcre4j.Pcre2JitStack;
+import org.pcre4j.Pcre2MatchContext;
+import org.pcre4j.Pcre2MatchData;
+import org.pcre4j.api.IPcre2;
+
+/**
+ * The native resources a {@link Matcher} needs to run matches: a match context configured with the match limits, a
+ * JIT stack assigned to it when the pattern is JIT-compiled, and a match data block sized for the capturing groups
+ * of the pattern.
+ * <p>
+ * None of these depend on the pattern itself, only on the {@link Key}, so a scratch is checked out of the
+ * {@link MatchScratchPool} by a matcher and handed over to the next matcher with the same key once it is returned.
+ * A scratch is used by one matcher at a time.
+ */
+/* package-private */ final class MatchScratch {
+
+    private static final long JIT_STACK_START_SIZE = 32 * 1024;
+    private static final long JIT_STACK_MAX_SIZE = 512 * 1024;
+
+    /**
+     * The key this scratch was created for
+     */
+    /* package-private */ final Key key;
+
+    /**
+     * The match context, with the JIT stack assigned and the match limits set
+     */
+    /* package-private */ final Pcre2MatchContext matchContext;
+
+    /**
+     * The JIT stack, or {@code null} if the pattern is not JIT-compiled
+     */
+    /* package-private */ final Pcre2JitStack jitStack;
+
+    /**
+     * The match data shared by every code variant of the pattern, which all have the same capturing groups
+     */
+    /* package-private */ final Pcre2MatchData matchData;
+
+    private MatchScratch(Key key) {
+        this.key = key;
+        this.matchContext = new Pcre2MatchContext(key.api(), null);
+        if (key.jit()) {
+            this.jitStack = new Pcre2JitStack(key.api(), JIT_STACK_START_SIZE, JIT_STACK_MAX_SIZE, null);
+            this.matchContext.assignJitStack(jitStack);
+        } else {
+            this.jitStack = null;
+        }
+        if (key.matchLimit() > 0) {
+            matchContext.setMatchLimit(key.matchLimit());
+        }
+        if (key.depthLimit() > 0) {
+            matchContext.setDepthLimit(key.depthLimit());
+        }
+        if (key.heapLimit() > 0) {
+            matchContext.setHeapLimit(key.heapLimit());
+        }
+        this.matchData = new Pcre2MatchData(key.api(), key.ovectorSize());
+    }
+
+    /**
+     * Create a new match scratch for the given key.
+     *
+     * @param key the key
+     * @return the new match scratch
+     */
+    /* package-private */ static MatchScratch create(Key key) {
+        return new MatchScratch(key);
+    }
+
+    /**
+     * Identifies match scratches that are interchangeable.
+     *
+     * @param api         the PCRE2 API the native resources belong to
+     * @param jit         whether a JIT stack is needed
+     * @param matchLimit  the match limit, or {@code 0} for the library default
+     * @param depthLimit  the depth limit, or {@code 0} for the library default
+     * @param heapLimit   the heap limit, or {@code 0} for the library default
+     * @param ovectorSize the number of offset pairs of the match data
+     */
+    /* package-private */ record Key(
+            IPcre2 api,
+            boolean jit,
+            int matchLimit,
+            int depthLimit,
+            int heapLimit,
+            int ovectorSize
+    ) {
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.regex;
+
+import org.pcre4j.Pcre4jCleaner;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of the native resources that {@link Matcher}s need to run matches: match contexts, JIT stacks and
+ * match data blocks.
+ * <p>
+ * Creating a matcher used to allocate a match context and, for JIT-compiled patterns, a JIT stack of up to 512 KiB,
+ * all of which were only freed once the matcher had been garbage collected. Instead, a matcher now checks a scratch
+ * out of this pool when it is created, keeps it across resets, and returns it when it is garbage collected, so that
+ * short-lived matchers reuse the native resources of their predecessors. Scratches are pooled per PCRE2 API backend,
+ * JIT usage, match limits and number of capturing groups.
+ * <p>
+ * The pool is lock-free, so checking out and returning never blocks or pins a virtual thread. At most
+ * {@link #CAPACITY_PROPERTY} idle scratches (default {@value #DEFAULT_CAPACITY}) are kept; returning a scratch to a
+ * full pool drops another idle one to make room, so that the pool follows the keys that are in use.
+ */
+public final class MatchScratchPool {
+
+    /**
+     * System property name for configuring the maximum number of idle match scratches kept by the pool.
+     * <p>
+     * A value of {@code 0} disables pooling: every matcher then creates its own native resources.
+     */
+    public static final String CAPACITY_PROPERTY = "pcre2.regex.scratch.pool.capacity";
+
+    /**
+     * The default maximum number of idle match scratches kept by the pool
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final int CAPACITY = capacity();
+
+    private static final ConcurrentHashMap<MatchScratch.Key, Queue<MatchScratch>> IDLE = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger IDLE_COUNT = new AtomicInteger();
+
+    private static final LongAdder HITS = new LongAdder();
+
+    private static final LongAdder MISSES = new LongAdder();
+
+    private MatchScratchPool() {
+    }
+
+    /**
+     * Get the number of checkouts that were served with an idle scratch from the pool.
+     *
+     * @return the number of pool hits
+     */
+    public static long hitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * Get the number of checkouts that had to create a new scratch because no idle one was available.
+     *
+     * @return the number of pool misses
+     */
+    public static long missCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Get the number of idle scratches currently held by the pool.
+     *
+     * @return the number of idle scratches
+     */
+    public static int idleCount() {
+        return IDLE_COUNT.get();
+    }
+
+    /**
+     * Get the maximum number of idle scratches held by the pool.
+     *
+     * @return the capacity of the pool
+     */
+    public static int capacity() {
+        final var capacity = System.getProperty(CAPACITY_PROPERTY);
+        if (capacity == null) {
+            return DEFAULT_CAPACITY;
+        }
+        try {
+            final var result = Integer.parseInt(capacity);
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through
+        }
+        throw new IllegalArgumentException(
+                "System property " + CAPACITY_PROPERTY + " must be a non-negative integer, got: " + capacity
+        );
+    }
+
+    /**
+     * Check a scratch out of the pool, creating a new one if none with the given key is idle.
+     *
+     * @param key the key of the scratch
+     * @return the scratch, owned by the caller until it is returned
+     */
+    /* package-private */ static MatchScratch checkout(MatchScratch.Key key) {
+        final var idle = IDLE.get(key);
+        if (idle != null) {
+            final var scratch = idle.poll();
+            if (scratch != null) {
+                IDLE_COUNT.decrementAndGet();
+                HITS.increment();
+                return scratch;
+            }
+        }
+        MISSES.increment();
+        return MatchScratch.create(key);
+    }
+
+    /**
+     * Return a scratch to the pool. If the pool is full, another idle scratch is dropped to make room; if there is
+     * none, the scratch itself is dropped. The native resources of a dropped scratch are released by the cleaner.
+     *
+     * @param scratch the scratch, which the caller must no longer use
+     */
+    /* package-private */ static void giveBack(MatchScratch scratch) {
+        if (IDLE_COUNT.incrementAndGet() > CAPACITY) {
+            IDLE_COUNT.decrementAndGet();
+            if (!evictIdle()) {
+                return;
+            }
+        }
+        IDLE.computeIfAbsent(scratch.key, key -> new ConcurrentLinkedQueue<>()).offer(scratch);
+    }
+
+    /**
+     * Drop one idle scratch from the pool, keeping the idle count in place for the scratch taking its slot.
+     *
+     * @return {@code true} if a scratch was dropped, otherwise {@code false}
+     */
+    private static boolean evictIdle() {
+        for (var idle : IDLE.values()) {
+            if (idle.poll() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Create a lease that holds the scratches checked out by the given matcher and returns the held one to the pool
+     * once the matcher is garbage collected.
+     *
+     * @param matcher the matcher
+     * @return the lease
+     */
+    /* package-private */ static Lease lease(Matcher matcher) {
+        final var lease = new Lease();
+        Pcre4jCleaner.INSTANCE.register(matcher, lease);
+        return lease;
+    }
+
+    /**
+     * Holds the scratch checked out by a matcher, if any.
+     * <p>
+     * The lease must not refer to its matcher, so that the matcher can become unreachable and the lease can then
+     * return the scratch on behalf of it.
+     */
+    /* package-private */ static final class Lease implements Runnable {
+
+        /**
+         * The scratch checked out by the matcher, or {@code null}
+         */
+        private volatile MatchScratch scratch;
+
+        /**
+         * Get the scratch with the given key, checking it out of the pool if none is held.
+         *
+         * @param key the key of the scratch
+         * @return the scratch
+         */
+        /* package-private */ MatchScratch scratch(MatchScratch.Key key) {
+            var scratch = this.scratch;
+            if (scratch == null) {
+                scratch = checkout(key);
+                this.scratch = scratch;
+            }
+            return scratch;
+        }
+
+        /**
+         * Return the held scratch to the pool, if any.
+         */
+        /* package-private */ void release() {
+            final var scratch = this.scratch;
+            if (scratch != null) {
+                this.scratch = null;
+                giveBack(scratch);
+            }
+        }
+
+        @Override
+        public void run() {
+            release();
+        }
+    }
+}
@@ -16,19 +16,17 @@ package org.pcre4j.regex;
 
 import org.pcre4j.Pcre2Code;
 import org.pcre4j.Pcre2CompileContext;
-import org.pcre4j.Pcre2JitStack;
 import org.pcre4j.Pcre2MatchContext;
 import org.pcre4j.Pcre2MatchData;
+import org.pcre4j.Pcre2Subject;
 import org.pcre4j.Pcre4jUtils;
 import org.pcre4j.api.IPcre2;
 import org.pcre4j.exception.Pcre2CompileException;
 import org.pcre4j.option.Pcre2CompileOption;
-import org.pcre4j.option.Pcre2MatchOption;
 import org.pcre4j.option.Pcre2Newline;
 import org.pcre4j.option.Pcre2SubstituteOption;
 
 import java.lang.ref.Reference;
-import java.nio.charset.StandardCharsets;
 import java.text.Normalizer;
 import java.util.Arrays;
 import java.util.EnumSet;
@@ -43,19 +41,19 @@ import java.util.stream.Stream;
  *
  * <h2>Resource Lifecycle</h2>
  *
- * <p>Each {@code Matcher} instance holds native PCRE2 resources (a match context and, when JIT
- * compilation is active, a JIT stack). Like {@link java.util.regex.Matcher}, this class does
- * <strong>not</strong> implement {@link AutoCloseable}. The native resources are automatically
- * released by a {@link java.lang.ref.Cleaner} when the {@code Matcher} becomes unreachable.</p>
+ * <p>Each {@code Matcher} instance holds native PCRE2 resources (a match context, a match data block
+ * and, when JIT compilation is active, a JIT stack), which it checks out of the {@link MatchScratchPool}.
+ * Like {@link java.util.regex.Matcher}, this class does <strong>not</strong> implement {@link AutoCloseable}.
+ * The native resources are kept across {@link #reset()}, {@link #region(int, int)} and the replace
+ * methods, and are returned to the pool by the shared {@link org.pcre4j.Pcre4jCleaner} when the
+ * {@code Matcher} becomes unreachable, or when {@link #usePattern(Pattern)} switches to a pattern that
+ * needs different resources.</p>
  *
  * <p>A {@code Matcher} is created via {@link Pattern#matcher(CharSequence)} and is not safe for
  * use by multiple concurrent threads.</p>
  */
 public class Matcher implements java.util.regex.MatchResult {
 
-    private final static long JIT_STACK_START_SIZE = 32 * 1024;
-    private final static long JIT_STACK_MAX_SIZE = 512 * 1024;
-
     /**
      * System property name for configuring the match limit.
      * <p>
@@ -94,20 +92,26 @@ public class Matcher implements java.util.regex.MatchResult {
      */
     public static final String HEAP_LIMIT_PROPERTY = "pcre2.regex.heap.limit";
 
+    /**
+     * The number of matches that {@link #find()} fetches ahead at once, see {@link #prefetchMatches()}
+     */
+    private static final int PREFETCH_BATCH_SIZE = 64;
+
     /**
      * The pattern that this matcher used to match the input against
      */
     private Pattern pattern;
 
     /**
-     * The match context that this matcher uses to match against the pattern
+     * The key of the match scratch that this matcher uses to match against the pattern
      */
-    private Pcre2MatchContext matchContext;
+    private MatchScratch.Key scratchKey;
 
     /**
-     * The JIT stack that this matcher uses to match against the pattern
+     * The lease of the match scratch (match context, JIT stack and match data) that this matcher uses to match
+     * against the pattern
      */
-    private Pcre2JitStack jitStack;
+    private final MatchScratchPool.Lease scratchLease;
 
     /**
      * A map of group names to group indices
@@ -120,9 +124,37 @@ public class Matcher implements java.util.regex.MatchResult {
     private String input;
 
     /**
-     * The input character sequence encoded in UTF-8
+     * The input encoded once into native memory, on first use; every match against the input or a region of it runs
+     * on this buffer. Matchers of a literal pattern never encode their input.
+     */
+    private Pcre2Subject inputSubject;
+
+    /**
+     * The reusable buffer that the ovector of the last match is read into
+     */
+    private long[] ovectorBuffer;
+
+    /**
+     * The reusable buffer that ovector offsets are converted into; {@link #lastMatchIndices} refers to it whenever a
+     * match is present
+     */
+    private int[] matchIndicesBuffer;
+
+    /**
+     * The reusable buffer that keeps the match indices in the normalized input while they are converted to the
+     * original input in CANON_EQ mode
+     */
+    private int[] normalizedMatchIndicesBuffer;
+
+    /**
+     * The reusable description of the subject passed to PCRE2 by the main match of an operation
      */
-    private byte[] inputBytes;
+    private final RegionSubject regionSubject = new RegionSubject();
+
+    /**
+     * The reusable description of the subject passed to PCRE2 by a secondary match that enforces the region bounds
+     */
+    private final RegionSubject boundsSubject = new RegionSubject();
 
     /**
      * The start index of the region (inclusive) that this matcher uses to match against the pattern
@@ -134,11 +166,6 @@ public class Matcher implements java.util.regex.MatchResult {
      */
     private int regionEnd;
 
-    /**
-     * The current match data
-     */
-    private Pcre2MatchData lastMatchData;
-
     /**
      * The current match string index pairs
      */
@@ -189,6 +216,11 @@ public class Matcher implements java.util.regex.MatchResult {
      */
     private String normalizedInput = null;
 
+    /**
+     * For CANON_EQ mode: normalizedInput encoded once into native memory. Null when CANON_EQ is not enabled.
+     */
+    private Pcre2Subject normalizedInputSubject = null;
+
     /**
      * For CANON_EQ mode: maps each index in normalizedInput to the corresponding index in the original input.
      * normalizedToOriginalIndex[nfdIndex] gives the original string index that the NFD character at nfdIndex
@@ -205,20 +237,38 @@ public class Matcher implements java.util.regex.MatchResult {
      */
     private int[] originalToNormalizedIndex = null;
 
+    /**
+     * Whether {@link #find()} fetches matches ahead in batches, see {@link #prefetchMatches()}
+     */
+    private boolean prefetch;
+
+    /**
+     * The output vectors of the matches fetched ahead, or {@code null} if none were fetched yet
+     */
+    private long[] prefetchedOvectors;
+
+    /**
+     * The number of matches fetched ahead
+     */
+    private int prefetchedCount;
+
+    /**
+     * The index of the next match fetched ahead to be returned by {@link #find()}
+     */
+    private int prefetchedNext;
+
+    /**
+     * The index that {@link #find()} searches from for which the next match fetched ahead is the result
+     */
+    private int prefetchedStart = -1;
+
     /* package-private */ Matcher(Pattern pattern, CharSequence input) {
         this.pattern = pattern;
-        this.matchContext = new Pcre2MatchContext(pattern.code.api(), null);
-        if (pattern.code.jitSize() > 0) {
-            this.jitStack = new Pcre2JitStack(pattern.code.api(), JIT_STACK_START_SIZE, JIT_STACK_MAX_SIZE, null);
-            this.matchContext.assignJitStack(jitStack);
-        } else {
-            this.jitStack = null;
-        }
-        configureMatchLimits(this.matchContext, pattern);
+        this.scratchKey = scratchKey(pattern);
+        this.scratchLease = MatchScratchPool.lease(this);
         this.groupNameToIndex = pattern.namedGroups();
 
         this.input = input.toString();
-        this.inputBytes = this.input.getBytes(StandardCharsets.UTF_8);
 
         // Initialize CANON_EQ support if the flag is set
         if ((pattern.flags() & Pattern.CANON_EQ) != 0) {
@@ -226,46 +276,46 @@ public class Matcher implements java.util.regex.MatchResult {
         }
 
         reset();
+        if (pattern.literalSearch() == null) {
+            this.scratchLease.scratch(scratchKey);
+        }
     }
 
     /**
-     * Configures match limits on the given match context.
+     * Resolves the key of the match scratch for the given pattern, including its match limits.
      * <p>
      * Per-pattern limits (configured via {@link Pattern.Builder}) take precedence over
      * system property defaults ({@link #MATCH_LIMIT_PROPERTY}, {@link #DEPTH_LIMIT_PROPERTY},
      * {@link #HEAP_LIMIT_PROPERTY}). If a per-pattern limit is not set (value is 0),
      * the system property value is used as a fallback.
      *
-     * @param matchContext the match context to configure
-     * @param pattern      the pattern whose limits to apply
-     */
-    private static void configureMatchLimits(Pcre2MatchContext matchContext, Pattern pattern) {
-        if (pattern.matchLimit() > 0) {
-            matchContext.setMatchLimit(pattern.matchLimit());
-        } else {
-            final var matchLimit = System.getProperty(MATCH_LIMIT_PROPERTY);
-            if (matchLimit != null) {
-                matchContext.setMatchLimit(parsePositiveInt(MATCH_LIMIT_PROPERTY, matchLimit));
-            }
-        }
-
-        if (pattern.depthLimit() > 0) {
-            matchContext.setDepthLimit(pattern.depthLimit());
-        } else {
-            final var depthLimit = System.getProperty(DEPTH_LIMIT_PROPERTY);
-            if (depthLimit != null) {
-                matchContext.setDepthLimit(parsePositiveInt(DEPTH_LIMIT_PROPERTY, depthLimit));
-            }
-        }
+     * @param pattern the pattern whose limits to apply
+     * @return the match scratch key
+     */
+    private static MatchScratch.Key scratchKey(Pattern pattern) {
+        return new MatchScratch.Key(
+                pattern.code.api(),
+                pattern.isJitEnabled(),
+                resolveLimit(pattern.matchLimit(), MATCH_LIMIT_PROPERTY),
+                resolveLimit(pattern.depthLimit(), DEPTH_LIMIT_PROPERTY),
+                resolveLimit(pattern.heapLimit(), HEAP_LIMIT_PROPERTY),
+                pattern.code.captureCount() + 1
+        );
+    }
 
-        if (pattern.heapLimit() > 0) {
-            matchContext.setHeapLimit(pattern.heapLimit());
-        } else {
-            final var heapLimit = System.getProperty(HEAP_LIMIT_PROPERTY);
-            if (heapLimit != null) {
-                matchContext.setHeapLimit(parsePositiveInt(HEAP_LIMIT_PROPERTY, heapLimit));
-            }
+    /**
+     * Resolves a limit from the per-pattern value and the system property fallback.
+     *
+     * @param patternLimit the per-pattern limit, or 0 if not set
+     * @param propertyName the name of the system property to fall back to
+     * @return the limit, or 0 to use the PCRE2 library's compiled-in default
+     */
+    private static int resolveLimit(int patternLimit, String propertyName) {
+        if (patternLimit > 0) {
+            return patternLimit;
         }
+        final var value = System.getProperty(propertyName);
+        return value != null ? parsePositiveInt(propertyName, value) : 0;
     }
 
     /**
@@ -319,6 +369,7 @@ public class Matcher implements java.util.regex.MatchResult {
     private void initializeCanonEqSupport() {
         // Normalize input to NFD form
         this.normalizedInput = Normalizer.normalize(input, Normalizer.Form.NFD);
+        this.normalizedInputSubject = new Pcre2Subject(pattern.code.api(), normalizedInput);
 
         // Build index mappings between original and normalized strings
         // We iterate through both strings simultaneously, tracking how characters map
@@ -550,11 +601,16 @@ public class Matcher implements java.util.regex.MatchResult {
         }
 
         if (start > regionEnd) {
-            lastMatchData = null;
             lastMatchIndices = null;
             return false;
         }
 
+        if (prefetch && isPrefetchable()) {
+            if (!inputSubject().isWithinSurrogatePair(start)) {
+                return searchPrefetched(start);
+            }
+            discardPrefetchedMatches();
+        }
         return search(start);
     }
 
@@ -664,7 +720,7 @@ public class Matcher implements java.util.regex.MatchResult {
      */
     @Override
     public boolean hasMatch() {
-        return lastMatchData != null;
+        return lastMatchIndices != null;
     }
 
     /**
@@ -700,33 +756,40 @@ public class Matcher implements java.util.regex.MatchResult {
      * @return {@code true} if the input sequence region starts with the pattern, otherwise {@code false}
      */
     public boolean lookingAt() {
-        final EnumSet<Pcre2MatchOption> matchOptions;
+        final var literalSearch = literalSearch();
+        if (literalSearch != null) {
+            // With transparent bounds, the full input is passed to PCRE2 and the match is not confined to the region
+            final var limit = transparentBounds ? input.length() : regionEnd;
+            if (!literalSearch.matchesAt(input, regionStart, limit)) {
+                updateHitEndRequireEndNoMatch();
+                return false;
+            }
+            setLiteralMatch(regionStart, regionStart + literalSearch.length());
+            updateHitEndRequireEndMatch(limit);
+            return true;
+        }
+
+        final int matchOptions;
         final Pcre2Code lookingAtCode;
         final var patternLookingAtCode = pattern.lookingAtCode();
         if (patternLookingAtCode != null) {
             lookingAtCode = patternLookingAtCode;
-            matchOptions = EnumSet.noneOf(Pcre2MatchOption.class);
+            matchOptions = 0;
         } else {
             lookingAtCode = pattern.code;
-            matchOptions = EnumSet.of(Pcre2MatchOption.ANCHORED);
+            matchOptions = IPcre2.ANCHORED;
         }
 
         // Apply anchoring bounds options
-        matchOptions.addAll(getMatchOptions());
+        final var options = matchOptions | getMatchOptions();
 
         final var regionSubject = getRegionSubject(regionStart);
-        final var matchData = new Pcre2MatchData(lookingAtCode);
+        final var matchData = scratch().matchData;
         try {
-            final var result = lookingAtCode.match(
-                    regionSubject.subject(),
-                    regionSubject.startOffset(),
-                    matchOptions,
-                    matchData,
-                    matchContext
-            );
+            final var result = match(lookingAtCode, regionSubject, options, matchData);
             if (result < 1) {
                 if (result == IPcre2.ERROR_NOMATCH) {
-                    updateHitEndRequireEnd(regionSubject, false, matchOptions);
+                    updateHitEndRequireEnd(regionSubject, false, options);
                     return false;
                 }
 
@@ -738,10 +801,9 @@ public class Matcher implements java.util.regex.MatchResult {
             }
 
             processMatchResult(matchData, regionSubject);
-            updateHitEndRequireEnd(regionSubject, true, matchOptions);
+            updateHitEndRequireEnd(regionSubject, true, options);
             return true;
         } finally {
-            Reference.reachabilityFence(matchData);
             Reference.reachabilityFence(this);
         }
     }
@@ -752,42 +814,56 @@ public class Matcher implements java.util.regex.MatchResult {
      * @return {@code true} if the entire input sequence region matches the pattern, otherwise {@code false}
      */
     public boolean matches() {
+        final var literalSearch = literalSearch();
+        if (literalSearch != null) {
+            final var limit = transparentBounds ? input.length() : regionEnd;
+            final var spansRegion = regionStart + literalSearch.length() == regionEnd;
+            if (!literalSearch.matchesAt(input, regionStart, limit) || (!spansRegion && !transparentBounds)) {
+                updateHitEndRequireEndNoMatch();
+                return false;
+            }
+            if (!spansRegion) {
+                // With transparent bounds, a match that does not span the region is retried within the region, and
+                // giving up on the retry discards the previous match
+                lastMatchIndices = null;
+                updateHitEndRequireEndNoMatch();
+                return false;
+            }
+            setLiteralMatch(regionStart, regionEnd);
+            updateHitEndRequireEndMatch(limit);
+            return true;
+        }
+
         final Pcre2Code matchingCode;
-        final EnumSet<Pcre2MatchOption> matchOptions;
+        final int matchOptions;
         final var patternMatchingCode = pattern.matchingCode();
         if (patternMatchingCode != null && !transparentBounds) {
             // Use the pre-compiled JIT code with ANCHORED and ENDANCHORED baked in
             // but only when transparent bounds is disabled, because ENDANCHORED
             // would anchor to end of full input rather than regionEnd
             matchingCode = patternMatchingCode;
-            matchOptions = EnumSet.noneOf(Pcre2MatchOption.class);
+            matchOptions = 0;
         } else {
             matchingCode = pattern.code;
             // For transparent bounds, we can't use ENDANCHORED with full input because it would
             // anchor to end of input, not regionEnd. We'll manually verify match end instead.
             if (transparentBounds) {
-                matchOptions = EnumSet.of(Pcre2MatchOption.ANCHORED);
+                matchOptions = IPcre2.ANCHORED;
             } else {
-                matchOptions = EnumSet.of(Pcre2MatchOption.ANCHORED, Pcre2MatchOption.ENDANCHORED);
+                matchOptions = IPcre2.ANCHORED | IPcre2.ENDANCHORED;
             }
         }
 
         // Apply anchoring bounds options
-        matchOptions.addAll(getMatchOptions());
+        final var options = matchOptions | getMatchOptions();
 
         final var regionSubject = getRegionSubject(regionStart);
-        final var matchData = new Pcre2MatchData(matchingCode);
+        final var matchData = scratch().matchData;
         try {
-            final var result = matchingCode.match(
-                    regionSubject.subject(),
-                    regionSubject.startOffset(),
-                    matchOptions,
-                    matchData,
-                    matchContext
-            );
+            final var result = match(matchingCode, regionSubject, options, matchData);
             if (result < 1) {
                 if (result == IPcre2.ERROR_NOMATCH) {
-                    updateHitEndRequireEnd(regionSubject, false, matchOptions);
+                    updateHitEndRequireEnd(regionSubject, false, options);
                     return false;
                 }
 
@@ -807,28 +883,22 @@ public class Matcher implements java.util.regex.MatchResult {
                 if (lastMatchIndices[0] != regionStart || lastMatchIndices[1] != regionEnd) {
                     // Match doesn't span exactly the region, try with constrained subject
                     final var constrainedSubject = getConstrainedRegionSubject(regionStart);
-                    final var constrainedMatchData = new Pcre2MatchData(matchingCode);
                     // Use ENDANCHORED for constrained subject since it ends at regionEnd
-                    final var constrainedOptions = EnumSet.copyOf(matchOptions);
-                    constrainedOptions.add(Pcre2MatchOption.ENDANCHORED);
-                    final var constrainedResult = matchingCode.match(
-                            constrainedSubject.subject(),
-                            constrainedSubject.startOffset(),
+                    final var constrainedOptions = options | IPcre2.ENDANCHORED;
+                    final var constrainedResult = match(
+                            matchingCode,
+                            constrainedSubject,
                             constrainedOptions,
-                            constrainedMatchData,
-                            matchContext
+                            matchData
                     );
-                    Reference.reachabilityFence(constrainedMatchData);
                     if (constrainedResult < 1) {
-                        lastMatchData = null;
                         lastMatchIndices = null;
                         updateHitEndRequireEnd(constrainedSubject, false, constrainedOptions);
                         return false;
                     }
-                    processMatchResult(constrainedMatchData, constrainedSubject);
+                    processMatchResult(matchData, constrainedSubject);
                     // Verify constrained match spans the region
                     if (lastMatchIndices[0] != regionStart || lastMatchIndices[1] != regionEnd) {
-                        lastMatchData = null;
                         lastMatchIndices = null;
                         updateHitEndRequireEnd(constrainedSubject, false, constrainedOptions);
                         return false;
@@ -838,10 +908,9 @@ public class Matcher implements java.util.regex.MatchResult {
                 }
             }
 
-            updateHitEndRequireEnd(regionSubject, true, matchOptions);
+            updateHitEndRequireEnd(regionSubject, true, options);
             return true;
         } finally {
-            Reference.reachabilityFence(matchData);
             Reference.reachabilityFence(this);
         }
     }
@@ -947,13 +1016,18 @@ public class Matcher implements java.util.regex.MatchResult {
             return sb.toString();
         }
 
+        final var literalSearch = literalSearch();
+        if (literalSearch != null && isPlainReplacement(replacement)) {
+            return replaceLiteral(literalSearch, replacement, true);
+        }
+
         try {
-            return pattern.code.substitute(
+            return pattern.searchCode().substitute(
                     input.substring(regionStart, regionEnd),
                     0,
                     EnumSet.of(Pcre2SubstituteOption.GLOBAL, Pcre2SubstituteOption.EXTENDED),
                     null,
-                    matchContext,
+                    scratch().matchContext,
                     replacement
             );
         } finally {
@@ -977,6 +1051,7 @@ public class Matcher implements java.util.regex.MatchResult {
             throw new NullPointerException("replacer");
         }
         reset();
+        prefetchMatches();
         final var sb = new StringBuilder();
         while (find()) {
             appendReplacement(sb, replacer.apply(this));
@@ -1014,13 +1089,18 @@ public class Matcher implements java.util.regex.MatchResult {
             return sb.toString();
         }
 
+        final var literalSearch = literalSearch();
+        if (literalSearch != null && isPlainReplacement(replacement)) {
+            return replaceLiteral(literalSearch, replacement, false);
+        }
+
         try {
-            return pattern.code.substitute(
+            return pattern.searchCode().substitute(
                     input.substring(regionStart, regionEnd),
                     0,
                     EnumSet.of(Pcre2SubstituteOption.EXTENDED),
                     null,
-                    matchContext,
+                    scratch().matchContext,
                     replacement
             );
         } finally {
@@ -1075,9 +1155,10 @@ public class Matcher implements java.util.regex.MatchResult {
     public Matcher reset() {
         regionStart = 0;
         regionEnd = input.length();
-        lastMatchData = null;
         lastMatchIndices = null;
         appendPos = 0;
+        prefetch = false;
+        discardPrefetchedMatches();
         // Note: hitEnd and requireEnd are NOT reset by Java's Matcher.reset()
         // They persist across resets until a new match operation is performed
         return this;
@@ -1091,13 +1172,14 @@ public class Matcher implements java.util.regex.MatchResult {
      */
     public Matcher reset(CharSequence input) {
         this.input = input.toString();
-        this.inputBytes = this.input.getBytes(StandardCharsets.UTF_8);
+        this.inputSubject = null;
 
         // Reinitialize CANON_EQ support if the flag is set
         if ((pattern.flags() & Pattern.CANON_EQ) != 0) {
             initializeCanonEqSupport();
         } else {
             this.normalizedInput = null;
+            this.normalizedInputSubject = null;
             this.normalizedToOriginalIndex = null;
             this.originalToNormalizedIndex = null;
         }
@@ -1123,6 +1205,7 @@ public class Matcher implements java.util.regex.MatchResult {
      * @since 9
      */
     public Stream<java.util.regex.MatchResult> results() {
+        prefetchMatches();
         return Stream.iterate(
                 find() ? toMatchResult() : null,
                 Objects::nonNull,
@@ -1245,18 +1328,25 @@ public class Matcher implements java.util.regex.MatchResult {
         }
 
         this.pattern = newPattern;
-        this.matchContext = new Pcre2MatchContext(pattern.code.api(), null);
-        if (pattern.code.jitSize() > 0) {
-            this.jitStack = new Pcre2JitStack(pattern.code.api(), JIT_STACK_START_SIZE, JIT_STACK_MAX_SIZE, null);
-            this.matchContext.assignJitStack(jitStack);
-        } else {
-            this.jitStack = null;
+        final var newScratchKey = scratchKey(pattern);
+        if (!newScratchKey.equals(scratchKey)) {
+            this.scratchLease.release();
+            this.scratchKey = newScratchKey;
         }
-        configureMatchLimits(this.matchContext, pattern);
         this.groupNameToIndex = newPattern.namedGroups();
 
-        // Clear cached transformed pattern since the pattern changed
+        // Clear cached transformed pattern and ovector since the pattern changed
         this.anchoringBoundsCode = null;
+        this.ovectorBuffer = null;
+        this.prefetchedOvectors = null;
+
+        // The encoded input can only be shared with patterns of the same API
+        if (inputSubject != null && inputSubject.api() != pattern.code.api()) {
+            this.inputSubject = null;
+        }
+        if (normalizedInputSubject != null && normalizedInputSubject.api() != pattern.code.api()) {
+            this.normalizedInputSubject = new Pcre2Subject(pattern.code.api(), normalizedInput);
+        }
 
         reset();
 
@@ -1309,6 +1399,11 @@ public class Matcher implements java.util.regex.MatchResult {
      * @return {@code true} if a match is found, otherwise {@code false}
      */
     private boolean search(int start) {
+        final var literalSearch = literalSearch();
+        if (literalSearch != null) {
+            return searchLiteral(literalSearch, start);
+        }
+
         try {
             int searchStart = start;
             while (searchStart <= regionEnd) {
@@ -1330,14 +1425,8 @@ public class Matcher implements java.util.regex.MatchResult {
                     final var abCode = getOrCreateAnchoringBoundsCode();
                     if (abCode != null) {
                         // Use the transformed pattern (^ replaced with \G, $ removed)
-                        final var matchData = new Pcre2MatchData(abCode);
-                        final var result = abCode.match(
-                                input,
-                                searchStart,
-                                matchOptions,
-                                matchData,
-                                matchContext
-                        );
+                        final var abSubject = boundsSubject.set(inputSubject(), 0, input.length(), searchStart);
+                        final var result = match(abCode, abSubject, matchOptions, scratch().matchData);
                         if (result < 1) {
                             if (result != IPcre2.ERROR_NOMATCH) {
                                 checkMatchLimitResult(abCode.api(), result);
@@ -1350,7 +1439,7 @@ public class Matcher implements java.util.regex.MatchResult {
                             // This allows patterns without ^ to still find matches.
                         } else {
                             // Process to get match indices
-                            processMatchResult(matchData, new RegionSubject(input, searchStart, 0));
+                            processMatchResult(scratch().matchData, abSubject);
 
                             // Check if the original pattern contained $ anchor (outside character classes)
                             // If so, we must verify the match ends at regionEnd (simulates $ at regionEnd)
@@ -1359,38 +1448,28 @@ public class Matcher implements java.util.regex.MatchResult {
                             if (!originalHadDollar) {
                                 // No $ in original - match is valid as long as it ends within region
                                 if (lastMatchIndices[1] <= regionEnd) {
-                                    updateHitEndRequireEnd(
-                                            new RegionSubject(input, searchStart, 0), true, matchOptions
-                                    );
+                                    updateHitEndRequireEnd(abSubject, true, matchOptions);
                                     return true;
                                 }
                             } else {
                                 // Original had $ which was removed, so verify match ends at regionEnd
                                 if (lastMatchIndices[1] == regionEnd) {
-                                    updateHitEndRequireEnd(
-                                            new RegionSubject(input, searchStart, 0), true, matchOptions
-                                    );
+                                    updateHitEndRequireEnd(abSubject, true, matchOptions);
                                     return true;
                                 }
                             }
 
                             // Match doesn't satisfy anchor constraints. Reset and fall through to
                             // normal matching which may find a match without anchor constraints.
-                            lastMatchData = null;
                             lastMatchIndices = null;
                         }
                     }
                 }
 
                 // PATH 2: Normal matching with original pattern
-                final var matchData = new Pcre2MatchData(pattern.code);
-                final var result = pattern.code.match(
-                        regionSubject.subject(),
-                        regionSubject.startOffset(),
-                        matchOptions,
-                        matchData,
-                        matchContext
-                );
+                final var searchCode = pattern.searchCode();
+                final var matchData = scratch().matchData;
+                final var result = match(searchCode, regionSubject, matchOptions, matchData);
                 if (result < 1) {
                     if (result == IPcre2.ERROR_NOMATCH) {
                         updateHitEndRequireEnd(regionSubject, false, matchOptions);
@@ -1416,24 +1495,16 @@ public class Matcher implements java.util.regex.MatchResult {
                     // This preserves lookbehind (which sees before regionStart) while constraining
                     // the actual match to end within the region.
                     final var constrainedSubject = getConstrainedRegionSubject(searchStart);
-                    final var constrainedMatchData = new Pcre2MatchData(pattern.code);
-                    final var constrainedResult = pattern.code.match(
-                            constrainedSubject.subject(),
-                            constrainedSubject.startOffset(),
-                            matchOptions,
-                            constrainedMatchData,
-                            matchContext
-                    );
+                    final var constrainedResult = match(searchCode, constrainedSubject, matchOptions, matchData);
 
                     if (constrainedResult >= 1) {
                         // Found a valid match within the constrained region
-                        processMatchResult(constrainedMatchData, constrainedSubject);
+                        processMatchResult(matchData, constrainedSubject);
                         updateHitEndRequireEnd(constrainedSubject, true, matchOptions);
                         return true;
                     }
 
                     // No valid match at this position, try next position
-                    lastMatchData = null;
                     lastMatchIndices = null;
                     searchStart = searchStart + 1;
                     continue;
@@ -1449,51 +1520,373 @@ public class Matcher implements java.util.regex.MatchResult {
         }
     }
 
+    /**
+     * Let {@link #find()} fetch the upcoming matches in batches until this matcher is reset or a batch fails, for
+     * callers that iterate over all matches.
+     * <p>
+     * A batch is found in a single call to {@link Pcre2Code#matchAllSubject}, which runs the whole search loop in
+     * native code if the helper library is available. The matches are the same as those {@link #search(int)} finds
+     * one by one: after an empty match, both resume the search one character further. The only exception is an empty
+     * match right before a supplementary character, after which {@link #find()} resumes within the surrogate pair,
+     * while the batch resumes after it; such a search is left to {@link #search(int)}, which discards the batch.
+     *
+     * @return this matcher
+     */
+    /* package-private */ Matcher prefetchMatches() {
+        prefetch = true;
+        return this;
+    }
+
+    /**
+     * Check whether matches can be fetched ahead: that is the case when {@link #search(int)} would pass the whole
+     * input as is to the search code of the pattern.
+     *
+     * @return {@code true} if matches can be fetched ahead, otherwise {@code false}
+     */
+    private boolean isPrefetchable() {
+        return regionStart == 0 && regionEnd == input.length() && !transparentBounds
+                && normalizedInput == null && literalSearch() == null;
+    }
+
+    /**
+     * Discard the matches fetched ahead.
+     */
+    private void discardPrefetchedMatches() {
+        prefetchedCount = 0;
+        prefetchedNext = 0;
+        prefetchedStart = -1;
+    }
+
+    /**
+     * Find the next match in the input starting from the specified index, like {@link #search(int)}, taking it from
+     * the matches fetched ahead or fetching the next batch of them.
+     *
+     * @param start the index to start searching from in the input
+     * @return {@code true} if a match is found, otherwise {@code false}
+     */
+    private boolean searchPrefetched(int start) {
+        try {
+            final var regionSubject = getRegionSubject(start);
+            final var matchOptions = getMatchOptions();
+            final var matchData = scratch().matchData;
+            final var pairs = matchData.ovectorCount() * 2;
+
+            if (prefetchedNext == prefetchedCount || start != prefetchedStart) {
+                if (prefetchedOvectors == null) {
+                    prefetchedOvectors = new long[PREFETCH_BATCH_SIZE * pairs];
+                }
+                final var searchCode = pattern.searchCode();
+                final var result = searchCode.matchAllSubject(
+                        regionSubject.subject,
+                        regionSubject.fromIndex,
+                        regionSubject.toIndex,
+                        regionSubject.startOffset,
+                        matchOptions,
+                        0,
+                        matchData,
+                        scratch().matchContext,
+                        prefetchedOvectors
+                );
+                if (result < 0) {
+                    // The batch is dropped as a whole on an error, such as a match limit hit by a later match, so
+                    // the search goes on one match at a time to find the matches before the failing one first
+                    discardPrefetchedMatches();
+                    prefetch = false;
+                    return search(start);
+                }
+                prefetchedCount = result;
+                prefetchedNext = 0;
+                if (result == 0) {
+                    discardPrefetchedMatches();
+                    updateHitEndRequireEnd(regionSubject, false, matchOptions);
+                    return false;
+                }
+            }
+
+            if (ovectorBuffer == null) {
+                ovectorBuffer = new long[pairs];
+                matchIndicesBuffer = new int[pairs];
+                normalizedMatchIndicesBuffer = null;
+            }
+            System.arraycopy(prefetchedOvectors, prefetchedNext * pairs, ovectorBuffer, 0, pairs);
+            prefetchedNext++;
+            processOvector(regionSubject);
+
+            // The next match fetched ahead is where the search resumes after this one, see find()
+            final var end = lastMatchIndices[1];
+            prefetchedStart = lastMatchIndices[0] == end ? end + 1 : end;
+
+            updateHitEndRequireEnd(regionSubject, true, matchOptions);
+            return true;
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    /**
+     * Find the next match of a literal pattern in the input starting from the specified index, without PCRE2.
+     * <p>
+     * The outcome, including the match state left behind when there is no match, is the same as that of
+     * {@link #search(int)}: with transparent bounds, the first occurrence is looked for in the full input, and an
+     * occurrence that extends beyond the region end means that there is no match within the region either.
+     *
+     * @param literalSearch the literal search of the pattern
+     * @param start         the index to start searching from in the input
+     * @return {@code true} if a match is found, otherwise {@code false}
+     */
+    private boolean searchLiteral(LiteralSearch literalSearch, int start) {
+        final var limit = transparentBounds ? input.length() : regionEnd;
+        final var index = literalSearch.indexOf(input, start, limit);
+        if (index < 0) {
+            updateHitEndRequireEndNoMatch();
+            return false;
+        }
+        final var end = index + literalSearch.length();
+        if (end > regionEnd) {
+            lastMatchIndices = null;
+            updateHitEndRequireEndNoMatch();
+            return false;
+        }
+        setLiteralMatch(index, end);
+        updateHitEndRequireEndMatch(limit);
+        return true;
+    }
+
+    /**
+     * Get the literal search to use instead of PCRE2, if the pattern matches a single literal string and the input is
+     * not matched in its NFD-normalized form.
+     *
+     * @return the literal search, or {@code null} if the match must run through PCRE2
+     */
+    private LiteralSearch literalSearch() {
+        return normalizedInput == null ? pattern.literalSearch() : null;
+    }
+
+    /**
+     * Record a match of a literal pattern, which has no capturing groups.
+     *
+     * @param start the start index of the match
+     * @param end   the end index of the match
+     */
+    private void setLiteralMatch(int start, int end) {
+        if (matchIndicesBuffer == null || matchIndicesBuffer.length != 2) {
+            ovectorBuffer = null;
+            matchIndicesBuffer = new int[2];
+            normalizedMatchIndicesBuffer = null;
+        }
+        matchIndicesBuffer[0] = start;
+        matchIndicesBuffer[1] = end;
+        lastMatchIndices = matchIndicesBuffer;
+    }
+
+    /**
+     * Replace the matches of a literal pattern in the input with the given replacement, without PCRE2.
+     *
+     * @param literalSearch the literal search of the pattern
+     * @param replacement   the replacement, which must not contain {@code $} or {@code \}
+     * @param global        whether to replace every match or only the first one
+     * @return the input with the matches replaced
+     */
+    private String replaceLiteral(LiteralSearch literalSearch, String replacement, boolean global) {
+        var index = literalSearch.indexOf(input, regionStart, regionEnd);
+        if (index < 0) {
+            return input.substring(regionStart, regionEnd);
+        }
+        final var sb = new StringBuilder(regionEnd - regionStart);
+        var position = regionStart;
+        do {
+            sb.append(input, position, index).append(replacement);
+            position = index + literalSearch.length();
+            index = global ? literalSearch.indexOf(input, position, regionEnd) : -1;
+        } while (index >= 0);
+        return sb.append(input, position, regionEnd).toString();
+    }
+
+    /**
+     * Check whether the given replacement string is plain text to PCRE2's extended substitution syntax, that is,
+     * whether it contains no group references and no escapes.
+     *
+     * @param replacement the replacement string
+     * @return {@code true} if the replacement string is plain text, otherwise {@code false}
+     */
+    private static boolean isPlainReplacement(String replacement) {
+        return replacement.indexOf('$') < 0 && replacement.indexOf('\\') < 0;
+    }
+
     /**
      * Get the match options based on the current anchoring bounds setting.
+     * <p>
+     * The UTF check is skipped by the encoded input itself once a match over all of it has validated it, see
+     * {@link Pcre2Code#matchSubject(Pcre2Subject, int, int, int, int, Pcre2MatchData, Pcre2MatchContext)}.
      *
-     * @return the set of match options to use
+     * @return the match option bits to use
      */
-    private EnumSet<Pcre2MatchOption> getMatchOptions() {
-        final var options = EnumSet.noneOf(Pcre2MatchOption.class);
+    private int getMatchOptions() {
+        var options = 0;
         if (!anchoringBounds) {
             if (regionStart > 0) {
-                options.add(Pcre2MatchOption.NOTBOL);
+                options |= IPcre2.NOTBOL;
             }
             if (regionEnd < input.length()) {
-                options.add(Pcre2MatchOption.NOTEOL);
+                options |= IPcre2.NOTEOL;
             }
         }
         return options;
     }
 
     /**
-     * Holds the subject string and coordinate mapping for region-aware matching.
-     * <p>
-     * When matching with a region, PCRE2 needs to receive only the region substring
-     * so that word boundaries (\b) don't see outside the region. This matches Java's
-     * default behavior where transparent bounds are disabled. The indexAdjustment is
-     * used to convert match indices back to the full input coordinate space.
+     * Get the input encoded into native memory, encoding it on first use.
+     *
+     * @return the encoded input
+     */
+    private Pcre2Subject inputSubject() {
+        var result = inputSubject;
+        if (result == null) {
+            result = new Pcre2Subject(pattern.code.api(), input);
+            inputSubject = result;
+        }
+        return result;
+    }
+
+    /**
+     * Get the match scratch of this matcher, checking it out of the {@link MatchScratchPool} if it was returned.
      *
-     * @param subject the subject string to match against
-     * @param startOffset the offset within subject to start matching
-     * @param indexAdjustment the value to add to match indices to convert to full input coordinates
-     * @param useCanonEqMapping if true, match indices are in NFD space and need conversion to original
+     * @return the match scratch
      */
-    private record RegionSubject(String subject, int startOffset, int indexAdjustment, boolean useCanonEqMapping) {
-        RegionSubject(String subject, int startOffset, int indexAdjustment) {
-            this(subject, startOffset, indexAdjustment, false);
+    /* package-private */ MatchScratch scratch() {
+        return scratchLease.scratch(scratchKey);
+    }
+
+    /**
+     * Match the given code against the given region subject.
+     *
+     * @param code          the code to match
+     * @param regionSubject the region subject to match against
+     * @param options       the match option bits
+     * @param matchData     the match data to store the results in
+     * @return the match result, see {@link Pcre2Code#matchSubject(Pcre2Subject, int, int, int, int, Pcre2MatchData,
+     * Pcre2MatchContext)}
+     */
+    private int match(Pcre2Code code, RegionSubject regionSubject, int options, Pcre2MatchData matchData) {
+        return code.matchSubject(
+                regionSubject.subject,
+                regionSubject.fromIndex,
+                regionSubject.toIndex,
+                regionSubject.startOffset,
+                options,
+                matchData,
+                scratch().matchContext
+        );
+    }
+
+    /**
+     * Holds the subject and coordinate mapping for region-aware matching.
+     * <p>
+     * When matching with a region, PCRE2 needs to receive only the region range of the encoded input
+     * so that word boundaries (\b) don't see outside the region. This matches Java's default behavior
+     * where transparent bounds are disabled. The range is passed to PCRE2 in place, without copying.
+     * <p>
+     * Instances are reused across matches, so that the hot path of {@link #find()} does not allocate.
+     */
+    private static final class RegionSubject {
+
+        /**
+         * The encoded subject to match against
+         */
+        private Pcre2Subject subject;
+
+        /**
+         * The start index of the range of the subject passed to PCRE2 (inclusive)
+         */
+        private int fromIndex;
+
+        /**
+         * The end index of the range of the subject passed to PCRE2 (exclusive)
+         */
+        private int toIndex;
+
+        /**
+         * The offset within the range to start matching at
+         */
+        private int startOffset;
+
+        /**
+         * The value to add to subject indices to convert them to full input coordinates
+         */
+        private int indexAdjustment;
+
+        /**
+         * Whether subject indices are in NFD space and need conversion to the original input
+         */
+        private boolean useCanonEqMapping;
+
+        /**
+         * Describe a match starting at the given index within the given range of the subject.
+         *
+         * @param subject    the encoded subject
+         * @param fromIndex  the start index of the range (inclusive)
+         * @param toIndex    the end index of the range (exclusive)
+         * @param matchStart the index in the subject to start matching at
+         * @return this region subject
+         */
+        private RegionSubject set(Pcre2Subject subject, int fromIndex, int toIndex, int matchStart) {
+            return set(subject, fromIndex, toIndex, matchStart, false);
+        }
+
+        /**
+         * Describe a match starting at the given index within the given range of the subject.
+         * <p>
+         * A range that splits a surrogate pair cannot be passed to PCRE2 in place, so such a range is copied and
+         * encoded on its own, which is what every match did before the input was encoded once.
+         *
+         * @param subject           the encoded subject
+         * @param fromIndex         the start index of the range (inclusive)
+         * @param toIndex           the end index of the range (exclusive)
+         * @param matchStart        the index in the subject to start matching at
+         * @param useCanonEqMapping whether the subject is the NFD-normalized input
+         * @return this region subject
+         */
+        private RegionSubject set(
+                Pcre2Subject subject,
+                int fromIndex,
+                int toIndex,
+                int matchStart,
+                boolean useCanonEqMapping
+        ) {
+            if (subject.isWithinSurrogatePair(fromIndex) || subject.isWithinSurrogatePair(toIndex)) {
+                this.subject = new Pcre2Subject(subject.api(), subject.subject().substring(fromIndex, toIndex));
+                this.fromIndex = 0;
+                this.toIndex = toIndex - fromIndex;
+                this.indexAdjustment = fromIndex;
+            } else {
+                this.subject = subject;
+                this.fromIndex = fromIndex;
+                this.toIndex = toIndex;
+                this.indexAdjustment = 0;
+            }
+            this.startOffset = matchStart - fromIndex;
+            this.useCanonEqMapping = useCanonEqMapping;
+            return this;
+        }
+
+        /**
+         * Get the end of the range passed to PCRE2 in subject coordinates.
+         *
+         * @return the end of the range
+         */
+        private int end() {
+            return toIndex + indexAdjustment;
         }
     }
 
     /**
-     * Creates a RegionSubject for matching, handling region boundaries.
+     * Describes the subject of a match, handling region boundaries.
      * <p>
-     * When transparent bounds are enabled, the full input string is passed to PCRE2 so that
+     * When transparent bounds are enabled, the full input is passed to PCRE2 so that
      * lookahead and lookbehind can see beyond the region. Matches are validated after matching
      * to ensure they don't extend beyond the region end.
      * <p>
-     * When transparent bounds are disabled (opaque, the default), only the region substring is
+     * When transparent bounds are disabled (opaque, the default), only the region range is
      * passed so that lookbehind and word boundaries (\b) cannot see outside the region.
      * The difference between anchoring enabled/disabled is handled by NOTBOL/NOTEOL flags.
      * <p>
@@ -1501,7 +1894,7 @@ public class Matcher implements java.util.regex.MatchResult {
      * converted between original and normalized coordinate spaces.
      *
      * @param matchStartInInput the start position for matching in input coordinates
-     * @return the RegionSubject containing the subject string and coordinate mapping
+     * @return the reused {@link #regionSubject}
      */
     private RegionSubject getRegionSubject(int matchStartInInput) {
         // Handle CANON_EQ mode: use normalized input and convert indices
@@ -1510,37 +1903,21 @@ public class Matcher implements java.util.regex.MatchResult {
         }
 
         if (transparentBounds) {
-            // Transparent bounds: pass the full input string so that lookahead can see beyond
+            // Transparent bounds: pass the full input so that lookahead can see beyond
             // regionEnd and lookbehind can see before regionStart
-            return new RegionSubject(
-                    input,
-                    matchStartInInput,
-                    0
-            );
+            return regionSubject.set(inputSubject(), 0, input.length(), matchStartInInput);
         } else {
-            // Opaque bounds (default): pass only the region substring
-            if (regionStart > 0) {
-                return new RegionSubject(
-                        input.substring(regionStart, regionEnd),
-                        matchStartInInput - regionStart,
-                        regionStart
-                );
-            } else {
-                return new RegionSubject(
-                        input.substring(0, regionEnd),
-                        matchStartInInput,
-                        0
-                );
-            }
+            // Opaque bounds (default): pass only the region range
+            return regionSubject.set(inputSubject(), regionStart, regionEnd, matchStartInInput);
         }
     }
 
     /**
-     * Creates a RegionSubject for CANON_EQ mode, using the normalized input.
+     * Describes the subject of a match in CANON_EQ mode, using the normalized input.
      * Converts all indices from original to normalized coordinate space.
      *
      * @param matchStartInInput the start position for matching in original input coordinates
-     * @return the RegionSubject containing the normalized subject string
+     * @return the reused {@link #regionSubject}
      */
     private RegionSubject getRegionSubjectCanonEq(int matchStartInInput) {
         // Convert indices from original to normalized space
@@ -1550,29 +1927,10 @@ public class Matcher implements java.util.regex.MatchResult {
 
         if (transparentBounds) {
             // Transparent bounds: pass the full normalized input
-            return new RegionSubject(
-                    normalizedInput,
-                    normMatchStart,
-                    0,
-                    true
-            );
+            return regionSubject.set(normalizedInputSubject, 0, normalizedInput.length(), normMatchStart, true);
         } else {
-            // Opaque bounds: pass only the region substring of normalized input
-            if (normRegionStart > 0) {
-                return new RegionSubject(
-                        normalizedInput.substring(normRegionStart, normRegionEnd),
-                        normMatchStart - normRegionStart,
-                        normRegionStart,
-                        true
-                );
-            } else {
-                return new RegionSubject(
-                        normalizedInput.substring(0, normRegionEnd),
-                        normMatchStart,
-                        0,
-                        true
-                );
-            }
+            // Opaque bounds: pass only the region range of normalized input
+            return regionSubject.set(normalizedInputSubject, normRegionStart, normRegionEnd, normMatchStart, true);
         }
     }
 
@@ -1582,28 +1940,19 @@ public class Matcher implements java.util.regex.MatchResult {
      * constraining the actual match to end at or before regionEnd.
      *
      * @param matchStartInInput the starting position for matching in input coordinates
-     * @return the constrained region subject
+     * @return the reused {@link #boundsSubject}
      */
     private RegionSubject getConstrainedRegionSubject(int matchStartInInput) {
         // Handle CANON_EQ mode
         if (normalizedInput != null) {
             final int normMatchStart = originalToNormalizedIndex[matchStartInInput];
             final int normRegionEnd = originalToNormalizedIndex[regionEnd];
-            return new RegionSubject(
-                    normalizedInput.substring(0, normRegionEnd),
-                    normMatchStart,
-                    0,
-                    true
-            );
+            return boundsSubject.set(normalizedInputSubject, 0, normRegionEnd, normMatchStart, true);
         }
 
-        // Pass substring from 0 to regionEnd, preserving lookbehind context
+        // Pass the range from 0 to regionEnd, preserving lookbehind context
         // while constraining the match end position
-        return new RegionSubject(
-                input.substring(0, regionEnd),
-                matchStartInInput,
-                0
-        );
+        return boundsSubject.set(inputSubject(), 0, regionEnd, matchStartInInput);
     }
 
     /**
@@ -1632,6 +1981,11 @@ public class Matcher implements java.util.regex.MatchResult {
             return null;
         }
 
+        // A LITERAL pattern has no anchors: its ^ and $ characters must not be transformed
+        if ((pattern.flags() & Pattern.LITERAL) != 0) {
+            return null;
+        }
+
         final var originalPattern = pattern.pattern();
         final var transformed = MatcherPatternAnalysis.transformPatternForAnchoringBounds(originalPattern);
 
@@ -1705,35 +2059,14 @@ public class Matcher implements java.util.regex.MatchResult {
      * @param matchFound whether a match was found
      * @param matchOptions the match options used
      */
-    private void updateHitEndRequireEnd(RegionSubject regionSubject, boolean matchFound,
-            EnumSet<Pcre2MatchOption> matchOptions) {
-        // Reset flags at the start of evaluation
-        hitEnd = false;
-        requireEnd = false;
-
-        final String subject = regionSubject.subject();
-        final int subjectEnd = subject.length();
-        final int effectiveSubjectEnd = subjectEnd + regionSubject.indexAdjustment();
-
+    private void updateHitEndRequireEnd(RegionSubject regionSubject, boolean matchFound, int matchOptions) {
         if (matchFound) {
-            // Check if match ended at the effective end of the subject
-            final int matchEnd = lastMatchIndices[1];
-
-            if (matchEnd == effectiveSubjectEnd) {
-                // Match ended at the end of input.
-                // hitEnd should be true if more input could have extended the match.
-                // This is true for patterns with open-ended constructs like +, *, character classes.
-
-                // Check for soft end anchors ($ or \Z) first
-                if (MatcherPatternAnalysis.patternContainsSoftEndAnchor(pattern.pattern())) {
-                    hitEnd = true;
-                    requireEnd = true;
-                } else if (MatcherPatternAnalysis.patternCanConsumeMoreAtEnd(pattern.pattern())) {
-                    // Pattern has constructs that could consume more input at the end
-                    hitEnd = true;
-                }
-            }
+            updateHitEndRequireEndMatch(regionSubject.end());
         } else {
+            // Reset flags at the start of evaluation
+            hitEnd = false;
+            requireEnd = false;
+
             // No match found - hitEnd is true if:
             // 1. A partial match exists (more input could complete the match), OR
             // 2. The search needed to examine the entire input to determine no match
@@ -1743,17 +2076,8 @@ public class Matcher implements java.util.regex.MatchResult {
             // when no match is found.
 
             // Check for partial match
-            final var partialOptions = EnumSet.copyOf(matchOptions);
-            partialOptions.add(Pcre2MatchOption.PARTIAL_SOFT);
-
-            final var partialMatchData = new Pcre2MatchData(pattern.code);
-            final var partialResult = pattern.code.match(
-                    subject,
-                    regionSubject.startOffset(),
-                    partialOptions,
-                    partialMatchData,
-                    matchContext
-            );
+            final var partialOptions = matchOptions | IPcre2.PARTIAL_SOFT;
+            final var partialResult = match(pattern.code, regionSubject, partialOptions, scratch().matchData);
 
             if (partialResult == IPcre2.ERROR_PARTIAL) {
                 // Partial match exists - more input could lead to a match
@@ -1771,6 +2095,45 @@ public class Matcher implements java.util.regex.MatchResult {
         }
     }
 
+    /**
+     * Update hitEnd and requireEnd flags after a match was found, see
+     * {@link #updateHitEndRequireEnd(RegionSubject, boolean, int)}.
+     *
+     * @param effectiveSubjectEnd the end of the subject passed to PCRE2 in input coordinates
+     */
+    private void updateHitEndRequireEndMatch(int effectiveSubjectEnd) {
+        // Reset flags at the start of evaluation
+        hitEnd = false;
+        requireEnd = false;
+
+        // Check if match ended at the effective end of the subject
+        final int matchEnd = lastMatchIndices[1];
+
+        if (matchEnd == effectiveSubjectEnd) {
+            // Match ended at the end of input.
+            // hitEnd should be true if more input could have extended the match.
+            // This is true for patterns with open-ended constructs like +, *, character classes.
+
+            // Check for soft end anchors ($ or \Z) first
+            if (MatcherPatternAnalysis.patternContainsSoftEndAnchor(pattern.pattern())) {
+                hitEnd = true;
+                requireEnd = true;
+            } else if (MatcherPatternAnalysis.patternCanConsumeMoreAtEnd(pattern.pattern())) {
+                // Pattern has constructs that could consume more input at the end
+                hitEnd = true;
+            }
+        }
+    }
+
+    /**
+     * Update hitEnd and requireEnd flags after no match was found by a literal search. Whether or not a partial match
+     * exists, {@link #updateHitEndRequireEnd(RegionSubject, boolean, int)} reports that the end of input was hit.
+     */
+    private void updateHitEndRequireEndNoMatch() {
+        hitEnd = true;
+        requireEnd = false;
+    }
+
 
     /**
      * Process match results: convert ovector to string indices and adjust for region offset.
@@ -1780,24 +2143,42 @@ public class Matcher implements java.util.regex.MatchResult {
      * @param regionSubject the region subject used for matching
      */
     private void processMatchResult(Pcre2MatchData matchData, RegionSubject regionSubject) {
-        lastMatchData = matchData;
-        lastMatchIndices = Pcre4jUtils.convertOvectorToStringIndices(
-                regionSubject.subject(), matchData.ovector()
-        );
+        // Every code variant of the pattern has the same capturing groups, so the buffers are sized once
+        if (ovectorBuffer == null) {
+            ovectorBuffer = new long[matchData.ovectorCount() * 2];
+            matchIndicesBuffer = new int[ovectorBuffer.length];
+            normalizedMatchIndicesBuffer = null;
+        }
+        matchData.ovector(ovectorBuffer);
+        processOvector(regionSubject);
+    }
 
-        // Adjust indices back to full input coordinate space
-        if (regionSubject.indexAdjustment() > 0) {
-            for (int i = 0; i < lastMatchIndices.length; i++) {
-                if (lastMatchIndices[i] >= 0) {
-                    lastMatchIndices[i] += regionSubject.indexAdjustment();
+    /**
+     * Process the match results in {@link #ovectorBuffer}, see {@link #processMatchResult}.
+     *
+     * @param regionSubject the region subject used for matching
+     */
+    private void processOvector(RegionSubject regionSubject) {
+        // The ovector is relative to the start of the range passed to PCRE2, so the offset map of the whole subject
+        // converts it straight to subject coordinates
+        regionSubject.subject.offsetMap().toStringIndices(ovectorBuffer, matchIndicesBuffer, regionSubject.fromIndex);
+        if (regionSubject.indexAdjustment != 0) {
+            for (int i = 0; i < matchIndicesBuffer.length; i++) {
+                if (matchIndicesBuffer[i] >= 0) {
+                    matchIndicesBuffer[i] += regionSubject.indexAdjustment;
                 }
             }
         }
+        lastMatchIndices = matchIndicesBuffer;
 
         // For CANON_EQ mode: convert indices from NFD space to original string space
-        if (regionSubject.useCanonEqMapping() && normalizedToOriginalIndex != null) {
+        if (regionSubject.useCanonEqMapping && normalizedToOriginalIndex != null) {
             // Save the NFD indices (already adjusted for region offset) before converting to original space
-            final int[] nfdIndices = lastMatchIndices.clone();
+            if (normalizedMatchIndicesBuffer == null) {
+                normalizedMatchIndicesBuffer = new int[matchIndicesBuffer.length];
+            }
+            final int[] nfdIndices = normalizedMatchIndicesBuffer;
+            System.arraycopy(lastMatchIndices, 0, nfdIndices, 0, nfdIndices.length);
 
             for (int i = 0; i < lastMatchIndices.length; i++) {
                 if (lastMatchIndices[i] >= 0) {
@@ -53,6 +53,25 @@ import java.util.stream.Stream;
  * <p><strong>Note:</strong> Because native memory is reclaimed during garbage collection rather
  * than deterministically, applications that compile a very large number of short-lived patterns
  * may observe higher native memory usage until the garbage collector runs.</p>
+ *
+ * <p>Applications that compile the same regular expressions over and over can opt into caching the compiled
+ * patterns, see {@link PatternCache}.</p>
+ *
+ * <h2>Tiered JIT Compilation</h2>
+ *
+ * <p>By default, a pattern is JIT-compiled when it is created, and the anchored variants used by
+ * {@link Matcher#matches()} and {@link Matcher#lookingAt()} are JIT-compiled on their first use. Setting the
+ * {@link #TIERED_JIT_PROPERTY} system property to {@code true} makes patterns start out on the interpreter instead:
+ * each variant is JIT-compiled on a background thread once it has been used {@link #TIERED_JIT_THRESHOLD_PROPERTY}
+ * times (default {@value #DEFAULT_TIERED_JIT_THRESHOLD}), and matchers switch over to it as soon as it is
+ * available.</p>
+ *
+ * <h2>Literal Patterns</h2>
+ *
+ * <p>A pattern compiled with {@link #LITERAL}, or one without metacharacters, matches a single literal string.
+ * Matchers of such a pattern search for it in Java, without encoding the input or calling PCRE2, and the pattern is
+ * not JIT-compiled. Case-insensitive literals qualify if they are ASCII. Setting the {@link #LITERAL_SEARCH_PROPERTY}
+ * system property to {@code false} makes literal patterns match through PCRE2 like any other pattern.</p>
  */
 public class Pattern {
 
@@ -159,6 +178,27 @@ public class Pattern {
      * @see java.text.Normalizer
      */
     public static final int CANON_EQ = java.util.regex.Pattern.CANON_EQ;
+
+    /**
+     * System property name for enabling tiered JIT compilation, see the class documentation.
+     */
+    public static final String TIERED_JIT_PROPERTY = "pcre2.regex.jit.tiered";
+
+    /**
+     * System property name for the number of uses after which a pattern variant is JIT-compiled in tiered mode.
+     */
+    public static final String TIERED_JIT_THRESHOLD_PROPERTY = "pcre2.regex.jit.tiered.threshold";
+
+    /**
+     * The default number of uses after which a pattern variant is JIT-compiled in tiered mode.
+     */
+    public static final int DEFAULT_TIERED_JIT_THRESHOLD = 100;
+
+    /**
+     * System property name for enabling the pure-Java search for literal patterns, see the class documentation.
+     */
+    public static final String LITERAL_SEARCH_PROPERTY = "pcre2.regex.literal";
+
     /* package-private */ final Pcre2Code code;
     private final IPcre2 api;
     private final String regex;
@@ -173,6 +213,10 @@ public class Pattern {
     private final boolean jitEnabled;
     private volatile Pcre2Code matchingCode;
     private volatile Pcre2Code lookingAtCode;
+    private final TieredCode tieredCode;
+    private final TieredCode tieredMatchingCode;
+    private final TieredCode tieredLookingAtCode;
+    private final LiteralSearch literalSearch;
 
     /**
      * Create a new {@link Pattern} using the given regular expression, flags, and match limits.
@@ -237,10 +281,30 @@ public class Pattern {
             compileContext.setNewline(Pcre2Newline.ANY);
         }
 
+        // A literal pattern is still compiled, so that invalid flag combinations are reported the same way, but it is
+        // never JIT-compiled as matchers do not run it
+        this.literalSearch = isLiteralSearchAllowed() ? LiteralSearch.of(regex, flags) : null;
+
         try {
-            final var isJitAllowed = Boolean.parseBoolean(System.getProperty("pcre2.regex.jit", "true"));
-            this.jitEnabled = Pcre4jUtils.isJitSupported(api) && isJitAllowed;
-            if (jitEnabled) {
+            this.jitEnabled = literalSearch == null && Pcre4jUtils.isJitSupported(api) && isJitAllowed();
+            if (jitEnabled && isTieredJit()) {
+                final var threshold = tieredJitThreshold();
+                this.code = new Pcre2Code(
+                        api,
+                        compiledRegex,
+                        compileOptions,
+                        compileContext
+                );
+                // The search variant JIT-compiles a copy of the interpreted code instead of compiling the pattern
+                // again; the anchored variants have to be compiled, as JIT-compiled code only anchors at compile time
+                final var interpretedCode = this.code;
+                this.tieredCode = new TieredCode(
+                        () -> interpretedCode.jitCopy(EnumSet.of(Pcre2JitOption.COMPLETE)),
+                        threshold
+                );
+                this.tieredMatchingCode = new TieredCode(() -> compileJit(matchingOptions()), threshold);
+                this.tieredLookingAtCode = new TieredCode(() -> compileJit(lookingAtOptions()), threshold);
+            } else if (jitEnabled) {
                 this.code = new Pcre2JitCode(
                         api,
                         compiledRegex,
@@ -248,6 +312,9 @@ public class Pattern {
                         EnumSet.of(Pcre2JitOption.COMPLETE),
                         compileContext
                 );
+                this.tieredCode = null;
+                this.tieredMatchingCode = null;
+                this.tieredLookingAtCode = null;
             } else {
                 this.code = new Pcre2Code(
                         api,
@@ -255,6 +322,9 @@ public class Pattern {
                         compileOptions,
                         compileContext
                 );
+                this.tieredCode = null;
+                this.tieredMatchingCode = null;
+                this.tieredLookingAtCode = null;
             }
         } catch (Pcre2CompileException e) {
             throw new PatternSyntaxException(e.message(), e.pattern(), (int) e.offset());
@@ -307,7 +377,109 @@ public class Pattern {
      * @return the compiled pattern
      */
     public static Pattern compile(IPcre2 api, String regex, int flags) {
-        return new Pattern(api, regex, flags, 0, 0, 0);
+        return create(api, regex, flags, 0, 0, 0, PatternCache.shared());
+    }
+
+    /**
+     * Compiles the given regular expression, or gets it from the given pattern cache.
+     *
+     * @param api        the PCRE API to use
+     * @param regex      the regular expression to compile
+     * @param flags      the flags to use when compiling the pattern
+     * @param matchLimit the match limit (0 = use default)
+     * @param depthLimit the depth limit (0 = use default)
+     * @param heapLimit  the heap limit in kibibytes (0 = use default)
+     * @param cache      the pattern cache, or {@code null} to compile the pattern unconditionally
+     * @return the compiled pattern
+     */
+    private static Pattern create(
+            IPcre2 api,
+            String regex,
+            int flags,
+            int matchLimit,
+            int depthLimit,
+            int heapLimit,
+            PatternCache cache
+    ) {
+        if (cache != null) {
+            return cache.compile(api, regex, flags, matchLimit, depthLimit, heapLimit);
+        }
+        return create(api, regex, flags, matchLimit, depthLimit, heapLimit);
+    }
+
+    /**
+     * Compiles the given regular expression, bypassing any pattern cache.
+     *
+     * @param api        the PCRE API to use
+     * @param regex      the regular expression to compile
+     * @param flags      the flags to use when compiling the pattern
+     * @param matchLimit the match limit (0 = use default)
+     * @param depthLimit the depth limit (0 = use default)
+     * @param heapLimit  the heap limit in kibibytes (0 = use default)
+     * @return the compiled pattern
+     */
+    /* package-private */ static Pattern create(
+            IPcre2 api,
+            String regex,
+            int flags,
+            int matchLimit,
+            int depthLimit,
+            int heapLimit
+    ) {
+        return new Pattern(api, regex, flags, matchLimit, depthLimit, heapLimit);
+    }
+
+    /**
+     * Checks whether JIT compilation is allowed by the {@code pcre2.regex.jit} system property.
+     *
+     * @return {@code true} if JIT compilation is allowed, otherwise {@code false}
+     */
+    /* package-private */ static boolean isJitAllowed() {
+        return Boolean.parseBoolean(System.getProperty("pcre2.regex.jit", "true"));
+    }
+
+    /**
+     * Checks whether tiered JIT compilation is enabled by the {@link #TIERED_JIT_PROPERTY} system property.
+     *
+     * @return {@code true} if tiered JIT compilation is enabled, otherwise {@code false}
+     */
+    /* package-private */ static boolean isTieredJit() {
+        return Boolean.parseBoolean(System.getProperty(TIERED_JIT_PROPERTY, "false"));
+    }
+
+    /**
+     * Checks whether the pure-Java search for literal patterns is enabled by the {@link #LITERAL_SEARCH_PROPERTY}
+     * system property.
+     *
+     * @return {@code true} if literal patterns are searched for in Java, otherwise {@code false}
+     */
+    /* package-private */ static boolean isLiteralSearchAllowed() {
+        return Boolean.parseBoolean(System.getProperty(LITERAL_SEARCH_PROPERTY, "true"));
+    }
+
+    /**
+     * Gets the tiered JIT compilation threshold configured by the {@link #TIERED_JIT_THRESHOLD_PROPERTY} system
+     * property.
+     *
+     * @return the number of uses after which a pattern variant is JIT-compiled
+     * @throws IllegalArgumentException if the property is not a positive integer
+     */
+    private static int tieredJitThreshold() {
+        final var threshold = System.getProperty(TIERED_JIT_THRESHOLD_PROPERTY);
+        if (threshold == null) {
+            return DEFAULT_TIERED_JIT_THRESHOLD;
+        }
+        try {
+            final var result = Integer.parseInt(threshold);
+            if (result > 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through
+        }
+        throw new IllegalArgumentException(
+                "System property " + TIERED_JIT_THRESHOLD_PROPERTY + " must be a positive integer, got: " + threshold
+        );
     }
 
     /**
@@ -372,20 +544,37 @@ public class Pattern {
 
     /**
      * Creates a predicate that tests if this pattern is found in a given input.
+     * <p>
+     * Inputs that the {@linkplain Pcre2Code#prefilter() prefilter} of the pattern rejects are rejected without creating
+     * a matcher.
      *
      * @return the predicate
      */
     public Predicate<CharSequence> asPredicate() {
-        return input -> matcher(input).find();
+        return input -> mayMatch(input) && matcher(input).find();
     }
 
     /**
      * Creates a predicate that tests if this pattern matches a given input.
+     * <p>
+     * Inputs that the {@linkplain Pcre2Code#prefilter() prefilter} of the pattern rejects are rejected without creating
+     * a matcher.
      *
      * @return the predicate
      */
     public Predicate<CharSequence> asMatchPredicate() {
-        return input -> matcher(input).matches();
+        return input -> mayMatch(input) && matcher(input).matches();
+    }
+
+    /**
+     * Check whether this pattern may match a given input according to the prefilter of the compiled pattern. Inputs
+     * are normalized before matching under {@link #CANON_EQ}, so they are never rejected then.
+     *
+     * @param input the input
+     * @return {@code false} if this pattern definitely does not match the input
+     */
+    /* package-private */ boolean mayMatch(CharSequence input) {
+        return (flags & CANON_EQ) != 0 || code.prefilter().mayMatch(input);
     }
 
     /**
@@ -482,7 +671,7 @@ public class Pattern {
      * of this pattern
      */
     public String[] split(CharSequence input, int limit, boolean includeDelimiters) {
-        final var matcher = matcher(input);
+        final var matcher = matcher(input).prefetchMatches();
         final var result = new ArrayList<String>();
         var numMatches = 0;
         var offset = 0;
@@ -560,21 +749,15 @@ public class Pattern {
         if (!jitEnabled) {
             return null;
         }
+        if (tieredMatchingCode != null) {
+            return tieredMatchingCode.get();
+        }
         var result = matchingCode;
         if (result == null) {
             synchronized (this) {
                 result = matchingCode;
                 if (result == null) {
-                    final var options = EnumSet.copyOf(compileOptions);
-                    options.add(Pcre2CompileOption.ANCHORED);
-                    options.add(Pcre2CompileOption.ENDANCHORED);
-                    result = new Pcre2JitCode(
-                            api,
-                            compiledRegex,
-                            options,
-                            EnumSet.of(Pcre2JitOption.COMPLETE),
-                            compileContext
-                    );
+                    result = compileJit(matchingOptions());
                     matchingCode = result;
                 }
             }
@@ -595,20 +778,15 @@ public class Pattern {
         if (!jitEnabled) {
             return null;
         }
+        if (tieredLookingAtCode != null) {
+            return tieredLookingAtCode.get();
+        }
         var result = lookingAtCode;
         if (result == null) {
             synchronized (this) {
                 result = lookingAtCode;
                 if (result == null) {
-                    final var options = EnumSet.copyOf(compileOptions);
-                    options.add(Pcre2CompileOption.ANCHORED);
-                    result = new Pcre2JitCode(
-                            api,
-                            compiledRegex,
-                            options,
-                            EnumSet.of(Pcre2JitOption.COMPLETE),
-                            compileContext
-                    );
+                    result = compileJit(lookingAtOptions());
                     lookingAtCode = result;
                 }
             }
@@ -616,6 +794,92 @@ public class Pattern {
         return result;
     }
 
+    /**
+     * Returns the code to search for the pattern with: the JIT-compiled code once tiered JIT compilation has compiled
+     * it, otherwise {@link #code}.
+     * <p>
+     * In tiered mode, every call counts as a use of the pattern towards the JIT compilation threshold.
+     *
+     * @return the search code
+     */
+    /* package-private */ Pcre2Code searchCode() {
+        if (tieredCode != null) {
+            final var jitCode = tieredCode.get();
+            if (jitCode != null) {
+                return jitCode;
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Returns whether matchers should use a JIT stack with this pattern, that is, whether the pattern is or will be
+     * JIT-compiled.
+     *
+     * @return {@code true} if JIT compilation is enabled for this pattern, otherwise {@code false}
+     */
+    /* package-private */ boolean isJitEnabled() {
+        return jitEnabled;
+    }
+
+    /**
+     * Returns the pure-Java search that matchers use instead of PCRE2 if this pattern matches a single literal string.
+     *
+     * @return the literal search, or {@code null} if this pattern is matched through PCRE2
+     */
+    /* package-private */ LiteralSearch literalSearch() {
+        return literalSearch;
+    }
+
+    /**
+     * Returns the tiered JIT-compiled search code of this pattern.
+     *
+     * @return the tiered search code, or {@code null} if tiered JIT compilation is not enabled for this pattern
+     */
+    /* package-private */ TieredCode tieredCode() {
+        return tieredCode;
+    }
+
+    /**
+     * Returns the compile options with {@link Pcre2CompileOption#ANCHORED} and {@link Pcre2CompileOption#ENDANCHORED}
+     * added, for {@link Matcher#matches()}.
+     *
+     * @return the compile options
+     */
+    private EnumSet<Pcre2CompileOption> matchingOptions() {
+        final var options = EnumSet.copyOf(compileOptions);
+        options.add(Pcre2CompileOption.ANCHORED);
+        options.add(Pcre2CompileOption.ENDANCHORED);
+        return options;
+    }
+
+    /**
+     * Returns the compile options with {@link Pcre2CompileOption#ANCHORED} added, for {@link Matcher#lookingAt()}.
+     *
+     * @return the compile options
+     */
+    private EnumSet<Pcre2CompileOption> lookingAtOptions() {
+        final var options = EnumSet.copyOf(compileOptions);
+        options.add(Pcre2CompileOption.ANCHORED);
+        return options;
+    }
+
+    /**
+     * JIT-compiles the regular expression of this pattern with the given compile options.
+     *
+     * @param options the compile options
+     * @return the JIT-compiled code
+     */
+    private Pcre2Code compileJit(EnumSet<Pcre2CompileOption> options) {
+        return new Pcre2JitCode(
+                api,
+                compiledRegex,
+                options,
+                EnumSet.of(Pcre2JitOption.COMPLETE),
+                compileContext
+        );
+    }
+
     /**
      * Returns the match limit configured for this pattern, or 0 if using the default.
      *
@@ -784,7 +1048,7 @@ public class Pattern {
          * @throws java.util.regex.PatternSyntaxException if the regex syntax is invalid
          */
         public Pattern compile() {
-            return new Pattern(api, regex, flags, matchLimit, depthLimit, heapLimit);
+            return create(api, regex, flags, matchLimit, depthLimit, heapLimit, PatternCache.shared());
         }
     }
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.regex;
+
+import org.pcre4j.Pcre2Cache;
+import org.pcre4j.Pcre2NativeMemory;
+import org.pcre4j.Pcre4j;
+import org.pcre4j.api.IPcre2;
+
+import java.util.Optional;
+
+/**
+ * A bounded, thread-safe cache of compiled {@link Pattern}s, so that code compiling the same regular expressions over
+ * and over, such as {@link Pattern#matches(String, CharSequence)} in a loop, compiles each of them once.
+ * <p>
+ * Patterns are keyed by the PCRE2 API, the regular expression, the flags, the match limits, whether JIT
+ * compilation is enabled and whether literal patterns are searched for in Java, and weighed by the native memory of
+ * their compiled code against a budget in bytes; see {@link Pcre2Cache} for the admission and eviction policy. A
+ * {@link Pattern} is immutable and safe to use from multiple threads, so the cached patterns are shared by all
+ * callers.
+ * <p>
+ * Caching is opt-in: either compile through a {@code PatternCache} instance, or set the {@link #BUDGET_PROPERTY}
+ * system property to make {@link Pattern#compile(IPcre2, String, int)}, {@link Pattern.Builder#compile()} and
+ * {@link Pattern#matches(IPcre2, String, CharSequence)} use the {@linkplain #shared() shared cache}.
+ */
+public final class PatternCache {
+
+    /**
+     * System property name for the native memory budget in bytes of the shared pattern cache.
+     * <p>
+     * The property is read once, when the shared cache is first used. A value of {@code 0} (the default) disables
+     * the shared cache.
+     */
+    public static final String BUDGET_PROPERTY = "pcre2.regex.cache.budget";
+
+    /**
+     * The shared pattern cache, empty if disabled, or {@code null} until first used
+     */
+    private static volatile Optional<PatternCache> shared;
+
+    /**
+     * The cached patterns
+     */
+    private final Pcre2Cache<Key, Pattern> cache;
+
+    /**
+     * Create a new pattern cache.
+     *
+     * @param maximumWeight the native memory budget of the cached patterns in bytes
+     */
+    public PatternCache(long maximumWeight) {
+        this.cache = new Pcre2Cache<>(maximumWeight, PatternCache::weigh);
+    }
+
+    /**
+     * Get the shared pattern cache used by {@link Pattern}, if enabled by the {@link #BUDGET_PROPERTY} system
+     * property.
+     *
+     * @return the shared pattern cache, or {@code null} if it is disabled
+     */
+    public static PatternCache shared() {
+        var result = shared;
+        if (result == null) {
+            synchronized (PatternCache.class) {
+                result = shared;
+                if (result == null) {
+                    final var budget = budget();
+                    result = budget > 0 ? Optional.of(new PatternCache(budget)) : Optional.empty();
+                    result.ifPresent(cache -> Pcre2NativeMemory.addEvictionHook(cache::evict));
+                    shared = result;
+                }
+            }
+        }
+        return result.orElse(null);
+    }
+
+    /**
+     * Get the native memory budget of the shared pattern cache configured by the {@link #BUDGET_PROPERTY} system
+     * property.
+     *
+     * @return the budget in bytes, or {@code 0} if the shared cache is disabled
+     */
+    public static long budget() {
+        final var budget = System.getProperty(BUDGET_PROPERTY);
+        if (budget == null) {
+            return 0;
+        }
+        try {
+            final var result = Long.parseLong(budget);
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through
+        }
+        throw new IllegalArgumentException(
+                "System property " + BUDGET_PROPERTY + " must be a non-negative integer, got: " + budget
+        );
+    }
+
+    /**
+     * Get the compiled pattern from the cache, compiling it if it is not cached.
+     *
+     * @param regex the regular expression to compile
+     * @return the compiled pattern
+     */
+    public Pattern compile(String regex) {
+        return compile(Pcre4j.api(), regex, 0);
+    }
+
+    /**
+     * Get the compiled pattern from the cache, compiling it if it is not cached.
+     *
+     * @param api   the PCRE API to use
+     * @param regex the regular expression to compile
+     * @param flags the flags to use when compiling the pattern
+     * @return the compiled pattern
+     */
+    public Pattern compile(IPcre2 api, String regex, int flags) {
+        return compile(api, regex, flags, 0, 0, 0);
+    }
+
+    /**
+     * Get the compiled pattern from the cache, compiling it if it is not cached.
+     *
+     * @param api        the PCRE API to use
+     * @param regex      the regular expression to compile
+     * @param flags      the flags to use when compiling the pattern
+     * @param matchLimit the match limit (0 = use default)
+     * @param depthLimit the depth limit (0 = use default)
+     * @param heapLimit  the heap limit in kibibytes (0 = use default)
+     * @return the compiled pattern
+     */
+    public Pattern compile(
+            IPcre2 api,
+            String regex,
+            int flags,
+            int matchLimit,
+            int depthLimit,
+            int heapLimit
+    ) {
+        if (api == null) {
+            throw new IllegalArgumentException("api cannot be null");
+        }
+        if (regex == null) {
+            throw new IllegalArgumentException("regex cannot be null");
+        }
+
+        final var key = new Key(
+                api,
+                regex,
+                flags,
+                matchLimit,
+                depthLimit,
+                heapLimit,
+                Pattern.isJitAllowed(),
+                Pattern.isTieredJit(),
+                Pattern.isLiteralSearchAllowed()
+        );
+        return cache.get(
+                key,
+                k -> Pattern.create(k.api(), k.regex(), k.flags(), k.matchLimit(), k.depthLimit(), k.heapLimit())
+        );
+    }
+
+    /**
+     * Remove every pattern from the cache. The statistics are kept.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Evict the least recently used patterns until their total weight reaches the given weight or the cache is empty.
+     * The shared cache is evicted this way whenever creating a native resource would exceed the
+     * {@linkplain Pcre2NativeMemory#budget() native memory budget}.
+     *
+     * @param weight the weight to evict in bytes
+     * @return the total weight of the evicted patterns in bytes
+     */
+    public long evict(long weight) {
+        return cache.evict(weight);
+    }
+
+    /**
+     * Get a snapshot of the statistics of the cache, including its hit rate.
+     *
+     * @return the statistics
+     */
+    public Pcre2Cache.Stats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Weigh a pattern by the native memory of its compiled code. The anchored variants compiled lazily for
+     * {@link Matcher#matches()} and {@link Matcher#lookingAt()} are not accounted for.
+     *
+     * @param pattern the pattern
+     * @return the weight in bytes
+     */
+    private static long weigh(Pattern pattern) {
+        return pattern.code.size() + pattern.code.jitSize();
+    }
+
+    /**
+     * The key of a cached pattern.
+     *
+     * @param api        the PCRE2 API
+     * @param regex      the regular expression
+     * @param flags      the flags
+     * @param matchLimit the match limit
+     * @param depthLimit the depth limit
+     * @param heapLimit  the heap limit
+     * @param jit        whether JIT compilation is allowed
+     * @param tieredJit  whether tiered JIT compilation is enabled
+     * @param literal    whether literal patterns are searched for in Java
+     */
+    private record Key(
+            IPcre2 api,
+            String regex,
+            int flags,
+            int matchLimit,
+            int depthLimit,
+            int heapLimit,
+            boolean jit,
+            boolean tieredJit,
+            boolean literal
+    ) {
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.regex;
+
+import org.pcre4j.Pcre2Code;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A JIT-compiled variant of a pattern that is compiled on a background thread once the pattern has been used often
+ * enough, so that the JIT compilation latency stays off the request path and rarely used patterns never pay for it.
+ * <p>
+ * Until the JIT-compiled code is available, {@link #get()} returns {@code null} and the caller falls back to the
+ * interpreter. The JIT-compiled code is published through a volatile field, so that every thread switches over to it
+ * atomically. If the JIT compilation fails, the interpreter keeps serving the pattern and the failure is kept in
+ * {@link #jitFailure()}.
+ */
+/* package-private */ final class TieredCode {
+
+    /**
+     * The function compiling the JIT-compiled code
+     */
+    private final Supplier<Pcre2Code> compiler;
+
+    /**
+     * The number of uses after which the JIT-compiled code is compiled
+     */
+    private final int threshold;
+
+    /**
+     * Whether the JIT compilation has been scheduled
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * The JIT-compiled code, or {@code null} until it is compiled
+     */
+    private volatile Pcre2Code jitCode;
+
+    /**
+     * The failure of the JIT compilation, or {@code null} unless it failed
+     */
+    private volatile RuntimeException jitFailure;
+
+    /**
+     * The number of uses so far; updated without synchronization, as the threshold need not be exact
+     */
+    private int uses;
+
+    /**
+     * Create a new tiered code.
+     *
+     * @param compiler  the function compiling the JIT-compiled code
+     * @param threshold the number of uses after which the JIT-compiled code is compiled
+     */
+    /* package-private */ TieredCode(Supplier<Pcre2Code> compiler, int threshold) {
+        this.compiler = compiler;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Record a use and get the JIT-compiled code, scheduling its compilation once the threshold is reached.
+     *
+     * @return the JIT-compiled code, or {@code null} if it is not compiled yet
+     */
+    /* package-private */ Pcre2Code get() {
+        final var result = jitCode;
+        if (result == null && ++uses >= threshold && scheduled.compareAndSet(false, true)) {
+            BackgroundCompiler.EXECUTOR.execute(this::compile);
+        }
+        return result;
+    }
+
+    /**
+     * Get the JIT-compiled code without recording a use.
+     *
+     * @return the JIT-compiled code, or {@code null} if it is not compiled yet
+     */
+    /* package-private */ Pcre2Code jitCode() {
+        return jitCode;
+    }
+
+    /**
+     * Get the failure of the JIT compilation.
+     *
+     * @return the exception the JIT compilation failed with, or {@code null} if it has not failed
+     */
+    /* package-private */ RuntimeException jitFailure() {
+        return jitFailure;
+    }
+
+    /**
+     * Check whether the JIT compilation has failed, in which case the pattern stays on the interpreter for good.
+     *
+     * @return {@code true} if the JIT compilation has failed, otherwise {@code false}
+     */
+    /* package-private */ boolean jitFailed() {
+        return jitFailure != null;
+    }
+
+    private void compile() {
+        try {
+            jitCode = compiler.get();
+        } catch (RuntimeException e) {
+            // The interpreter keeps serving the pattern; the compilation is not retried
+            jitFailure = e;
+        }
+    }
+
+    /**
+     * Lazily creates the background thread that JIT-compiles the patterns.
+     */
+    private static final class BackgroundCompiler {
+
+        private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+            final var thread = new Thread(runnable, "pcre4j-jit-compiler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
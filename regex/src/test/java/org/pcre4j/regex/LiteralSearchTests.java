@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2024-2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.regex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the pure-Java search of literal patterns ({@link LiteralSearch}) against the PCRE2 path.
+ */
+public class LiteralSearchTests {
+
+    private String savedLiteralProperty;
+
+    @BeforeEach
+    void saveLiteralProperty() {
+        savedLiteralProperty = System.getProperty(Pattern.LITERAL_SEARCH_PROPERTY);
+    }
+
+    @AfterEach
+    void restoreLiteralProperty() {
+        if (savedLiteralProperty != null) {
+            System.setProperty(Pattern.LITERAL_SEARCH_PROPERTY, savedLiteralProperty);
+        } else {
+            System.clearProperty(Pattern.LITERAL_SEARCH_PROPERTY);
+        }
+    }
+
+    /**
+     * Run the given operation on a pattern compiled with the literal search enabled and on one compiled with it
+     * disabled, and check that both give the same result.
+     */
+    private <T> T assertSameOnBothPaths(IPcre2 api, String regex, int flags, Function<Pattern, T> operation) {
+        System.setProperty(Pattern.LITERAL_SEARCH_PROPERTY, "true");
+        final var literalPattern = Pattern.compile(api, regex, flags);
+        System.setProperty(Pattern.LITERAL_SEARCH_PROPERTY, "false");
+        final var pcre2Pattern = Pattern.compile(api, regex, flags);
+
+        assertNotNull(literalPattern.literalSearch());
+        assertNull(pcre2Pattern.literalSearch());
+
+        final var expected = operation.apply(pcre2Pattern);
+        assertEquals(expected, operation.apply(literalPattern));
+        return expected;
+    }
+
+    private static List<String> findAll(Matcher matcher) {
+        final var result = new ArrayList<String>();
+        while (matcher.find()) {
+            result.add(matcher.start() + "-" + matcher.end() + ":" + matcher.hitEnd() + ":" + matcher.requireEnd());
+        }
+        result.add("hitEnd=" + matcher.hitEnd());
+        return result;
+    }
+
+    @Test
+    void detectsLiterals() {
+        assertNotNull(LiteralSearch.of("hello world", 0));
+        assertNotNull(LiteralSearch.of("a+b(c)", Pattern.LITERAL));
+        assertNotNull(LiteralSearch.of("Hello", Pattern.CASE_INSENSITIVE));
+        assertNotNull(LiteralSearch.of("\uD83D\uDE00", 0));
+
+        assertNull(LiteralSearch.of("", 0));
+        assertNull(LiteralSearch.of("a+b", 0));
+        assertNull(LiteralSearch.of("a\\.b", 0));
+        assertNull(LiteralSearch.of("a b", Pattern.COMMENTS));
+        assertNull(LiteralSearch.of("caf\u00E9", Pattern.CASE_INSENSITIVE));
+        assertNull(LiteralSearch.of("abc", Pattern.CANON_EQ));
+        assertNull(LiteralSearch.of("a\uD83D", 0));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void find(IPcre2 api) {
+        final var matches = assertSameOnBothPaths(
+                api,
+                "abc",
+                0,
+                pattern -> findAll(pattern.matcher("abc xxabcyy ab abcabc"))
+        );
+
+        assertEquals(
+                List.of("0-3:false:false", "6-9:false:false", "15-18:false:false", "18-21:false:false", "hitEnd=true"),
+                matches
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void findLiteralFlag(IPcre2 api) {
+        assertSameOnBothPaths(api, "a+b", Pattern.LITERAL, pattern -> findAll(pattern.matcher("a+b aab a+b")));
+        assertSameOnBothPaths(api, "a$b", Pattern.LITERAL, pattern -> findAll(
+                pattern.matcher("a$b ab").region(0, 5).useTransparentBounds(true)
+        ));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void findCaseInsensitive(IPcre2 api) {
+        // PCRE2 folds the Kelvin sign to k and the long s to s in UTF mode
+        final var matches = assertSameOnBothPaths(
+                api,
+                "kiss",
+                Pattern.CASE_INSENSITIVE,
+                pattern -> findAll(pattern.matcher("KISS ki\u00DF \u212Ai\u017Fs k\u0130ss"))
+        );
+        assertEquals(List.of("0-4:false:false", "9-13:false:false", "hitEnd=true"), matches);
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void findInRegion(IPcre2 api) {
+        for (var transparentBounds : new boolean[]{false, true}) {
+            for (var anchoringBounds : new boolean[]{false, true}) {
+                assertSameOnBothPaths(api, "ab", 0, pattern -> findAll(
+                        pattern.matcher("ab ab ab")
+                                .region(1, 7)
+                                .useTransparentBounds(transparentBounds)
+                                .useAnchoringBounds(anchoringBounds)
+                ));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchesAndLookingAt(IPcre2 api) {
+        for (var input : new String[]{"ab", "abc", "xab", ""}) {
+            for (var transparentBounds : new boolean[]{false, true}) {
+                assertSameOnBothPaths(api, "ab", 0, pattern -> {
+                    final var matcher = pattern.matcher(input).useTransparentBounds(transparentBounds);
+                    return matcher.matches() + ":" + matcher.hitEnd() + ":" + matcher.lookingAt() + ":"
+                            + matcher.hitEnd() + ":" + (matcher.hasMatch() ? matcher.end() : -1);
+                });
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void split(IPcre2 api) {
+        final var input = "a, b, , c, ";
+        final var parts = assertSameOnBothPaths(api, ", ", 0, pattern -> Arrays.asList(pattern.split(input)));
+        assertEquals(Arrays.asList(input.split(", ")), parts);
+
+        assertSameOnBothPaths(api, ", ", 0, pattern -> Arrays.asList(pattern.split(input, 2)));
+        assertSameOnBothPaths(api, ", ", 0, pattern -> Arrays.asList(pattern.splitWithDelimiters(input, 0)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void replace(IPcre2 api) {
+        final var input = "one fish two FISH";
+        final var caseless = Pattern.CASE_INSENSITIVE;
+        assertEquals(
+                "one cat two cat",
+                assertSameOnBothPaths(api, "fish", caseless, pattern -> pattern.matcher(input).replaceAll("cat"))
+        );
+        assertSameOnBothPaths(api, "fish", 0, pattern -> pattern.matcher(input).replaceFirst("cat"));
+        assertSameOnBothPaths(api, "fish", 0, pattern -> pattern.matcher(input).replaceAll("<$0>"));
+        assertSameOnBothPaths(api, "fish", 0, pattern -> pattern.matcher(input).replaceAll(r -> r.group() + "!"));
+        assertSameOnBothPaths(api, "fish", 0, pattern -> pattern.matcher("no match").replaceAll("cat"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void results(IPcre2 api) {
+        assertSameOnBothPaths(api, "na", 0, pattern -> pattern.matcher("banana").results()
+                .map(r -> r.start() + "-" + r.end())
+                .toList());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void literalPatternIsNotJitCompiled(IPcre2 api) {
+        System.setProperty(Pattern.LITERAL_SEARCH_PROPERTY, "true");
+        final var pattern = Pattern.compile(api, "literal");
+
+        assertFalse(pattern.isJitEnabled());
+        assertEquals(0, pattern.code.jitSize());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void invalidLiteralFlagsAreReported(IPcre2 api) {
+        System.setProperty(Pattern.LITERAL_SEARCH_PROPERTY, "true");
+        assertThrows(
+                java.util.regex.PatternSyntaxException.class,
+                () -> Pattern.compile(api, "a.b", Pattern.LITERAL | Pattern.DOTALL)
+        );
+    }
+}
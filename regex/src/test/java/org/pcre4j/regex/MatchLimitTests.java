@@ -78,6 +78,21 @@ public class MatchLimitTests {
         assertEquals(IPcre2.ERROR_MATCHLIMIT, exception.getErrorCode());
     }
 
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matchLimitAfterPrefetchedMatchThrowsMatchLimitException(IPcre2 api) {
+        System.setProperty(Matcher.MATCH_LIMIT_PROPERTY, "100");
+
+        var pattern = Pattern.compile(api, "(*NO_AUTO_POSSESS)(*NO_START_OPT)c|(a+)+$");
+        var matcher = pattern.matcher("c aaaaaaaaaaaaaaaaaaaaaaab").prefetchMatches();
+
+        assertTrue(matcher.find());
+        assertEquals("c", matcher.group());
+        var exception = assertThrows(MatchLimitException.class, matcher::find);
+        assertEquals(IPcre2.ERROR_MATCHLIMIT, exception.getErrorCode());
+        assertThrows(MatchLimitException.class, () -> pattern.split("c aaaaaaaaaaaaaaaaaaaaaaab"));
+    }
+
     @ParameterizedTest
     @MethodSource("org.pcre4j.test.BackendProvider#parameters")
     void depthLimitThrowsMatchLimitException(IPcre2 api) {
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.regex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the pooling of match scratches across matchers.
+ */
+public class MatchScratchPoolTests {
+
+    private String savedCapacityProperty;
+
+    @BeforeEach
+    void saveCapacityProperty() {
+        savedCapacityProperty = System.getProperty(MatchScratchPool.CAPACITY_PROPERTY);
+    }
+
+    @AfterEach
+    void restoreCapacityProperty() {
+        if (savedCapacityProperty != null) {
+            System.setProperty(MatchScratchPool.CAPACITY_PROPERTY, savedCapacityProperty);
+        } else {
+            System.clearProperty(MatchScratchPool.CAPACITY_PROPERTY);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void resetKeepsScratch(IPcre2 api) {
+        final var pattern = Pattern.compile(api, "(?<word>\\w+) (\\d+) kept");
+        final var matcher = pattern.matcher("word 1 kept");
+        assertTrue(matcher.find());
+        final var scratch = matcher.scratch();
+
+        matcher.reset();
+        matcher.region(0, 11);
+        assertEquals("word 2 kept", matcher.replaceAll("word 2 kept"));
+        assertTrue(matcher.find());
+        assertSame(scratch, matcher.scratch());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void usePatternSwitchesScratchOnlyForDifferentKey(IPcre2 api) {
+        final var matcher = Pattern.compile(api, "(?<word>\\w+) (\\d+) pooled").matcher("word 1 pooled");
+        assertTrue(matcher.find());
+        final var scratch = matcher.scratch();
+
+        matcher.usePattern(Pattern.compile(api, "(\\w+) (?<number>\\d+) pooled"));
+        assertTrue(matcher.reset().find());
+        assertSame(scratch, matcher.scratch());
+
+        matcher.usePattern(Pattern.compile(api, "(\\w+) (\\d+) (\\w+) ?(\\w*)"));
+        assertTrue(matcher.reset().find());
+        assertNotSame(scratch, matcher.scratch());
+        assertEquals("pooled", matcher.group(3));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void matcherKeepsMatchingAfterReset(IPcre2 api) {
+        final var matcher = Pattern.compile(api, "\\d+").matcher("1 22 333");
+        assertTrue(matcher.find());
+        assertEquals("1", matcher.group());
+        matcher.reset();
+        assertTrue(matcher.find());
+        assertEquals("1", matcher.group());
+        assertTrue(matcher.find());
+        assertEquals("22", matcher.group());
+        matcher.reset("444");
+        assertTrue(matcher.matches());
+        assertEquals("444", matcher.group());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void usePatternWithDifferentGroupCount(IPcre2 api) {
+        final var matcher = Pattern.compile(api, "(a)").matcher("ab");
+        assertTrue(matcher.find());
+        matcher.usePattern(Pattern.compile(api, "(a)(b)"));
+        matcher.reset();
+        assertTrue(matcher.find());
+        assertEquals("b", matcher.group(2));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void scratchesAreKeyedByLimits(IPcre2 api) {
+        final var limited = MatchScratchPool.checkout(new MatchScratch.Key(api, false, 100, 0, 0, 1));
+        MatchScratchPool.giveBack(limited);
+
+        final var unlimited = MatchScratchPool.checkout(new MatchScratch.Key(api, false, 0, 0, 0, 1));
+        assertNotSame(limited, unlimited);
+        MatchScratchPool.giveBack(unlimited);
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void leaseReusesHeldScratchUntilReleased(IPcre2 api) {
+        // An ovector size no other test uses, so that no other scratch with the same key is idle
+        final var key = new MatchScratch.Key(api, false, 0, 0, 0, 97);
+        final var lease = new MatchScratchPool.Lease();
+
+        final var scratch = lease.scratch(key);
+        assertSame(scratch, lease.scratch(key));
+
+        lease.release();
+        final var hits = MatchScratchPool.hitCount();
+        final var other = new MatchScratchPool.Lease().scratch(key);
+        assertSame(scratch, other);
+        assertEquals(hits + 1, MatchScratchPool.hitCount());
+    }
+
+    @Test
+    void capacityDefault() {
+        System.clearProperty(MatchScratchPool.CAPACITY_PROPERTY);
+        assertEquals(MatchScratchPool.DEFAULT_CAPACITY, MatchScratchPool.capacity());
+    }
+
+    @Test
+    void capacityFromProperty() {
+        System.setProperty(MatchScratchPool.CAPACITY_PROPERTY, "0");
+        assertEquals(0, MatchScratchPool.capacity());
+    }
+
+    @Test
+    void capacityInvalidThrows() {
+        System.setProperty(MatchScratchPool.CAPACITY_PROPERTY, "-1");
+        assertThrows(IllegalArgumentException.class, MatchScratchPool::capacity);
+        System.setProperty(MatchScratchPool.CAPACITY_PROPERTY, "many");
+        assertThrows(IllegalArgumentException.class, MatchScratchPool::capacity);
+    }
+}
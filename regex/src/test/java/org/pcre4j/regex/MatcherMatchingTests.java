@@ -537,4 +537,62 @@ public class MatcherMatchingTests {
         assertFalse(pcre4jMatcher.find());
     }
 
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void findMultipleWithinUnicodeRegion(IPcre2 api) {
+        var regex = "\\w+";
+        var input = "é🌐 one two 🌐 three é";
+        var javaMatcher = java.util.regex.Pattern.compile(regex).matcher(input);
+        var pcre4jMatcher = Pattern.compile(api, regex).matcher(input);
+
+        javaMatcher.region(3, 17);
+        pcre4jMatcher.region(3, 17);
+
+        while (javaMatcher.find()) {
+            assertTrue(pcre4jMatcher.find());
+            assertMatcherState(javaMatcher, pcre4jMatcher);
+        }
+        assertFalse(pcre4jMatcher.find());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void findInRegionSplittingSurrogatePair(IPcre2 api) {
+        var regex = "\\d+";
+        var input = "1🌐23🌐4";
+        var javaMatcher = java.util.regex.Pattern.compile(regex).matcher(input);
+        var pcre4jMatcher = Pattern.compile(api, regex).matcher(input);
+
+        // The region starts and ends between the halves of the surrogate pairs
+        javaMatcher.region(2, 6);
+        pcre4jMatcher.region(2, 6);
+
+        assertTrue(javaMatcher.find());
+        assertTrue(pcre4jMatcher.find());
+        assertMatcherState(javaMatcher, pcre4jMatcher);
+        assertFalse(javaMatcher.find());
+        assertFalse(pcre4jMatcher.find());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void findAfterResetWithNewInput(IPcre2 api) {
+        var regex = "\\w+";
+        var javaMatcher = java.util.regex.Pattern.compile(regex).matcher("one two");
+        var pcre4jMatcher = Pattern.compile(api, regex).matcher("one two");
+
+        assertTrue(javaMatcher.find());
+        assertTrue(pcre4jMatcher.find());
+        assertMatcherState(javaMatcher, pcre4jMatcher);
+
+        javaMatcher.reset("ünï three");
+        pcre4jMatcher.reset("ünï three");
+
+        while (javaMatcher.find()) {
+            assertTrue(pcre4jMatcher.find());
+            assertMatcherState(javaMatcher, pcre4jMatcher);
+        }
+        assertFalse(pcre4jMatcher.find());
+    }
+
 }
@@ -18,6 +18,8 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.pcre4j.api.IPcre2;
 
+import java.util.ArrayList;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -95,6 +97,7 @@ public class MatcherResultsTests {
             assertEquals(javaResults.get(i).group(), pcre4jResults.get(i).group());
             assertEquals(javaResults.get(i).group(1), pcre4jResults.get(i).group(1));
             assertEquals(javaResults.get(i).group(2), pcre4jResults.get(i).group(2));
+            assertEquals(javaResults.get(i).start(2), pcre4jResults.get(i).start(2));
         }
     }
 
@@ -281,4 +284,49 @@ public class MatcherResultsTests {
         assertEquals(5, pcre4jMatcher.results().count());
     }
 
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void resultsManyMatches(IPcre2 api) {
+        var regex = "(\\d)(x)?";
+        var input = "1x2".repeat(100);
+        var javaResults = java.util.regex.Pattern.compile(regex).matcher(input).results().toList();
+        var pcre4jResults = Pattern.compile(api, regex).matcher(input).results().toList();
+
+        assertEquals(200, pcre4jResults.size());
+        for (int i = 0; i < javaResults.size(); i++) {
+            assertEquals(javaResults.get(i).start(), pcre4jResults.get(i).start());
+            assertEquals(javaResults.get(i).end(), pcre4jResults.get(i).end());
+            assertEquals(javaResults.get(i).group(1), pcre4jResults.get(i).group(1));
+            assertEquals(javaResults.get(i).start(2), pcre4jResults.get(i).start(2));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void resultsEqualFindLoop(IPcre2 api) {
+        var inputs = new String[]{"", "a\uD83C\uDF10xx\uD83C\uDF10", "xx\r\nx\u00E9", "\uD83C\uDF10\uD83C\uDF10x"};
+        for (var regex : new String[]{"x*", "(?=x)|x", "\\b", "(?m)$"}) {
+            var pattern = Pattern.compile(api, regex);
+            for (var input : inputs) {
+                var expected = new ArrayList<String>();
+                var matcher = pattern.matcher(input);
+                while (matcher.find()) {
+                    expected.add(matcher.start() + "-" + matcher.end());
+                }
+
+                var results = pattern.matcher(input).results().map(r -> r.start() + "-" + r.end()).toList();
+                assertEquals(expected, results, regex + " in " + input);
+
+                var replaced = pattern.matcher(input).replaceAll(r -> "<" + r.start() + ">");
+                var expectedReplaced = new StringBuilder();
+                matcher.reset();
+                while (matcher.find()) {
+                    matcher.appendReplacement(expectedReplaced, "<" + matcher.start() + ">");
+                }
+                matcher.appendTail(expectedReplaced);
+                assertEquals(expectedReplaced.toString(), replaced, regex + " in " + input);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.regex;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+import org.pcre4j.api.Pcre2UtfWidth;
+import org.pcre4j.test.BackendProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for {@link Matcher} over the 16-bit PCRE2 library, checked against the results of the 8-bit one and of
+ * {@link java.util.regex}.
+ */
+public class MatcherUtf16Tests {
+
+    private static final String INPUT = "naïve 🌐 world, café 世界 🌐! x😀y";
+
+    /**
+     * Run the given operation on a pattern compiled with the 8-bit and the 16-bit library and on a
+     * {@link java.util.regex.Pattern}, and check that all give the same result.
+     */
+    private static <T> void assertSameOnAllWidths(
+            IPcre2 api,
+            String regex,
+            int flags,
+            Function<Pattern, T> operation,
+            Function<java.util.regex.Pattern, T> javaOperation
+    ) {
+        final var utf16 = BackendProvider.withWidth(api, Pcre2UtfWidth.UTF16);
+        assumeTrue(utf16 != null, "UTF-16 library not available");
+
+        final var expected = javaOperation.apply(java.util.regex.Pattern.compile(regex, flags));
+        assertEquals(expected, operation.apply(Pattern.compile(api, regex, flags)), "UTF-8");
+        assertEquals(expected, operation.apply(Pattern.compile(utf16, regex, flags)), "UTF-16");
+    }
+
+    private static List<String> findAll(Matcher matcher) {
+        final var result = new ArrayList<String>();
+        while (matcher.find()) {
+            result.add(matcher.start() + "-" + matcher.end() + ":" + matcher.group());
+        }
+        return result;
+    }
+
+    private static List<String> findAll(java.util.regex.Matcher matcher) {
+        final var result = new ArrayList<String>();
+        while (matcher.find()) {
+            result.add(matcher.start() + "-" + matcher.end() + ":" + matcher.group());
+        }
+        return result;
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void find(IPcre2 api) {
+        for (var regex : new String[]{"🌐", "\\w+", "[^\\x00-\\x7F]", "(?<=é )\\S+"}) {
+            assertSameOnAllWidths(
+                    api,
+                    regex,
+                    Pattern.UNICODE_CHARACTER_CLASS,
+                    pattern -> findAll(pattern.matcher(INPUT)),
+                    pattern -> findAll(pattern.matcher(INPUT))
+            );
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void findInRegion(IPcre2 api) {
+        assertSameOnAllWidths(
+                api,
+                "\\S+",
+                0,
+                pattern -> findAll(pattern.matcher(INPUT).region(8, 24)),
+                pattern -> findAll(pattern.matcher(INPUT).region(8, 24))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void groups(IPcre2 api) {
+        assertSameOnAllWidths(
+                api,
+                "(?<word>\\p{L}+)\\s(🌐)",
+                0,
+                pattern -> pattern.matcher(INPUT).results()
+                        .map(r -> r.group(1) + "@" + r.start(1) + "," + r.group(2) + "@" + r.start(2))
+                        .toList(),
+                pattern -> pattern.matcher(INPUT).results()
+                        .map(r -> r.group(1) + "@" + r.start(1) + "," + r.group(2) + "@" + r.start(2))
+                        .toList()
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void replace(IPcre2 api) {
+        assertSameOnAllWidths(
+                api,
+                "🌐|é",
+                0,
+                pattern -> pattern.matcher(INPUT).replaceAll("<$0>"),
+                pattern -> pattern.matcher(INPUT).replaceAll("<$0>")
+        );
+        assertSameOnAllWidths(
+                api,
+                "\\s",
+                0,
+                pattern -> pattern.matcher(INPUT).replaceFirst("🌍"),
+                pattern -> pattern.matcher(INPUT).replaceFirst("🌍")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void split(IPcre2 api) {
+        assertSameOnAllWidths(
+                api,
+                "\\s*🌐\\s*",
+                0,
+                pattern -> Arrays.asList(pattern.split(INPUT)),
+                pattern -> Arrays.asList(pattern.split(INPUT))
+        );
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.regex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.api.IPcre2;
+
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link PatternCache}.
+ */
+public class PatternCacheTests {
+
+    private String savedJitProperty;
+    private String savedBudgetProperty;
+
+    @BeforeEach
+    void saveProperties() {
+        savedJitProperty = System.getProperty("pcre2.regex.jit");
+        savedBudgetProperty = System.getProperty(PatternCache.BUDGET_PROPERTY);
+    }
+
+    @AfterEach
+    void restoreProperties() {
+        restoreProperty("pcre2.regex.jit", savedJitProperty);
+        restoreProperty(PatternCache.BUDGET_PROPERTY, savedBudgetProperty);
+    }
+
+    private static void restoreProperty(String name, String savedValue) {
+        if (savedValue != null) {
+            System.setProperty(name, savedValue);
+        } else {
+            System.clearProperty(name);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void returnsSamePattern(IPcre2 api) {
+        final var cache = new PatternCache(1024 * 1024);
+
+        final var pattern = cache.compile(api, "(\\w+)@(\\w+)", 0);
+        assertSame(pattern, cache.compile(api, "(\\w+)@(\\w+)", 0));
+        assertTrue(pattern.matcher("user@host").matches());
+
+        final var stats = cache.stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(0.5, stats.hitRate());
+        assertTrue(stats.weight() > 0);
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void keyedByFlagsAndLimits(IPcre2 api) {
+        final var cache = new PatternCache(1024 * 1024);
+
+        final var pattern = cache.compile(api, "abc", 0);
+        final var caseInsensitive = cache.compile(api, "abc", Pattern.CASE_INSENSITIVE);
+        final var limited = cache.compile(api, "abc", 0, 100, 0, 0);
+
+        assertNotSame(pattern, caseInsensitive);
+        assertNotSame(pattern, limited);
+        assertEquals(Pattern.CASE_INSENSITIVE, caseInsensitive.flags());
+        assertEquals(100, limited.matchLimit());
+        assertEquals(3, cache.stats().missCount());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void keyedByJitProperty(IPcre2 api) {
+        final var cache = new PatternCache(1024 * 1024);
+
+        final var pattern = cache.compile(api, "abc", 0);
+        System.setProperty("pcre2.regex.jit", "false");
+        final var nonJit = cache.compile(api, "abc", 0);
+
+        assertNotSame(pattern, nonJit);
+        assertEquals(0, nonJit.code.jitSize());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void evictsWithinBudget(IPcre2 api) {
+        final var first = Pattern.compile(api, "first");
+        final var budget = first.code.size() + first.code.jitSize();
+        final var cache = new PatternCache(budget);
+
+        cache.compile(api, "first", 0);
+        cache.compile(api, "other", 0);
+
+        assertTrue(cache.stats().weight() <= budget);
+        assertEquals(1, cache.stats().entryCount());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void syntaxErrorIsNotCached(IPcre2 api) {
+        final var cache = new PatternCache(1024 * 1024);
+
+        assertThrows(PatternSyntaxException.class, () -> cache.compile(api, "(", 0));
+        assertThrows(PatternSyntaxException.class, () -> cache.compile(api, "(", 0));
+        assertEquals(0, cache.stats().entryCount());
+    }
+
+    @Test
+    void nullArgumentsThrow() {
+        final var cache = new PatternCache(1024);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.compile(null, "abc", 0));
+        assertThrows(IllegalArgumentException.class, () -> cache.compile(null));
+    }
+
+    @Test
+    void budgetDefaultsToDisabled() {
+        System.clearProperty(PatternCache.BUDGET_PROPERTY);
+        assertEquals(0, PatternCache.budget());
+    }
+
+    @Test
+    void budgetFromProperty() {
+        System.setProperty(PatternCache.BUDGET_PROPERTY, "1048576");
+        assertEquals(1048576, PatternCache.budget());
+    }
+
+    @Test
+    void budgetInvalidThrows() {
+        System.setProperty(PatternCache.BUDGET_PROPERTY, "-1");
+        assertThrows(IllegalArgumentException.class, PatternCache::budget);
+        System.setProperty(PatternCache.BUDGET_PROPERTY, "unlimited");
+        assertThrows(IllegalArgumentException.class, PatternCache::budget);
+    }
+}
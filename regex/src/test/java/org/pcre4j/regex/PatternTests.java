@@ -18,6 +18,8 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.pcre4j.api.IPcre2;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -1058,6 +1060,21 @@ public class PatternTests {
         assertFalse(pcre4jPredicate.test(""));
     }
 
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void asPredicateRejectedByPrefilter(IPcre2 api) {
+        var regex = "(?i)error: \\w+";
+        var javaPredicate = java.util.regex.Pattern.compile(regex).asPredicate();
+        var pattern = Pattern.compile(api, regex);
+        var pcre4jPredicate = pattern.asPredicate();
+
+        for (var input : List.of("ERROR: disk", "warning: disk", "err", "Error:  x")) {
+            assertEquals(javaPredicate.test(input), pcre4jPredicate.test(input), input);
+        }
+        assertFalse(pattern.mayMatch("warning: disk"));
+        assertTrue(pattern.mayMatch("ERROR: disk"));
+    }
+
     @ParameterizedTest
     @MethodSource("org.pcre4j.test.BackendProvider#parameters")
     void asMatchPredicateFullMatch(IPcre2 api) {
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2026 Oleksii PELYKH
+ *
+ * This file is a part of the PCRE4J. The PCRE4J is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not, see
+ * <https://www.gnu.org/licenses/>.
+ */
+package org.pcre4j.regex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.pcre4j.Pcre2Code;
+import org.pcre4j.Pcre4jUtils;
+import org.pcre4j.api.IPcre2;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for tiered JIT compilation of {@link Pattern}.
+ */
+public class TieredJitTests {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private String savedTieredProperty;
+    private String savedThresholdProperty;
+
+    @BeforeEach
+    void enableTieredJit() {
+        savedTieredProperty = System.getProperty(Pattern.TIERED_JIT_PROPERTY);
+        savedThresholdProperty = System.getProperty(Pattern.TIERED_JIT_THRESHOLD_PROPERTY);
+        System.setProperty(Pattern.TIERED_JIT_PROPERTY, "true");
+        System.setProperty(Pattern.TIERED_JIT_THRESHOLD_PROPERTY, "3");
+    }
+
+    @AfterEach
+    void restoreProperties() {
+        restoreProperty(Pattern.TIERED_JIT_PROPERTY, savedTieredProperty);
+        restoreProperty(Pattern.TIERED_JIT_THRESHOLD_PROPERTY, savedThresholdProperty);
+    }
+
+    private static void restoreProperty(String name, String savedValue) {
+        if (savedValue != null) {
+            System.setProperty(name, savedValue);
+        } else {
+            System.clearProperty(name);
+        }
+    }
+
+    private static Pcre2Code awaitJitCode(Supplier<Pcre2Code> jitCode) throws InterruptedException {
+        final var deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        var result = jitCode.get();
+        while (result == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            result = jitCode.get();
+        }
+        return result;
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void startsOnInterpreter(IPcre2 api) {
+        assumeTrue(Pcre4jUtils.isJitSupported(api), "JIT is not supported");
+        final var pattern = Pattern.compile(api, "\\d+");
+
+        assertEquals(0, pattern.code.jitSize());
+        assertNotNull(pattern.tieredCode());
+        assertNull(pattern.tieredCode().jitCode());
+        assertNull(pattern.matchingCode());
+        assertNull(pattern.lookingAtCode());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void searchCodeIsJitCompiledAfterThreshold(IPcre2 api) throws InterruptedException {
+        assumeTrue(Pcre4jUtils.isJitSupported(api), "JIT is not supported");
+        final var pattern = Pattern.compile(api, "\\d+");
+        final var matcher = pattern.matcher("a1b22c333");
+
+        assertTrue(matcher.find());
+        assertEquals("1", matcher.group());
+        assertTrue(matcher.find());
+        assertEquals("22", matcher.group());
+        assertTrue(matcher.find());
+        assertEquals("333", matcher.group());
+
+        final var jitCode = awaitJitCode(() -> pattern.tieredCode().jitCode());
+        assertNotNull(jitCode);
+        assertTrue(jitCode.jitSize() > 0);
+        assertNotEquals(pattern.code.handle(), jitCode.handle());
+        assertEquals(0, pattern.code.jitSize());
+        assertFalse(pattern.tieredCode().jitFailed());
+        assertTrue(pattern.searchCode().jitSize() > 0);
+
+        matcher.reset();
+        assertTrue(matcher.find());
+        assertEquals("1", matcher.group());
+        assertEquals("a#b#c#", matcher.replaceAll("#"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void anchoredVariantsAreJitCompiledAfterThreshold(IPcre2 api) throws InterruptedException {
+        assumeTrue(Pcre4jUtils.isJitSupported(api), "JIT is not supported");
+        final var pattern = Pattern.compile(api, "(\\w+)@(\\w+)");
+
+        for (var i = 0; i < 3; i++) {
+            final var matcher = pattern.matcher("user@host");
+            assertTrue(matcher.matches());
+            assertEquals("host", matcher.group(2));
+            assertTrue(matcher.lookingAt());
+            assertFalse(pattern.matcher("user@host!").matches());
+        }
+
+        assertNotNull(awaitJitCode(pattern::matchingCode));
+        assertNotNull(awaitJitCode(pattern::lookingAtCode));
+
+        final var matcher = pattern.matcher("user@host");
+        assertTrue(matcher.matches());
+        assertEquals("user", matcher.group(1));
+        assertTrue(matcher.lookingAt());
+        assertFalse(pattern.matcher("user@host!").matches());
+        assertTrue(pattern.matcher("user@host!").lookingAt());
+    }
+
+    @Test
+    void failedCompilationIsExposed() throws InterruptedException {
+        final var failure = new IllegalStateException("no JIT memory");
+        final var tieredCode = new TieredCode(() -> {
+            throw failure;
+        }, 1);
+
+        assertNull(tieredCode.get());
+        final var deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!tieredCode.jitFailed() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(tieredCode.jitFailed());
+        assertSame(failure, tieredCode.jitFailure());
+        assertNull(tieredCode.get());
+        assertNull(tieredCode.jitCode());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void disabledByDefault(IPcre2 api) {
+        System.clearProperty(Pattern.TIERED_JIT_PROPERTY);
+        final var pattern = Pattern.compile(api, "\\d+");
+
+        assertNull(pattern.tieredCode());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.pcre4j.test.BackendProvider#parameters")
+    void invalidThresholdThrows(IPcre2 api) {
+        assumeTrue(Pcre4jUtils.isJitSupported(api), "JIT is not supported");
+        System.setProperty(Pattern.TIERED_JIT_THRESHOLD_PROPERTY, "0");
+        assertThrows(IllegalArgumentException.class, () -> Pattern.compile(api, "\\d+"));
+        System.setProperty(Pattern.TIERED_JIT_THRESHOLD_PROPERTY, "often");
+        assertThrows(IllegalArgumentException.class, () -> Pattern.compile(api, "\\d+"));
+    }
+}